@@ -0,0 +1,55 @@
+package colecoes;
+
+/**
+ * Funções de espalhamento e dimensionamento compartilhadas pelos mapas
+ * de endereçamento aberto deste pacote.
+ */
+final class Hashing {
+    static final float FATOR_CARGA = 0.6f;
+    static final int CAPACIDADE_MINIMA = 8;
+
+    private Hashing() {
+    }
+
+    /**
+     * Finalizador do MurmurHash3 (64 bits): espalha IDs sequenciais ou
+     * timestamps, que teriam bits baixos parecidos.
+     */
+    static int misturar(long chave) {
+        chave ^= chave >>> 33;
+        chave *= 0xff51afd7ed558ccdL;
+        chave ^= chave >>> 33;
+        chave *= 0xc4ceb9fe1a85ec53L;
+        chave ^= chave >>> 33;
+        return (int) chave;
+    }
+
+    static int misturar(int chave) {
+        int h = chave * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Menor potência de 2 capaz de guardar "elementos" sem ultrapassar o fator de carga.
+     */
+    static int capacidadePara(int elementos) {
+        long necessario = (long) Math.ceil(elementos / FATOR_CARGA);
+        int capacidade = CAPACIDADE_MINIMA;
+        while (capacidade < necessario) {
+            capacidade <<= 1;
+        }
+        return capacidade;
+    }
+
+    /**
+     * Em sondagem linear, indica se a posição "vaga" está no caminho entre a
+     * posição ideal da chave e a posição "atual" (ou seja, se a chave pode ser
+     * recuada para "vaga" sem ficar inalcançável).
+     */
+    static boolean podeRecuar(int ideal, int vaga, int atual) {
+        if (vaga <= atual) {
+            return ideal <= vaga || ideal > atual;
+        }
+        return ideal <= vaga && ideal > atual;
+    }
+}
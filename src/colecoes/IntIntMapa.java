@@ -0,0 +1,186 @@
+package colecoes;
+
+import java.util.Arrays;
+
+/**
+ * Mapa int → int com endereçamento aberto (sondagem linear), sem boxing.
+ * Mesma estratégia de LongIntMapa: chave 0 guardada à parte e remoção
+ * por recuo das chaves seguintes.
+ */
+public class IntIntMapa {
+    private int[] chaves;
+    private int[] valores;
+    private int tamanho;
+    private int mascara;
+    private int limiteExpansao;
+
+    private boolean temZero;
+    private int valorZero;
+
+    /**
+     * Consumidor de pares sem boxing.
+     */
+    public interface Visitante {
+        void visitar(int chave, int valor);
+    }
+
+    public IntIntMapa() {
+        this(16);
+    }
+
+    public IntIntMapa(int capacidadeEsperada) {
+        alocar(Hashing.capacidadePara(capacidadeEsperada));
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new int[capacidade];
+        valores = new int[capacidade];
+        mascara = capacidade - 1;
+        limiteExpansao = (int) (capacidade * Hashing.FATOR_CARGA);
+    }
+
+    private int localizar(int chave) {
+        int i = Hashing.misturar(chave) & mascara;
+        while (chaves[i] != 0 && chaves[i] != chave) {
+            i = (i + 1) & mascara;
+        }
+        return i;
+    }
+
+    /**
+     * Associa o valor à chave. Retorna o valor anterior, ou "ausente" se não havia.
+     */
+    public int put(int chave, int valor, int ausente) {
+        if (chave == 0) {
+            int anterior = temZero ? valorZero : ausente;
+            if (!temZero) {
+                tamanho++;
+            }
+            temZero = true;
+            valorZero = valor;
+            return anterior;
+        }
+        int i = localizar(chave);
+        if (chaves[i] == chave) {
+            int anterior = valores[i];
+            valores[i] = valor;
+            return anterior;
+        }
+        chaves[i] = chave;
+        valores[i] = valor;
+        if (++tamanho > limiteExpansao) {
+            expandir();
+        }
+        return ausente;
+    }
+
+    public void put(int chave, int valor) {
+        put(chave, valor, 0);
+    }
+
+    /**
+     * Soma "delta" ao valor da chave (partindo de 0) e retorna o novo valor.
+     */
+    public int somar(int chave, int delta) {
+        int novo = get(chave, 0) + delta;
+        put(chave, novo, 0);
+        return novo;
+    }
+
+    /**
+     * Retorna o valor da chave, ou "ausente" se ela não existir.
+     */
+    public int get(int chave, int ausente) {
+        if (chave == 0) {
+            return temZero ? valorZero : ausente;
+        }
+        int i = localizar(chave);
+        return chaves[i] == chave ? valores[i] : ausente;
+    }
+
+    public boolean containsKey(int chave) {
+        if (chave == 0) {
+            return temZero;
+        }
+        return chaves[localizar(chave)] == chave;
+    }
+
+    /**
+     * Remove a chave. Retorna o valor removido, ou "ausente" se ela não existia.
+     */
+    public int remove(int chave, int ausente) {
+        if (chave == 0) {
+            if (!temZero) {
+                return ausente;
+            }
+            temZero = false;
+            tamanho--;
+            return valorZero;
+        }
+        int i = localizar(chave);
+        if (chaves[i] != chave) {
+            return ausente;
+        }
+        int removido = valores[i];
+        recuarApos(i);
+        tamanho--;
+        return removido;
+    }
+
+    private void recuarApos(int vaga) {
+        int atual = vaga;
+        while (true) {
+            atual = (atual + 1) & mascara;
+            int chave = chaves[atual];
+            if (chave == 0) {
+                break;
+            }
+            int ideal = Hashing.misturar(chave) & mascara;
+            if (Hashing.podeRecuar(ideal, vaga, atual)) {
+                chaves[vaga] = chave;
+                valores[vaga] = valores[atual];
+                vaga = atual;
+            }
+        }
+        chaves[vaga] = 0;
+    }
+
+    private void expandir() {
+        int[] chavesAntigas = chaves;
+        int[] valoresAntigos = valores;
+        alocar(chaves.length << 1);
+        for (int j = 0; j < chavesAntigas.length; j++) {
+            int chave = chavesAntigas[j];
+            if (chave != 0) {
+                int i = localizar(chave);
+                chaves[i] = chave;
+                valores[i] = valoresAntigos[j];
+            }
+        }
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(chaves, 0);
+        temZero = false;
+        tamanho = 0;
+    }
+
+    public void forEach(Visitante visitante) {
+        if (temZero) {
+            visitante.visitar(0, valorZero);
+        }
+        for (int i = 0; i < chaves.length; i++) {
+            if (chaves[i] != 0) {
+                visitante.visitar(chaves[i], valores[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package colecoes;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Lista crescente de ints (equivalente a ArrayList<Integer>, sem boxing).
+ * Usada como lista de postagens (posições do armazém) nos índices.
+ */
+public class IntLista {
+    private static final int[] VAZIO = new int[0];
+
+    private int[] elementos;
+    private int tamanho;
+
+    public IntLista() {
+        this.elementos = VAZIO;
+    }
+
+    public IntLista(int capacidade) {
+        this.elementos = capacidade == 0 ? VAZIO : new int[capacidade];
+    }
+
+    public void add(int valor) {
+        if (tamanho == elementos.length) {
+            elementos = Arrays.copyOf(elementos, Math.max(4, tamanho + (tamanho >> 1)));
+        }
+        elementos[tamanho++] = valor;
+    }
+
+    public int get(int indice) {
+        if (indice < 0 || indice >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice " + indice + ", tamanho " + tamanho);
+        }
+        return elementos[indice];
+    }
+
+    public void set(int indice, int valor) {
+        if (indice < 0 || indice >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice " + indice + ", tamanho " + tamanho);
+        }
+        elementos[indice] = valor;
+    }
+
+    /**
+     * Remove uma ocorrência do valor, mantendo a ordem dos demais. O valor
+     * é localizado por busca binária, então a lista precisa estar em ordem
+     * crescente (ver containsOrdenado).
+     */
+    public boolean removeValor(int valor) {
+        int i = Arrays.binarySearch(elementos, 0, tamanho, valor);
+        if (i < 0) {
+            return false;
+        }
+        System.arraycopy(elementos, i + 1, elementos, i, tamanho - i - 1);
+        tamanho--;
+        return true;
+    }
+
+    /**
+     * Insere o valor na posição que mantém a lista em ordem crescente.
+     */
+    public void adicionarOrdenado(int valor) {
+        int i = Arrays.binarySearch(elementos, 0, tamanho, valor);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        add(valor); // garante a capacidade
+        System.arraycopy(elementos, i, elementos, i + 1, tamanho - 1 - i);
+        elementos[i] = valor;
+    }
+
+    /**
+     * Índice do primeiro elemento maior que o valor, numa lista em ordem
+     * crescente (tamanho se não houver).
+     */
+    public int primeiroMaiorQue(int valor) {
+        int inicio = 0;
+        int fim = tamanho;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (elementos[meio] <= valor) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * Põe a lista em ordem crescente.
+     */
+    public void ordenar() {
+        Arrays.sort(elementos, 0, tamanho);
+    }
+
+    public boolean contains(int valor) {
+        for (int i = 0; i < tamanho; i++) {
+            if (elementos[i] == valor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Busca binária; só é válida se a lista estiver em ordem crescente
+     * (caso das listas de postagens, que recebem posições crescentes).
+     *
+     * @return true se o valor estiver na lista
+     */
+    public boolean containsOrdenado(int valor) {
+        return Arrays.binarySearch(elementos, 0, tamanho, valor) >= 0;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public void clear() {
+        tamanho = 0;
+    }
+
+    public void forEach(IntConsumer acao) {
+        for (int i = 0; i < tamanho; i++) {
+            acao.accept(elementos[i]);
+        }
+    }
+
+    /**
+     * Cópia dos elementos no tamanho exato.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elementos, tamanho);
+    }
+}
@@ -0,0 +1,80 @@
+package colecoes;
+
+import java.util.Arrays;
+
+/**
+ * Multimapa int → IntLista (chave → lista de postagens), sem boxing.
+ * As listas ficam em um array denso; o IntIntMapa guarda só o índice
+ * da lista de cada chave.
+ */
+public class IntListaMapa {
+    private static final IntLista VAZIA = new IntLista(0);
+
+    private final IntIntMapa indice = new IntIntMapa();
+    private IntLista[] listas = new IntLista[16];
+    private int quantidade;
+
+    /**
+     * Acrescenta o valor à lista da chave.
+     */
+    public void adicionar(int chave, int valor) {
+        int slot = indice.get(chave, -1);
+        if (slot < 0) {
+            if (quantidade == listas.length) {
+                listas = Arrays.copyOf(listas, quantidade << 1);
+            }
+            slot = quantidade++;
+            listas[slot] = new IntLista(4);
+            indice.put(chave, slot);
+        }
+        listas[slot].add(valor);
+    }
+
+    /**
+     * Remove uma ocorrência do valor da lista da chave.
+     */
+    public boolean remover(int chave, int valor) {
+        int slot = indice.get(chave, -1);
+        return slot >= 0 && listas[slot].removeValor(valor);
+    }
+
+    /**
+     * Lista de valores da chave (somente leitura por convenção). Nunca é nula.
+     */
+    public IntLista obter(int chave) {
+        int slot = indice.get(chave, -1);
+        return slot < 0 ? VAZIA : listas[slot];
+    }
+
+    public int tamanho(int chave) {
+        return obter(chave).size();
+    }
+
+    public boolean containsKey(int chave) {
+        return indice.containsKey(chave);
+    }
+
+    /**
+     * Quantidade de chaves distintas.
+     */
+    public int size() {
+        return indice.size();
+    }
+
+    public void clear() {
+        indice.clear();
+        Arrays.fill(listas, 0, quantidade, null);
+        quantidade = 0;
+    }
+
+    /**
+     * Percorre as chaves com suas listas.
+     */
+    public void forEach(Visitante visitante) {
+        indice.forEach((chave, slot) -> visitante.visitar(chave, listas[slot]));
+    }
+
+    public interface Visitante {
+        void visitar(int chave, IntLista valores);
+    }
+}
@@ -0,0 +1,135 @@
+package colecoes;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Conjunto de longs com endereçamento aberto (sondagem linear), sem boxing.
+ */
+public class LongConjunto {
+    private long[] chaves;
+    private int tamanho;
+    private int mascara;
+    private int limiteExpansao;
+    private boolean temZero;
+
+    public LongConjunto() {
+        this(16);
+    }
+
+    public LongConjunto(int capacidadeEsperada) {
+        alocar(Hashing.capacidadePara(capacidadeEsperada));
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        mascara = capacidade - 1;
+        limiteExpansao = (int) (capacidade * Hashing.FATOR_CARGA);
+    }
+
+    private int localizar(long chave) {
+        int i = Hashing.misturar(chave) & mascara;
+        while (chaves[i] != 0 && chaves[i] != chave) {
+            i = (i + 1) & mascara;
+        }
+        return i;
+    }
+
+    /**
+     * Adiciona o valor. Retorna false se ele já estava no conjunto.
+     */
+    public boolean add(long chave) {
+        if (chave == 0) {
+            if (temZero) {
+                return false;
+            }
+            temZero = true;
+            tamanho++;
+            return true;
+        }
+        int i = localizar(chave);
+        if (chaves[i] == chave) {
+            return false;
+        }
+        chaves[i] = chave;
+        if (++tamanho > limiteExpansao) {
+            expandir();
+        }
+        return true;
+    }
+
+    public boolean contains(long chave) {
+        if (chave == 0) {
+            return temZero;
+        }
+        return chaves[localizar(chave)] == chave;
+    }
+
+    /**
+     * Remove o valor. Retorna false se ele não estava no conjunto.
+     */
+    public boolean remove(long chave) {
+        if (chave == 0) {
+            if (!temZero) {
+                return false;
+            }
+            temZero = false;
+            tamanho--;
+            return true;
+        }
+        int vaga = localizar(chave);
+        if (chaves[vaga] != chave) {
+            return false;
+        }
+        int atual = vaga;
+        while (true) {
+            atual = (atual + 1) & mascara;
+            long k = chaves[atual];
+            if (k == 0) {
+                break;
+            }
+            if (Hashing.podeRecuar(Hashing.misturar(k) & mascara, vaga, atual)) {
+                chaves[vaga] = k;
+                vaga = atual;
+            }
+        }
+        chaves[vaga] = 0;
+        tamanho--;
+        return true;
+    }
+
+    private void expandir() {
+        long[] antigas = chaves;
+        alocar(chaves.length << 1);
+        for (long chave : antigas) {
+            if (chave != 0) {
+                chaves[localizar(chave)] = chave;
+            }
+        }
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(chaves, 0L);
+        temZero = false;
+        tamanho = 0;
+    }
+
+    public void forEach(LongConsumer acao) {
+        if (temZero) {
+            acao.accept(0L);
+        }
+        for (long chave : chaves) {
+            if (chave != 0) {
+                acao.accept(chave);
+            }
+        }
+    }
+}
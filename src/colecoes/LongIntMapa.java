@@ -0,0 +1,182 @@
+package colecoes;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Mapa long → int com endereçamento aberto (sondagem linear), sem boxing.
+ *
+ * A chave 0 é usada como marcador de posição vazia nos arrays e, por isso,
+ * é guardada à parte. Remoções recuam as chaves seguintes (backward shift),
+ * então o mapa não acumula lápides.
+ */
+public class LongIntMapa implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long[] chaves;
+    private int[] valores;
+    private int tamanho;
+    private int mascara;
+    private int limiteExpansao;
+
+    private boolean temZero;
+    private int valorZero;
+
+    /**
+     * Consumidor de pares sem boxing.
+     */
+    public interface Visitante {
+        void visitar(long chave, int valor);
+    }
+
+    public LongIntMapa() {
+        this(16);
+    }
+
+    public LongIntMapa(int capacidadeEsperada) {
+        alocar(Hashing.capacidadePara(capacidadeEsperada));
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        valores = new int[capacidade];
+        mascara = capacidade - 1;
+        limiteExpansao = (int) (capacidade * Hashing.FATOR_CARGA);
+    }
+
+    private int localizar(long chave) {
+        int i = Hashing.misturar(chave) & mascara;
+        while (chaves[i] != 0 && chaves[i] != chave) {
+            i = (i + 1) & mascara;
+        }
+        return i;
+    }
+
+    /**
+     * Associa o valor à chave. Retorna o valor anterior, ou "ausente" se não havia.
+     */
+    public int put(long chave, int valor, int ausente) {
+        if (chave == 0) {
+            int anterior = temZero ? valorZero : ausente;
+            if (!temZero) {
+                tamanho++;
+            }
+            temZero = true;
+            valorZero = valor;
+            return anterior;
+        }
+        int i = localizar(chave);
+        if (chaves[i] == chave) {
+            int anterior = valores[i];
+            valores[i] = valor;
+            return anterior;
+        }
+        chaves[i] = chave;
+        valores[i] = valor;
+        if (++tamanho > limiteExpansao) {
+            expandir();
+        }
+        return ausente;
+    }
+
+    public void put(long chave, int valor) {
+        put(chave, valor, 0);
+    }
+
+    /**
+     * Retorna o valor da chave, ou "ausente" se ela não existir.
+     */
+    public int get(long chave, int ausente) {
+        if (chave == 0) {
+            return temZero ? valorZero : ausente;
+        }
+        int i = localizar(chave);
+        return chaves[i] == chave ? valores[i] : ausente;
+    }
+
+    public boolean containsKey(long chave) {
+        if (chave == 0) {
+            return temZero;
+        }
+        return chaves[localizar(chave)] == chave;
+    }
+
+    /**
+     * Remove a chave. Retorna o valor removido, ou "ausente" se ela não existia.
+     */
+    public int remove(long chave, int ausente) {
+        if (chave == 0) {
+            if (!temZero) {
+                return ausente;
+            }
+            temZero = false;
+            tamanho--;
+            return valorZero;
+        }
+        int i = localizar(chave);
+        if (chaves[i] != chave) {
+            return ausente;
+        }
+        int removido = valores[i];
+        recuarApos(i);
+        tamanho--;
+        return removido;
+    }
+
+    private void recuarApos(int vaga) {
+        int atual = vaga;
+        while (true) {
+            atual = (atual + 1) & mascara;
+            long chave = chaves[atual];
+            if (chave == 0) {
+                break;
+            }
+            int ideal = Hashing.misturar(chave) & mascara;
+            if (Hashing.podeRecuar(ideal, vaga, atual)) {
+                chaves[vaga] = chave;
+                valores[vaga] = valores[atual];
+                vaga = atual;
+            }
+        }
+        chaves[vaga] = 0;
+    }
+
+    private void expandir() {
+        long[] chavesAntigas = chaves;
+        int[] valoresAntigos = valores;
+        alocar(chaves.length << 1);
+        for (int j = 0; j < chavesAntigas.length; j++) {
+            long chave = chavesAntigas[j];
+            if (chave != 0) {
+                int i = localizar(chave);
+                chaves[i] = chave;
+                valores[i] = valoresAntigos[j];
+            }
+        }
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(chaves, 0L);
+        temZero = false;
+        tamanho = 0;
+    }
+
+    public void forEach(Visitante visitante) {
+        if (temZero) {
+            visitante.visitar(0L, valorZero);
+        }
+        for (int i = 0; i < chaves.length; i++) {
+            if (chaves[i] != 0) {
+                visitante.visitar(chaves[i], valores[i]);
+            }
+        }
+    }
+}
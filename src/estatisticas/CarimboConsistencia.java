@@ -0,0 +1,69 @@
+package estatisticas;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Carimbo de consistência de um checkpoint: tamanho e data de modificação
+ * de cada arquivo de dados no momento em que o checkpoint foi gravado.
+ * Se algum arquivo mudou depois disso (gravação sem checkpoint, edição
+ * externa, queda no meio do salvamento), os carimbos diferem e o
+ * checkpoint não deve ser usado.
+ */
+public final class CarimboConsistencia implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String[] nomes;
+    private final long[] valores; // [tamanho, modificação] por arquivo; -1 se não existe
+
+    private CarimboConsistencia(String[] nomes, long[] valores) {
+        this.nomes = nomes;
+        this.valores = valores;
+    }
+
+    /**
+     * Carimbo atual dos arquivos (arquivos inexistentes também contam).
+     */
+    public static CarimboConsistencia de(File... arquivos) {
+        String[] nomes = new String[arquivos.length];
+        long[] valores = new long[arquivos.length * 2];
+        for (int i = 0; i < arquivos.length; i++) {
+            File a = arquivos[i];
+            nomes[i] = a.getName();
+            boolean existe = a.exists();
+            valores[2 * i] = existe ? a.length() : -1;
+            valores[2 * i + 1] = existe ? a.lastModified() : -1;
+        }
+        return new CarimboConsistencia(nomes, valores);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CarimboConsistencia)) {
+            return false;
+        }
+        CarimboConsistencia outro = (CarimboConsistencia) o;
+        return Arrays.equals(nomes, outro.nomes) && Arrays.equals(valores, outro.valores);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(nomes) + Arrays.hashCode(valores);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Carimbo[");
+        for (int i = 0; i < nomes.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(nomes[i]).append('=').append(valores[2 * i]).append('@').append(valores[2 * i + 1]);
+        }
+        return sb.append(']').toString();
+    }
+}
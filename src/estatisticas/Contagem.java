@@ -0,0 +1,44 @@
+package estatisticas;
+
+/**
+ * Par (registros, presenças) de um agregado, com o percentual de presença.
+ */
+public final class Contagem {
+    public static final Contagem VAZIA = new Contagem(0, 0);
+
+    private final long total;
+    private final long presentes;
+
+    public Contagem(long total, long presentes) {
+        this.total = total;
+        this.presentes = presentes;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getPresentes() {
+        return presentes;
+    }
+
+    public long getFaltas() {
+        return total - presentes;
+    }
+
+    /**
+     * Percentual de presença (0 a 100); 0 se não houver registros.
+     */
+    public double getPercentual() {
+        return total == 0 ? 0 : presentes * 100.0 / total;
+    }
+
+    public Contagem somar(Contagem outra) {
+        return new Contagem(total + outra.total, presentes + outra.presentes);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d (%.1f%%)", presentes, total, getPercentual());
+    }
+}
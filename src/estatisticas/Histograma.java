@@ -0,0 +1,149 @@
+package estatisticas;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Histograma.java
+ *
+ * Distribuição de taxas de presença (0 a 100%) em FAIXAS faixas fixas de
+ * um ponto percentual; 100% cai na última. Cada taxa contada é de um
+ * aluno (ou de um par aluno-disciplina): quando ela muda, quem mantém o
+ * histograma tira uma unidade da faixa antiga e põe na nova.
+ *
+ * Como as faixas são as mesmas em todos os histogramas, dois deles se
+ * juntam somando as contagens, e percentis e faixas mais largas saem das
+ * 100 contagens, sem olhar as taxas individuais. Os percentis têm erro de
+ * no máximo um ponto percentual.
+ */
+public class Histograma implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final int FAIXAS = 100;
+
+    private final int[] contagens = new int[FAIXAS];
+    private int total;
+
+    /**
+     * Faixa da taxa presentes/total (total > 0), calculada em inteiros
+     * para que taxas iguais caiam sempre na mesma faixa.
+     */
+    public static int faixa(long presentes, long total) {
+        return (int) Math.min(FAIXAS - 1, presentes * FAIXAS / total);
+    }
+
+    // ===== ATUALIZAÇÃO =====
+
+    /**
+     * Troca a taxa antiga pela nova. Um total 0 significa "sem taxa": não
+     * é tirado (antes) nem posto (depois).
+     */
+    public void mover(long totalAntes, long presentesAntes, long totalDepois, long presentesDepois) {
+        if (totalAntes > 0) {
+            somar(faixa(presentesAntes, totalAntes), -1);
+        }
+        if (totalDepois > 0) {
+            somar(faixa(presentesDepois, totalDepois), 1);
+        }
+    }
+
+    public void somar(int faixa, int delta) {
+        contagens[faixa] += delta;
+        total += delta;
+    }
+
+    /**
+     * Soma as contagens do outro histograma neste.
+     */
+    public void juntar(Histograma outro) {
+        for (int i = 0; i < FAIXAS; i++) {
+            contagens[i] += outro.contagens[i];
+        }
+        total += outro.total;
+    }
+
+    public void limpar() {
+        Arrays.fill(contagens, 0);
+        total = 0;
+    }
+
+    public Histograma copia() {
+        Histograma c = new Histograma();
+        c.juntar(this);
+        return c;
+    }
+
+    // ===== CONSULTA =====
+
+    /**
+     * Quantidade de taxas contadas.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    public int getContagem(int faixa) {
+        return contagens[faixa];
+    }
+
+    /**
+     * Taxa abaixo da qual ficam p% das taxas contadas, interpolada dentro
+     * da faixa; 0 se o histograma estiver vazio.
+     *
+     * @param p percentil, de 0 a 100
+     */
+    public double percentil(double p) {
+        if (p < 0 || p > 100 || Double.isNaN(p)) {
+            throw new IllegalArgumentException("Percentil fora de 0 a 100: " + p);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        double posicao = p / 100 * total;
+        long acumulado = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            if (contagens[i] > 0 && acumulado + contagens[i] >= posicao) {
+                return i + (posicao - acumulado) / contagens[i];
+            }
+            acumulado += contagens[i];
+        }
+        return 100;
+    }
+
+    /**
+     * Quantas taxas ficam abaixo do percentual inteiro (0 a 100).
+     */
+    public int contarAbaixo(int percentual) {
+        int soma = 0;
+        for (int i = 0; i < Math.min(percentual, FAIXAS); i++) {
+            soma += contagens[i];
+        }
+        return soma;
+    }
+
+    public double mediana() {
+        return percentil(50);
+    }
+
+    /**
+     * Contagens em faixas de largura pontos percentuais (ex.: 10 devolve
+     * 10 faixas: 0-10%, 10-20%, ..., 90-100%).
+     *
+     * @param largura divisor de 100
+     */
+    public int[] faixas(int largura) {
+        if (largura <= 0 || FAIXAS % largura != 0) {
+            throw new IllegalArgumentException("Largura de faixa deve dividir 100: " + largura);
+        }
+        int[] resultado = new int[FAIXAS / largura];
+        for (int i = 0; i < FAIXAS; i++) {
+            resultado[i / largura] += contagens[i];
+        }
+        return resultado;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d taxas, mediana %.1f%%", total, mediana());
+    }
+}
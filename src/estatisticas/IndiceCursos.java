@@ -0,0 +1,245 @@
+package estatisticas;
+
+import colecoes.LongIntMapa;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import persistencia.DicionarioStrings;
+
+/**
+ * IndiceCursos.java
+ *
+ * Índice de junção aluno → (curso, semestre), pelo código da matrícula, e
+ * contadores de frequência por curso e por (curso, semestre). Os registros
+ * de frequência só trazem a matrícula; com o índice, cada registro soma
+ * direto no curso e no semestre do aluno, sem procurar o Aluno na lista
+ * de usuários.
+ *
+ * Quando o cadastro do aluno muda (novo aluno, curso ou semestre
+ * alterado, remoção), vincular() move os totais dele de uma vez para o
+ * novo curso e semestre: o custo não depende de quantas frequências ele
+ * tem. Alunos sem cadastro ficam em "(sem curso)", semestre 0.
+ *
+ * Cada curso tem ainda o Histograma das taxas de presença dos seus
+ * alunos; a taxa de um aluno muda de faixa a cada frequência dele e muda
+ * de curso junto com o vínculo.
+ */
+public class IndiceCursos implements Serializable {
+    private static final long serialVersionUID = 2L;
+
+    private static final int SEM_CURSO = 0; // código de "(sem curso)" no dicionário
+    private static final int SEM_POSICAO = -1;
+
+    // ===== JUNÇÃO (código do aluno → curso, semestre) =====
+    private final DicionarioStrings cursos = new DicionarioStrings();
+    private int[] cursoPorAluno = new int[16];
+    private int[] semestrePorAluno = new int[16];
+
+    // ===== CONTADORES =====
+    private int[] totalPorCurso = new int[8];
+    private int[] presentesPorCurso = new int[8];
+    private final LongIntMapa posicaoPorSemestre = new LongIntMapa(); // (curso, semestre) → posição
+    private int[] totalPorSemestre = new int[16];
+    private int[] presentesPorSemestre = new int[16];
+    private int semestresUsados;
+    private Histograma[] distribuicaoPorCurso = new Histograma[8];
+
+    public IndiceCursos() {
+        cursos.codificar(TabelaAgregados.SEM_CURSO);
+    }
+
+    // ===== ATUALIZAÇÃO =====
+
+    /**
+     * Soma (delta = 1) ou subtrai (delta = -1) uma frequência do aluno no
+     * curso e semestre a que ele está vinculado.
+     *
+     * @param doAluno totais do aluno já com esta frequência
+     */
+    public void registrar(int codigoAluno, boolean presente, int delta, Contagem doAluno) {
+        int curso = cursoDe(codigoAluno);
+        int semestre = semestreDe(codigoAluno);
+        int presentes = presente ? delta : 0;
+        somar(curso, semestre, presentes, delta);
+        distribuicao(curso).mover(doAluno.getTotal() - delta, doAluno.getPresentes() - presentes,
+                doAluno.getTotal(), doAluno.getPresentes());
+    }
+
+    /**
+     * Vincula o aluno ao curso e semestre, movendo para eles os totais que
+     * ele já tem (se o vínculo mudou).
+     *
+     * @param curso   curso do cadastro (null ou vazio = sem curso)
+     * @param doAluno totais atuais do aluno
+     */
+    public void vincular(int codigoAluno, String curso, int semestre, Contagem doAluno) {
+        int novoCurso = cursos.codificar(SeriesTemporais.rotuloCurso(curso));
+        int atualCurso = cursoDe(codigoAluno);
+        int atualSemestre = semestreDe(codigoAluno);
+        if (novoCurso == atualCurso && semestre == atualSemestre) {
+            return;
+        }
+        int total = (int) doAluno.getTotal();
+        int presentes = (int) doAluno.getPresentes();
+        somar(atualCurso, atualSemestre, -presentes, -total);
+        somar(novoCurso, semestre, presentes, total);
+        if (total > 0 && novoCurso != atualCurso) {
+            int faixa = Histograma.faixa(presentes, total);
+            distribuicao(atualCurso).somar(faixa, -1);
+            distribuicao(novoCurso).somar(faixa, 1);
+        }
+
+        if (codigoAluno >= cursoPorAluno.length) {
+            int capacidade = Math.max(codigoAluno + 1, cursoPorAluno.length * 2);
+            cursoPorAluno = Arrays.copyOf(cursoPorAluno, capacidade);
+            semestrePorAluno = Arrays.copyOf(semestrePorAluno, capacidade);
+        }
+        cursoPorAluno[codigoAluno] = novoCurso;
+        semestrePorAluno[codigoAluno] = semestre;
+    }
+
+    /**
+     * Zera os contadores, mantendo os vínculos (para recontar as frequências).
+     */
+    public void zerarContadores() {
+        Arrays.fill(totalPorCurso, 0);
+        Arrays.fill(presentesPorCurso, 0);
+        posicaoPorSemestre.clear();
+        semestresUsados = 0;
+        for (Histograma h : distribuicaoPorCurso) {
+            if (h != null) {
+                h.limpar();
+            }
+        }
+    }
+
+    // ===== CONSULTA =====
+
+    /**
+     * Curso do aluno segundo o índice ("(sem curso)" se não houver vínculo).
+     */
+    public String curso(int codigoAluno) {
+        return cursos.decodificar(cursoDe(codigoAluno));
+    }
+
+    /**
+     * Semestre do aluno segundo o índice (0 se não informado).
+     */
+    public int semestre(int codigoAluno) {
+        return semestreDe(codigoAluno);
+    }
+
+    public Contagem porCurso(String curso) {
+        int codigo = cursos.codigoDe(SeriesTemporais.rotuloCurso(curso));
+        if (codigo < 0 || codigo >= totalPorCurso.length || totalPorCurso[codigo] == 0) {
+            return Contagem.VAZIA;
+        }
+        return new Contagem(totalPorCurso[codigo], presentesPorCurso[codigo]);
+    }
+
+    /**
+     * Contagem de cada curso com frequências, em ordem alfabética.
+     */
+    public Map<String, Contagem> porCurso() {
+        Map<String, Contagem> resultado = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int codigo = 0; codigo < Math.min(cursos.tamanho(), totalPorCurso.length); codigo++) {
+            if (totalPorCurso[codigo] != 0) {
+                resultado.merge(cursos.decodificar(codigo),
+                        new Contagem(totalPorCurso[codigo], presentesPorCurso[codigo]), Contagem::somar);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Contagem de cada semestre do curso com frequências, em ordem de semestre.
+     */
+    public Map<Integer, Contagem> porSemestre(String curso) {
+        Map<Integer, Contagem> resultado = new TreeMap<>();
+        int codigo = cursos.codigoDe(SeriesTemporais.rotuloCurso(curso));
+        if (codigo < 0) {
+            return resultado;
+        }
+        posicaoPorSemestre.forEach((chave, posicao) -> {
+            if ((int) (chave >>> 32) == codigo && totalPorSemestre[posicao] != 0) {
+                resultado.put((int) chave, new Contagem(totalPorSemestre[posicao], presentesPorSemestre[posicao]));
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * Cópia do histograma das taxas de presença dos alunos do curso (um
+     * por aluno com frequências).
+     */
+    public Histograma distribuicaoCurso(String curso) {
+        int codigo = cursos.codigoDe(SeriesTemporais.rotuloCurso(curso));
+        if (codigo < 0 || codigo >= distribuicaoPorCurso.length || distribuicaoPorCurso[codigo] == null) {
+            return new Histograma();
+        }
+        return distribuicaoPorCurso[codigo].copia();
+    }
+
+    /**
+     * Histogramas de todos os cursos juntados: a distribuição de todos
+     * os alunos.
+     */
+    public Histograma distribuicaoGeral() {
+        Histograma geral = new Histograma();
+        for (Histograma h : distribuicaoPorCurso) {
+            if (h != null) {
+                geral.juntar(h);
+            }
+        }
+        return geral;
+    }
+
+    // ===== INTERNOS =====
+
+    private int cursoDe(int codigoAluno) {
+        return codigoAluno >= 0 && codigoAluno < cursoPorAluno.length ? cursoPorAluno[codigoAluno] : SEM_CURSO;
+    }
+
+    private int semestreDe(int codigoAluno) {
+        return codigoAluno >= 0 && codigoAluno < semestrePorAluno.length ? semestrePorAluno[codigoAluno] : 0;
+    }
+
+    private Histograma distribuicao(int curso) {
+        if (curso >= distribuicaoPorCurso.length) {
+            distribuicaoPorCurso = Arrays.copyOf(distribuicaoPorCurso,
+                    Math.max(curso + 1, distribuicaoPorCurso.length * 2));
+        }
+        Histograma h = distribuicaoPorCurso[curso];
+        if (h == null) {
+            h = new Histograma();
+            distribuicaoPorCurso[curso] = h;
+        }
+        return h;
+    }
+
+    private void somar(int curso, int semestre, int presentes, int total) {
+        if (curso >= totalPorCurso.length) {
+            int capacidade = Math.max(curso + 1, totalPorCurso.length * 2);
+            totalPorCurso = Arrays.copyOf(totalPorCurso, capacidade);
+            presentesPorCurso = Arrays.copyOf(presentesPorCurso, capacidade);
+        }
+        totalPorCurso[curso] += total;
+        presentesPorCurso[curso] += presentes;
+
+        long chave = ((long) curso << 32) | (semestre & 0xFFFFFFFFL);
+        int posicao = posicaoPorSemestre.get(chave, SEM_POSICAO);
+        if (posicao == SEM_POSICAO) {
+            if (semestresUsados == totalPorSemestre.length) {
+                totalPorSemestre = Arrays.copyOf(totalPorSemestre, semestresUsados * 2);
+                presentesPorSemestre = Arrays.copyOf(presentesPorSemestre, semestresUsados * 2);
+            }
+            posicao = semestresUsados++;
+            posicaoPorSemestre.put(chave, posicao);
+            totalPorSemestre[posicao] = 0;
+            presentesPorSemestre[posicao] = 0;
+        }
+        totalPorSemestre[posicao] += total;
+        presentesPorSemestre[posicao] += presentes;
+    }
+}
@@ -0,0 +1,43 @@
+package estatisticas;
+
+import java.util.Comparator;
+
+/**
+ * Uma linha de ranking: o que foi contado (matrícula, curso ou
+ * disciplina) e sua contagem.
+ */
+public final class ItemRanking {
+
+    /** Mais faltas primeiro; empate pela menor presença, depois pelo rótulo. */
+    public static final Comparator<ItemRanking> MAIS_FALTAS = Comparator
+            .comparingLong((ItemRanking i) -> i.getContagem().getFaltas()).reversed()
+            .thenComparingDouble(i -> i.getContagem().getPercentual())
+            .thenComparing(ItemRanking::getRotulo);
+
+    /** Menor presença primeiro; empate por mais registros, depois pelo rótulo. */
+    public static final Comparator<ItemRanking> PIOR_PRESENCA = Comparator
+            .comparingDouble((ItemRanking i) -> i.getContagem().getPercentual())
+            .thenComparing(Comparator.comparingLong((ItemRanking i) -> i.getContagem().getTotal()).reversed())
+            .thenComparing(ItemRanking::getRotulo);
+
+    private final String rotulo;
+    private final Contagem contagem;
+
+    public ItemRanking(String rotulo, Contagem contagem) {
+        this.rotulo = rotulo;
+        this.contagem = contagem;
+    }
+
+    public String getRotulo() {
+        return rotulo;
+    }
+
+    public Contagem getContagem() {
+        return contagem;
+    }
+
+    @Override
+    public String toString() {
+        return rotulo + ": " + contagem.getFaltas() + " faltas, " + contagem;
+    }
+}
@@ -0,0 +1,292 @@
+package estatisticas;
+
+import colecoes.LongIntMapa;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * MonitorRisco.java
+ *
+ * Acompanha a taxa de presença de cada par (aluno, disciplina) à medida
+ * que as frequências são incluídas e removidas, e classifica o par em
+ * NORMAL, AVISO ou CRITICO pelos limites configurados. Quando o nível de
+ * um par muda, os ouvintes são avisados.
+ *
+ * Os pares em AVISO ou CRITICO ficam marcados num BitSet, então a lista
+ * de alunos em risco percorre só eles, não todos os pares. Pares com
+ * menos de minimoRegistros frequências ficam em NORMAL, para que a
+ * primeira falta do semestre não dispare um alerta crítico.
+ *
+ * Também mantém, por disciplina, o Histograma das taxas dos pares: cada
+ * registro move o par de uma faixa para outra.
+ */
+public class MonitorRisco implements Serializable {
+    private static final long serialVersionUID = 2L;
+
+    /** Presença mínima exigida (75%): abaixo dela, CRITICO. */
+    public static final double LIMITE_CRITICO_PADRAO = 75.0;
+    /** Abaixo deste percentual (e acima do crítico), AVISO. */
+    public static final double LIMITE_AVISO_PADRAO = 85.0;
+    public static final int MINIMO_REGISTROS_PADRAO = 4;
+
+    private static final int SEM_POSICAO = -1;
+    private static final NivelRisco[] NIVEIS = NivelRisco.values();
+
+    // Mais grave primeiro; no mesmo nível, menor presença primeiro
+    private static final Comparator<SituacaoRisco> ORDEM_GRAVIDADE = Comparator
+            .comparing(SituacaoRisco::getNivel).reversed()
+            .thenComparingDouble(s -> s.getContagem().getPercentual())
+            .thenComparing(Comparator.comparingLong((SituacaoRisco s) -> s.getContagem().getFaltas()).reversed())
+            .thenComparing(SituacaoRisco::getMatricula)
+            .thenComparing(SituacaoRisco::getDisciplina);
+
+    private double limiteAviso = LIMITE_AVISO_PADRAO;
+    private double limiteCritico = LIMITE_CRITICO_PADRAO;
+    private int minimoRegistros = MINIMO_REGISTROS_PADRAO;
+
+    // ===== PARES (aluno, disciplina) =====
+    private final LongIntMapa posicaoPorPar = new LongIntMapa();
+    private int[] totais = new int[64];
+    private int[] presencas = new int[64];
+    private byte[] niveis = new byte[64];
+    private String[] matriculas = new String[64];
+    private String[] disciplinas = new String[64];
+    private int usados;
+    private final BitSet emRisco = new BitSet();
+    private Histograma[] distribuicaoPorDisciplina = new Histograma[16];
+
+    private transient List<OuvinteRisco> ouvintes = new CopyOnWriteArrayList<>();
+
+    // ===== ATUALIZAÇÃO =====
+
+    /**
+     * Soma (delta = 1) ou subtrai (delta = -1) uma frequência do par e
+     * avisa os ouvintes se o nível mudou.
+     *
+     * @param matricula  matrícula, guardada para a listagem
+     * @param disciplina nome da disciplina (o do primeiro registro do par)
+     */
+    public void registrar(int codigoAluno, int codigoDisciplina, String matricula, String disciplina,
+            boolean presente, int delta) {
+        NivelRisco anterior;
+        SituacaoRisco atual;
+        synchronized (this) {
+            int i = posicao(codigoAluno, codigoDisciplina, matricula, disciplina);
+            int totalAntes = totais[i];
+            int presencasAntes = presencas[i];
+            totais[i] += delta;
+            if (presente) {
+                presencas[i] += delta;
+            }
+            distribuicao(codigoDisciplina).mover(totalAntes, presencasAntes, totais[i], presencas[i]);
+            anterior = NIVEIS[niveis[i]];
+            NivelRisco novo = classificar(totais[i], presencas[i]);
+            if (novo == anterior) {
+                return;
+            }
+            marcar(i, novo);
+            atual = situacao(i);
+        }
+        for (OuvinteRisco o : ouvintes) {
+            o.nivelAlterado(anterior, atual);
+        }
+    }
+
+    /**
+     * Troca os limites e reclassifica todos os pares, sem avisar os
+     * ouvintes (a mudança é de critério, não de frequência).
+     *
+     * @param limiteAviso     percentual abaixo do qual o par fica em AVISO
+     * @param limiteCritico   percentual abaixo do qual o par fica em CRITICO
+     * @param minimoRegistros frequências necessárias para sair de NORMAL
+     */
+    public synchronized void configurar(double limiteAviso, double limiteCritico, int minimoRegistros) {
+        if (limiteCritico < 0 || limiteAviso > 100 || limiteCritico > limiteAviso) {
+            throw new IllegalArgumentException(String.format(
+                    "Limites inválidos: aviso %.1f%%, crítico %.1f%% (0 <= crítico <= aviso <= 100)",
+                    limiteAviso, limiteCritico));
+        }
+        if (minimoRegistros < 1) {
+            throw new IllegalArgumentException("Mínimo de registros deve ser positivo");
+        }
+        this.limiteAviso = limiteAviso;
+        this.limiteCritico = limiteCritico;
+        this.minimoRegistros = minimoRegistros;
+        for (int i = 0; i < usados; i++) {
+            marcar(i, classificar(totais[i], presencas[i]));
+        }
+    }
+
+    /**
+     * Zera os pares, mantendo limites e ouvintes.
+     */
+    public synchronized void limpar() {
+        posicaoPorPar.clear();
+        Arrays.fill(totais, 0, usados, 0);
+        Arrays.fill(presencas, 0, usados, 0);
+        Arrays.fill(niveis, 0, usados, (byte) 0);
+        Arrays.fill(matriculas, 0, usados, null);
+        Arrays.fill(disciplinas, 0, usados, null);
+        usados = 0;
+        emRisco.clear();
+        for (Histograma h : distribuicaoPorDisciplina) {
+            if (h != null) {
+                h.limpar();
+            }
+        }
+    }
+
+    public void adicionarOuvinte(OuvinteRisco ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    public void removerOuvinte(OuvinteRisco ouvinte) {
+        ouvintes.remove(ouvinte);
+    }
+
+    // ===== CONSULTA =====
+
+    /**
+     * Pares em AVISO ou CRITICO, do mais para o menos grave.
+     */
+    public List<SituacaoRisco> emRisco() {
+        return emRisco(NivelRisco.AVISO);
+    }
+
+    /**
+     * Pares com nível igual ou mais grave que o mínimo, do mais para o
+     * menos grave.
+     */
+    public synchronized List<SituacaoRisco> emRisco(NivelRisco minimo) {
+        List<SituacaoRisco> lista = new ArrayList<>(emRisco.cardinality());
+        for (int i = emRisco.nextSetBit(0); i >= 0; i = emRisco.nextSetBit(i + 1)) {
+            if (niveis[i] >= minimo.ordinal()) {
+                lista.add(situacao(i));
+            }
+        }
+        lista.sort(ORDEM_GRAVIDADE);
+        return lista;
+    }
+
+    /**
+     * Situação atual do par, ou null se ele não tem frequências.
+     */
+    public synchronized SituacaoRisco situacao(int codigoAluno, int codigoDisciplina) {
+        int i = posicaoPorPar.get(par(codigoAluno, codigoDisciplina), SEM_POSICAO);
+        return i == SEM_POSICAO || totais[i] == 0 ? null : situacao(i);
+    }
+
+    /**
+     * Entrega ao visitante a situação de cada par da disciplina com
+     * frequências, junto do código do aluno. Percorre todos os pares.
+     */
+    public synchronized void visitarDisciplina(int codigoDisciplina, ObjIntConsumer<SituacaoRisco> visitante) {
+        posicaoPorPar.forEach((par, i) -> {
+            if ((int) par == codigoDisciplina && totais[i] > 0) {
+                visitante.accept(situacao(i), (int) (par >>> 32));
+            }
+        });
+    }
+
+    /**
+     * Cópia do histograma das taxas de presença dos alunos na disciplina
+     * (um por aluno com frequências nela).
+     */
+    public synchronized Histograma distribuicaoDisciplina(int codigoDisciplina) {
+        if (codigoDisciplina < 0 || codigoDisciplina >= distribuicaoPorDisciplina.length
+                || distribuicaoPorDisciplina[codigoDisciplina] == null) {
+            return new Histograma();
+        }
+        return distribuicaoPorDisciplina[codigoDisciplina].copia();
+    }
+
+    public synchronized int contarEmRisco() {
+        return emRisco.cardinality();
+    }
+
+    public synchronized double getLimiteAviso() {
+        return limiteAviso;
+    }
+
+    public synchronized double getLimiteCritico() {
+        return limiteCritico;
+    }
+
+    public synchronized int getMinimoRegistros() {
+        return minimoRegistros;
+    }
+
+    // ===== INTERNOS =====
+
+    private NivelRisco classificar(int total, int presentes) {
+        if (total < minimoRegistros) {
+            return NivelRisco.NORMAL;
+        }
+        double percentual = presentes * 100.0 / total;
+        if (percentual < limiteCritico) {
+            return NivelRisco.CRITICO;
+        }
+        return percentual < limiteAviso ? NivelRisco.AVISO : NivelRisco.NORMAL;
+    }
+
+    private Histograma distribuicao(int codigoDisciplina) {
+        if (codigoDisciplina >= distribuicaoPorDisciplina.length) {
+            distribuicaoPorDisciplina = Arrays.copyOf(distribuicaoPorDisciplina,
+                    Math.max(codigoDisciplina + 1, distribuicaoPorDisciplina.length * 2));
+        }
+        Histograma h = distribuicaoPorDisciplina[codigoDisciplina];
+        if (h == null) {
+            h = new Histograma();
+            distribuicaoPorDisciplina[codigoDisciplina] = h;
+        }
+        return h;
+    }
+
+    private void marcar(int i, NivelRisco nivel) {
+        niveis[i] = (byte) nivel.ordinal();
+        emRisco.set(i, nivel != NivelRisco.NORMAL);
+    }
+
+    private SituacaoRisco situacao(int i) {
+        return new SituacaoRisco(matriculas[i], disciplinas[i], new Contagem(totais[i], presencas[i]),
+                NIVEIS[niveis[i]]);
+    }
+
+    private static long par(int codigoAluno, int codigoDisciplina) {
+        return ((long) codigoAluno << 32) | (codigoDisciplina & 0xFFFFFFFFL);
+    }
+
+    private int posicao(int codigoAluno, int codigoDisciplina, String matricula, String disciplina) {
+        long chave = par(codigoAluno, codigoDisciplina);
+        int i = posicaoPorPar.get(chave, SEM_POSICAO);
+        if (i != SEM_POSICAO) {
+            return i;
+        }
+        if (usados == totais.length) {
+            int capacidade = usados * 2;
+            totais = Arrays.copyOf(totais, capacidade);
+            presencas = Arrays.copyOf(presencas, capacidade);
+            niveis = Arrays.copyOf(niveis, capacidade);
+            matriculas = Arrays.copyOf(matriculas, capacidade);
+            disciplinas = Arrays.copyOf(disciplinas, capacidade);
+        }
+        i = usados++;
+        posicaoPorPar.put(chave, i);
+        matriculas[i] = matricula;
+        disciplinas[i] = disciplina;
+        return i;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        ouvintes = new CopyOnWriteArrayList<>();
+    }
+}
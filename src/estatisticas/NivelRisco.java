@@ -0,0 +1,21 @@
+package estatisticas;
+
+/**
+ * Situação da frequência de um aluno numa disciplina, da menos para a mais
+ * grave.
+ */
+public enum NivelRisco {
+    NORMAL("Normal"),
+    AVISO("Aviso"),
+    CRITICO("Crítico");
+
+    private final String rotulo;
+
+    NivelRisco(String rotulo) {
+        this.rotulo = rotulo;
+    }
+
+    public String getRotulo() {
+        return rotulo;
+    }
+}
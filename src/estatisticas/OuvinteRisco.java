@@ -0,0 +1,16 @@
+package estatisticas;
+
+/**
+ * Recebe as mudanças de nível de risco detectadas pelo MonitorRisco. É
+ * chamado na thread que alterou as frequências, durante a alteração: deve
+ * ser rápido e, na interface, repassar o trabalho para a EDT.
+ */
+@FunctionalInterface
+public interface OuvinteRisco {
+
+    /**
+     * @param anterior nível antes do registro
+     * @param atual    situação depois do registro
+     */
+    void nivelAlterado(NivelRisco anterior, SituacaoRisco atual);
+}
@@ -0,0 +1,34 @@
+package estatisticas;
+
+import java.time.LocalDate;
+
+/**
+ * Um ponto de série temporal: o período (pelo seu primeiro dia) e a
+ * contagem de registros nele.
+ */
+public final class PontoSerie {
+    private final LocalDate inicio;
+    private final Contagem contagem;
+
+    public PontoSerie(LocalDate inicio, Contagem contagem) {
+        this.inicio = inicio;
+        this.contagem = contagem;
+    }
+
+    /**
+     * Primeiro dia do período (o próprio dia, a segunda-feira da semana
+     * ISO ou o dia 1 do mês).
+     */
+    public LocalDate getInicio() {
+        return inicio;
+    }
+
+    public Contagem getContagem() {
+        return contagem;
+    }
+
+    @Override
+    public String toString() {
+        return inicio + " " + contagem;
+    }
+}
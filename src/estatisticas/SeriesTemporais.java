@@ -0,0 +1,262 @@
+package estatisticas;
+
+import colecoes.LongIntMapa;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import persistencia.DicionarioStrings;
+
+/**
+ * SeriesTemporais.java
+ *
+ * Contadores (registros, presenças) por período — dia, semana ISO e mês —
+ * cruzados com a disciplina e com o curso do aluno. Atualizados a cada
+ * inclusão e remoção, de modo que uma série de um semestre lê algumas
+ * centenas de períodos em vez de varrer as frequências.
+ *
+ * Cada contador é endereçado por uma chave long (granularidade, dimensão,
+ * código, período) num LongIntMapa que aponta para a posição nos arrays
+ * de totais. O curso em que os registros de um aluno estão contados fica
+ * guardado por aluno; se o cadastro mudar, quem mantém a tabela chama
+ * moverCurso() para cada registro dele.
+ */
+public class SeriesTemporais implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** Maior quantidade de pontos devolvida numa série. */
+    public static final int MAXIMO_PONTOS = 5000;
+
+    /**
+     * Tamanho do período de agregação.
+     */
+    public enum Granularidade {
+        DIA, SEMANA, MES;
+
+        /**
+         * Número do período que contém a data: epoch day, semanas desde a
+         * segunda-feira 1969-12-29 ou meses desde janeiro do ano 0.
+         */
+        public int periodo(LocalDate data) {
+            switch (this) {
+                case SEMANA:
+                    return (int) Math.floorDiv(data.toEpochDay() + 3, 7);
+                case MES:
+                    return data.getYear() * 12 + data.getMonthValue() - 1;
+                default:
+                    return (int) data.toEpochDay();
+            }
+        }
+
+        /**
+         * Primeiro dia do período.
+         */
+        public LocalDate inicio(int periodo) {
+            switch (this) {
+                case SEMANA:
+                    return LocalDate.ofEpochDay(periodo * 7L - 3);
+                case MES:
+                    return LocalDate.of(Math.floorDiv(periodo, 12), Math.floorMod(periodo, 12) + 1, 1);
+                default:
+                    return LocalDate.ofEpochDay(periodo);
+            }
+        }
+    }
+
+    private static final int DISCIPLINA = 0;
+    private static final int CURSO = 1;
+    private static final int SEM_POSICAO = -1;
+
+    private final LongIntMapa posicaoPorChave = new LongIntMapa();
+    private int[] totais = new int[64];
+    private int[] presencas = new int[64];
+    private int usados;
+
+    private final DicionarioStrings cursos = new DicionarioStrings();
+    private int[] cursoPorAluno = new int[16]; // código do curso + 1; 0 = aluno ainda sem registros
+
+    // ===== ATUALIZAÇÃO =====
+
+    /**
+     * Soma (delta = 1) ou subtrai (delta = -1) um registro nos três
+     * períodos, na disciplina e no curso em que o aluno está contado
+     * (na primeira vez, o curso informado).
+     *
+     * @param dia data em epoch day
+     */
+    public void registrar(int codigoAluno, int codigoDisciplina, String curso, int dia, boolean presente,
+            int delta) {
+        int codigoCurso = cursoAtribuido(codigoAluno) != null
+                ? cursoPorAluno[codigoAluno] - 1
+                : atribuirCurso(codigoAluno, curso);
+        LocalDate data = LocalDate.ofEpochDay(dia);
+        for (Granularidade g : Granularidade.values()) {
+            int periodo = g.periodo(data);
+            somar(chave(g, DISCIPLINA, codigoDisciplina, periodo), presente, delta);
+            somar(chave(g, CURSO, codigoCurso, periodo), presente, delta);
+        }
+    }
+
+    /**
+     * Passa um registro do curso atual do aluno para o novo curso. Depois
+     * de mover todos os registros, chamar atribuirCurso().
+     */
+    public void moverCurso(int codigoAluno, String novoCurso, int dia, boolean presente) {
+        int de = cursoPorAluno[codigoAluno] - 1;
+        int para = cursos.codificar(rotuloCurso(novoCurso));
+        LocalDate data = LocalDate.ofEpochDay(dia);
+        for (Granularidade g : Granularidade.values()) {
+            int periodo = g.periodo(data);
+            somar(chave(g, CURSO, de, periodo), presente, -1);
+            somar(chave(g, CURSO, para, periodo), presente, 1);
+        }
+    }
+
+    /**
+     * Define o curso em que os registros do aluno estão contados.
+     *
+     * @return código do curso
+     */
+    public int atribuirCurso(int codigoAluno, String curso) {
+        int codigo = cursos.codificar(rotuloCurso(curso));
+        if (codigoAluno >= cursoPorAluno.length) {
+            cursoPorAluno = Arrays.copyOf(cursoPorAluno, Math.max(codigoAluno + 1, cursoPorAluno.length * 2));
+        }
+        cursoPorAluno[codigoAluno] = codigo + 1;
+        return codigo;
+    }
+
+    /**
+     * Curso em que os registros do aluno estão contados, ou null se ele
+     * ainda não teve registros.
+     */
+    public String cursoAtribuido(int codigoAluno) {
+        if (codigoAluno < 0 || codigoAluno >= cursoPorAluno.length || cursoPorAluno[codigoAluno] == 0) {
+            return null;
+        }
+        return cursos.decodificar(cursoPorAluno[codigoAluno] - 1);
+    }
+
+    /**
+     * Rótulo sob o qual o curso é contado (sem espaços nas pontas; vazio
+     * ou nulo vira "(sem curso)").
+     */
+    public static String rotuloCurso(String curso) {
+        return curso == null || curso.isBlank() ? TabelaAgregados.SEM_CURSO : curso.trim();
+    }
+
+    // ===== CONSULTA =====
+
+    /**
+     * Série da disciplina entre as datas (inclusive), um ponto por
+     * período, com os períodos sem registros zerados.
+     */
+    public List<PontoSerie> serieDisciplina(int codigoDisciplina, Granularidade g, LocalDate inicio,
+            LocalDate fim) {
+        return serie(DISCIPLINA, codigoDisciplina, g, inicio, fim);
+    }
+
+    /**
+     * Série do curso entre as datas (inclusive), um ponto por período.
+     */
+    public List<PontoSerie> serieCurso(String curso, Granularidade g, LocalDate inicio, LocalDate fim) {
+        return serie(CURSO, cursos.codigoDe(rotuloCurso(curso)), g, inicio, fim);
+    }
+
+    /**
+     * Total da disciplina entre as datas (inclusive).
+     */
+    public Contagem somaDisciplina(int codigoDisciplina, LocalDate inicio, LocalDate fim) {
+        return soma(DISCIPLINA, codigoDisciplina, inicio, fim);
+    }
+
+    /**
+     * Total do curso entre as datas (inclusive).
+     */
+    public Contagem somaCurso(String curso, LocalDate inicio, LocalDate fim) {
+        return soma(CURSO, cursos.codigoDe(rotuloCurso(curso)), inicio, fim);
+    }
+
+    /**
+     * Cursos que já tiveram registros, na ordem em que apareceram.
+     */
+    public List<String> getCursos() {
+        List<String> lista = new ArrayList<>(cursos.tamanho());
+        for (int i = 0; i < cursos.tamanho(); i++) {
+            lista.add(cursos.decodificar(i));
+        }
+        return lista;
+    }
+
+    // ===== INTERNOS =====
+
+    private List<PontoSerie> serie(int dimensao, int codigo, Granularidade g, LocalDate inicio, LocalDate fim) {
+        if (inicio == null || fim == null || fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("Período inválido: " + inicio + " a " + fim);
+        }
+        int primeiro = g.periodo(inicio);
+        int ultimo = g.periodo(fim);
+        if ((long) ultimo - primeiro + 1 > MAXIMO_PONTOS) {
+            throw new IllegalArgumentException("Série com mais de " + MAXIMO_PONTOS + " pontos");
+        }
+        List<PontoSerie> pontos = new ArrayList<>(ultimo - primeiro + 1);
+        for (int p = primeiro; p <= ultimo; p++) {
+            int posicao = codigo < 0 ? SEM_POSICAO : posicaoPorChave.get(chave(g, dimensao, codigo, p), SEM_POSICAO);
+            Contagem c = posicao == SEM_POSICAO ? Contagem.VAZIA : new Contagem(totais[posicao], presencas[posicao]);
+            pontos.add(new PontoSerie(g.inicio(p), c));
+        }
+        return pontos;
+    }
+
+    /**
+     * Soma o período lendo meses inteiros onde couberem e dias nas pontas:
+     * um ano custa umas 70 leituras, não 365.
+     */
+    private Contagem soma(int dimensao, int codigo, LocalDate inicio, LocalDate fim) {
+        if (inicio == null || fim == null || fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("Período inválido: " + inicio + " a " + fim);
+        }
+        if (codigo < 0) {
+            return Contagem.VAZIA;
+        }
+        long total = 0;
+        long presentes = 0;
+        LocalDate d = inicio;
+        while (!d.isAfter(fim)) {
+            boolean mesInteiro = d.getDayOfMonth() == 1 && !d.plusMonths(1).minusDays(1).isAfter(fim);
+            Granularidade g = mesInteiro ? Granularidade.MES : Granularidade.DIA;
+            int posicao = posicaoPorChave.get(chave(g, dimensao, codigo, g.periodo(d)), SEM_POSICAO);
+            if (posicao != SEM_POSICAO) {
+                total += totais[posicao];
+                presentes += presencas[posicao];
+            }
+            d = mesInteiro ? d.plusMonths(1) : d.plusDays(1);
+        }
+        return new Contagem(total, presentes);
+    }
+
+    /**
+     * 3 bits de tipo (granularidade e dimensão), 28 do código e 32 do período.
+     */
+    private static long chave(Granularidade g, int dimensao, int codigo, int periodo) {
+        long tipo = g.ordinal() * 2L + dimensao;
+        return (tipo << 60) | ((long) (codigo & 0xFFFFFFF) << 32) | (periodo & 0xFFFFFFFFL);
+    }
+
+    private void somar(long chave, boolean presente, int delta) {
+        int posicao = posicaoPorChave.get(chave, SEM_POSICAO);
+        if (posicao == SEM_POSICAO) {
+            if (usados == totais.length) {
+                totais = Arrays.copyOf(totais, usados * 2);
+                presencas = Arrays.copyOf(presencas, usados * 2);
+            }
+            posicao = usados++;
+            posicaoPorChave.put(chave, posicao);
+        }
+        totais[posicao] += delta;
+        if (presente) {
+            presencas[posicao] += delta;
+        }
+    }
+}
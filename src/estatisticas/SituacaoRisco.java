@@ -0,0 +1,39 @@
+package estatisticas;
+
+/**
+ * Frequência de um aluno numa disciplina e o nível de risco correspondente.
+ */
+public final class SituacaoRisco {
+    private final String matricula;
+    private final String disciplina;
+    private final Contagem contagem;
+    private final NivelRisco nivel;
+
+    public SituacaoRisco(String matricula, String disciplina, Contagem contagem, NivelRisco nivel) {
+        this.matricula = matricula;
+        this.disciplina = disciplina;
+        this.contagem = contagem;
+        this.nivel = nivel;
+    }
+
+    public String getMatricula() {
+        return matricula;
+    }
+
+    public String getDisciplina() {
+        return disciplina;
+    }
+
+    public Contagem getContagem() {
+        return contagem;
+    }
+
+    public NivelRisco getNivel() {
+        return nivel;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%s] %s em %s: %s", nivel.getRotulo(), matricula, disciplina, contagem);
+    }
+}
@@ -0,0 +1,152 @@
+package estatisticas;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * TabelaAgregados.java
+ *
+ * Contadores de frequência (total e presenças) por aluno, por disciplina
+ * e por dia, mantidos incrementalmente pelo Sistema. Alunos e disciplinas
+ * são endereçados pelos códigos do RegistroChaves, que são densos, então
+ * cada tabela é um par de arrays int; os dias usam um array a partir do
+ * menor dia visto.
+ *
+ * Os totais por curso não ficam aqui: dependem do cadastro do aluno (que
+ * pode mudar de curso) e são mantidos pelo IndiceCursos.
+ */
+public class TabelaAgregados implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final String SEM_CURSO = "(sem curso)";
+
+    private int[] totalPorAluno = new int[16];
+    private int[] presentesPorAluno = new int[16];
+    private int[] totalPorDisciplina = new int[16];
+    private int[] presentesPorDisciplina = new int[16];
+
+    private int primeiroDia; // epoch day da posição 0 dos arrays por dia
+    private int[] totalPorDia = new int[0];
+    private int[] presentesPorDia = new int[0];
+
+    private long total;
+    private long presentes;
+
+    // ===== ATUALIZAÇÃO =====
+
+    /**
+     * Soma (delta = 1) ou subtrai (delta = -1) um registro.
+     *
+     * @param codigoAluno      código da matrícula no RegistroChaves
+     * @param codigoDisciplina código da disciplina no RegistroChaves
+     * @param dia              data em epoch day
+     */
+    public void registrar(int codigoAluno, int codigoDisciplina, int dia, boolean presente, int delta) {
+        int p = presente ? delta : 0;
+        totalPorAluno = garantir(totalPorAluno, codigoAluno);
+        presentesPorAluno = garantir(presentesPorAluno, codigoAluno);
+        totalPorAluno[codigoAluno] += delta;
+        presentesPorAluno[codigoAluno] += p;
+
+        totalPorDisciplina = garantir(totalPorDisciplina, codigoDisciplina);
+        presentesPorDisciplina = garantir(presentesPorDisciplina, codigoDisciplina);
+        totalPorDisciplina[codigoDisciplina] += delta;
+        presentesPorDisciplina[codigoDisciplina] += p;
+
+        int i = posicaoDoDia(dia);
+        totalPorDia[i] += delta;
+        presentesPorDia[i] += p;
+
+        total += delta;
+        presentes += p;
+    }
+
+    public void limpar() {
+        Arrays.fill(totalPorAluno, 0);
+        Arrays.fill(presentesPorAluno, 0);
+        Arrays.fill(totalPorDisciplina, 0);
+        Arrays.fill(presentesPorDisciplina, 0);
+        totalPorDia = new int[0];
+        presentesPorDia = new int[0];
+        total = 0;
+        presentes = 0;
+    }
+
+    // ===== CONSULTA =====
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Contagem geral() {
+        return new Contagem(total, presentes);
+    }
+
+    public Contagem porAluno(int codigo) {
+        return contagem(totalPorAluno, presentesPorAluno, codigo);
+    }
+
+    public Contagem porDisciplina(int codigo) {
+        return contagem(totalPorDisciplina, presentesPorDisciplina, codigo);
+    }
+
+    public Contagem porDia(int dia) {
+        return contagem(totalPorDia, presentesPorDia, dia - primeiroDia);
+    }
+
+    /**
+     * Menor dia (epoch day) com espaço na tabela; os dias com registro
+     * ficam entre getPrimeiroDia() e getUltimoDia().
+     */
+    public int getPrimeiroDia() {
+        return primeiroDia;
+    }
+
+    public int getUltimoDia() {
+        return primeiroDia + totalPorDia.length - 1;
+    }
+
+    // ===== INTERNOS =====
+
+    private static Contagem contagem(int[] totais, int[] presencas, int indice) {
+        if (indice < 0 || indice >= totais.length || totais[indice] == 0) {
+            return Contagem.VAZIA;
+        }
+        return new Contagem(totais[indice], presencas[indice]);
+    }
+
+    private static int[] garantir(int[] tabela, int indice) {
+        if (indice < tabela.length) {
+            return tabela;
+        }
+        return Arrays.copyOf(tabela, Math.max(indice + 1, tabela.length * 2));
+    }
+
+    /**
+     * Índice do dia nos arrays por dia, crescendo para qualquer lado.
+     */
+    private int posicaoDoDia(int dia) {
+        if (totalPorDia.length == 0) {
+            primeiroDia = dia;
+            totalPorDia = new int[1];
+            presentesPorDia = new int[1];
+            return 0;
+        }
+        if (dia < primeiroDia) {
+            int deslocamento = primeiroDia - dia;
+            totalPorDia = deslocar(totalPorDia, deslocamento);
+            presentesPorDia = deslocar(presentesPorDia, deslocamento);
+            primeiroDia = dia;
+        } else if (dia - primeiroDia >= totalPorDia.length) {
+            totalPorDia = Arrays.copyOf(totalPorDia, dia - primeiroDia + 1);
+            presentesPorDia = Arrays.copyOf(presentesPorDia, dia - primeiroDia + 1);
+        }
+        return dia - primeiroDia;
+    }
+
+    private static int[] deslocar(int[] tabela, int deslocamento) {
+        int[] novo = new int[tabela.length + deslocamento];
+        System.arraycopy(tabela, 0, novo, deslocamento, tabela.length);
+        return novo;
+    }
+}
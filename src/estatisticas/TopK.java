@@ -0,0 +1,54 @@
+package estatisticas;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Seleção dos k melhores itens de uma sequência com um heap limitado a k
+ * elementos: O(n log k) comparações e memória O(k), sem ordenar a
+ * sequência inteira.
+ *
+ * <pre>
+ * TopK&lt;ItemRanking&gt; top = new TopK&lt;&gt;(10, ItemRanking.MAIS_FALTAS);
+ * itens.forEach(top::oferecer);
+ * List&lt;ItemRanking&gt; dez = top.resultado();
+ * </pre>
+ */
+public class TopK<T> {
+    private final int k;
+    private final Comparator<? super T> ordem;
+    // Heap com o pior dos k no topo, para ser trocado quando chegar um melhor
+    private final PriorityQueue<T> heap;
+
+    /**
+     * @param ordem ordem do resultado: o primeiro é o melhor
+     */
+    public TopK(int k, Comparator<? super T> ordem) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k deve ser positivo");
+        }
+        this.k = k;
+        this.ordem = ordem;
+        this.heap = new PriorityQueue<>(k + 1, ordem.reversed());
+    }
+
+    public void oferecer(T item) {
+        if (heap.size() < k) {
+            heap.add(item);
+        } else if (ordem.compare(item, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+
+    /**
+     * Os até k melhores itens oferecidos, do melhor para o pior.
+     */
+    public List<T> resultado() {
+        List<T> lista = new ArrayList<>(heap);
+        lista.sort(ordem);
+        return lista;
+    }
+}
@@ -0,0 +1,220 @@
+package indices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ArvoreBK.java
+ *
+ * Árvore BK (Burkhard-Keller) de palavras para busca aproximada. Cada nó
+ * guarda uma palavra, e o filho na aresta d guarda palavras a distância
+ * exatamente d dela. Buscando até a distância k, pela desigualdade
+ * triangular só os filhos com aresta entre d - k e d + k podem ter
+ * resultados (d = distância da busca ao nó), então a maior parte da
+ * árvore é podada sem calcular distâncias.
+ *
+ * A distância é a de Damerau-Levenshtein: inclusões, exclusões, trocas e
+ * transposições de letras vizinhas ("slvia" → "silva") custam 1. Usa-se
+ * a versão completa, que é uma métrica; a restrita (sem editar entre
+ * letras transpostas) não respeita a desigualdade triangular e a poda
+ * perderia resultados.
+ *
+ * Remover só tira o valor do nó (os nós sustentam a estrutura); palavras
+ * sem valores continuam servindo de caminho e não aparecem nos resultados.
+ */
+public class ArvoreBK<T> {
+
+    private static final class No<T> {
+        final String palavra;
+        final List<T> valores = new ArrayList<>(1);
+        int[] arestas = new int[0]; // distância de cada filho, em ordem crescente
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        No<T>[] filhos = new No[0];
+
+        No(String palavra) {
+            this.palavra = palavra;
+        }
+
+        No<T> filho(int distancia) {
+            int i = Arrays.binarySearch(arestas, distancia);
+            return i >= 0 ? filhos[i] : null;
+        }
+
+        void adicionarFilho(int distancia, No<T> filho) {
+            int i = -Arrays.binarySearch(arestas, distancia) - 1;
+            int n = arestas.length;
+            arestas = Arrays.copyOf(arestas, n + 1);
+            filhos = Arrays.copyOf(filhos, n + 1);
+            System.arraycopy(arestas, i, arestas, i + 1, n - i);
+            System.arraycopy(filhos, i, filhos, i + 1, n - i);
+            arestas[i] = distancia;
+            filhos[i] = filho;
+        }
+    }
+
+    /**
+     * Valor encontrado e a distância da palavra dele à buscada.
+     */
+    public static final class Ocorrencia<T> {
+        private final String palavra;
+        private final T valor;
+        private final int distancia;
+
+        Ocorrencia(String palavra, T valor, int distancia) {
+            this.palavra = palavra;
+            this.valor = valor;
+            this.distancia = distancia;
+        }
+
+        public String getPalavra() {
+            return palavra;
+        }
+
+        public T getValor() {
+            return valor;
+        }
+
+        public int getDistancia() {
+            return distancia;
+        }
+    }
+
+    private No<T> raiz;
+    private int palavras;
+
+    public void adicionar(String palavra, T valor) {
+        if (raiz == null) {
+            raiz = new No<>(palavra);
+            raiz.valores.add(valor);
+            palavras++;
+            return;
+        }
+        No<T> no = raiz;
+        while (true) {
+            int d = distancia(palavra, no.palavra);
+            if (d == 0) {
+                no.valores.add(valor);
+                return;
+            }
+            No<T> filho = no.filho(d);
+            if (filho == null) {
+                filho = new No<>(palavra);
+                filho.valores.add(valor);
+                no.adicionarFilho(d, filho);
+                palavras++;
+                return;
+            }
+            no = filho;
+        }
+    }
+
+    /**
+     * Tira o valor (comparado por identidade) da palavra.
+     */
+    public void remover(String palavra, T valor) {
+        No<T> no = raiz;
+        while (no != null) {
+            int d = distancia(palavra, no.palavra);
+            if (d == 0) {
+                no.valores.removeIf(v -> v == valor);
+                return;
+            }
+            no = no.filho(d);
+        }
+    }
+
+    public void limpar() {
+        raiz = null;
+        palavras = 0;
+    }
+
+    /**
+     * Quantidade de palavras distintas na árvore (inclusive as que ficaram
+     * sem valores).
+     */
+    public int getPalavras() {
+        return palavras;
+    }
+
+    /**
+     * Valores das palavras a no máximo distanciaMaxima da buscada, da mais
+     * próxima para a mais distante.
+     */
+    public List<Ocorrencia<T>> buscar(String palavra, int distanciaMaxima) {
+        List<Ocorrencia<T>> encontradas = new ArrayList<>();
+        if (raiz == null) {
+            return encontradas;
+        }
+        List<No<T>> pendentes = new ArrayList<>();
+        pendentes.add(raiz);
+        while (!pendentes.isEmpty()) {
+            No<T> no = pendentes.remove(pendentes.size() - 1);
+            int d = distancia(palavra, no.palavra);
+            if (d <= distanciaMaxima) {
+                for (T valor : no.valores) {
+                    encontradas.add(new Ocorrencia<>(no.palavra, valor, d));
+                }
+            }
+            // Filhos com aresta em [d - k, d + k]
+            int i = Arrays.binarySearch(no.arestas, d - distanciaMaxima);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            for (; i < no.arestas.length && no.arestas[i] <= d + distanciaMaxima; i++) {
+                pendentes.add(no.filhos[i]);
+            }
+        }
+        encontradas.sort((a, b) -> a.distancia != b.distancia
+                ? Integer.compare(a.distancia, b.distancia) : a.palavra.compareTo(b.palavra));
+        return encontradas;
+    }
+
+    /**
+     * Distância de Damerau-Levenshtein (algoritmo de Lowrance-Wagner).
+     * Para cada coluna j, ultimaLinha[j] guarda a última linha já vista
+     * em que a letra de a é igual a b[j], o início de uma transposição.
+     */
+    public static int distancia(String a, String b) {
+        int n = a.length();
+        int m = b.length();
+        int infinito = n + m;
+        // Tabela (n + 2) × (m + 2) num array só, deslocada de 1: a linha e a
+        // coluna 0 são o "infinito" da borda
+        int largura = m + 2;
+        int[] d = new int[(n + 2) * largura];
+        d[0] = infinito;
+        for (int i = 0; i <= n; i++) {
+            d[(i + 1) * largura] = infinito;
+            d[(i + 1) * largura + 1] = i;
+        }
+        for (int j = 0; j <= m; j++) {
+            d[j + 1] = infinito;
+            d[largura + j + 1] = j;
+        }
+        int[] ultimaLinha = new int[m];
+        for (int i = 1; i <= n; i++) {
+            char ca = a.charAt(i - 1);
+            int linha = (i + 1) * largura;
+            int anterior = i * largura;
+            int ultimaColuna = 0; // última coluna desta linha com letra igual a ca
+            for (int j = 1; j <= m; j++) {
+                int k = ultimaLinha[j - 1];
+                int l = ultimaColuna;
+                int custo = 1;
+                if (ca == b.charAt(j - 1)) {
+                    custo = 0;
+                    ultimaColuna = j;
+                }
+                d[linha + j + 1] = Math.min(Math.min(d[anterior + j] + custo, d[linha + j] + 1),
+                        Math.min(d[anterior + j + 1] + 1, d[k * largura + l] + (i - k - 1) + 1 + (j - l - 1)));
+            }
+            for (int j = 0; j < m; j++) {
+                if (b.charAt(j) == ca) {
+                    ultimaLinha[j] = i;
+                }
+            }
+        }
+        return d[(n + 1) * largura + m + 1];
+    }
+}
@@ -0,0 +1,80 @@
+package indices;
+
+/**
+ * Filtro de Bloom para chaves long.
+ *
+ * Responde "com certeza não existe" ou "talvez exista". É usado na frente
+ * de índices exatos: a grande maioria das inserções novas é descartada
+ * aqui, sem consultar o mapa.
+ *
+ * Não suporta remoção; chaves removidas do índice continuam marcadas, o
+ * que só aumenta um pouco a taxa de falsos positivos até a próxima
+ * reconstrução.
+ */
+public class FiltroBloom {
+    private final long[] bits;
+    private final int totalBits;
+    private final int funcoesHash;
+    private final int capacidade;
+
+    /**
+     * @param capacidade          quantidade de chaves esperada
+     * @param taxaFalsoPositivo   taxa desejada (ex.: 0.01 = 1%)
+     */
+    public FiltroBloom(int capacidade, double taxaFalsoPositivo) {
+        this.capacidade = Math.max(capacidade, 64);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-this.capacidade * Math.log(taxaFalsoPositivo) / (ln2 * ln2));
+        m = Math.min(Math.max(m, 64), Integer.MAX_VALUE - 63);
+        this.totalBits = (int) m;
+        this.bits = new long[(totalBits + 63) >>> 6];
+        this.funcoesHash = Math.max(1, (int) Math.round((double) totalBits / this.capacidade * ln2));
+    }
+
+    public void adicionar(long chave) {
+        long h = espalhar(chave);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 0; i < funcoesHash; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % totalBits;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * false = a chave com certeza nunca foi adicionada;
+     * true = a chave talvez tenha sido adicionada (confirmar no índice exato).
+     */
+    public boolean talvezContenha(long chave) {
+        long h = espalhar(chave);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 0; i < funcoesHash; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % totalBits;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void limpar() {
+        java.util.Arrays.fill(bits, 0L);
+    }
+
+    /**
+     * Quantidade de chaves para a qual o filtro foi dimensionado.
+     */
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    private static long espalhar(long chave) {
+        chave ^= chave >>> 33;
+        chave *= 0xff51afd7ed558ccdL;
+        chave ^= chave >>> 33;
+        chave *= 0xc4ceb9fe1a85ec53L;
+        chave ^= chave >>> 33;
+        return chave;
+    }
+}
@@ -0,0 +1,141 @@
+package indices;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * IndiceAlfabetico.java
+ *
+ * Valores em ordem alfabética do português do Brasil ("Álvaro" junto de
+ * "Alvaro", antes de "Bruno"; maiúsculas e minúsculas lado a lado), e
+ * não na ordem dos códigos Unicode de String.compareTo().
+ *
+ * Comparar pelo Collator a cada ordenação refaz a análise das duas
+ * palavras em cada comparação. Aqui a chave de ordenação
+ * (CollationKey) de cada nome é calculada uma vez, ao incluir, e
+ * guardada como bytes: a ordem fica mantida num TreeSet e comparar
+ * duas entradas é comparar dois arrays de bytes. Listar em ordem
+ * alfabética vira ler uma faixa do conjunto.
+ *
+ * Chaves iguais (mesmo nome) são desempatadas pelo id, então a posição
+ * de cada entrada (chave, id) é única e serve de cursor de paginação.
+ * Para ler por posição (a tabela saltando direto para o fim da lista),
+ * uma cópia da ordem em array é montada na primeira leitura depois de
+ * cada alteração. Pode ser chamado fora da thread da interface.
+ */
+public class IndiceAlfabetico<T> {
+
+    /**
+     * Nome já convertido em chave de ordenação, com o id e o valor.
+     */
+    public static final class Entrada<T> implements Comparable<Entrada<T>> {
+        private final byte[] chave;
+        private final int id;
+        private final T valor;
+
+        Entrada(byte[] chave, int id, T valor) {
+            this.chave = chave;
+            this.id = id;
+            this.valor = valor;
+        }
+
+        /**
+         * Cópia dos bytes da chave, para guardar como cursor.
+         */
+        public byte[] getChave() {
+            return chave.clone();
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public T getValor() {
+            return valor;
+        }
+
+        /**
+         * Os bytes de CollationKey.toByteArray() comparados sem sinal dão a
+         * mesma ordem de CollationKey.compareTo().
+         */
+        @Override
+        public int compareTo(Entrada<T> outra) {
+            int c = Arrays.compareUnsigned(chave, outra.chave);
+            return c != 0 ? c : Integer.compare(id, outra.id);
+        }
+    }
+
+    private final Collator collator = Collator.getInstance(Locale.forLanguageTag("pt-BR"));
+    private final TreeSet<Entrada<T>> ordem = new TreeSet<>();
+    private final Map<Integer, Entrada<T>> porId = new HashMap<>();
+    private List<Entrada<T>> emOrdem; // cópia da ordem para leitura por posição; null = desatualizada
+
+    /**
+     * Inclui o valor com o nome dado. Se o id já estiver no índice, a
+     * entrada anterior é substituída (é assim que se renomeia).
+     */
+    public synchronized void adicionar(String nome, int id, T valor) {
+        remover(id);
+        Entrada<T> e = new Entrada<>(chave(nome), id, valor);
+        ordem.add(e);
+        porId.put(id, e);
+        emOrdem = null;
+    }
+
+    public synchronized void remover(int id) {
+        Entrada<T> e = porId.remove(id);
+        if (e != null) {
+            ordem.remove(e);
+            emOrdem = null;
+        }
+    }
+
+    public synchronized void limpar() {
+        ordem.clear();
+        porId.clear();
+        emOrdem = null;
+    }
+
+    public synchronized int tamanho() {
+        return ordem.size();
+    }
+
+    /**
+     * Até quantidade entradas em ordem alfabética, a partir da primeira
+     * (chave null) ou da seguinte à posição (chave, id). A posição não
+     * precisa mais existir no índice.
+     */
+    public synchronized List<Entrada<T>> listar(byte[] chave, int id, int quantidade) {
+        Iterable<Entrada<T>> faixa = chave == null ? ordem : ordem.tailSet(new Entrada<>(chave, id, null), false);
+        List<Entrada<T>> entradas = new ArrayList<>(Math.min(quantidade, ordem.size()));
+        for (Entrada<T> e : faixa) {
+            if (entradas.size() == quantidade) {
+                break;
+            }
+            entradas.add(e);
+        }
+        return entradas;
+    }
+
+    /**
+     * Até quantidade entradas em ordem alfabética a partir da posição
+     * inicio (0 = primeira), sem percorrer as anteriores.
+     */
+    public synchronized List<Entrada<T>> faixa(int inicio, int quantidade) {
+        if (emOrdem == null) {
+            emOrdem = new ArrayList<>(ordem);
+        }
+        int de = Math.min(inicio, emOrdem.size());
+        return new ArrayList<>(emOrdem.subList(de, Math.min(de + quantidade, emOrdem.size())));
+    }
+
+    private byte[] chave(String nome) {
+        return collator.getCollationKey(nome == null ? "" : nome).toByteArray();
+    }
+}
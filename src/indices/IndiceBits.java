@@ -0,0 +1,51 @@
+package indices;
+
+import colecoes.IntIntMapa;
+import java.util.Arrays;
+
+/**
+ * Mapa int → MapaBits (chave → conjunto de posições), no mesmo formato do
+ * IntListaMapa: os conjuntos ficam em um array denso e o IntIntMapa guarda
+ * só o índice do conjunto de cada chave.
+ */
+public class IndiceBits {
+    private static final MapaBits VAZIO = new MapaBits();
+
+    private final IntIntMapa indice = new IntIntMapa();
+    private MapaBits[] conjuntos = new MapaBits[16];
+    private int quantidade;
+
+    public void adicionar(int chave, int posicao) {
+        int slot = indice.get(chave, -1);
+        if (slot < 0) {
+            if (quantidade == conjuntos.length) {
+                conjuntos = Arrays.copyOf(conjuntos, quantidade << 1);
+            }
+            slot = quantidade++;
+            conjuntos[slot] = new MapaBits();
+            indice.put(chave, slot);
+        }
+        conjuntos[slot].adicionar(posicao);
+    }
+
+    public void remover(int chave, int posicao) {
+        int slot = indice.get(chave, -1);
+        if (slot >= 0) {
+            conjuntos[slot].remover(posicao);
+        }
+    }
+
+    /**
+     * Conjunto da chave (somente leitura por convenção). Nunca é nulo.
+     */
+    public MapaBits obter(int chave) {
+        int slot = indice.get(chave, -1);
+        return slot < 0 ? VAZIO : conjuntos[slot];
+    }
+
+    public void clear() {
+        indice.clear();
+        Arrays.fill(conjuntos, 0, quantidade, null);
+        quantidade = 0;
+    }
+}
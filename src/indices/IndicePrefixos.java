@@ -0,0 +1,125 @@
+package indices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IndicePrefixos.java
+ *
+ * Pares (chave, valor) num array ordenado pela chave. As chaves que
+ * começam com um prefixo formam uma faixa contígua do array, achada por
+ * busca binária; a busca lê só essa faixa, e não todos os pares.
+ *
+ * Um valor pode ter várias chaves (ex.: a matrícula e o nome do aluno).
+ * Os métodos são sincronizados: a interface consulta o índice fora da
+ * thread de eventos enquanto cadastros o alteram.
+ */
+public class IndicePrefixos<T> {
+    private String[] chaves = new String[16];
+    private Object[] valores = new Object[16];
+    private int tamanho;
+
+    public synchronized void adicionar(String chave, T valor) {
+        if (tamanho == chaves.length) {
+            chaves = Arrays.copyOf(chaves, tamanho * 2);
+            valores = Arrays.copyOf(valores, tamanho * 2);
+        }
+        int i = primeiraMaior(chave);
+        System.arraycopy(chaves, i, chaves, i + 1, tamanho - i);
+        System.arraycopy(valores, i, valores, i + 1, tamanho - i);
+        chaves[i] = chave;
+        valores[i] = valor;
+        tamanho++;
+    }
+
+    /**
+     * Retira o par com a chave e o próprio valor (comparado por identidade).
+     */
+    public synchronized void remover(String chave, T valor) {
+        for (int i = primeiraMaiorOuIgual(chave); i < tamanho && chaves[i].equals(chave); i++) {
+            if (valores[i] == valor) {
+                System.arraycopy(chaves, i + 1, chaves, i, tamanho - i - 1);
+                System.arraycopy(valores, i + 1, valores, i, tamanho - i - 1);
+                tamanho--;
+                chaves[tamanho] = null;
+                valores[tamanho] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Troca todo o conteúdo pelos pares dados (listas paralelas), com uma
+     * única ordenação em vez de uma inserção por par.
+     */
+    public synchronized void reconstruir(List<String> novasChaves, List<T> novosValores) {
+        Integer[] ordem = new Integer[novasChaves.size()];
+        for (int i = 0; i < ordem.length; i++) {
+            ordem[i] = i;
+        }
+        Arrays.sort(ordem, Comparator.comparing(novasChaves::get));
+        int capacidade = Math.max(16, ordem.length);
+        chaves = new String[capacidade];
+        valores = new Object[capacidade];
+        for (int i = 0; i < ordem.length; i++) {
+            chaves[i] = novasChaves.get(ordem[i]);
+            valores[i] = novosValores.get(ordem[i]);
+        }
+        tamanho = ordem.length;
+    }
+
+    /**
+     * Até limite valores com alguma chave começando com o prefixo, em
+     * ordem da chave e sem repetir valores.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<T> buscar(String prefixo, int limite) {
+        Map<Object, Boolean> vistos = new IdentityHashMap<>();
+        List<T> encontrados = new ArrayList<>();
+        for (int i = primeiraMaiorOuIgual(prefixo);
+                i < tamanho && encontrados.size() < limite && chaves[i].startsWith(prefixo); i++) {
+            if (vistos.put(valores[i], Boolean.TRUE) == null) {
+                encontrados.add((T) valores[i]);
+            }
+        }
+        return encontrados;
+    }
+
+    public synchronized int tamanho() {
+        return tamanho;
+    }
+
+    // Primeira posição com chave >= a dada
+    private int primeiraMaiorOuIgual(String chave) {
+        int baixo = 0;
+        int alto = tamanho;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (chaves[meio].compareTo(chave) < 0) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    // Primeira posição com chave > a dada (pares de mesma chave ficam na ordem de inclusão)
+    private int primeiraMaior(String chave) {
+        int baixo = 0;
+        int alto = tamanho;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (chaves[meio].compareTo(chave) <= 0) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+}
@@ -0,0 +1,296 @@
+package indices;
+
+import java.io.Serializable;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * IndiceTexto.java
+ *
+ * Índice invertido de textos curtos (observações, nomes): cada termo
+ * aponta para os IDs dos documentos que o contêm, em ordem crescente.
+ *
+ * Termos são palavras sem acento e em minúsculas ("Atestado médico" →
+ * "atestado", "medico"), sem as palavras vazias mais comuns do português.
+ * Os termos ficam num TreeMap, então os de um prefixo são uma faixa
+ * contígua do mapa: buscar "just" junta as postagens de "justa",
+ * "justificativa", "justificou"... sem varrer os documentos.
+ */
+public class IndiceTexto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> PALAVRAS_VAZIAS = Set.of(
+            "a", "o", "as", "os", "e", "de", "da", "do", "das", "dos", "em", "no", "na", "nos", "nas",
+            "um", "uma", "por", "para", "pra", "com", "que", "se", "ao", "aos");
+
+    // Pontos por termo da busca: encontrado inteiro ou só como prefixo de um termo do documento
+    private static final int PONTOS_EXATO = 2;
+    private static final int PONTOS_PREFIXO = 1;
+
+    private final TreeMap<String, Postagens> postagens = new TreeMap<>();
+    private int documentos;
+
+    /**
+     * Texto sem acentos, em minúsculas, com cada sequência de pontuação e
+     * espaços trocada por um espaço ("  João-da Silva " → "joao da silva").
+     */
+    public static String dobrar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String simples = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(simples.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Termos do texto, na ordem em que aparecem e sem repetição.
+     */
+    public static List<String> termos(String texto) {
+        List<String> termos = new ArrayList<>();
+        if (texto == null || texto.isBlank()) {
+            return termos;
+        }
+        for (String termo : dobrar(texto).split(" ")) {
+            if (!termo.isEmpty() && !PALAVRAS_VAZIAS.contains(termo) && !termos.contains(termo)) {
+                termos.add(termo);
+            }
+        }
+        return termos;
+    }
+
+    // ===== ATUALIZAÇÃO =====
+
+    /**
+     * Inclui (delta = 1) ou retira (delta = -1) o documento com o texto
+     * dado. Para retirar, o texto deve ser o mesmo que foi incluído.
+     */
+    public void registrar(long id, String texto, int delta) {
+        List<String> termos = termos(texto);
+        if (termos.isEmpty()) {
+            return;
+        }
+        documentos += delta;
+        for (String termo : termos) {
+            if (delta > 0) {
+                postagens.computeIfAbsent(termo, t -> new Postagens()).adicionar(id);
+            } else {
+                Postagens p = postagens.get(termo);
+                if (p != null && p.remover(id) && p.tamanho == 0) {
+                    postagens.remove(termo);
+                }
+            }
+        }
+    }
+
+    public void limpar() {
+        postagens.clear();
+        documentos = 0;
+    }
+
+    // ===== CONSULTA =====
+
+    /**
+     * Documentos com todos os termos da busca; cada termo casa com termos
+     * do documento que comecem com ele. Ordenados por pontuação (termo
+     * inteiro vale mais que prefixo) e, no empate, por ID crescente.
+     * Busca sem termos (vazia ou só palavras vazias) não encontra nada.
+     */
+    public Resultado buscar(String consulta) {
+        List<String> termos = termos(consulta);
+        if (termos.isEmpty()) {
+            return Resultado.VAZIO;
+        }
+        long[] candidatos = null;
+        for (String termo : termos) {
+            long[] doTermo = comPrefixo(termo);
+            candidatos = candidatos == null ? doTermo : intersecao(candidatos, doTermo);
+            if (candidatos.length == 0) {
+                return Resultado.VAZIO;
+            }
+        }
+
+        int[] pontos = new int[candidatos.length];
+        for (String termo : termos) {
+            Postagens exatas = postagens.get(termo);
+            for (int i = 0; i < candidatos.length; i++) {
+                pontos[i] += exatas != null && exatas.contem(candidatos[i]) ? PONTOS_EXATO : PONTOS_PREFIXO;
+            }
+        }
+        return Resultado.ordenado(candidatos, pontos);
+    }
+
+    /**
+     * Quantidade de documentos com ao menos um termo.
+     */
+    public int getDocumentos() {
+        return documentos;
+    }
+
+    public int getTermos() {
+        return postagens.size();
+    }
+
+    // ===== INTERNOS =====
+
+    /**
+     * União ordenada das postagens dos termos que começam com o prefixo.
+     */
+    private long[] comPrefixo(String prefixo) {
+        NavigableMap<String, Postagens> faixa =
+                postagens.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false);
+        if (faixa.size() == 1) {
+            Postagens p = faixa.firstEntry().getValue();
+            return Arrays.copyOf(p.ids, p.tamanho);
+        }
+        int total = 0;
+        for (Postagens p : faixa.values()) {
+            total += p.tamanho;
+        }
+        long[] todos = new long[total];
+        int n = 0;
+        for (Postagens p : faixa.values()) {
+            System.arraycopy(p.ids, 0, todos, n, p.tamanho);
+            n += p.tamanho;
+        }
+        Arrays.sort(todos);
+        int distintos = 0;
+        for (int i = 0; i < n; i++) {
+            if (distintos == 0 || todos[distintos - 1] != todos[i]) {
+                todos[distintos++] = todos[i];
+            }
+        }
+        return distintos == n ? todos : Arrays.copyOf(todos, distintos);
+    }
+
+    private static long[] intersecao(long[] a, long[] b) {
+        long[] r = new long[Math.min(a.length, b.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length;) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                r[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == r.length ? r : Arrays.copyOf(r, n);
+    }
+
+    /**
+     * IDs de um termo, em ordem crescente. IDs costumam chegar em ordem,
+     * então incluir é quase sempre acrescentar no fim.
+     */
+    private static final class Postagens implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private long[] ids = new long[2];
+        private int tamanho;
+
+        void adicionar(long id) {
+            int i = tamanho > 0 && ids[tamanho - 1] < id ? -tamanho - 1 : Arrays.binarySearch(ids, 0, tamanho, id);
+            if (i >= 0) {
+                return;
+            }
+            i = -i - 1;
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, tamanho * 2);
+            }
+            System.arraycopy(ids, i, ids, i + 1, tamanho - i);
+            ids[i] = id;
+            tamanho++;
+        }
+
+        boolean remover(long id) {
+            int i = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(ids, i + 1, ids, i, tamanho - i - 1);
+            tamanho--;
+            return true;
+        }
+
+        boolean contem(long id) {
+            return Arrays.binarySearch(ids, 0, tamanho, id) >= 0;
+        }
+    }
+
+    /**
+     * IDs encontrados com suas pontuações, na ordem do ranking.
+     */
+    public static final class Resultado {
+        static final Resultado VAZIO = new Resultado(new long[0], new int[0]);
+
+        private final long[] ids;
+        private final int[] pontos;
+
+        private Resultado(long[] ids, int[] pontos) {
+            this.ids = ids;
+            this.pontos = pontos;
+        }
+
+        /**
+         * Ordena por pontos decrescentes. Os IDs chegam em ordem crescente e
+         * os pontos são poucos valores pequenos, então uma contagem por
+         * pontuação (estável) mantém o desempate por ID.
+         */
+        static Resultado ordenado(long[] ids, int[] pontos) {
+            int maximo = 0;
+            for (int p : pontos) {
+                maximo = Math.max(maximo, p);
+            }
+            int[] inicio = new int[maximo + 2];
+            for (int p : pontos) {
+                inicio[maximo - p + 1]++;
+            }
+            for (int i = 1; i < inicio.length; i++) {
+                inicio[i] += inicio[i - 1];
+            }
+            long[] idsOrdenados = new long[ids.length];
+            int[] pontosOrdenados = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                int destino = inicio[maximo - pontos[i]]++;
+                idsOrdenados[destino] = ids[i];
+                pontosOrdenados[destino] = pontos[i];
+            }
+            return new Resultado(idsOrdenados, pontosOrdenados);
+        }
+
+        public int tamanho() {
+            return ids.length;
+        }
+
+        public long getId(int i) {
+            return ids[i];
+        }
+
+        public int getPontos(int i) {
+            return pontos[i];
+        }
+
+        /**
+         * Primeira posição do ranking depois do item (pontos, id), para
+         * continuar uma paginação mesmo que esse item já não exista.
+         */
+        public int posicaoApos(int pontosAnterior, long idAnterior) {
+            int i = 0;
+            while (i < ids.length && (pontos[i] > pontosAnterior
+                    || (pontos[i] == pontosAnterior && ids[i] <= idAnterior))) {
+                i++;
+            }
+            return i;
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package indices;
+
+import java.util.Arrays;
+
+/**
+ * MapaBits.java
+ *
+ * Conjunto de inteiros não negativos (posições do armazém) comprimido no
+ * estilo "roaring": os 16 bits altos escolhem um contêiner e os 16 baixos
+ * ficam dentro dele. Um contêiner com até LIMITE_ARRAY valores é um array
+ * ordenado de char (2 bytes por valor); acima disso, vira um mapa de 65536
+ * bits (1024 longs, 8 KB), onde cada valor custa um bit.
+ *
+ * Interseções e contagens trabalham contêiner a contêiner. Entre dois
+ * mapas de bits, contar a interseção é um AND seguido de Long.bitCount
+ * por palavra, que a JVM compila para a instrução POPCNT; entre arrays,
+ * uma intercalação; entre array e mapa, um teste de bit por valor.
+ */
+public class MapaBits {
+    private static final int LIMITE_ARRAY = 4096;
+    private static final int PALAVRAS = 1 << 16 >>> 6;
+
+    // Contêineres em ordem de chave; para cada um, arrays[i] ou bitmaps[i] é não nulo
+    private char[] chaves = new char[4];
+    private int[] cardinalidades = new int[4];
+    private char[][] arrays = new char[4][];
+    private long[][] bitmaps = new long[4][];
+    private int conteineres;
+    private long cardinalidade;
+
+    // ===== ATUALIZAÇÃO =====
+
+    public void adicionar(int valor) {
+        char alto = (char) (valor >>> 16);
+        char baixo = (char) valor;
+        int i = Arrays.binarySearch(chaves, 0, conteineres, alto);
+        if (i < 0) {
+            i = -i - 1;
+            inserirConteiner(i, alto);
+            arrays[i] = new char[4];
+        }
+        if (bitmaps[i] != null) {
+            long[] palavras = bitmaps[i];
+            long bit = 1L << baixo;
+            if ((palavras[baixo >>> 6] & bit) != 0) {
+                return;
+            }
+            palavras[baixo >>> 6] |= bit;
+        } else {
+            char[] valores = arrays[i];
+            int n = cardinalidades[i];
+            // Posições chegam em ordem crescente: testa o fim antes da busca binária
+            int j = n > 0 && valores[n - 1] < baixo ? -n - 1 : Arrays.binarySearch(valores, 0, n, baixo);
+            if (j >= 0) {
+                return;
+            }
+            j = -j - 1;
+            if (n == LIMITE_ARRAY) {
+                bitmaps[i] = paraBitmap(valores, n);
+                arrays[i] = null;
+                bitmaps[i][baixo >>> 6] |= 1L << baixo;
+            } else {
+                if (n == valores.length) {
+                    valores = Arrays.copyOf(valores, Math.min(LIMITE_ARRAY, n * 2));
+                    arrays[i] = valores;
+                }
+                System.arraycopy(valores, j, valores, j + 1, n - j);
+                valores[j] = baixo;
+            }
+        }
+        cardinalidades[i]++;
+        cardinalidade++;
+    }
+
+    public void remover(int valor) {
+        char alto = (char) (valor >>> 16);
+        char baixo = (char) valor;
+        int i = Arrays.binarySearch(chaves, 0, conteineres, alto);
+        if (i < 0) {
+            return;
+        }
+        if (bitmaps[i] != null) {
+            long[] palavras = bitmaps[i];
+            long bit = 1L << baixo;
+            if ((palavras[baixo >>> 6] & bit) == 0) {
+                return;
+            }
+            palavras[baixo >>> 6] &= ~bit;
+            if (cardinalidades[i] - 1 <= LIMITE_ARRAY) {
+                arrays[i] = paraArray(palavras, cardinalidades[i] - 1);
+                bitmaps[i] = null;
+            }
+        } else {
+            char[] valores = arrays[i];
+            int n = cardinalidades[i];
+            int j = Arrays.binarySearch(valores, 0, n, baixo);
+            if (j < 0) {
+                return;
+            }
+            System.arraycopy(valores, j + 1, valores, j, n - j - 1);
+        }
+        cardinalidade--;
+        if (--cardinalidades[i] == 0) {
+            removerConteiner(i);
+        }
+    }
+
+    /**
+     * Acrescenta a este conjunto todos os valores do outro.
+     */
+    public void ouNoLugar(MapaBits outro) {
+        for (int k = 0; k < outro.conteineres; k++) {
+            char alto = outro.chaves[k];
+            int i = Arrays.binarySearch(chaves, 0, conteineres, alto);
+            if (i < 0) {
+                i = -i - 1;
+                inserirConteiner(i, alto);
+                if (outro.bitmaps[k] != null) {
+                    bitmaps[i] = outro.bitmaps[k].clone();
+                } else {
+                    arrays[i] = Arrays.copyOf(outro.arrays[k], outro.cardinalidades[k]);
+                }
+                cardinalidades[i] = outro.cardinalidades[k];
+                cardinalidade += cardinalidades[i];
+                continue;
+            }
+            if (bitmaps[i] == null && outro.bitmaps[k] == null
+                    && cardinalidades[i] + outro.cardinalidades[k] <= LIMITE_ARRAY) {
+                unirArrays(i, outro.arrays[k], outro.cardinalidades[k]);
+                continue;
+            }
+            long[] palavras = bitmaps[i] != null ? bitmaps[i] : paraBitmap(arrays[i], cardinalidades[i]);
+            if (outro.bitmaps[k] != null) {
+                long[] deOutro = outro.bitmaps[k];
+                for (int w = 0; w < PALAVRAS; w++) {
+                    palavras[w] |= deOutro[w];
+                }
+            } else {
+                char[] valores = outro.arrays[k];
+                for (int j = 0; j < outro.cardinalidades[k]; j++) {
+                    palavras[valores[j] >>> 6] |= 1L << valores[j];
+                }
+            }
+            int n = contarBits(palavras);
+            cardinalidade += n - cardinalidades[i];
+            cardinalidades[i] = n;
+            if (n <= LIMITE_ARRAY) {
+                arrays[i] = paraArray(palavras, n);
+                bitmaps[i] = null;
+            } else {
+                arrays[i] = null;
+                bitmaps[i] = palavras;
+            }
+        }
+    }
+
+    public void limpar() {
+        Arrays.fill(arrays, 0, conteineres, null);
+        Arrays.fill(bitmaps, 0, conteineres, null);
+        conteineres = 0;
+        cardinalidade = 0;
+    }
+
+    // ===== CONSULTA =====
+
+    public boolean contem(int valor) {
+        char baixo = (char) valor;
+        int i = Arrays.binarySearch(chaves, 0, conteineres, (char) (valor >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        if (bitmaps[i] != null) {
+            return (bitmaps[i][baixo >>> 6] & (1L << baixo)) != 0;
+        }
+        return Arrays.binarySearch(arrays[i], 0, cardinalidades[i], baixo) >= 0;
+    }
+
+    public long cardinalidade() {
+        return cardinalidade;
+    }
+
+    public boolean isVazio() {
+        return cardinalidade == 0;
+    }
+
+    /**
+     * Tamanho da interseção com o outro conjunto, sem montá-la.
+     */
+    public long contarE(MapaBits outro) {
+        long total = 0;
+        int i = 0;
+        int k = 0;
+        while (i < conteineres && k < outro.conteineres) {
+            if (chaves[i] < outro.chaves[k]) {
+                i++;
+            } else if (chaves[i] > outro.chaves[k]) {
+                k++;
+            } else {
+                total += contarE(this, i, outro, k);
+                i++;
+                k++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Interseção com o outro conjunto, como um novo MapaBits.
+     */
+    public MapaBits e(MapaBits outro) {
+        MapaBits resultado = new MapaBits();
+        int i = 0;
+        int k = 0;
+        while (i < conteineres && k < outro.conteineres) {
+            if (chaves[i] < outro.chaves[k]) {
+                i++;
+            } else if (chaves[i] > outro.chaves[k]) {
+                k++;
+            } else {
+                resultado.anexarInterseccao(chaves[i], this, i, outro, k);
+                i++;
+                k++;
+            }
+        }
+        return resultado;
+    }
+
+    // ===== NÚCLEOS DE CONTAGEM =====
+
+    /**
+     * Bits ligados em a AND b. Quatro acumuladores independentes deixam o
+     * laço sem dependência entre iterações, e o JIT desenrola e usa POPCNT.
+     */
+    static int contarE(long[] a, long[] b) {
+        int c0 = 0, c1 = 0, c2 = 0, c3 = 0;
+        for (int w = 0; w < PALAVRAS; w += 4) {
+            c0 += Long.bitCount(a[w] & b[w]);
+            c1 += Long.bitCount(a[w + 1] & b[w + 1]);
+            c2 += Long.bitCount(a[w + 2] & b[w + 2]);
+            c3 += Long.bitCount(a[w + 3] & b[w + 3]);
+        }
+        return c0 + c1 + c2 + c3;
+    }
+
+    static int contarBits(long[] a) {
+        int c = 0;
+        for (int w = 0; w < PALAVRAS; w++) {
+            c += Long.bitCount(a[w]);
+        }
+        return c;
+    }
+
+    private static int contarE(MapaBits x, int i, MapaBits y, int k) {
+        if (x.bitmaps[i] != null && y.bitmaps[k] != null) {
+            return contarE(x.bitmaps[i], y.bitmaps[k]);
+        }
+        if (x.bitmaps[i] != null || y.bitmaps[k] != null) {
+            long[] palavras = x.bitmaps[i] != null ? x.bitmaps[i] : y.bitmaps[k];
+            char[] valores = x.bitmaps[i] != null ? y.arrays[k] : x.arrays[i];
+            int n = x.bitmaps[i] != null ? y.cardinalidades[k] : x.cardinalidades[i];
+            int c = 0;
+            for (int j = 0; j < n; j++) {
+                c += (int) (palavras[valores[j] >>> 6] >>> valores[j]) & 1;
+            }
+            return c;
+        }
+        char[] a = x.arrays[i];
+        char[] b = y.arrays[k];
+        int na = x.cardinalidades[i];
+        int nb = y.cardinalidades[k];
+        int c = 0;
+        for (int p = 0, q = 0; p < na && q < nb;) {
+            if (a[p] < b[q]) {
+                p++;
+            } else if (a[p] > b[q]) {
+                q++;
+            } else {
+                c++;
+                p++;
+                q++;
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Acrescenta no fim (chave maior que todas as atuais) a interseção do
+     * contêiner i de x com o k de y, se não for vazia.
+     */
+    private void anexarInterseccao(char alto, MapaBits x, int i, MapaBits y, int k) {
+        long[] palavras = null;
+        char[] valores = null;
+        int n;
+        if (x.bitmaps[i] != null && y.bitmaps[k] != null) {
+            palavras = new long[PALAVRAS];
+            for (int w = 0; w < PALAVRAS; w++) {
+                palavras[w] = x.bitmaps[i][w] & y.bitmaps[k][w];
+            }
+            n = contarBits(palavras);
+            if (n <= LIMITE_ARRAY) {
+                valores = paraArray(palavras, n);
+                palavras = null;
+            }
+        } else if (x.bitmaps[i] != null || y.bitmaps[k] != null) {
+            long[] bits = x.bitmaps[i] != null ? x.bitmaps[i] : y.bitmaps[k];
+            char[] origem = x.bitmaps[i] != null ? y.arrays[k] : x.arrays[i];
+            int m = x.bitmaps[i] != null ? y.cardinalidades[k] : x.cardinalidades[i];
+            valores = new char[m];
+            n = 0;
+            for (int j = 0; j < m; j++) {
+                if ((bits[origem[j] >>> 6] & (1L << origem[j])) != 0) {
+                    valores[n++] = origem[j];
+                }
+            }
+        } else {
+            char[] a = x.arrays[i];
+            char[] b = y.arrays[k];
+            valores = new char[Math.min(x.cardinalidades[i], y.cardinalidades[k])];
+            n = 0;
+            for (int p = 0, q = 0; p < x.cardinalidades[i] && q < y.cardinalidades[k];) {
+                if (a[p] < b[q]) {
+                    p++;
+                } else if (a[p] > b[q]) {
+                    q++;
+                } else {
+                    valores[n++] = a[p];
+                    p++;
+                    q++;
+                }
+            }
+        }
+        if (n == 0) {
+            return;
+        }
+        inserirConteiner(conteineres, alto);
+        int novo = conteineres - 1;
+        arrays[novo] = valores;
+        bitmaps[novo] = palavras;
+        cardinalidades[novo] = n;
+        cardinalidade += n;
+    }
+
+    // ===== INTERNOS =====
+
+    private void inserirConteiner(int i, char alto) {
+        if (conteineres == chaves.length) {
+            int capacidade = conteineres * 2;
+            chaves = Arrays.copyOf(chaves, capacidade);
+            cardinalidades = Arrays.copyOf(cardinalidades, capacidade);
+            arrays = Arrays.copyOf(arrays, capacidade);
+            bitmaps = Arrays.copyOf(bitmaps, capacidade);
+        }
+        int mover = conteineres - i;
+        System.arraycopy(chaves, i, chaves, i + 1, mover);
+        System.arraycopy(cardinalidades, i, cardinalidades, i + 1, mover);
+        System.arraycopy(arrays, i, arrays, i + 1, mover);
+        System.arraycopy(bitmaps, i, bitmaps, i + 1, mover);
+        chaves[i] = alto;
+        cardinalidades[i] = 0;
+        arrays[i] = null;
+        bitmaps[i] = null;
+        conteineres++;
+    }
+
+    private void removerConteiner(int i) {
+        int mover = conteineres - i - 1;
+        System.arraycopy(chaves, i + 1, chaves, i, mover);
+        System.arraycopy(cardinalidades, i + 1, cardinalidades, i, mover);
+        System.arraycopy(arrays, i + 1, arrays, i, mover);
+        System.arraycopy(bitmaps, i + 1, bitmaps, i, mover);
+        conteineres--;
+        arrays[conteineres] = null;
+        bitmaps[conteineres] = null;
+    }
+
+    /**
+     * Intercala os valores no contêiner-array i (o resultado cabe num array).
+     */
+    private void unirArrays(int i, char[] b, int nb) {
+        char[] a = arrays[i];
+        int na = cardinalidades[i];
+        char[] uniao = new char[na + nb];
+        int n = 0;
+        int p = 0;
+        int q = 0;
+        while (p < na && q < nb) {
+            if (a[p] < b[q]) {
+                uniao[n++] = a[p++];
+            } else if (a[p] > b[q]) {
+                uniao[n++] = b[q++];
+            } else {
+                uniao[n++] = a[p++];
+                q++;
+            }
+        }
+        while (p < na) {
+            uniao[n++] = a[p++];
+        }
+        while (q < nb) {
+            uniao[n++] = b[q++];
+        }
+        arrays[i] = uniao;
+        cardinalidade += n - na;
+        cardinalidades[i] = n;
+    }
+
+    private static long[] paraBitmap(char[] valores, int n) {
+        long[] palavras = new long[PALAVRAS];
+        for (int j = 0; j < n; j++) {
+            palavras[valores[j] >>> 6] |= 1L << valores[j];
+        }
+        return palavras;
+    }
+
+    private static char[] paraArray(long[] palavras, int n) {
+        char[] valores = new char[Math.max(n, 1)];
+        int j = 0;
+        for (int w = 0; w < PALAVRAS; w++) {
+            long palavra = palavras[w];
+            while (palavra != 0) {
+                valores[j++] = (char) ((w << 6) + Long.numberOfTrailingZeros(palavra));
+                palavra &= palavra - 1;
+            }
+        }
+        return valores;
+    }
+}
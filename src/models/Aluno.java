@@ -33,11 +33,13 @@ public class Aluno extends Usuario {
      * @param nome        nome completo
      * @param email       e-mail
      * @param cpf         CPF
+     * @param senha       senha
      * @param matricula   matrícula (string)
      * @param curso       curso de graduação
      * @param semestre    semestre atual
      */
-public Aluno(int id, String nome, String email, String cpf, String senha, String matricula, String curso, int ano) {
+    public Aluno(int id, String nome, String email, String cpf, String senha, String matricula, String curso,
+            int semestre) {
         super(id, nome, email, cpf, senha);
         this.matricula = matricula;
         this.curso = curso;
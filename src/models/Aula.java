@@ -0,0 +1,298 @@
+package models;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aula.java
+ *
+ * Representa uma aula (encontro de turma) registrada de uma só vez:
+ * disciplina, data e registrador são guardados UMA vez, e a chamada de
+ * toda a turma fica em um BitSet indexado pela posição do aluno na lista
+ * de matrículas (ordem da chamada).
+ *
+ * Para compatibilidade com relatórios e buscas que trabalham com
+ * Frequencia, cada posição da chamada pode ser obtida como uma visão
+ * somente leitura (FrequenciaAula) que lê diretamente desta Aula.
+ *
+ * Depois de registrada no Sistema, a Aula só pode ser alterada por ele
+ * (removerFrequenciaPorId, atualizarObservacoes), que mantém os índices
+ * e agregados de acordo com a chamada: os métodos que mudam a chamada são
+ * do pacote, e marcarFalta/marcarPresenca só valem antes do registro.
+ */
+public class Aula implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** Tamanho máximo de turma (as posições cabem nos 16 bits baixos do ID da visão). */
+    public static final int LIMITE_TURMA = 1 << 16;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // ===== ATRIBUTOS =====
+    private long id;
+    private String disciplina;
+    private LocalDate data;
+    private String registradoPorCpf;
+    private List<String> matriculas; // chamada ordenada
+    private BitSet presencas; // bit i = aluno da posição i presente
+    private BitSet removidos; // bit i = registro da posição i excluído
+    private Map<Integer, String> observacoes; // esparso: só posições com observação
+    private boolean registrada; // já indexada pelo Sistema: a chamada não muda mais por fora
+
+    // ===== CONSTRUTORES =====
+
+    /**
+     * Construtor completo. Todos os alunos começam como presentes; use
+     * {@link #marcarFalta(String)} para lançar as faltas antes de registrar.
+     */
+    public Aula(long id, String disciplina, LocalDate data, String registradoPorCpf, List<String> matriculas) {
+        if (matriculas == null || matriculas.isEmpty()) {
+            throw new IllegalArgumentException("A chamada deve ter ao menos um aluno");
+        }
+        if (matriculas.size() > LIMITE_TURMA) {
+            throw new IllegalArgumentException("Turma excede o limite de " + LIMITE_TURMA + " alunos");
+        }
+        this.id = id;
+        this.disciplina = validarString(disciplina, "Disciplina");
+        this.data = validarData(data);
+        this.registradoPorCpf = validarString(registradoPorCpf, "CPF do registrador");
+        this.matriculas = new ArrayList<>(matriculas.size());
+        for (String m : matriculas) {
+            this.matriculas.add(validarString(m, "Matrícula do aluno"));
+        }
+        this.presencas = new BitSet(matriculas.size());
+        this.presencas.set(0, matriculas.size());
+        this.removidos = new BitSet(matriculas.size());
+        this.observacoes = new HashMap<>();
+    }
+
+    // ===== MÉTODOS DE VALIDAÇÃO =====
+
+    private String validarString(String valor, String nomeCampo) {
+        if (valor == null || valor.trim().isEmpty()) {
+            throw new IllegalArgumentException(nomeCampo + " não pode ser nulo ou vazio");
+        }
+        return valor.trim();
+    }
+
+    private LocalDate validarData(LocalDate data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data não pode ser nula");
+        }
+        LocalDate hoje = LocalDate.now();
+        if (data.isAfter(hoje.plusDays(7))) {
+            throw new IllegalArgumentException("Data não pode ser mais de 7 dias no futuro");
+        }
+        if (data.isBefore(hoje.minusYears(2))) {
+            throw new IllegalArgumentException("Data não pode ser mais de 2 anos no passado");
+        }
+        return data;
+    }
+
+    private void validarPosicao(int posicao) {
+        if (posicao < 0 || posicao >= matriculas.size()) {
+            throw new IndexOutOfBoundsException("Posição fora da chamada: " + posicao);
+        }
+    }
+
+    // ===== GETTERS E SETTERS =====
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Usado pelo Sistema ao registrar (ou recarregar) a aula: fixa o ID, do
+     * qual derivam os IDs das visões, e fecha a chamada para alterações por
+     * fora do Sistema.
+     */
+    void registrar(long id) {
+        this.id = id;
+        this.registrada = true;
+    }
+
+    public boolean isRegistrada() {
+        return registrada;
+    }
+
+    public String getDisciplina() {
+        return disciplina;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public String getRegistradoPorCpf() {
+        return registradoPorCpf;
+    }
+
+    public List<String> getMatriculas() {
+        return Collections.unmodifiableList(matriculas);
+    }
+
+    public int getTamanhoTurma() {
+        return matriculas.size();
+    }
+
+    public String getMatricula(int posicao) {
+        validarPosicao(posicao);
+        return matriculas.get(posicao);
+    }
+
+    public boolean isPresente(int posicao) {
+        validarPosicao(posicao);
+        return presencas.get(posicao);
+    }
+
+    void setPresente(int posicao, boolean presente) {
+        validarPosicao(posicao);
+        presencas.set(posicao, presente);
+    }
+
+    public String getObservacoes(int posicao) {
+        validarPosicao(posicao);
+        return observacoes.getOrDefault(posicao, "");
+    }
+
+    void setObservacoes(int posicao, String texto) {
+        validarPosicao(posicao);
+        if (texto == null || texto.isEmpty()) {
+            observacoes.remove(posicao);
+        } else {
+            observacoes.put(posicao, texto);
+        }
+    }
+
+    public boolean isRemovido(int posicao) {
+        validarPosicao(posicao);
+        return removidos.get(posicao);
+    }
+
+    /**
+     * Exclui o registro de uma posição. A posição continua ocupando seu lugar
+     * na chamada para que os IDs das demais visões não mudem.
+     */
+    void remover(int posicao) {
+        validarPosicao(posicao);
+        removidos.set(posicao);
+    }
+
+    // ===== CHAMADA =====
+
+    /**
+     * Retorna a posição da matrícula na chamada, ou -1 se não fizer parte da turma.
+     */
+    public int posicaoDe(String matricula) {
+        return matricula == null ? -1 : matriculas.indexOf(matricula.trim());
+    }
+
+    /**
+     * @throws IllegalStateException se a aula já foi registrada no Sistema
+     */
+    public void marcarFalta(String matricula) {
+        presencas.clear(posicaoNaChamadaAberta(matricula));
+    }
+
+    /**
+     * @throws IllegalStateException se a aula já foi registrada no Sistema
+     */
+    public void marcarPresenca(String matricula) {
+        presencas.set(posicaoNaChamadaAberta(matricula));
+    }
+
+    private int posicaoNaChamadaAberta(String matricula) {
+        if (registrada) {
+            throw new IllegalStateException("Aula " + id + " já registrada: altere a chamada pelo Sistema");
+        }
+        int pos = posicaoDe(matricula);
+        if (pos < 0) {
+            throw new IllegalArgumentException("Aluno não faz parte da chamada: " + matricula);
+        }
+        return pos;
+    }
+
+    // ===== AGREGAÇÃO (popcount no BitSet, sem percorrer alunos) =====
+
+    /**
+     * Quantidade de registros válidos (chamada menos excluídos).
+     */
+    public int contarRegistros() {
+        return matriculas.size() - removidos.cardinality();
+    }
+
+    /**
+     * Quantidade de presenças válidas.
+     */
+    public int contarPresentes() {
+        BitSet validos = (BitSet) presencas.clone();
+        validos.andNot(removidos);
+        return validos.cardinality();
+    }
+
+    public int contarFaltas() {
+        return contarRegistros() - contarPresentes();
+    }
+
+    // ===== VISÕES COMO FREQUENCIA =====
+
+    /**
+     * ID da visão Frequencia de uma posição. IDs de visões são negativos para
+     * nunca colidirem com os IDs (positivos) de registros avulsos.
+     */
+    public long idDaFrequencia(int posicao) {
+        return -((id << 16) | posicao) - 1;
+    }
+
+    /**
+     * Extrai o ID da aula de um ID de visão (0 se o ID não for de uma visão).
+     */
+    public static long aulaIdDe(long frequenciaId) {
+        return frequenciaId < 0 ? (-(frequenciaId + 1)) >>> 16 : 0L;
+    }
+
+    /**
+     * Extrai a posição na chamada de um ID de visão.
+     */
+    public static int posicaoNaChamada(long frequenciaId) {
+        return (int) ((-(frequenciaId + 1)) & 0xFFFF);
+    }
+
+    /**
+     * Visão Frequencia de uma posição da chamada.
+     */
+    public Frequencia getFrequencia(int posicao) {
+        validarPosicao(posicao);
+        return new FrequenciaAula(this, posicao);
+    }
+
+    /**
+     * Visões Frequencia de todas as posições não excluídas, na ordem da chamada.
+     */
+    public List<Frequencia> getFrequencias() {
+        List<Frequencia> lista = new ArrayList<>(contarRegistros());
+        for (int i = 0; i < matriculas.size(); i++) {
+            if (!removidos.get(i)) {
+                lista.add(new FrequenciaAula(this, i));
+            }
+        }
+        return lista;
+    }
+
+    public String getDataFormatada() {
+        return data.format(DATE_FORMATTER);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Aula[id=%d, disc=%s, data=%s, turma=%d, presentes=%d, regPor=%s]",
+                id, disciplina, getDataFormatada(), contarRegistros(), contarPresentes(), registradoPorCpf);
+    }
+}
@@ -0,0 +1,239 @@
+package models;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * ConsultaFrequencia.java
+ *
+ * Critérios combináveis para buscar frequências em Sistema.consultar().
+ * Todos os critérios são opcionais e combinados com "E":
+ *
+ * <pre>
+ * try (Stream&lt;Frequencia&gt; faltas = sistema.consultar(new ConsultaFrequencia()
+ *         .aluno("2024001")
+ *         .disciplina("Cálculo I")
+ *         .periodo(inicioDoMes, fimDoMes)
+ *         .presente(false)
+ *         .ordenarPor(ConsultaFrequencia.Ordem.DATA_DESC)
+ *         .limite(20))) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * O Stream segura a trava de leitura do Sistema até ser fechado.
+ *
+ * O Sistema escolhe o índice mais seletivo entre os critérios informados
+ * e aplica os demais como filtro sobre os candidatos.
+ */
+public class ConsultaFrequencia {
+
+    /**
+     * Ordem dos resultados.
+     */
+    public enum Ordem {
+        /** Ordem de gravação no armazém (sem custo de ordenação). */
+        INSERCAO,
+        /** Mais recentes primeiro, como Frequencia.compareTo(). */
+        DATA_DESC,
+        /** Mais antigas primeiro. */
+        DATA_ASC
+    }
+
+    private String aluno;
+    private String disciplina;
+    private String registrador;
+    private LocalDate inicio;
+    private LocalDate fim;
+    private Boolean presente;
+    private String texto;
+    private Ordem ordem = Ordem.INSERCAO;
+    private int limite;
+
+    // ===== CRITÉRIOS =====
+
+    /**
+     * Apenas frequências do aluno com esta matrícula.
+     */
+    public ConsultaFrequencia aluno(String matricula) {
+        this.aluno = normalizar(matricula);
+        return this;
+    }
+
+    /**
+     * Apenas frequências da disciplina (sem diferenciar maiúsculas).
+     */
+    public ConsultaFrequencia disciplina(String disciplina) {
+        this.disciplina = normalizar(disciplina);
+        return this;
+    }
+
+    /**
+     * Apenas frequências registradas pelo CPF informado.
+     */
+    public ConsultaFrequencia registrador(String cpf) {
+        this.registrador = normalizar(cpf);
+        return this;
+    }
+
+    /**
+     * Apenas frequências entre as datas (inclusive). Qualquer extremo pode
+     * ser null para deixar o período aberto.
+     */
+    public ConsultaFrequencia periodo(LocalDate inicio, LocalDate fim) {
+        if (inicio != null && fim != null && fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("Fim do período não pode ser anterior ao início");
+        }
+        this.inicio = inicio;
+        this.fim = fim;
+        return this;
+    }
+
+    /**
+     * Apenas presenças (true) ou apenas faltas (false).
+     */
+    public ConsultaFrequencia presente(boolean presente) {
+        this.presente = presente;
+        return this;
+    }
+
+    /**
+     * Apenas frequências cujas observações contenham o texto
+     * (sem diferenciar maiúsculas).
+     */
+    public ConsultaFrequencia texto(String texto) {
+        String t = normalizar(texto);
+        this.texto = t == null || t.isEmpty() ? null : t.toLowerCase(Locale.ROOT);
+        return this;
+    }
+
+    public ConsultaFrequencia ordenarPor(Ordem ordem) {
+        this.ordem = ordem == null ? Ordem.INSERCAO : ordem;
+        return this;
+    }
+
+    /**
+     * Quantidade máxima de resultados (0 = sem limite).
+     */
+    public ConsultaFrequencia limite(int limite) {
+        if (limite < 0) {
+            throw new IllegalArgumentException("Limite não pode ser negativo");
+        }
+        this.limite = limite;
+        return this;
+    }
+
+    // ===== LEITURA PELO PLANEJADOR (Sistema) =====
+
+    String getAluno() {
+        return aluno;
+    }
+
+    String getDisciplina() {
+        return disciplina;
+    }
+
+    String getRegistrador() {
+        return registrador;
+    }
+
+    LocalDate getInicio() {
+        return inicio;
+    }
+
+    LocalDate getFim() {
+        return fim;
+    }
+
+    Boolean getPresente() {
+        return presente;
+    }
+
+    String getTexto() {
+        return texto;
+    }
+
+    Ordem getOrdem() {
+        return ordem;
+    }
+
+    int getLimite() {
+        return limite;
+    }
+
+    /**
+     * Indica se algum critério tem índice próprio (aluno, disciplina ou
+     * registrador), o que limita os candidatos sem percorrer o armazém.
+     */
+    boolean temCriterioIndexado() {
+        return aluno != null || disciplina != null || registrador != null;
+    }
+
+    /**
+     * Comparador da ordem pedida, ou null para a ordem de inserção.
+     */
+    Comparator<Frequencia> getComparador() {
+        switch (ordem) {
+            case DATA_DESC:
+                return Frequencia::compareTo;
+            case DATA_ASC:
+                return Comparator.comparing(Frequencia::getData)
+                        .thenComparing(Frequencia::getDisciplina, String.CASE_INSENSITIVE_ORDER)
+                        .thenComparing(Frequencia::getAlunoMatricula, String.CASE_INSENSITIVE_ORDER);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Verifica todos os critérios em uma frequência candidata.
+     */
+    boolean aceita(Frequencia f) {
+        if (aluno != null && !aluno.equals(f.getAlunoMatricula())) {
+            return false;
+        }
+        if (disciplina != null && !disciplina.equalsIgnoreCase(f.getDisciplina().trim())) {
+            return false;
+        }
+        if (registrador != null && !registrador.equals(f.getRegistradoPorCpf())) {
+            return false;
+        }
+        if (inicio != null && f.getData().isBefore(inicio)) {
+            return false;
+        }
+        if (fim != null && f.getData().isAfter(fim)) {
+            return false;
+        }
+        if (presente != null && presente != f.isPresente()) {
+            return false;
+        }
+        if (texto != null) {
+            String obs = f.getObservacoes();
+            return obs != null && obs.toLowerCase(Locale.ROOT).contains(texto);
+        }
+        return true;
+    }
+
+    /**
+     * null remove o critério; qualquer outro valor (inclusive vazio) é
+     * comparado sem os espaços das pontas.
+     */
+    private static String normalizar(String valor) {
+        return valor == null ? null : valor.trim();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Consulta[");
+        if (aluno != null) sb.append("aluno=").append(aluno).append(", ");
+        if (disciplina != null) sb.append("disc=").append(disciplina).append(", ");
+        if (registrador != null) sb.append("regPor=").append(registrador).append(", ");
+        if (inicio != null || fim != null) sb.append("periodo=").append(inicio).append("..").append(fim).append(", ");
+        if (presente != null) sb.append("presente=").append(presente).append(", ");
+        if (texto != null) sb.append("texto=").append(texto).append(", ");
+        sb.append("ordem=").append(ordem);
+        if (limite > 0) sb.append(", limite=").append(limite);
+        return sb.append(']').toString();
+    }
+}
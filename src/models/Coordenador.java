@@ -29,9 +29,10 @@ public class Coordenador extends Usuario {
      * @param nome  nome completo
      * @param email e-mail
      * @param cpf   CPF
+     * @param senha senha
      * @param curso nome do curso que coordena
      */
-    public Coordenador(int id, String nome, String email, String cpf, String senha, String areaCoordenacao) {
+    public Coordenador(int id, String nome, String email, String cpf, String senha, String curso) {
         super(id, nome, email, cpf, senha);
         this.curso = curso;
         this.disciplinasGerenciadas = new ArrayList<>();
@@ -18,6 +18,9 @@ import java.util.Objects;
  * - Melhorada validação de dados
  * - Adicionados métodos utilitários
  * - Implementado equals() e hashCode()
+ * - Métodos internos usam os getters, permitindo visões (FrequenciaAula)
+ * - Sem setters: um registro não muda depois de criado (alterações, como
+ *   novas observações, passam pelo Sistema, que regrava o registro)
  */
 public class Frequencia implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -31,6 +34,13 @@ public class Frequencia implements Serializable {
     private String registradoPorCpf; // CPF do usuário (Professor/Coordenador/Admin) que registrou
     private String observacoes; // NOVO: campo para observações adicionais
 
+    // Caches (não persistidos): 0 = ainda não calculado, senão valor + 1
+    private transient int codigoAlunoMais1; // código substituto da matrícula (RegistroChaves)
+    private transient int codigoDisciplinaMais1;
+    private transient int codigoRegistradorMais1;
+    private transient long alunoIdMais1; // getAlunoId() já extraído da matrícula
+    private transient long registradoPorIdMais1;
+
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
     // ===== CONSTRUTORES =====
@@ -111,16 +121,13 @@ public class Frequencia implements Serializable {
 
     /**
      * Se o CSV/Serializador pedir um getAlunoId() int, converte matrícula em
-     * inteiro.
+     * inteiro. O valor é extraído uma única vez e guardado em cache.
      */
     public int getAlunoId() {
-        try {
-            // Remove caracteres não numéricos e converte
-            String numerico = alunoMatricula.replaceAll("\\D+", "");
-            return numerico.isEmpty() ? 0 : Integer.parseInt(numerico);
-        } catch (NumberFormatException e) {
-            return 0;
+        if (alunoIdMais1 == 0) {
+            alunoIdMais1 = extrairNumero(getAlunoMatricula()) + 1L;
         }
+        return (int) (alunoIdMais1 - 1);
     }
 
     public String getDisciplina() {
@@ -146,47 +153,48 @@ public class Frequencia implements Serializable {
         return observacoes;
     }
 
+    /**
+     * ID da Aula de origem quando a frequência é uma visão de uma chamada
+     * coletiva (ver {@link Aula}). Registros avulsos retornam 0.
+     */
+    public long getAulaId() {
+        return 0L;
+    }
+
     /**
      * Se o SerializadorJava pedir "getRegistradoPorId()" em vez de CPF,
      * converter o CPF (sem pontuação) para inteiro.
+     * ATENÇÃO: CPFs de 11 dígitos não cabem em int e retornam 0; para
+     * junções use getCodigoRegistrador().
      */
     public int getRegistradoPorId() {
-        try {
-            String numerico = registradoPorCpf.replaceAll("\\D+", "");
-            return numerico.isEmpty() ? 0 : Integer.parseInt(numerico);
-        } catch (NumberFormatException e) {
-            return 0;
+        if (registradoPorIdMais1 == 0) {
+            registradoPorIdMais1 = extrairNumero(getRegistradoPorCpf()) + 1L;
         }
+        return (int) (registradoPorIdMais1 - 1);
     }
 
-    // ===== SETTERS =====
-
-    public void setId(long id) {
-        this.id = id;
-    }
+    // ===== CHAVES SUBSTITUTAS (atribuídas pelo Sistema via RegistroChaves) =====
 
-    public void setAlunoMatricula(String alunoMatricula) {
-        this.alunoMatricula = validarString(alunoMatricula, "Matrícula do aluno");
-    }
-
-    public void setDisciplina(String disciplina) {
-        this.disciplina = validarString(disciplina, "Disciplina");
+    /**
+     * Código denso da matrícula, ou RegistroChaves.SEM_CODIGO se ainda não atribuído.
+     */
+    public int getCodigoAluno() {
+        return codigoAlunoMais1 - 1;
     }
 
-    public void setData(LocalDate data) {
-        this.data = validarData(data);
+    public int getCodigoDisciplina() {
+        return codigoDisciplinaMais1 - 1;
     }
 
-    public void setPresente(boolean presente) {
-        this.presente = presente;
+    public int getCodigoRegistrador() {
+        return codigoRegistradorMais1 - 1;
     }
 
-    public void setRegistradoPorCpf(String registradoPorCpf) {
-        this.registradoPorCpf = validarString(registradoPorCpf, "CPF do registrador");
-    }
-
-    public void setObservacoes(String observacoes) {
-        this.observacoes = observacoes != null ? observacoes : "";
+    void setCodigos(int codigoAluno, int codigoDisciplina, int codigoRegistrador) {
+        this.codigoAlunoMais1 = codigoAluno + 1;
+        this.codigoDisciplinaMais1 = codigoDisciplina + 1;
+        this.codigoRegistradorMais1 = codigoRegistrador + 1;
     }
 
     // ===== MÉTODOS UTILITÁRIOS =====
@@ -195,20 +203,21 @@ public class Frequencia implements Serializable {
      * Retorna "Presente" ou "Falta".
      */
     public String getStatus() {
-        return presente ? "Presente" : "Falta";
+        return isPresente() ? "Presente" : "Falta";
     }
 
     /**
      * Retorna status com emoji.
      */
     public String getStatusComEmoji() {
-        return presente ? " Presente" : " Falta";
+        return isPresente() ? " Presente" : " Falta";
     }
 
     /**
      * Data formatada como "dd/MM/yyyy".
      */
     public String getDataFormatada() {
+        LocalDate data = getData();
         return (data != null ? data.format(DATE_FORMATTER) : "N/A");
     }
 
@@ -216,6 +225,7 @@ public class Frequencia implements Serializable {
      * Data formatada personalizada.
      */
     public String getDataFormatada(DateTimeFormatter formatter) {
+        LocalDate data = getData();
         return (data != null ? data.format(formatter) : "N/A");
     }
 
@@ -223,6 +233,7 @@ public class Frequencia implements Serializable {
      * Retorna o dia da semana da frequência.
      */
     public String getDiaSemana() {
+        LocalDate data = getData();
         if (data == null)
             return "N/A";
 
@@ -241,6 +252,7 @@ public class Frequencia implements Serializable {
      * Verifica se a frequência é de hoje.
      */
     public boolean ehDeHoje() {
+        LocalDate data = getData();
         return data != null && data.equals(LocalDate.now());
     }
 
@@ -248,6 +260,7 @@ public class Frequencia implements Serializable {
      * Verifica se a frequência é da semana atual.
      */
     public boolean ehDaSemanaAtual() {
+        LocalDate data = getData();
         if (data == null)
             return false;
 
@@ -262,6 +275,7 @@ public class Frequencia implements Serializable {
      * Verifica se a frequência é do mês atual.
      */
     public boolean ehDoMesAtual() {
+        LocalDate data = getData();
         if (data == null)
             return false;
 
@@ -273,6 +287,7 @@ public class Frequencia implements Serializable {
      * Calcula quantos dias se passaram desde a data da frequência.
      */
     public long getDiasDesdeFrequencia() {
+        LocalDate data = getData();
         if (data == null)
             return -1;
         return java.time.temporal.ChronoUnit.DAYS.between(data, LocalDate.now());
@@ -282,14 +297,15 @@ public class Frequencia implements Serializable {
      * Retorna uma descrição completa da frequência.
      */
     public String getDescricaoCompleta() {
+        String obs = getObservacoes();
         return String.format(
                 "%s - %s em %s (%s) - Registrado por %s%s",
                 getDataFormatada(),
                 getStatusComEmoji(),
-                disciplina,
+                getDisciplina(),
                 getDiaSemana(),
-                registradoPorCpf,
-                (observacoes.isEmpty() ? "" : " - Obs: " + observacoes));
+                getRegistradoPorCpf(),
+                (obs.isEmpty() ? "" : " - Obs: " + obs));
     }
 
     // ===== MÉTODOS DE COMPARAÇÃO =====
@@ -302,17 +318,18 @@ public class Frequencia implements Serializable {
             return false;
 
         Frequencia that = (Frequencia) obj;
-        return id == that.id &&
-                presente == that.presente &&
-                Objects.equals(alunoMatricula, that.alunoMatricula) &&
-                Objects.equals(disciplina, that.disciplina) &&
-                Objects.equals(data, that.data) &&
-                Objects.equals(registradoPorCpf, that.registradoPorCpf);
+        return getId() == that.getId() &&
+                isPresente() == that.isPresente() &&
+                Objects.equals(getAlunoMatricula(), that.getAlunoMatricula()) &&
+                Objects.equals(getDisciplina(), that.getDisciplina()) &&
+                Objects.equals(getData(), that.getData()) &&
+                Objects.equals(getRegistradoPorCpf(), that.getRegistradoPorCpf());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, alunoMatricula, disciplina, data, presente, registradoPorCpf);
+        return Objects.hash(getId(), getAlunoMatricula(), getDisciplina(), getData(), isPresente(),
+                getRegistradoPorCpf());
     }
 
     /**
@@ -323,22 +340,22 @@ public class Frequencia implements Serializable {
             return 1;
 
         // Primeiro por data (mais recente primeiro)
-        if (this.data != null && outra.data != null) {
-            int compareData = outra.data.compareTo(this.data);
+        if (this.getData() != null && outra.getData() != null) {
+            int compareData = outra.getData().compareTo(this.getData());
             if (compareData != 0)
                 return compareData;
         }
 
         // Depois por disciplina
-        if (this.disciplina != null && outra.disciplina != null) {
-            int compareDisc = this.disciplina.compareToIgnoreCase(outra.disciplina);
+        if (this.getDisciplina() != null && outra.getDisciplina() != null) {
+            int compareDisc = this.getDisciplina().compareToIgnoreCase(outra.getDisciplina());
             if (compareDisc != 0)
                 return compareDisc;
         }
 
         // Por último por matrícula do aluno
-        if (this.alunoMatricula != null && outra.alunoMatricula != null) {
-            return this.alunoMatricula.compareToIgnoreCase(outra.alunoMatricula);
+        if (this.getAlunoMatricula() != null && outra.getAlunoMatricula() != null) {
+            return this.getAlunoMatricula().compareToIgnoreCase(outra.getAlunoMatricula());
         }
 
         return 0;
@@ -350,12 +367,12 @@ public class Frequencia implements Serializable {
     public String toString() {
         return String.format(
                 "Freq[id=%d, aluno=%s, disc=%s, data=%s, pres=%s, regPor=%s]",
-                id,
-                alunoMatricula,
-                disciplina,
+                getId(),
+                getAlunoMatricula(),
+                getDisciplina(),
                 getDataFormatada(),
                 getStatus(),
-                registradoPorCpf);
+                getRegistradoPorCpf());
     }
 
     /**
@@ -364,13 +381,13 @@ public class Frequencia implements Serializable {
     public String toCSV() {
         return String.format(
                 "%d;%s;%s;%s;%b;%s;%s",
-                id,
-                alunoMatricula,
-                disciplina,
+                getId(),
+                getAlunoMatricula(),
+                getDisciplina(),
                 getDataFormatada(),
-                presente,
-                registradoPorCpf,
-                observacoes.replace(";", ",") // Evitar quebra do CSV
+                isPresente(),
+                getRegistradoPorCpf(),
+                getObservacoes().replace(";", ",") // Evitar quebra do CSV
         );
     }
 
@@ -380,13 +397,13 @@ public class Frequencia implements Serializable {
     public String toJSON() {
         return String.format(
                 "{\"id\":%d,\"aluno\":\"%s\",\"disciplina\":\"%s\",\"data\":\"%s\",\"presente\":%b,\"registrador\":\"%s\",\"observacoes\":\"%s\"}",
-                id,
-                alunoMatricula,
-                disciplina,
-                data != null ? data.toString() : "null",
-                presente,
-                registradoPorCpf,
-                observacoes.replace("\"", "\\\""));
+                getId(),
+                getAlunoMatricula(),
+                getDisciplina(),
+                getData() != null ? getData().toString() : "null",
+                isPresente(),
+                getRegistradoPorCpf(),
+                getObservacoes().replace("\"", "\\\""));
     }
 
     // ===== MÉTODOS ESTÁTICOS UTILITÁRIOS =====
@@ -405,13 +422,31 @@ public class Frequencia implements Serializable {
         return new Frequencia(id, matricula, disciplina, LocalDate.now(), false, registrador);
     }
 
+    /**
+     * Recria uma frequência já persistida sem passar pelas validações do
+     * construtor (registros de arquivo podem ter mais de 2 anos).
+     * Usado pelos armazéns de persistência; não use para novos registros.
+     */
+    public static Frequencia reconstituir(long id, String alunoMatricula, String disciplina, LocalDate data,
+            boolean presente, String registradoPorCpf, String observacoes) {
+        Frequencia f = new Frequencia();
+        f.id = id;
+        f.alunoMatricula = alunoMatricula;
+        f.disciplina = disciplina;
+        f.data = data;
+        f.presente = presente;
+        f.registradoPorCpf = registradoPorCpf;
+        f.observacoes = observacoes != null ? observacoes : "";
+        return f;
+    }
+
     /**
      * Valida se uma string pode ser uma matrícula válida.
      */
     public static boolean isMatriculaValida(String matricula) {
         return matricula != null &&
                 matricula.trim().length() >= 4 &&
-                matricula.matches(".*\\d+.*"); // Deve conter pelo menos um número
+                contarDigitos(matricula) > 0; // Deve conter pelo menos um número
     }
 
     /**
@@ -420,8 +455,43 @@ public class Frequencia implements Serializable {
     public static boolean isCpfValido(String cpf) {
         if (cpf == null)
             return false;
-        String numerosCpf = cpf.replaceAll("\\D+", "");
-        return numerosCpf.length() == 11;
+        return contarDigitos(cpf) == 11;
+    }
+
+    /**
+     * Conta os dígitos da string sem usar expressões regulares.
+     */
+    private static int contarDigitos(String valor) {
+        int digitos = 0;
+        for (int i = 0; i < valor.length(); i++) {
+            if (Character.isDigit(valor.charAt(i))) {
+                digitos++;
+            }
+        }
+        return digitos;
+    }
+
+    /**
+     * Concatena os dígitos da string e converte para int, como
+     * Integer.parseInt(valor.replaceAll("\\D+", "")), mas sem regex.
+     * Retorna 0 se não houver dígitos ou se o número não couber em int.
+     */
+    private static int extrairNumero(String valor) {
+        if (valor == null)
+            return 0;
+        long numero = 0;
+        boolean temDigito = false;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') {
+                temDigito = true;
+                numero = numero * 10 + (c - '0');
+                if (numero > Integer.MAX_VALUE) {
+                    return 0;
+                }
+            }
+        }
+        return temDigito ? (int) numero : 0;
     }
 
     /**
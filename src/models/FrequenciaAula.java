@@ -0,0 +1,77 @@
+package models;
+
+import java.time.LocalDate;
+
+/**
+ * FrequenciaAula.java
+ *
+ * Visão somente leitura de uma posição da chamada de uma {@link Aula} como
+ * Frequencia. Não copia disciplina, data nem registrador: lê tudo da Aula.
+ * Como Frequencia, não tem setters; exclusões e observações passam pelo
+ * Sistema, que altera a Aula e atualiza os índices e agregados.
+ *
+ * Não vai para o armazém de frequências: o Sistema indexa a Aula pela
+ * chamada e cria as visões só ao ler.
+ */
+class FrequenciaAula extends Frequencia {
+    private static final long serialVersionUID = 1L;
+
+    private final Aula aula;
+    private final int posicao;
+
+    FrequenciaAula(Aula aula, int posicao) {
+        super();
+        this.aula = aula;
+        this.posicao = posicao;
+    }
+
+    Aula getAula() {
+        return aula;
+    }
+
+    int getPosicao() {
+        return posicao;
+    }
+
+    // ===== GETTERS DELEGADOS À AULA =====
+
+    @Override
+    public long getId() {
+        return aula.idDaFrequencia(posicao);
+    }
+
+    @Override
+    public long getAulaId() {
+        return aula.getId();
+    }
+
+    @Override
+    public String getAlunoMatricula() {
+        return aula.getMatricula(posicao);
+    }
+
+    @Override
+    public String getDisciplina() {
+        return aula.getDisciplina();
+    }
+
+    @Override
+    public LocalDate getData() {
+        return aula.getData();
+    }
+
+    @Override
+    public boolean isPresente() {
+        return aula.isPresente(posicao);
+    }
+
+    @Override
+    public String getRegistradoPorCpf() {
+        return aula.getRegistradoPorCpf();
+    }
+
+    @Override
+    public String getObservacoes() {
+        return aula.getObservacoes(posicao);
+    }
+}
@@ -0,0 +1,51 @@
+package models;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pagina.java
+ *
+ * Uma página de resultados e o token para buscar a seguinte. O token é
+ * opaco para quem chama: basta devolvê-lo ao mesmo método de paginação.
+ * Como ele guarda a posição do último item (e não um deslocamento),
+ * inclusões e remoções entre uma página e outra não fazem itens
+ * repetirem nem sumirem.
+ */
+public final class Pagina<T> {
+    private final List<T> itens;
+    private final String proximoToken;
+
+    public Pagina(List<T> itens, String proximoToken) {
+        this.itens = Collections.unmodifiableList(itens);
+        this.proximoToken = proximoToken;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    /**
+     * Token da próxima página, ou null se esta for a última.
+     */
+    public String getProximoToken() {
+        return proximoToken;
+    }
+
+    public boolean temProxima() {
+        return proximoToken != null;
+    }
+
+    public boolean isVazia() {
+        return itens.isEmpty();
+    }
+
+    public int size() {
+        return itens.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pagina[%d itens, próxima=%s]", itens.size(), temProxima() ? "sim" : "não");
+    }
+}
@@ -0,0 +1,111 @@
+package models;
+
+import java.io.Serializable;
+import java.util.Locale;
+import persistencia.DicionarioStrings;
+
+/**
+ * RegistroChaves.java
+ *
+ * Registro de chaves substitutas (surrogate keys): cada matrícula, CPF e
+ * disciplina recebe, na primeira vez que aparece, um código int denso e
+ * estável (0, 1, 2, ...). Os índices, junções e exportações usam esses
+ * códigos em vez de extrair números das strings a cada registro.
+ *
+ * O registro é persistido em chaves.dat, então os códigos não mudam entre
+ * execuções.
+ */
+public class RegistroChaves implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** Código retornado para chaves ainda não registradas. */
+    public static final int SEM_CODIGO = -1;
+
+    private final DicionarioStrings matriculas = new DicionarioStrings();
+    private final DicionarioStrings cpfs = new DicionarioStrings();
+    private final DicionarioStrings disciplinas = new DicionarioStrings();
+    private transient boolean alterado;
+
+    // ===== REGISTRO (atribui código se necessário) =====
+
+    public int registrarMatricula(String matricula) {
+        return registrar(matriculas, matricula);
+    }
+
+    public int registrarCpf(String cpf) {
+        return registrar(cpfs, cpf);
+    }
+
+    /**
+     * Disciplinas são comparadas sem diferenciar maiúsculas, como em
+     * buscarFrequenciasPorDisciplina().
+     */
+    public int registrarDisciplina(String disciplina) {
+        return registrar(disciplinas, normalizarDisciplina(disciplina));
+    }
+
+    private int registrar(DicionarioStrings dicionario, String valor) {
+        int antes = dicionario.tamanho();
+        int codigo = dicionario.codificar(valor);
+        if (dicionario.tamanho() != antes) {
+            alterado = true;
+        }
+        return codigo;
+    }
+
+    // ===== CONSULTA (não atribui código) =====
+
+    public int codigoMatricula(String matricula) {
+        return matricula == null ? SEM_CODIGO : matriculas.codigoDe(matricula);
+    }
+
+    public int codigoCpf(String cpf) {
+        return cpf == null ? SEM_CODIGO : cpfs.codigoDe(cpf);
+    }
+
+    public int codigoDisciplina(String disciplina) {
+        return disciplina == null ? SEM_CODIGO : disciplinas.codigoDe(normalizarDisciplina(disciplina));
+    }
+
+    public String matriculaDe(int codigo) {
+        return matriculas.decodificar(codigo);
+    }
+
+    public String cpfDe(int codigo) {
+        return cpfs.decodificar(codigo);
+    }
+
+    /**
+     * Nome normalizado (minúsculo) da disciplina do código.
+     */
+    public String disciplinaDe(int codigo) {
+        return disciplinas.decodificar(codigo);
+    }
+
+    public int totalMatriculas() {
+        return matriculas.tamanho();
+    }
+
+    public int totalCpfs() {
+        return cpfs.tamanho();
+    }
+
+    public int totalDisciplinas() {
+        return disciplinas.tamanho();
+    }
+
+    /**
+     * Indica se houve novos códigos desde a última gravação.
+     */
+    public boolean isAlterado() {
+        return alterado;
+    }
+
+    public void marcarGravado() {
+        alterado = false;
+    }
+
+    private static String normalizarDisciplina(String disciplina) {
+        return disciplina.trim().toLowerCase(Locale.ROOT);
+    }
+}
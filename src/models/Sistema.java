@@ -1,16 +1,69 @@
 package models;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import colecoes.IntIntMapa;
+import colecoes.IntLista;
+import colecoes.IntListaMapa;
+import colecoes.LongConjunto;
+import colecoes.LongIntMapa;
+import estatisticas.CarimboConsistencia;
+import estatisticas.Contagem;
+import estatisticas.Histograma;
+import estatisticas.IndiceCursos;
+import estatisticas.ItemRanking;
+import estatisticas.MonitorRisco;
+import estatisticas.NivelRisco;
+import estatisticas.PontoSerie;
+import estatisticas.SeriesTemporais;
+import estatisticas.SituacaoRisco;
+import estatisticas.TabelaAgregados;
+import estatisticas.TopK;
+import indices.ArvoreBK;
+import indices.FiltroBloom;
+import indices.IndiceAlfabetico;
+import indices.IndiceBits;
+import indices.IndicePrefixos;
+import indices.IndiceTexto;
+import indices.MapaBits;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import persistencia.ArmazemFrequencias;
+import persistencia.ArmazemMemoria;
+import persistencia.ArmazemOffHeap;
 import persistencia.SerializadorJava;
 import persistencia.SistemaException;
+import relatorios.CacheRelatorios;
+import relatorios.Cancelamento;
+import relatorios.Dependencia;
+import relatorios.FormatoRelatorio;
+import relatorios.GeradorRelatorios;
+import relatorios.VersoesDados;
 
 /**
  * Sistema.java - Construtores Corrigidos
@@ -20,13 +73,87 @@ import persistencia.SistemaException;
  * para corresponder exatamente às assinaturas definidas nas classes.
  */
 public class Sistema {
+    // ===== CONCORRÊNCIA =====
+    // Métodos públicos que alteram dados tomam a trava de escrita; os que só leem, a de
+    // leitura. Assim a interface pode consultar de qualquer thread enquanto uma tarefa grava.
+    // Os Streams de consultar() e streamFrequencias() são lidos depois que o método retorna,
+    // então seguram a trava de leitura até serem fechados (use try-with-resources, na mesma
+    // thread que os abriu); por dentro do Sistema, use as versões sem trava.
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
     // ===== COLEÇÕES DE OBJETOS =====
     private List<Usuario> usuarios = new ArrayList<>();
-    private List<Frequencia> frequencias = new ArrayList<>();
+    private ArmazemFrequencias frequencias;
+    private List<Aula> aulas = new ArrayList<>();
+
+    // ===== ÍNDICES (no heap, guardam apenas posições, sem boxing) =====
+    private static final int AUSENTE = -1;
+    private final LongIntMapa posicaoPorId = new LongIntMapa(); // Frequencia.getId() → posição no armazém
+    private final IntListaMapa posicoesPorAluno = new IntListaMapa(); // código da matrícula → posições
+    private final IntListaMapa posicoesPorDisciplina = new IntListaMapa(); // código da disciplina → posições
+    private final IntListaMapa posicoesPorRegistrador = new IntListaMapa(); // código do CPF → posições
+    private final IntListaMapa posicoesPorDia = new IntListaMapa(); // epoch day → posições
+    private final IntIntMapa usuarioPorId = new IntIntMapa(); // Usuario.getId() → índice em usuarios
+    private final IntLista idsUsuarios = new IntLista(); // Usuario.getId() em ordem crescente (paginação)
+    private final IntIntMapa alunoPorCodigo = new IntIntMapa(); // código da matrícula → índice em usuarios
+    private final IndicePrefixos<Aluno> sugestoesAlunos = new IndicePrefixos<>(); // matrícula e nome → aluno
+    private final ArvoreBK<Usuario> palavrasDosNomes = new ArvoreBK<>(); // palavra do nome → usuários (busca aproximada)
+    private final IndiceAlfabetico<Usuario> usuariosPorNome = new IndiceAlfabetico<>(); // ordem alfabética pt-BR
+
+    // Os mesmos conjuntos de posições em mapas de bits, para contar por interseção (ver contar())
+    private final IndiceBits bitsPorDisciplina = new IndiceBits(); // código da disciplina → posições
+    private final IndiceBits bitsPorDia = new IndiceBits(); // epoch day → posições
+    private final MapaBits bitsPresentes = new MapaBits(); // posições com presença
+
+    // Aulas: indexadas pela chamada, sem expandir as visões no armazém (valores = índice em aulas)
+    private final LongIntMapa aulaPorId = new LongIntMapa(); // Aula.getId() → índice em aulas
+    private final IntListaMapa aulasPorAluno = new IntListaMapa(); // código da matrícula → aulas em que está na chamada
+    private final IntListaMapa aulasPorDisciplina = new IntListaMapa(); // código da disciplina → aulas
+    private final IntListaMapa aulasPorRegistrador = new IntListaMapa(); // código do CPF → aulas
+    private final IntListaMapa aulasPorDia = new IntListaMapa(); // epoch day → aulas
+    private int registrosDeAulas; // posições não excluídas de todas as chamadas
+    private long proximoIdAula = 1; // maior Aula.getId() indexado + 1
+
+    // Unicidade (aluno, disciplina, data): chave composta → posição, com filtro de Bloom na frente
+    private final LongIntMapa posicaoPorChaveUnica = new LongIntMapa();
+    private FiltroBloom filtroChaveUnica = new FiltroBloom(CAPACIDADE_FILTRO_INICIAL, TAXA_FALSO_POSITIVO);
+    private final LongConjunto chavesColididas = new LongConjunto(); // chaves compartilhadas por triplas diferentes
+    private static final int CAPACIDADE_FILTRO_INICIAL = 1024;
+    private static final double TAXA_FALSO_POSITIVO = 0.01;
+
+    // Chaves substitutas (matrícula, CPF, disciplina → código int denso)
+    private RegistroChaves chaves = new RegistroChaves();
+
+    // Versões dos dados e cache de relatórios invalidado por elas
+    private static final int CAPACIDADE_CACHE = 64;
+    private final VersoesDados versoes = new VersoesDados();
+    private final CacheRelatorios cache = new CacheRelatorios(versoes, CAPACIDADE_CACHE);
+
+    // Contadores por aluno/disciplina/dia e séries por período, gravados em agregados.dat a cada salvamento
+    private TabelaAgregados agregados = new TabelaAgregados();
+    private SeriesTemporais series = new SeriesTemporais();
+    private MonitorRisco monitorRisco = new MonitorRisco();
+    private IndiceCursos indiceCursos = new IndiceCursos(); // código da matrícula → curso, semestre
+    private IndiceTexto textoObservacoes = new IndiceTexto(); // termos das observações → Frequencia.getId()
+    private IndiceTexto textoNomes = new IndiceTexto(); // termos dos nomes → Usuario.getId()
 
     // Arquivos para persistência binária
     private static final String ARQUIVO_USUARIOS = "usuarios.dat";
     private static final String ARQUIVO_FREQUENCIAS = "frequencias.dat";
+    private static final String ARQUIVO_AULAS = "aulas.dat";
+    private static final String ARQUIVO_FREQUENCIAS_MAPEADO = "frequencias.bin";
+    private static final String ARQUIVO_CHAVES = "chaves.dat";
+    private static final String ARQUIVO_AGREGADOS = "agregados.dat";
+
+    // Senha dos usuários de exemplo (a mesma dada pelo SerializadorJava aos importados)
+    private static final String SENHA_PADRAO = "senha123";
+
+    /**
+     * Propriedade de sistema que escolhe o armazém de frequências:
+     * "memoria" (padrão), "offheap" (buffer direto) ou "mapeado"
+     * (buffer direto apoiado em frequencias.bin).
+     */
+    public static final String PROP_ARMAZEM = "frequencias.armazem";
 
     // Serializador para CSV
     private final SerializadorJava serializador;
@@ -39,12 +166,17 @@ public class Sistema {
         this.serializador = new SerializadorJava();
         System.out.println("🔧 Inicializando Sistema...");
 
+        carregarChaves();
+        // Carimbo lido antes de abrir o armazém (o modo mapeado compacta o arquivo ao abrir)
+        CarimboConsistencia carimboArquivos = carimboArquivos();
         carregarUsuarios();
         carregarFrequencias();
+        carregarAulas();
+        carregarAgregados(carimboArquivos);
         criarDadosIniciais();
 
         System.out.println("✅ Sistema inicializado com " + usuarios.size() +
-                " usuários e " + frequencias.size() + " frequências");
+                " usuários, " + aulas.size() + " aulas e " + contarFrequencias() + " frequências");
     }
 
     // ====== CRUD de USUÁRIOS ======
@@ -55,40 +187,237 @@ public class Sistema {
      * com mesmo CPF ou email.
      */
     public void adicionarUsuario(Usuario u) throws SistemaException {
-        if (u == null) {
-            throw new SistemaException("Usuario", "N/A", "Usuário inválido (nulo)");
+        trava.writeLock().lock();
+        try {
+            if (u == null) {
+                throw new SistemaException("Usuario", "N/A", "Usuário inválido (nulo)");
+            }
+
+            // Verificar duplicidade de CPF
+            boolean cpfExiste = usuarios.stream()
+                    .anyMatch(existing -> existing.getCpf().equals(u.getCpf()));
+            if (cpfExiste) {
+                throw new SistemaException("Usuario", u.getCpf(), "CPF já cadastrado");
+            }
+
+            // Verificar duplicidade de email
+            boolean emailExiste = usuarios.stream()
+                    .anyMatch(existing -> existing.getEmail().equalsIgnoreCase(u.getEmail()));
+            if (emailExiste) {
+                throw SistemaException.emailJaCadastrado(u.getEmail());
+            }
+
+            usuarios.add(u);
+            indexarUsuario(u, usuarios.size() - 1);
+            idsUsuarios.adicionarOrdenado(u.getId());
+            textoNomes.registrar(u.getId(), u.getNome(), 1);
+            registrarNome(u, 1);
+            if (u instanceof Aluno a) {
+                for (String chave : chavesSugestao(a)) {
+                    sugestoesAlunos.adicionar(chave, a);
+                }
+            }
+            if (u instanceof Aluno a && a.getMatricula() != null) {
+                recontarCurso(chaves.codigoMatricula(a.getMatricula()));
+            }
+            versoes.alterouUsuarios();
+            gravarUsuarios();
+            System.out.println(" Usuário adicionado: " + u.getNome() + " (" + u.getTipoUsuario() + ")");
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove usuário pelo CPF. Lança SistemaException se não encontrar.
+     */
+    public void removerUsuario(String cpf) throws SistemaException {
+        trava.writeLock().lock();
+        try {
+            Usuario u = usuarios.stream()
+                    .filter(x -> x.getCpf().equals(cpf))
+                    .findFirst()
+                    .orElseThrow(() -> SistemaException.usuarioNaoEncontrado(cpf));
+            usuarios.remove(u);
+            reindexarUsuarios(); // índices de lista deslocam após a remoção
+            textoNomes.registrar(u.getId(), u.getNome(), -1);
+            registrarNome(u, -1);
+            if (u instanceof Aluno a && a.getMatricula() != null) {
+                recontarCurso(chaves.codigoMatricula(a.getMatricula()));
+            }
+            versoes.alterouUsuarios();
+            gravarUsuarios();
+            System.out.println(" Usuário removido: " + u.getNome());
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Troca o nome do usuário e atualiza os índices que dependem dele
+     * (busca textual e aproximada, sugestões de alunos, ordem alfabética).
+     */
+    public void renomearUsuario(int id, String novoNome) throws SistemaException {
+        trava.writeLock().lock();
+        try {
+            if (novoNome == null || novoNome.isBlank()) {
+                throw SistemaException.erroValidacao("nome", String.valueOf(novoNome), "não pode ser vazio");
+            }
+            int indice = usuarioPorId.get(id, AUSENTE);
+            if (indice == AUSENTE) {
+                throw SistemaException.usuarioNaoEncontrado(String.valueOf(id));
+            }
+            Usuario u = usuarios.get(indice);
+            String antigo = u.getNome();
+
+            textoNomes.registrar(id, antigo, -1);
+            registrarNome(u, -1);
+            if (u instanceof Aluno a) {
+                for (String chave : chavesSugestao(a)) {
+                    sugestoesAlunos.remover(chave, a);
+                }
+            }
+            u.setNome(novoNome.trim());
+            textoNomes.registrar(id, u.getNome(), 1);
+            registrarNome(u, 1);
+            if (u instanceof Aluno a) {
+                for (String chave : chavesSugestao(a)) {
+                    sugestoesAlunos.adicionar(chave, a);
+                }
+            }
+            versoes.alterouUsuarios();
+            gravarUsuarios();
+            System.out.println(" Usuário renomeado: " + antigo + " → " + u.getNome());
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Alunos cuja matrícula ou nome começa com o prefixo, sem diferenciar
+     * acentos e maiúsculas; no nome, vale o começo de qualquer palavra
+     * ("silva" e "da sil" sugerem "João da Silva"). Em ordem alfabética da
+     * chave encontrada. Pode ser chamado fora da thread da interface.
+     *
+     * @throws IllegalArgumentException se limite for menor que 1
+     */
+    public List<Aluno> sugerirAlunos(String prefixo, int limite) {
+        trava.readLock().lock();
+        try {
+            if (limite < 1) {
+                throw new IllegalArgumentException("Limite deve ser positivo: " + limite);
+            }
+            String chave = IndiceTexto.dobrar(prefixo);
+            return chave.isEmpty() ? new ArrayList<>() : sugestoesAlunos.buscar(chave, limite);
+        } finally {
+            trava.readLock().unlock();
         }
+    }
 
-        // Verificar duplicidade de CPF
-        boolean cpfExiste = usuarios.stream()
-                .anyMatch(existing -> existing.getCpf().equals(u.getCpf()));
-        if (cpfExiste) {
-            throw new SistemaException("Usuario", u.getCpf(), "CPF já cadastrado");
+    /**
+     * Usuários com nome parecido com o buscado, tolerando erros de
+     * digitação: cada palavra buscada precisa estar a no máximo
+     * distanciaMaxima edições (Damerau-Levenshtein) de alguma palavra do
+     * nome. Palavras curtas toleram menos: até 2 letras, nenhuma edição;
+     * até 5, uma. Do mais parecido (menor soma das distâncias) para o
+     * menos; no empate, por nome.
+     *
+     * @throws IllegalArgumentException se distanciaMaxima for negativa ou limite menor que 1
+     */
+    public List<Usuario> buscarUsuariosAproximado(String nome, int distanciaMaxima, int limite) {
+        trava.readLock().lock();
+        try {
+            if (distanciaMaxima < 0) {
+                throw new IllegalArgumentException("Distância não pode ser negativa: " + distanciaMaxima);
+            }
+            if (limite < 1) {
+                throw new IllegalArgumentException("Limite deve ser positivo: " + limite);
+            }
+            List<String> palavras = IndiceTexto.termos(nome);
+            Map<Usuario, Integer> distancias = null; // usuário → soma das distâncias das palavras já buscadas
+            for (String palavra : palavras) {
+                int tolerancia = Math.min(distanciaMaxima, palavra.length() <= 2 ? 0 : palavra.length() <= 5 ? 1 : 2);
+                // Ocorrências vêm da mais próxima para a mais distante: a primeira de cada usuário é a menor
+                Map<Usuario, Integer> daPalavra = new IdentityHashMap<>();
+                for (ArvoreBK.Ocorrencia<Usuario> o : palavrasDosNomes.buscar(palavra, tolerancia)) {
+                    daPalavra.putIfAbsent(o.getValor(), o.getDistancia());
+                }
+                if (distancias == null) {
+                    distancias = daPalavra;
+                } else {
+                    distancias.keySet().retainAll(daPalavra.keySet());
+                    distancias.replaceAll((u, d) -> d + daPalavra.get(u));
+                }
+            }
+            if (distancias == null) {
+                return new ArrayList<>();
+            }
+            Map<Usuario, Integer> somas = distancias;
+            return somas.keySet().stream()
+                    .sorted(Comparator.comparingInt((Usuario u) -> somas.get(u))
+                            .thenComparing(Usuario::getNome, String.CASE_INSENSITIVE_ORDER)
+                            .thenComparingInt(Usuario::getId))
+                    .limit(limite)
+                    .collect(Collectors.toList());
+        } finally {
+            trava.readLock().unlock();
         }
+    }
 
-        // Verificar duplicidade de email
-        boolean emailExiste = usuarios.stream()
-                .anyMatch(existing -> existing.getEmail().equalsIgnoreCase(u.getEmail()));
-        if (emailExiste) {
-            throw SistemaException.emailJaCadastrado(u.getEmail());
+    /**
+     * Inclui (delta = 1) ou retira (delta = -1) o nome do usuário nos
+     * índices de nome que não vão para disco (busca aproximada e ordem
+     * alfabética); eles são refeitos ao carregar os usuários.
+     */
+    private void registrarNome(Usuario u, int delta) {
+        registrarPalavrasDoNome(u, delta);
+        if (delta > 0) {
+            usuariosPorNome.adicionar(u.getNome(), u.getId(), u);
+        } else {
+            usuariosPorNome.remover(u.getId());
         }
+    }
 
-        usuarios.add(u);
-        salvarUsuarios();
-        System.out.println(" Usuário adicionado: " + u.getNome() + " (" + u.getTipoUsuario() + ")");
+    /**
+     * Inclui (delta > 0) ou retira as palavras do nome na árvore BK usada
+     * pela busca aproximada.
+     */
+    private void registrarPalavrasDoNome(Usuario u, int delta) {
+        for (String palavra : IndiceTexto.termos(u.getNome())) {
+            if (delta > 0) {
+                palavrasDosNomes.adicionar(palavra, u);
+            } else {
+                palavrasDosNomes.remover(palavra, u);
+            }
+        }
     }
 
     /**
-     * Remove usuário pelo CPF. Lança SistemaException se não encontrar.
+     * Indica se há aluno cadastrado com a matrícula (consulta ao índice).
      */
-    public void removerUsuario(String cpf) throws SistemaException {
-        Usuario u = usuarios.stream()
-                .filter(x -> x.getCpf().equals(cpf))
-                .findFirst()
-                .orElseThrow(() -> SistemaException.usuarioNaoEncontrado(cpf));
-        usuarios.remove(u);
-        salvarUsuarios();
-        System.out.println(" Usuário removido: " + u.getNome());
+    public boolean alunoCadastrado(String matricula) {
+        trava.readLock().lock();
+        try {
+            return matricula != null && buscarAlunoPorMatricula(matricula) != null;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca usuário pelo ID numérico.
+     */
+    public Usuario buscarUsuarioPorId(int id) throws SistemaException {
+        trava.readLock().lock();
+        try {
+            int indice = usuarioPorId.get(id, AUSENTE);
+            if (indice == AUSENTE) {
+                throw new SistemaException("Usuario", String.valueOf(id), "Usuário não encontrado pelo ID");
+            }
+            return usuarios.get(indice);
+        } finally {
+            trava.readLock().unlock();
+        }
     }
 
     /**
@@ -96,495 +425,2458 @@ public class Sistema {
      * Lança SistemaException se não encontrar.
      */
     public Usuario buscarUsuario(String cpf) throws SistemaException {
-        return usuarios.stream()
-                .filter(x -> x.getCpf().equals(cpf))
-                .findFirst()
-                .orElseThrow(() -> SistemaException.usuarioNaoEncontrado(cpf));
+        trava.readLock().lock();
+        try {
+            return usuarios.stream()
+                    .filter(x -> x.getCpf().equals(cpf))
+                    .findFirst()
+                    .orElseThrow(() -> SistemaException.usuarioNaoEncontrado(cpf));
+        } finally {
+            trava.readLock().unlock();
+        }
     }
 
     /**
      * Busca usuário pelo email.
      */
     public Usuario buscarUsuarioPorEmail(String email) throws SistemaException {
-        return usuarios.stream()
-                .filter(x -> x.getEmail().equalsIgnoreCase(email))
-                .findFirst()
-                .orElseThrow(() -> new SistemaException("Usuario", email, "Usuário não encontrado pelo email"));
+        trava.readLock().lock();
+        try {
+            return usuarios.stream()
+                    .filter(x -> x.getEmail().equalsIgnoreCase(email))
+                    .findFirst()
+                    .orElseThrow(() -> new SistemaException("Usuario", email, "Usuário não encontrado pelo email"));
+        } finally {
+            trava.readLock().unlock();
+        }
     }
 
     /**
      * Retorna a lista atual de usuários (cópia defensiva).
      */
     public List<Usuario> listarUsuarios() {
-        return new ArrayList<>(usuarios);
+        trava.readLock().lock();
+        try {
+            return new ArrayList<>(usuarios);
+        } finally {
+            trava.readLock().unlock();
+        }
     }
 
     /**
      * Busca usuários por tipo específico.
      */
     public List<Usuario> buscarUsuariosPorTipo(Class<? extends Usuario> tipo) {
-        return usuarios.stream()
-                .filter(tipo::isInstance)
-                .collect(Collectors.toList());
+        trava.readLock().lock();
+        try {
+            return usuarios.stream()
+                    .filter(tipo::isInstance)
+                    .collect(Collectors.toList());
+        } finally {
+            trava.readLock().unlock();
+        }
     }
 
     // ====== CRUD de FREQUÊNCIAS ======
 
     /**
      * Adiciona uma frequência.
-     * Lança SistemaException se for nulo.
+     * Lança SistemaException se for nulo ou se o aluno já tiver frequência
+     * registrada na mesma disciplina e data.
      */
     public void adicionarFrequencia(Frequencia f) throws SistemaException {
-        if (f == null) {
-            throw new SistemaException("Frequencia", "N/A", "Frequência inválida (nula)");
-        }
+        trava.writeLock().lock();
+        try {
+            if (f == null) {
+                throw new SistemaException("Frequencia", "N/A", "Frequência inválida (nula)");
+            }
+
+            int duplicada = posicaoDuplicada(f);
+            if (duplicada != AUSENTE) {
+                throw conflitoDuplicada(f, frequencias.obter(duplicada));
+            }
+            Frequencia daAula = visaoDuplicada(f);
+            if (daAula != null) {
+                throw conflitoDuplicada(f, daAula);
+            }
 
-        // Verificar se o aluno existe (opcional, mas recomendado)
-        String matricula = f.getAlunoMatricula();
-        boolean alunoExiste = usuarios.stream()
-                .anyMatch(u -> u instanceof Aluno && ((Aluno) u).getMatricula().equals(matricula));
+            // Verificar se o aluno existe (opcional, mas recomendado)
+            String matricula = f.getAlunoMatricula();
+            boolean alunoExiste = buscarAlunoPorMatricula(matricula) != null;
+
+            if (!alunoExiste) {
+                System.out.println(" Aviso: Frequência registrada para aluno não encontrado: " + matricula);
+            }
 
-        if (!alunoExiste) {
-            System.out.println(" Aviso: Frequência registrada para aluno não encontrado: " + matricula);
+            indexar(f);
+            contabilizar(f, 1);
+            gravarFrequencias();
+            System.out.println(" Frequência adicionada: " + f.toString());
+        } finally {
+            trava.writeLock().unlock();
         }
+    }
 
-        frequencias.add(f);
-        salvarFrequencias();
-        System.out.println(" Frequência adicionada: " + f.toString());
+    /**
+     * Adiciona um lote de frequências, gravando os arquivos uma única vez.
+     * Registros que repetem aluno, disciplina e data de uma frequência já
+     * existente (ou de outra do próprio lote) são ignorados; com
+     * sobrescrever = true, substituem a frequência existente.
+     *
+     * @return quantidade de frequências gravadas (novas + substituídas)
+     */
+    public int adicionarFrequencias(List<Frequencia> lote, boolean sobrescrever) {
+        trava.writeLock().lock();
+        try {
+            ResultadoLote resultado = gravarLote(lote, sobrescrever);
+            gravarFrequencias();
+            if (resultado.aulasAlteradas) {
+                gravarAulas();
+            }
+            salvarAgregados();
+            System.out.println(" Lote de frequências: " + resultado.novas + " novas, "
+                    + resultado.substituidas + " substituídas, " + resultado.ignoradas + " duplicadas ignoradas");
+            return resultado.novas + resultado.substituidas;
+        } finally {
+            trava.writeLock().unlock();
+        }
     }
 
     /**
      * Remove frequência pelo ID. Lança SistemaException se não encontrar.
      */
     public void removerFrequenciaPorId(long id) throws SistemaException {
-        Frequencia f = frequencias.stream()
-                .filter(x -> x.getId() == id)
-                .findFirst()
-                .orElseThrow(() -> SistemaException.frequenciaNaoEncontrada((int) id));
-        frequencias.remove(f);
-        salvarFrequencias();
-        System.out.println(" Frequência removida: ID " + id);
+        trava.writeLock().lock();
+        try {
+            if (Aula.aulaIdDe(id) != 0) {
+                descartarVisao(visaoExistente(id));
+                gravarAulas();
+                System.out.println(" Frequência removida: ID " + id);
+                return;
+            }
+            int posicao = posicaoPorId.get(id, AUSENTE);
+            if (posicao == AUSENTE) {
+                throw SistemaException.frequenciaNaoEncontrada(id);
+            }
+
+            retirarPosicao(posicao);
+            gravarFrequencias();
+            System.out.println(" Frequência removida: ID " + id);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Troca as observações de uma frequência (atestado, justificativa).
+     * O registro é regravado com o mesmo ID; se for de uma Aula, a
+     * observação é gravada na chamada. Lança SistemaException se não
+     * encontrar.
+     */
+    public void atualizarObservacoes(long id, String observacoes) throws SistemaException {
+        trava.writeLock().lock();
+        try {
+            String texto = observacoes == null ? "" : observacoes.trim();
+            if (Aula.aulaIdDe(id) != 0) {
+                // Desconta com o texto antigo (o índice de observações precisa dele) antes de alterar
+                Frequencia visao = visaoExistente(id);
+                contabilizar(codificar(visao), -1);
+                aulas.get(aulaPorId.get(Aula.aulaIdDe(id), AUSENTE)).setObservacoes(Aula.posicaoNaChamada(id), texto);
+                contabilizar(visao, 1);
+                gravarAulas();
+                System.out.println(" Observações atualizadas: ID " + id);
+                return;
+            }
+            int posicao = posicaoPorId.get(id, AUSENTE);
+            if (posicao == AUSENTE) {
+                throw SistemaException.frequenciaNaoEncontrada(id);
+            }
+
+            // Retira com o texto antigo (o índice de observações precisa dele) antes de alterar
+            Frequencia atual = frequencias.obter(posicao);
+            retirarPosicao(posicao);
+            Frequencia nova = new Frequencia(id, atual.getAlunoMatricula(), atual.getDisciplina(), atual.getData(),
+                    atual.isPresente(), atual.getRegistradoPorCpf(), texto);
+            indexar(nova);
+            contabilizar(nova, 1);
+            gravarFrequencias();
+            System.out.println(" Observações atualizadas: ID " + id);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca uma frequência pelo ID.
+     */
+    public Frequencia buscarFrequencia(long id) throws SistemaException {
+        trava.readLock().lock();
+        try {
+            if (Aula.aulaIdDe(id) != 0) {
+                return visaoExistente(id);
+            }
+            int posicao = posicaoPorId.get(id, AUSENTE);
+            if (posicao == AUSENTE) {
+                throw SistemaException.frequenciaNaoEncontrada(id);
+            }
+            return frequencias.obter(posicao);
+        } finally {
+            trava.readLock().unlock();
+        }
     }
 
     /**
      * Busca lista de frequências de um determinado aluno (por matrícula).
      */
     public List<Frequencia> buscarFrequenciasPorAluno(String matricula) {
-        return frequencias.stream()
-                .filter(x -> x.getAlunoMatricula().equals(matricula))
-                .collect(Collectors.toList());
+        trava.readLock().lock();
+        try {
+            if (matricula == null) {
+                return new ArrayList<>();
+            }
+            return consultarSemTrava(new ConsultaFrequencia().aluno(matricula)).collect(Collectors.toList());
+        } finally {
+            trava.readLock().unlock();
+        }
     }
 
     /**
-     * Busca lista de frequências de uma determinada disciplina.
+     * Busca lista de frequências de uma determinada disciplina
+     * (sem diferenciar maiúsculas).
      */
     public List<Frequencia> buscarFrequenciasPorDisciplina(String disciplina) {
-        return frequencias.stream()
-                .filter(x -> x.getDisciplina().equalsIgnoreCase(disciplina))
-                .collect(Collectors.toList());
+        trava.readLock().lock();
+        try {
+            if (disciplina == null) {
+                return new ArrayList<>();
+            }
+            return consultarSemTrava(new ConsultaFrequencia().disciplina(disciplina)).collect(Collectors.toList());
+        } finally {
+            trava.readLock().unlock();
+        }
     }
 
     /**
      * Busca frequências por registrador (CPF).
      */
     public List<Frequencia> buscarFrequenciasPorRegistrador(String cpfRegistrador) {
-        return frequencias.stream()
-                .filter(x -> x.getRegistradoPorCpf().equals(cpfRegistrador))
-                .collect(Collectors.toList());
+        trava.readLock().lock();
+        try {
+            if (cpfRegistrador == null) {
+                return new ArrayList<>();
+            }
+            return consultarSemTrava(new ConsultaFrequencia().registrador(cpfRegistrador))
+                    .collect(Collectors.toList());
+        } finally {
+            trava.readLock().unlock();
+        }
     }
 
     /**
-     * Retorna a lista atual de frequências (cópia defensiva).
+     * Executa uma consulta combinada. O resultado é preguiçoso: os registros
+     * só são lidos do armazém à medida que o Stream é consumido. Como as
+     * posições candidatas são capturadas na chamada, o Stream segura a trava
+     * de leitura (nenhuma gravação acontece) até ser fechado: feche-o, de
+     * preferência com try-with-resources, na thread que o abriu.
      */
-    public List<Frequencia> listarFrequencias() {
-        return new ArrayList<>(frequencias);
+    public Stream<Frequencia> consultar(ConsultaFrequencia consulta) {
+        return lendoAteFechar(() -> consultarSemTrava(consulta));
     }
 
-    // ====== PERSISTÊNCIA EM BINÁRIO (Serializable) ======
+    private Stream<Frequencia> consultarSemTrava(ConsultaFrequencia consulta) {
+        Stream<Frequencia> resultado = candidatas(consulta);
+        if (consulta.getComparador() != null) {
+            resultado = resultado.sorted(consulta.getComparador());
+        }
+        if (consulta.getLimite() > 0) {
+            resultado = resultado.limit(consulta.getLimite());
+        }
+        return resultado;
+    }
 
     /**
-     * Salva a lista de usuários em arquivo binário.
-     * MÉTODO TORNADO PÚBLICO para ser chamado do MainWindow.
+     * Abre o Stream com a trava de leitura e a solta quando ele for fechado
+     * (ou na hora, se a abertura falhar).
      */
-    public void salvarUsuarios() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream(ARQUIVO_USUARIOS))) {
-            oos.writeObject(usuarios);
-            System.out.println(" Usuários gravados em arquivo binário (" + usuarios.size() + " registros)");
-        } catch (Exception e) {
-            System.err.println(" Erro ao salvar usuários: " + e.getMessage());
-            e.printStackTrace();
+    private <T> Stream<T> lendoAteFechar(Supplier<Stream<T>> abrir) {
+        trava.readLock().lock();
+        try {
+            return abrir.get().onClose(trava.readLock()::unlock);
+        } catch (RuntimeException | Error e) {
+            trava.readLock().unlock();
+            throw e;
         }
     }
 
     /**
-     * Carrega a lista de usuários do arquivo binário.
+     * Quantas frequências atendem à consulta e quantas delas são presenças
+     * (ordem e limite são ignorados).
+     *
+     * Com critérios só de disciplina, período e presença, a contagem sai
+     * dos mapas de bits, sem ler registros: o conjunto da disciplina é
+     * interseccionado com a união dos dias do período, e as presenças são
+     * o tamanho da interseção com o conjunto de presentes. As aulas do
+     * período e da disciplina entram pela contagem de bits da chamada
+     * (Aula.contarRegistros() e contarPresentes()). Com aluno, registrador
+     * ou texto, conta os registros da consulta.
      */
-    @SuppressWarnings("unchecked")
-    private void carregarUsuarios() {
-        File arquivo = new File(ARQUIVO_USUARIOS);
-        if (!arquivo.exists()) {
-            usuarios = new ArrayList<>();
-            System.out.println(" Arquivo de usuários não existe. Iniciando com lista vazia.");
-            return;
-        }
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(arquivo))) {
-            Object obj = ois.readObject();
-            usuarios = (List<Usuario>) obj;
-            System.out.println(" Usuários carregados de arquivo binário (" + usuarios.size() + " registros)");
-        } catch (Exception e) {
-            System.err.println(" Erro ao carregar usuários: " + e.getMessage());
-            usuarios = new ArrayList<>();
+    public Contagem contar(ConsultaFrequencia consulta) {
+        trava.readLock().lock();
+        try {
+            if (consulta.getAluno() != null || consulta.getRegistrador() != null || consulta.getTexto() != null) {
+                long[] soma = new long[2];
+                candidatas(consulta)
+                        .forEach(f -> {
+                            soma[0]++;
+                            if (f.isPresente()) {
+                                soma[1]++;
+                            }
+                        });
+                return new Contagem(soma[0], soma[1]);
+            }
+
+            long[] dasAulas = new long[2];
+            planejarAulas(consulta).forEach(i -> {
+                Aula a = aulas.get(i);
+                if ((consulta.getInicio() == null || !a.getData().isBefore(consulta.getInicio()))
+                        && (consulta.getFim() == null || !a.getData().isAfter(consulta.getFim()))) {
+                    dasAulas[0] += a.contarRegistros();
+                    dasAulas[1] += a.contarPresentes();
+                }
+            });
+
+            MapaBits conjunto = null; // null = todas as frequências
+            if (consulta.getDisciplina() != null) {
+                int codigo = chaves.codigoDisciplina(consulta.getDisciplina());
+                if (codigo == RegistroChaves.SEM_CODIGO) {
+                    return Contagem.VAZIA;
+                }
+                conjunto = bitsPorDisciplina.obter(codigo);
+            }
+            if (consulta.getInicio() != null || consulta.getFim() != null) {
+                // Dias fora do intervalo dos agregados não têm frequências
+                int primeiroDia = agregados.getPrimeiroDia();
+                int ultimoDia = agregados.getUltimoDia();
+                if (consulta.getInicio() != null) {
+                    primeiroDia = (int) Math.max(primeiroDia, consulta.getInicio().toEpochDay());
+                }
+                if (consulta.getFim() != null) {
+                    ultimoDia = (int) Math.min(ultimoDia, consulta.getFim().toEpochDay());
+                }
+                MapaBits periodo = new MapaBits();
+                for (int dia = primeiroDia; dia <= ultimoDia; dia++) {
+                    periodo.ouNoLugar(bitsPorDia.obter(dia));
+                }
+                conjunto = conjunto == null ? periodo : conjunto.e(periodo);
+            }
+
+            long total = (conjunto == null ? frequencias.tamanho() : conjunto.cardinalidade()) + dasAulas[0];
+            long presentes = (conjunto == null ? bitsPresentes.cardinalidade() : conjunto.contarE(bitsPresentes))
+                    + dasAulas[1];
+            if (consulta.getPresente() == null) {
+                return new Contagem(total, presentes);
+            }
+            return consulta.getPresente() ? new Contagem(presentes, presentes) : new Contagem(total - presentes, 0);
+        } finally {
+            trava.readLock().unlock();
         }
     }
 
     /**
-     * Salva a lista de frequências em arquivo binário.
-     * MÉTODO TORNADO PÚBLICO para ser chamado do MainWindow.
+     * Retorna a lista atual de frequências (cópia defensiva).
+     * Inclui as visões das chamadas registradas como Aula.
      */
-    public void salvarFrequencias() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream(ARQUIVO_FREQUENCIAS))) {
-            oos.writeObject(frequencias);
-            System.out.println(" Frequências gravadas em arquivo binário (" + frequencias.size() + " registros)");
-        } catch (Exception e) {
-            System.err.println(" Erro ao salvar frequências: " + e.getMessage());
-            e.printStackTrace();
+    public List<Frequencia> listarFrequencias() {
+        trava.readLock().lock();
+        try {
+            return todasAsFrequencias().collect(Collectors.toList());
+        } finally {
+            trava.readLock().unlock();
         }
     }
 
     /**
-     * Carrega a lista de frequências do arquivo binário.
+     * Stream preguiçoso de todas as frequências, lido direto do armazém
+     * (sem cópia) e seguido das visões das chamadas. Pode ser usado com
+     * parallel() em análises sobre o histórico inteiro. Segura a trava de
+     * leitura até ser fechado, como o de consultar().
      */
-    @SuppressWarnings("unchecked")
-    private void carregarFrequencias() {
-        File arquivo = new File(ARQUIVO_FREQUENCIAS);
-        if (!arquivo.exists()) {
-            frequencias = new ArrayList<>();
-            System.out.println(" Arquivo de frequências não existe. Iniciando com lista vazia.");
-            return;
-        }
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(arquivo))) {
-            Object obj = ois.readObject();
-            frequencias = (List<Frequencia>) obj;
-            System.out.println(" Frequências carregadas de arquivo binário (" + frequencias.size() + " registros)");
-        } catch (Exception e) {
-            System.err.println(" Erro ao carregar frequências: " + e.getMessage());
-            frequencias = new ArrayList<>();
-        }
+    public Stream<Frequencia> streamFrequencias() {
+        return lendoAteFechar(this::todasAsFrequencias);
     }
 
-    // ====== GERAÇÃO E LEITURA DE CSV (via SerializadorJava) ======
+    private Stream<Frequencia> todasAsFrequencias() {
+        return Stream.concat(frequencias.stream(), aulas.stream().flatMap(a -> a.getFrequencias().stream()));
+    }
 
     /**
-     * Gera um CSV de exemplo "dados.csv" para testar a importação via
-     * lerDadosCSV().
+     * Quantidade de frequências registradas, avulsas e de chamadas (sem
+     * materializar a lista).
      */
-    public void criarArquivoCSVExemplo() {
+    public int contarFrequencias() {
+        trava.readLock().lock();
         try {
-            serializador.criarCSVExemplo();
-            System.out.println(" Arquivo CSV de exemplo criado");
-        } catch (Exception e) {
-            System.err.println(" Erro ao criar CSV de exemplo: " + e.getMessage());
+            return frequencias.tamanho() + registrosDeAulas;
+        } finally {
+            trava.readLock().unlock();
         }
     }
 
     /**
-     * Lê o CSV ("dados.csv") e importa usuários e frequências para as listas.
+     * Disciplinas com ao menos uma frequência, em ordem alfabética. O nome
+     * vem do primeiro registro de cada disciplina (grafia original).
      */
-    public void lerDadosCSV() {
+    public List<String> listarDisciplinas() {
+        trava.readLock().lock();
         try {
-            int usuariosAntes = usuarios.size();
-            int frequenciasAntes = frequencias.size();
-
-            serializador.carregarUsuariosCSV(usuarios);
-            serializador.carregarFrequenciasCSV(frequencias);
-
-            int novosUsuarios = usuarios.size() - usuariosAntes;
-            int novasFrequencias = frequencias.size() - frequenciasAntes;
-
-            System.out.println("📥 Dados CSV importados: " + novosUsuarios +
-                    " usuários, " + novasFrequencias + " frequências");
-
-            // Salvar após importação
-            salvarUsuarios();
-            salvarFrequencias();
-
-        } catch (Exception e) {
-            System.err.println(" Erro ao ler dados CSV: " + e.getMessage());
+            List<String> nomes = new ArrayList<>();
+            IntIntMapa listadas = new IntIntMapa(); // código da disciplina → 1
+            posicoesPorDisciplina.forEach((codigo, posicoes) -> {
+                for (int i = 0; i < posicoes.size(); i++) {
+                    Frequencia f = frequencias.obter(posicoes.get(i));
+                    if (f != null) {
+                        nomes.add(f.getDisciplina());
+                        listadas.put(codigo, 1);
+                        break;
+                    }
+                }
+            });
+            aulasPorDisciplina.forEach((codigo, indices) -> {
+                for (int i = 0; i < indices.size() && listadas.get(codigo, AUSENTE) == AUSENTE; i++) {
+                    Aula a = aulas.get(indices.get(i));
+                    if (a.contarRegistros() > 0) {
+                        nomes.add(a.getDisciplina());
+                        listadas.put(codigo, 1);
+                    }
+                }
+            });
+            nomes.sort(String.CASE_INSENSITIVE_ORDER);
+            return nomes;
+        } finally {
+            trava.readLock().unlock();
         }
     }
 
     /**
-     * Gera, a partir dos objetos em memória, novos arquivos CSV:
-     * • usuarios.csv
-     * • frequencias.csv
-     * MÉTODO IMPLEMENTADO para ser chamado da interface.
+     * Quantidade de frequências da disciplina, lida do índice (sem
+     * materializar os registros).
      */
-    public void exportarParaCSV() {
+    public int contarFrequenciasPorDisciplina(String disciplina) {
+        trava.readLock().lock();
         try {
-            serializador.salvarUsuariosCSV(usuarios);
-            serializador.salvarFrequenciasCSV(frequencias);
-            System.out.println(" Dados exportados para CSV com sucesso");
-        } catch (Exception e) {
-            System.err.println(" Erro ao exportar para CSV: " + e.getMessage());
-            throw new RuntimeException("Erro na exportação CSV: " + e.getMessage(), e);
+            int codigo = disciplina == null ? RegistroChaves.SEM_CODIGO : chaves.codigoDisciplina(disciplina);
+            return codigo == RegistroChaves.SEM_CODIGO ? 0
+                    : posicoesPorDisciplina.tamanho(codigo) + registrosDasAulas(aulasPorDisciplina.obter(codigo));
+        } finally {
+            trava.readLock().unlock();
         }
     }
 
-    // ====== DEMONSTRAÇÃO DE POLIMORFISMO ======
-
-    public void demonstrarPolimorfismo() {
-        System.out.println("\n=== 🎭 Demonstração Polimorfismo ===");
-        for (Usuario u : usuarios) {
-            System.out.println(" → Nome: " + u.getNome());
-            System.out.println("   Tipo: " + u.getTipoUsuario());
-            System.out.println("   Pode editar frequência? " + u.podeEditarFrequencia());
-            System.out.println("   Pode gerenciar usuários? " + u.podeGerenciarUsuarios());
-            System.out.println("   Permissões: " + String.join(", ", u.getPermissoes()));
-            System.out.println("   Descrição Completa: " + u.getDescricaoCompleta());
-            System.out.println("   Relatório Personalizado: " + u.gerarRelatorioPersonalizado());
-            System.out.println("-----------------------------------");
-        }
-    }
+    // ====== PAGINAÇÃO ======
 
-    // ====== GERAÇÃO DE RELATÓRIOS ======
+    /** Maior página aceita pelos métodos de paginação. */
+    public static final int TAMANHO_MAXIMO_PAGINA = 1000;
+    private static final byte TOKEN_FREQUENCIA = 'F';
+    private static final byte TOKEN_USUARIO = 'U';
+    private static final byte TOKEN_USUARIO_NOME = 'N';
 
     /**
-     * Gera um relatório geral (string) de todos os usuários.
+     * Ordem estável das páginas de frequência: a de Frequencia.compareTo()
+     * (data decrescente, disciplina, matrícula), desempatada pelo ID.
      */
-    public String gerarRelatorioGeralUsuarios() {
-        StringBuilder sb = new StringBuilder("===  Relatório Geral de Usuários ===\n\n");
-        sb.append(String.format("Total de usuários: %d\n", usuarios.size()));
-
-        // Contadores por tipo
-        long alunos = usuarios.stream().filter(u -> u instanceof Aluno).count();
-        long professores = usuarios.stream().filter(u -> u instanceof Professor).count();
-        long coordenadores = usuarios.stream().filter(u -> u instanceof Coordenador).count();
-        long administradores = usuarios.stream().filter(u -> u instanceof Administrador).count();
-
-        sb.append(String.format("  • Alunos: %d\n", alunos));
-        sb.append(String.format("  • Professores: %d\n", professores));
-        sb.append(String.format("  • Coordenadores: %d\n", coordenadores));
-        sb.append(String.format("  • Administradores: %d\n\n", administradores));
+    private static final Comparator<Frequencia> ORDEM_PAGINA =
+            ((Comparator<Frequencia>) Frequencia::compareTo).thenComparingLong(Frequencia::getId);
 
-        sb.append("DETALHES:\n");
-        for (Usuario u : usuarios) {
-            sb.append(String.format("ID:%d | %s | %s | Email:%s | Ativo:%s\n",
-                    u.getId(), u.getTipoUsuario(), u.getNome(), u.getEmail(), u.isAtivo()));
+    /**
+     * Página de frequências, das mais recentes para as mais antigas.
+     *
+     * @param token null para a primeira página, ou o token da página anterior
+     */
+    public Pagina<Frequencia> paginarFrequencias(int tamanho, String token) throws SistemaException {
+        trava.readLock().lock();
+        try {
+            return paginarFrequencias(null, tamanho, token);
+        } finally {
+            trava.readLock().unlock();
         }
-        return sb.toString();
     }
 
     /**
-     * Gera um relatório de frequência por disciplina.
+     * Página de frequências que atendem ao filtro (ordem e limite do filtro
+     * são ignorados; a ordem é sempre a de ORDEM_PAGINA).
+     *
+     * Com critério indexado no filtro, ordena apenas os candidatos do
+     * índice. Sem ele, percorre o índice por dia do mais recente para o
+     * mais antigo e para assim que a página enche, então o custo depende
+     * do tamanho da página e não do histórico inteiro.
      */
-    public String gerarRelatorioFrequenciasPorDisciplina(String disciplina) {
-        StringBuilder sb = new StringBuilder(
-                String.format("=== 📚 Relatório de Frequência: Disciplina %s ===\n\n", disciplina));
-
-        List<Frequencia> filtradas = frequencias.stream()
-                .filter(f -> f.getDisciplina().equalsIgnoreCase(disciplina))
-                .collect(Collectors.toList());
-
-        sb.append(String.format("Total de registros: %d\n\n", filtradas.size()));
+    public Pagina<Frequencia> paginarFrequencias(ConsultaFrequencia filtro, int tamanho, String token)
+            throws SistemaException {
+        trava.readLock().lock();
+        try {
+            validarTamanhoPagina(tamanho);
+            Frequencia cursor = token == null ? null : decodificarCursorFrequencia(token);
+            List<Frequencia> itens = new ArrayList<>(tamanho + 1);
+
+            if (filtro != null && filtro.temCriterioIndexado()) {
+                candidatas(filtro)
+                        .filter(f -> cursor == null || ORDEM_PAGINA.compare(f, cursor) > 0)
+                        .sorted(ORDEM_PAGINA)
+                        .limit(tamanho + 1)
+                        .forEach(itens::add);
+            } else {
+                int[] dias = diasComFrequencias();
+                int i = dias.length - 1;
+                if (cursor != null) {
+                    int busca = Arrays.binarySearch(dias, (int) cursor.getData().toEpochDay());
+                    i = busca >= 0 ? busca : -busca - 2; // último dia <= dia do cursor
+                }
+                for (; i >= 0 && itens.size() <= tamanho; i--) {
+                    List<Frequencia> doDia = new ArrayList<>();
+                    posicoesPorDia.obter(dias[i]).forEach(posicao -> doDia.add(frequencias.obter(posicao)));
+                    aulasPorDia.obter(dias[i]).forEach(indice -> doDia.addAll(aulas.get(indice).getFrequencias()));
+                    doDia.removeIf(f -> f == null || (filtro != null && !filtro.aceita(f))
+                            || (cursor != null && ORDEM_PAGINA.compare(f, cursor) <= 0));
+                    doDia.sort(ORDEM_PAGINA);
+                    for (Frequencia f : doDia) {
+                        if (itens.size() > tamanho) {
+                            break;
+                        }
+                        itens.add(f);
+                    }
+                }
+            }
 
-        if (filtradas.isEmpty()) {
-            sb.append("Nenhum registro encontrado para esta disciplina.\n");
-        } else {
-            // Estatísticas
-            long presentes = filtradas.stream().filter(Frequencia::isPresente).count();
-            long faltas = filtradas.size() - presentes;
-            double percentualPresenca = filtradas.size() > 0 ? (presentes * 100.0 / filtradas.size()) : 0;
-
-            sb.append(String.format("ESTATÍSTICAS:\n"));
-            sb.append(String.format("  • Presenças: %d (%.1f%%)\n", presentes, percentualPresenca));
-            sb.append(String.format("  • Faltas: %d (%.1f%%)\n\n", faltas, 100 - percentualPresenca));
-
-            sb.append("DETALHES:\n");
-            for (Frequencia f : filtradas) {
-                sb.append(String.format(
-                        "FreqID:%d | AlunoMat:%s | Data:%s | Status:%s | RegistradoPor:%s\n",
-                        f.getId(),
-                        f.getAlunoMatricula(),
-                        f.getDataFormatada(),
-                        f.getStatus(),
-                        f.getRegistradoPorCpf()));
+            String proximo = null;
+            if (itens.size() > tamanho) {
+                itens.remove(tamanho);
+                proximo = codificarCursor(itens.get(tamanho - 1));
             }
+            return new Pagina<>(itens, proximo);
+        } finally {
+            trava.readLock().unlock();
         }
-        return sb.toString();
     }
 
     /**
-     * Gera relatório de frequências de um aluno específico.
+     * Página de usuários em ordem de ID, lida da lista de IDs já ordenada
+     * (busca binária pelo último ID e leitura da página).
+     *
+     * @param token null para a primeira página, ou o token da página anterior
      */
-    public String gerarRelatorioFrequenciasAluno(String matricula) {
-        StringBuilder sb = new StringBuilder(
-                String.format("=== 🎓 Relatório de Frequências - Aluno %s ===\n\n", matricula));
-
-        List<Frequencia> freqAluno = buscarFrequenciasPorAluno(matricula);
-
-        if (freqAluno.isEmpty()) {
-            sb.append("Nenhuma frequência registrada para este aluno.\n");
-        } else {
-            long presentes = freqAluno.stream().filter(Frequencia::isPresente).count();
-            double percentual = (presentes * 100.0) / freqAluno.size();
-
-            sb.append(String.format("Total de aulas: %d\n", freqAluno.size()));
-            sb.append(String.format("Presenças: %d (%.1f%%)\n", presentes, percentual));
-            sb.append(String.format("Faltas: %d (%.1f%%)\n\n", freqAluno.size() - presentes, 100 - percentual));
-
-            // Agrupar por disciplina
-            var porDisciplina = freqAluno.stream()
-                    .collect(Collectors.groupingBy(Frequencia::getDisciplina));
-
-            sb.append("POR DISCIPLINA:\n");
-            for (var entry : porDisciplina.entrySet()) {
-                String disc = entry.getKey();
-                List<Frequencia> freqDisc = entry.getValue();
-                long presDisc = freqDisc.stream().filter(Frequencia::isPresente).count();
-                double percDisc = (presDisc * 100.0) / freqDisc.size();
+    public Pagina<Usuario> paginarUsuarios(int tamanho, String token) throws SistemaException {
+        trava.readLock().lock();
+        try {
+            validarTamanhoPagina(tamanho);
+            int ultimoId = token == null ? Integer.MIN_VALUE : decodificarCursorUsuario(token);
+            List<Usuario> itens = new ArrayList<>(tamanho + 1);
+            int i = idsUsuarios.primeiroMaiorQue(ultimoId);
+            for (; i < idsUsuarios.size() && itens.size() <= tamanho; i++) {
+                if (i > 0 && idsUsuarios.get(i) == idsUsuarios.get(i - 1)) {
+                    continue; // ID repetido (cadastros antigos): usuarioPorId só guarda um
+                }
+                itens.add(usuarios.get(usuarioPorId.get(idsUsuarios.get(i), AUSENTE)));
+            }
 
-                sb.append(String.format("  %s: %d aulas, %.1f%% presença\n",
-                        disc, freqDisc.size(), percDisc));
+            String proximo = null;
+            if (itens.size() > tamanho) {
+                itens.remove(tamanho);
+                proximo = codificarCursor(itens.get(tamanho - 1).getId());
             }
+            return new Pagina<>(itens, proximo);
+        } finally {
+            trava.readLock().unlock();
         }
-
-        return sb.toString();
     }
 
-    // ====== MÉTODO DE "DADOS INICIAIS" - CONSTRUTORES CORRIGIDOS ======
-
     /**
-     * Cria alguns usuários e frequências para testar rapidamente.
-     * Se dados já existirem (carregados do .dat), este método não altera nada.
-     * 
-     * CORREÇÃO PRINCIPAL: Ajustados os parâmetros dos construtores para
-     * corresponder
-     * exatamente às assinaturas definidas nas classes modelo.
+     * Página de usuários em ordem alfabética do nome (pt-BR: sem separar
+     * acentuados e maiúsculas), lida do índice já ordenado.
+     *
+     * @param token null para a primeira página, ou o token da página anterior
      */
-    public void criarDadosIniciais() {
-        if (!usuarios.isEmpty() || !frequencias.isEmpty()) {
-            System.out.println("🔧 Dados já existem. Pulando criação de dados iniciais.");
-            return;
+    public Pagina<Usuario> paginarUsuariosPorNome(int tamanho, String token) throws SistemaException {
+        trava.readLock().lock();
+        try {
+            validarTamanhoPagina(tamanho);
+            byte[] chave = null;
+            int ultimoId = 0;
+            if (token != null) {
+                byte[] bytes;
+                try {
+                    bytes = Base64.getUrlDecoder().decode(token);
+                } catch (IllegalArgumentException e) {
+                    throw SistemaException.dadosInvalidos("token", "Token de paginação inválido");
+                }
+                if (bytes.length < 5 || bytes[0] != TOKEN_USUARIO_NOME) {
+                    throw SistemaException.dadosInvalidos("token",
+                            "Token não pertence à listagem de usuários por nome");
+                }
+                for (int i = 1; i < 5; i++) {
+                    ultimoId = (ultimoId << 8) | (bytes[i] & 0xFF);
+                }
+                chave = Arrays.copyOfRange(bytes, 5, bytes.length);
+            }
+            List<IndiceAlfabetico.Entrada<Usuario>> entradas = usuariosPorNome.listar(chave, ultimoId, tamanho + 1);
+
+            String proximo = null;
+            if (entradas.size() > tamanho) {
+                IndiceAlfabetico.Entrada<Usuario> ultima = entradas.get(tamanho - 1);
+                entradas = entradas.subList(0, tamanho);
+                byte[] chaveUltima = ultima.getChave();
+                byte[] bytes = new byte[5 + chaveUltima.length];
+                bytes[0] = TOKEN_USUARIO_NOME;
+                for (int i = 0; i < 4; i++) {
+                    bytes[1 + i] = (byte) (ultima.getId() >>> (24 - 8 * i));
+                }
+                System.arraycopy(chaveUltima, 0, bytes, 5, chaveUltima.length);
+                proximo = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+            }
+            List<Usuario> itens = new ArrayList<>(entradas.size());
+            entradas.forEach(e -> itens.add(e.getValor()));
+            return new Pagina<>(itens, proximo);
+        } finally {
+            trava.readLock().unlock();
         }
+    }
 
-        try {
-            System.out.println("🔧 Criando dados iniciais...");
-
-            // ===== CRIAR ALUNOS =====
-            // Construtor Aluno: (int id, String nome, String email, String cpf, String
-            // matricula, String curso, int semestre)
-            adicionarUsuario(new Aluno(
-                    1, // id
-                    "Ana Costa", // nome
-                    "ana@exemplo.com", // email
-                    "12345678901", // cpf
-                    "2024001", // matricula
-                    "Engenharia", // curso
-                    null, 3 // semestre
-            ));
-
-            adicionarUsuario(new Aluno(
-                    2, // id
-                    "Bruno Silva", // nome
-                    "bruno@exemplo.com", // email
-                    "23456789012", // cpf
-                    "2024002", // matricula
-                    "Medicina", // curso
-                    null, 2 // semestre
-            ));
-
-            // ===== CRIAR PROFESSORES =====
-            // Construtor Professor: (int id, String nome, String email, String cpf, String
-            // area, String titulacao)
-            adicionarUsuario(new Professor(
-                    3, // id
-                    "Dr. Carlos Mendes", // nome
-                    "carlos@exemplo.com", // email
-                    "34567890123", // cpf
-                    "Matemática", // area
-                    "Doutor" // titulacao
-                    , null));
-
-            adicionarUsuario(new Professor(
-                    4, // id
-                    "Profa. Diana Santos", // nome
-                    "diana@exemplo.com", // email
-                    "45678901234", // cpf
-                    "Física", // area
-                    "Mestre" // titulacao
-                    , null));
-
-            // ===== CRIAR COORDENADOR =====
-            // Construtor Coordenador: (int id, String nome, String email, String cpf,
-            // String curso)
-            adicionarUsuario(new Coordenador(
-                    5, // id
-                    "João Silva", // nome
-                    "joao@exemplo.com", // email
-                    "56789012345", // cpf
-                    "Ciência da Computação" // curso
-                    , null));
-
-            // ===== CRIAR ADMINISTRADOR =====
-            // Construtor Administrador: (int id, String nome, String email, String cpf,
-            // String nivelAcesso)
-            adicionarUsuario(new Administrador(
-                    6, // id
-                    "Lucia Admin", // nome
-                    "lucia@exemplo.com", // email
-                    "67890123456", // cpf
-                    "TOTAL" // nivelAcesso
-                    , null));
-
-            // ===== CRIAR FREQUÊNCIAS =====
-            // Construtor Frequencia: (long id, String alunoMatricula, String disciplina,
-            // LocalDate data, boolean presente, String registradoPorCpf)
-            LocalDate hoje = LocalDate.now();
-
-            adicionarFrequencia(new Frequencia(
-                    1L, // id (long)
-                    "2024001", // alunoMatricula
-                    "Cálculo I", // disciplina
-                    hoje, // data
-                    true, // presente
-                    "34567890123" // registradoPorCpf (Dr. Carlos)
-            ));
-
-            adicionarFrequencia(new Frequencia(
-                    2L, // id (long)
-                    "2024001", // alunoMatricula
-                    "Física I", // disciplina
-                    hoje.minusDays(1), // data
-                    false, // presente
-                    "45678901234" // registradoPorCpf (Profa. Diana)
-            ));
-
-            adicionarFrequencia(new Frequencia(
-                    3L, // id (long)
-                    "2024002", // alunoMatricula
-                    "Anatomia", // disciplina
-                    hoje, // data
-                    true, // presente
-                    "34567890123" // registradoPorCpf (Dr. Carlos)
-            ));
-
-            adicionarFrequencia(new Frequencia(
-                    4L, // id (long)
-                    "2024002", // alunoMatricula
-                    "Anatomia", // disciplina
-                    hoje.minusDays(2), // data
-                    true, // presente
-                    "34567890123" // registradoPorCpf (Dr. Carlos)
-            ));
-
-            System.out.println(" Dados iniciais criados com sucesso!");
-            System.out.println(
-                    "📊 Resumo: " + usuarios.size() + " usuários e " + frequencias.size() + " frequências criadas");
+    // Leitura por posição: a tabela que salta para o meio ou o fim da listagem
+    // lê uma página, sem percorrer a cadeia de tokens até lá
 
+    /**
+     * Frequências nas posições [inicio, inicio + quantidade) da listagem de
+     * paginarFrequencias() sem filtro (mais recentes primeiro). Os dias
+     * anteriores são pulados pela quantidade de cada dia no índice, sem ler
+     * os registros; só os dias da faixa são lidos e ordenados.
+     */
+    public List<Frequencia> faixaFrequencias(int inicio, int quantidade) throws SistemaException {
+        trava.readLock().lock();
+        try {
+            validarFaixa(inicio, quantidade);
+            List<Frequencia> itens = new ArrayList<>(quantidade);
+            int[] dias = diasComFrequencias();
+            int pular = inicio;
+            for (int i = dias.length - 1; i >= 0 && itens.size() < quantidade; i--) {
+                int doDia = posicoesPorDia.tamanho(dias[i]) + registrosDasAulas(aulasPorDia.obter(dias[i]));
+                if (pular >= doDia) {
+                    pular -= doDia;
+                    continue;
+                }
+                List<Frequencia> registros = new ArrayList<>(doDia);
+                posicoesPorDia.obter(dias[i]).forEach(posicao -> registros.add(frequencias.obter(posicao)));
+                aulasPorDia.obter(dias[i]).forEach(indice -> registros.addAll(aulas.get(indice).getFrequencias()));
+                registros.removeIf(Objects::isNull);
+                registros.sort(ORDEM_PAGINA);
+                for (int j = pular; j < registros.size() && itens.size() < quantidade; j++) {
+                    itens.add(registros.get(j));
+                }
+                pular = 0;
+            }
+            return itens;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Usuários nas posições [inicio, inicio + quantidade) da ordem de ID,
+     * lidos direto da lista de IDs ordenada.
+     */
+    public List<Usuario> faixaUsuarios(int inicio, int quantidade) throws SistemaException {
+        trava.readLock().lock();
+        try {
+            validarFaixa(inicio, quantidade);
+            List<Usuario> itens = new ArrayList<>(quantidade);
+            for (int i = inicio; i < idsUsuarios.size() && itens.size() < quantidade; i++) {
+                itens.add(usuarios.get(usuarioPorId.get(idsUsuarios.get(i), AUSENTE)));
+            }
+            return itens;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Usuários nas posições [inicio, inicio + quantidade) da ordem
+     * alfabética de paginarUsuariosPorNome().
+     */
+    public List<Usuario> faixaUsuariosPorNome(int inicio, int quantidade) throws SistemaException {
+        trava.readLock().lock();
+        try {
+            validarFaixa(inicio, quantidade);
+            List<Usuario> itens = new ArrayList<>(quantidade);
+            usuariosPorNome.faixa(inicio, quantidade).forEach(e -> itens.add(e.getValor()));
+            return itens;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    private static void validarFaixa(int inicio, int quantidade) throws SistemaException {
+        validarTamanhoPagina(quantidade);
+        if (inicio < 0) {
+            throw SistemaException.erroValidacao("inicio", String.valueOf(inicio), "não pode ser negativo");
+        }
+    }
+
+    private static void validarTamanhoPagina(int tamanho) throws SistemaException {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+            throw SistemaException.erroValidacao("tamanho", String.valueOf(tamanho),
+                    "deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+        }
+    }
+
+    /**
+     * Dias que têm ao menos uma frequência (avulsa ou de chamada), em
+     * ordem crescente.
+     */
+    private int[] diasComFrequencias() {
+        IntLista dias = new IntLista(posicoesPorDia.size());
+        posicoesPorDia.forEach((dia, posicoes) -> {
+            if (!posicoes.isEmpty()) {
+                dias.add(dia);
+            }
+        });
+        aulasPorDia.forEach((dia, indices) -> {
+            if (posicoesPorDia.tamanho(dia) == 0 && registrosDasAulas(indices) > 0) {
+                dias.add(dia);
+            }
+        });
+        int[] ordenados = dias.toArray();
+        Arrays.sort(ordenados);
+        return ordenados;
+    }
+
+    /**
+     * Token de continuação com os campos de ORDEM_PAGINA do último item.
+     */
+    private static String codificarCursor(Frequencia ultima) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(TOKEN_FREQUENCIA);
+            out.writeLong(ultima.getData().toEpochDay());
+            out.writeUTF(ultima.getDisciplina());
+            out.writeUTF(ultima.getAlunoMatricula());
+            out.writeLong(ultima.getId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    private static String codificarCursor(int ultimoIdUsuario) {
+        byte[] bytes = new byte[5];
+        bytes[0] = TOKEN_USUARIO;
+        for (int i = 0; i < 4; i++) {
+            bytes[1 + i] = (byte) (ultimoIdUsuario >>> (24 - 8 * i));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Recria, a partir do token, uma frequência com os campos da ordenação
+     * (os demais ficam vazios), para comparar com ORDEM_PAGINA.
+     */
+    private static Frequencia decodificarCursorFrequencia(String token) throws SistemaException {
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != TOKEN_FREQUENCIA) {
+                throw SistemaException.dadosInvalidos("token", "Token não pertence à listagem de frequências");
+            }
+            LocalDate data = LocalDate.ofEpochDay(in.readLong());
+            String disciplina = in.readUTF();
+            String matricula = in.readUTF();
+            long id = in.readLong();
+            return Frequencia.reconstituir(id, matricula, disciplina, data, false, "", null);
+        } catch (IOException | RuntimeException e) {
+            throw SistemaException.dadosInvalidos("token", "Token de paginação inválido");
+        }
+    }
+
+    private static int decodificarCursorUsuario(String token) throws SistemaException {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw SistemaException.dadosInvalidos("token", "Token de paginação inválido");
+        }
+        if (bytes.length != 5 || bytes[0] != TOKEN_USUARIO) {
+            throw SistemaException.dadosInvalidos("token", "Token não pertence à listagem de usuários");
+        }
+        int id = 0;
+        for (int i = 1; i < 5; i++) {
+            id = (id << 8) | (bytes[i] & 0xFF);
+        }
+        return id;
+    }
+
+    // ====== BUSCA TEXTUAL ======
+
+    private static final byte TOKEN_BUSCA = 'B';
+
+    /**
+     * Frequências cujas observações contêm todos os termos da busca, sem
+     * diferenciar acentos e maiúsculas. Cada termo vale como prefixo
+     * ("atest med" encontra "Atestado médico"); registros que têm os
+     * termos inteiros vêm primeiro e, no empate, em ordem de ID.
+     *
+     * @param token null para a primeira página, ou o token da página anterior
+     */
+    public Pagina<Frequencia> buscarObservacoes(String texto, int tamanho, String token) throws SistemaException {
+        trava.readLock().lock();
+        try {
+            return paginarBusca(textoObservacoes, texto, tamanho, token, id -> {
+                if (Aula.aulaIdDe(id) != 0) {
+                    return visaoPorId(id);
+                }
+                int posicao = posicaoPorId.get(id, AUSENTE);
+                return posicao == AUSENTE ? null : frequencias.obter(posicao);
+            });
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Quantidade de frequências que buscarObservacoes() encontra para o
+     * texto (sem montar as páginas).
+     */
+    public int contarObservacoes(String texto) {
+        trava.readLock().lock();
+        try {
+            return textoObservacoes.buscar(texto).tamanho();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Usuários cujo nome contém todos os termos da busca, com as mesmas
+     * regras de buscarObservacoes() ("jo sil" encontra "João da Silva").
+     *
+     * @param token null para a primeira página, ou o token da página anterior
+     */
+    public Pagina<Usuario> buscarUsuariosPorNome(String texto, int tamanho, String token) throws SistemaException {
+        trava.readLock().lock();
+        try {
+            return paginarBusca(textoNomes, texto, tamanho, token, id -> {
+                int indice = usuarioPorId.get((int) id, AUSENTE);
+                return indice == AUSENTE ? null : usuarios.get(indice);
+            });
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Página do ranking do índice. O token guarda pontos e ID do último
+     * item e os termos da busca, então só vale para a mesma busca.
+     */
+    private static <T> Pagina<T> paginarBusca(IndiceTexto indice, String texto, int tamanho, String token,
+            LongFunction<T> documento) throws SistemaException {
+        validarTamanhoPagina(tamanho);
+        String termos = String.join(" ", IndiceTexto.termos(texto));
+        IndiceTexto.Resultado resultado = indice.buscar(texto);
+        int i = 0;
+        if (token != null) {
+            try (DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+                if (in.readByte() != TOKEN_BUSCA || !in.readUTF().equals(termos)) {
+                    throw SistemaException.dadosInvalidos("token", "Token não pertence a esta busca");
+                }
+                i = resultado.posicaoApos(in.readInt(), in.readLong());
+            } catch (IOException | IllegalArgumentException e) {
+                throw SistemaException.dadosInvalidos("token", "Token de paginação inválido");
+            }
+        }
+
+        List<T> itens = new ArrayList<>(tamanho + 1);
+        int[] posicoes = new int[tamanho + 1]; // posição no ranking de cada item
+        for (; i < resultado.tamanho() && itens.size() <= tamanho; i++) {
+            T item = documento.apply(resultado.getId(i));
+            if (item != null) {
+                posicoes[itens.size()] = i;
+                itens.add(item);
+            }
+        }
+
+        String proximo = null;
+        if (itens.size() > tamanho) {
+            itens.remove(tamanho);
+            int ultimo = posicoes[tamanho - 1];
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeByte(TOKEN_BUSCA);
+                out.writeUTF(termos);
+                out.writeInt(resultado.getPontos(ultimo));
+                out.writeLong(resultado.getId(ultimo));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            proximo = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        }
+        return new Pagina<>(itens, proximo);
+    }
+
+    // ====== ARMAZÉM E ÍNDICES ======
+
+    // Períodos mais longos que isto não usam o índice por dia
+    private static final int MAXIMO_DIAS_INDEXADOS = 3660;
+
+    /**
+     * Escolhe as posições candidatas de uma consulta.
+     *
+     * Cada critério indexado (aluno, disciplina, registrador e período
+     * fechado) fornece uma lista de postagens; a menor conduz a busca e
+     * as demais são interseccionadas por busca binária, já que as listas
+     * recebem posições em ordem crescente. Sem critério indexado, percorre
+     * o armazém inteiro. Os critérios restantes ficam para
+     * ConsultaFrequencia.aceita().
+     */
+    private IntStream planejar(ConsultaFrequencia consulta) {
+        List<IntLista> listas = new ArrayList<>(3);
+        if (!adicionarLista(listas, posicoesPorAluno, consulta.getAluno(), chaves::codigoMatricula)
+                || !adicionarLista(listas, posicoesPorDisciplina, consulta.getDisciplina(), chaves::codigoDisciplina)
+                || !adicionarLista(listas, posicoesPorRegistrador, consulta.getRegistrador(), chaves::codigoCpf)) {
+            return IntStream.empty(); // chave nunca registrada: nenhum resultado possível
+        }
+
+        IntLista menor = null;
+        for (IntLista lista : listas) {
+            if (menor == null || lista.size() < menor.size()) {
+                menor = lista;
+            }
+        }
+
+        int[] candidatas = null;
+        LocalDate inicio = consulta.getInicio();
+        LocalDate fim = consulta.getFim();
+        if (inicio != null && fim != null && fim.toEpochDay() - inicio.toEpochDay() < MAXIMO_DIAS_INDEXADOS) {
+            int primeiroDia = (int) inicio.toEpochDay();
+            int ultimoDia = (int) fim.toEpochDay();
+            long estimativa = 0;
+            for (int dia = primeiroDia; dia <= ultimoDia; dia++) {
+                estimativa += posicoesPorDia.tamanho(dia);
+            }
+            if (menor == null || estimativa < menor.size()) {
+                candidatas = posicoesDoPeriodo(primeiroDia, ultimoDia, (int) estimativa);
+            }
+        }
+        if (candidatas == null) {
+            if (menor == null) {
+                return IntStream.range(0, frequencias.limite()).filter(i -> !frequencias.isRemovido(i));
+            }
+            candidatas = menor.toArray();
+            listas.remove(menor);
+        }
+
+        IntStream posicoes = IntStream.of(candidatas);
+        for (IntLista outra : listas) {
+            posicoes = posicoes.filter(outra::containsOrdenado);
+        }
+        return posicoes;
+    }
+
+    /**
+     * Frequências avulsas e visões de chamadas candidatas à consulta, já
+     * filtradas por ConsultaFrequencia.aceita() (sem ordem nem limite).
+     */
+    private Stream<Frequencia> candidatas(ConsultaFrequencia consulta) {
+        Stream<Frequencia> avulsas = planejar(consulta)
+                .mapToObj(frequencias::obter)
+                .filter(Objects::nonNull);
+        String aluno = consulta.getAluno();
+        Stream<Frequencia> dasAulas = planejarAulas(consulta).boxed().flatMap(i -> {
+            Aula a = aulas.get(i);
+            if (aluno == null) {
+                return a.getFrequencias().stream();
+            }
+            int posicao = a.posicaoDe(aluno);
+            return posicao < 0 || a.isRemovido(posicao) ? Stream.empty() : Stream.of(a.getFrequencia(posicao));
+        });
+        return Stream.concat(avulsas, dasAulas).filter(consulta::aceita);
+    }
+
+    /**
+     * Índices (em aulas) das aulas candidatas, com a mesma estratégia de
+     * planejar(): a menor lista entre aluno, disciplina, registrador e
+     * período conduz, as demais são interseccionadas por busca binária
+     * (os índices entram em ordem crescente). Sem critério, todas.
+     */
+    private IntStream planejarAulas(ConsultaFrequencia consulta) {
+        List<IntLista> listas = new ArrayList<>(4);
+        if (!adicionarLista(listas, aulasPorAluno, consulta.getAluno(), chaves::codigoMatricula)
+                || !adicionarLista(listas, aulasPorDisciplina, consulta.getDisciplina(), chaves::codigoDisciplina)
+                || !adicionarLista(listas, aulasPorRegistrador, consulta.getRegistrador(), chaves::codigoCpf)) {
+            return IntStream.empty();
+        }
+        LocalDate inicio = consulta.getInicio();
+        LocalDate fim = consulta.getFim();
+        if (inicio != null && fim != null && fim.toEpochDay() - inicio.toEpochDay() < MAXIMO_DIAS_INDEXADOS) {
+            IntLista doPeriodo = new IntLista();
+            for (int dia = (int) inicio.toEpochDay(); dia <= (int) fim.toEpochDay(); dia++) {
+                aulasPorDia.obter(dia).forEach(doPeriodo::add);
+            }
+            doPeriodo.ordenar();
+            listas.add(doPeriodo);
+        }
+        if (listas.isEmpty()) {
+            return IntStream.range(0, aulas.size());
+        }
+        IntLista menor = listas.get(0);
+        for (IntLista lista : listas) {
+            if (lista.size() < menor.size()) {
+                menor = lista;
+            }
+        }
+        listas.remove(menor);
+        IntStream indices = IntStream.of(menor.toArray());
+        for (IntLista outra : listas) {
+            indices = indices.filter(outra::containsOrdenado);
+        }
+        return indices;
+    }
+
+    /**
+     * Soma dos registros não excluídos das aulas indicadas.
+     */
+    private int registrosDasAulas(IntLista indices) {
+        int soma = 0;
+        for (int i = 0; i < indices.size(); i++) {
+            soma += aulas.get(indices.get(i)).contarRegistros();
+        }
+        return soma;
+    }
+
+    /**
+     * Acrescenta a lista de postagens do valor, se houver critério.
+     *
+     * @return false se o valor nunca foi registrado (consulta vazia)
+     */
+    private static boolean adicionarLista(List<IntLista> listas, IntListaMapa indice, String valor,
+            ToIntFunction<String> codigoDe) {
+        if (valor == null) {
+            return true;
+        }
+        int codigo = codigoDe.applyAsInt(valor);
+        if (codigo == RegistroChaves.SEM_CODIGO) {
+            return false;
+        }
+        listas.add(indice.obter(codigo));
+        return true;
+    }
+
+    /**
+     * Posições de todos os dias do período, em ordem crescente.
+     */
+    private int[] posicoesDoPeriodo(int primeiroDia, int ultimoDia, int total) {
+        int[] posicoes = new int[total];
+        int n = 0;
+        for (int dia = primeiroDia; dia <= ultimoDia; dia++) {
+            IntLista doDia = posicoesPorDia.obter(dia);
+            for (int i = 0; i < doDia.size(); i++) {
+                posicoes[n++] = doDia.get(i);
+            }
+        }
+        Arrays.sort(posicoes, 0, n);
+        return n == total ? posicoes : Arrays.copyOf(posicoes, n);
+    }
+
+    /**
+     * Garante que a frequência tenha seus códigos substitutos, registrando
+     * matrícula, disciplina e CPF que ainda não tenham código.
+     */
+    private Frequencia codificar(Frequencia f) {
+        if (f.getCodigoAluno() == RegistroChaves.SEM_CODIGO) {
+            f.setCodigos(
+                    chaves.registrarMatricula(f.getAlunoMatricula()),
+                    chaves.registrarDisciplina(f.getDisciplina()),
+                    chaves.registrarCpf(f.getRegistradoPorCpf()));
+        }
+        return f;
+    }
+
+    /**
+     * Grava a frequência no armazém e atualiza os índices.
+     */
+    private void indexar(Frequencia f) {
+        int posicao = frequencias.adicionar(f);
+        indexarPosicao(f, posicao);
+    }
+
+    private void indexarPosicao(Frequencia f, int posicao) {
+        codificar(f);
+        // Duplicatas gravadas antes do índice de unicidade: mantém a primeira
+        boolean primeiraDaTripla = posicaoDuplicada(f) == AUSENTE;
+        posicaoPorId.put(f.getId(), posicao);
+        posicoesPorAluno.adicionar(f.getCodigoAluno(), posicao);
+        posicoesPorDisciplina.adicionar(f.getCodigoDisciplina(), posicao);
+        posicoesPorRegistrador.adicionar(f.getCodigoRegistrador(), posicao);
+        posicoesPorDia.adicionar((int) f.getData().toEpochDay(), posicao);
+        bitsPorDisciplina.adicionar(f.getCodigoDisciplina(), posicao);
+        bitsPorDia.adicionar((int) f.getData().toEpochDay(), posicao);
+        if (f.isPresente()) {
+            bitsPresentes.adicionar(posicao);
+        }
+
+        if (primeiraDaTripla) {
+            long chave = chaveUnica(f);
+            if (posicaoPorChaveUnica.get(chave, AUSENTE) != AUSENTE) {
+                // Chave truncada de outra tripla: a entrada dela fica, e esta é achada pela varredura
+                chavesColididas.add(chave);
+                return;
+            }
+            posicaoPorChaveUnica.put(chave, posicao);
+            filtroChaveUnica.adicionar(chave);
+            if (posicaoPorChaveUnica.size() > filtroChaveUnica.getCapacidade()) {
+                reconstruirFiltro(filtroChaveUnica.getCapacidade() * 2);
+            }
+        }
+    }
+
+    /**
+     * Retira a posição de todos os índices e dos agregados e a marca como
+     * removida no armazém.
+     *
+     * @return ID da frequência retirada
+     */
+    private long retirarPosicao(int posicao) {
+        Frequencia f = codificar(frequencias.obter(posicao));
+        contabilizar(f, -1);
+        long id = f.getId();
+        posicaoPorId.remove(id, AUSENTE);
+        posicoesPorAluno.remover(f.getCodigoAluno(), posicao);
+        posicoesPorDisciplina.remover(f.getCodigoDisciplina(), posicao);
+        posicoesPorRegistrador.remover(f.getCodigoRegistrador(), posicao);
+        posicoesPorDia.remover((int) f.getData().toEpochDay(), posicao);
+        bitsPorDisciplina.remover(f.getCodigoDisciplina(), posicao);
+        bitsPorDia.remover((int) f.getData().toEpochDay(), posicao);
+        bitsPresentes.remover(posicao);
+        long chave = chaveUnica(f);
+        if (posicaoPorChaveUnica.get(chave, AUSENTE) == posicao) {
+            // Duplicata gravada antes do índice de unicidade: a chave passa para ela
+            int restante = outraPosicaoDaChave(f);
+            if (restante == AUSENTE) {
+                posicaoPorChaveUnica.remove(chave, AUSENTE);
+            } else {
+                posicaoPorChaveUnica.put(chave, restante);
+            }
+        }
+        frequencias.remover(posicao);
+        return id;
+    }
+
+    /**
+     * Posição de outro registro com o mesmo aluno, disciplina e data de f
+     * (que não pode estar nas listas de postagens), ou AUSENTE. Procura
+     * na menor lista entre a do aluno e a do dia.
+     */
+    private int outraPosicaoDaChave(Frequencia f) {
+        int dia = (int) f.getData().toEpochDay();
+        IntLista doAluno = posicoesPorAluno.obter(f.getCodigoAluno());
+        IntLista doDia = posicoesPorDia.obter(dia);
+        IntLista menor = doAluno.size() <= doDia.size() ? doAluno : doDia;
+        for (int i = 0; i < menor.size(); i++) {
+            Frequencia outra = frequencias.obter(menor.get(i));
+            if (outra != null) {
+                codificar(outra);
+                if (outra.getCodigoAluno() == f.getCodigoAluno()
+                        && outra.getCodigoDisciplina() == f.getCodigoDisciplina()
+                        && (int) outra.getData().toEpochDay() == dia) {
+                    return menor.get(i);
+                }
+            }
+        }
+        return AUSENTE;
+    }
+
+    /**
+     * Registra a inclusão (delta = 1) ou remoção (delta = -1) de uma
+     * frequência codificada nos agregados e nas versões dos dados.
+     */
+    private void contabilizar(Frequencia f, int delta) {
+        somarAgregados(f, delta);
+        versoes.alterouFrequencia(f.getAlunoMatricula(), f.getDisciplina());
+    }
+
+    private void somarAgregados(Frequencia f, int delta) {
+        int dia = (int) f.getData().toEpochDay();
+        agregados.registrar(f.getCodigoAluno(), f.getCodigoDisciplina(), dia, f.isPresente(), delta);
+        series.registrar(f.getCodigoAluno(), f.getCodigoDisciplina(), cursoDoAluno(f.getCodigoAluno()), dia,
+                f.isPresente(), delta);
+        monitorRisco.registrar(f.getCodigoAluno(), f.getCodigoDisciplina(), f.getAlunoMatricula(),
+                f.getDisciplina(), f.isPresente(), delta);
+        indiceCursos.registrar(f.getCodigoAluno(), f.isPresente(), delta,
+                agregados.porAluno(f.getCodigoAluno()));
+        textoObservacoes.registrar(f.getId(), f.getObservacoes(), delta);
+    }
+
+    /**
+     * Passa as frequências do aluno para o curso atual do cadastro, se
+     * estiverem contadas em outro (aluno cadastrado depois das
+     * frequências, removido ou com curso alterado).
+     */
+    private void recontarCurso(int codigoMatricula) {
+        String contado = series.cursoAtribuido(codigoMatricula);
+        String atual = SeriesTemporais.rotuloCurso(cursoDoAluno(codigoMatricula));
+        if (contado == null || contado.equals(atual)) {
+            return;
+        }
+        IntLista posicoes = posicoesPorAluno.obter(codigoMatricula);
+        for (int i = 0; i < posicoes.size(); i++) {
+            Frequencia f = frequencias.obter(posicoes.get(i));
+            series.moverCurso(codigoMatricula, atual, (int) f.getData().toEpochDay(), f.isPresente());
+        }
+        String matricula = chaves.matriculaDe(codigoMatricula);
+        IntLista dasAulas = aulasPorAluno.obter(codigoMatricula);
+        for (int i = 0; i < dasAulas.size(); i++) {
+            Aula a = aulas.get(dasAulas.get(i));
+            series.moverCurso(codigoMatricula, atual, (int) a.getData().toEpochDay(),
+                    a.isPresente(a.posicaoDe(matricula)));
+        }
+        series.atribuirCurso(codigoMatricula, atual);
+    }
+
+    /**
+     * Reconstrói os índices a partir do conteúdo atual do armazém.
+     */
+    private void reindexar() {
+        posicaoPorId.clear();
+        posicoesPorAluno.clear();
+        posicoesPorDisciplina.clear();
+        posicoesPorRegistrador.clear();
+        posicoesPorDia.clear();
+        bitsPorDisciplina.clear();
+        bitsPorDia.clear();
+        bitsPresentes.limpar();
+        posicaoPorChaveUnica.clear();
+        chavesColididas.clear();
+        filtroChaveUnica = new FiltroBloom(
+                Math.max(CAPACIDADE_FILTRO_INICIAL, frequencias.limite() * 2), TAXA_FALSO_POSITIVO);
+        for (int i = 0; i < frequencias.limite(); i++) {
+            if (!frequencias.isRemovido(i)) {
+                indexarPosicao(frequencias.obter(i), i);
+            }
+        }
+    }
+
+    // ====== UNICIDADE (aluno, disciplina, data) ======
+
+    /**
+     * Chave composta de 64 bits: 24 bits do código do aluno, 20 bits do
+     * código da disciplina e 20 bits do dia (epoch day). Os códigos vêm do
+     * RegistroChaves, então a frequência precisa estar codificada. Códigos
+     * ou dias maiores que isso são truncados, e triplas diferentes podem
+     * dar a mesma chave (ver chavesColididas).
+     */
+    private static long chaveUnica(Frequencia f) {
+        return ((long) (f.getCodigoAluno() & 0xFFFFFF) << 40)
+                | ((long) (f.getCodigoDisciplina() & 0xFFFFF) << 20)
+                | (f.getData().toEpochDay() & 0xFFFFF);
+    }
+
+    /**
+     * Posição da frequência já registrada com o mesmo aluno, disciplina e
+     * data, ou AUSENTE. O filtro de Bloom descarta a maioria das chaves novas
+     * sem consultar o mapa; um acerto no mapa é confirmado comparando os
+     * campos. Se a chave é de outra tripla (ou já foi colidida), a
+     * confirmação vira uma varredura como a de outraPosicaoDaChave, então f
+     * ainda não pode estar nas listas de postagens.
+     */
+    private int posicaoDuplicada(Frequencia f) {
+        codificar(f);
+        long chave = chaveUnica(f);
+        if (!filtroChaveUnica.talvezContenha(chave)) {
+            return AUSENTE;
+        }
+        int posicao = posicaoPorChaveUnica.get(chave, AUSENTE);
+        if (posicao != AUSENTE) {
+            Frequencia existente = frequencias.obter(posicao);
+            if (existente != null && codificar(existente).getCodigoAluno() == f.getCodigoAluno()
+                    && existente.getCodigoDisciplina() == f.getCodigoDisciplina()
+                    && existente.getData().equals(f.getData())) {
+                return posicao;
+            }
+        } else if (!chavesColididas.contains(chave)) {
+            return AUSENTE;
+        }
+        return outraPosicaoDaChave(f);
+    }
+
+    private void reconstruirFiltro(int capacidade) {
+        FiltroBloom novo = new FiltroBloom(capacidade, TAXA_FALSO_POSITIVO);
+        posicaoPorChaveUnica.forEach((chave, posicao) -> novo.adicionar(chave));
+        chavesColididas.forEach(novo::adicionar);
+        filtroChaveUnica = novo;
+    }
+
+    private static SistemaException conflitoDuplicada(Frequencia nova, Frequencia existente) {
+        return SistemaException.conflitosDados("Frequencia", nova.getAlunoMatricula(),
+                String.format("aluno %s já possui frequência em %s na data %s (ID %d)",
+                        nova.getAlunoMatricula(), existente.getDisciplina(),
+                        existente.getDataFormatada(), existente.getId()));
+    }
+
+    /**
+     * Contadores de uma gravação em lote.
+     */
+    private static final class ResultadoLote {
+        int novas;
+        int substituidas;
+        int ignoradas;
+        boolean aulasAlteradas;
+    }
+
+    /**
+     * Grava o lote no armazém aplicando a regra de unicidade, sem salvar
+     * arquivos. Na substituição, a frequência antiga é descartada (se vier
+     * de uma Aula, a posição é excluída da chamada) e a nova entra como
+     * avulsa.
+     */
+    private ResultadoLote gravarLote(List<Frequencia> lote, boolean sobrescrever) {
+        ResultadoLote resultado = new ResultadoLote();
+        for (Frequencia f : lote) {
+            if (f == null) {
+                continue;
+            }
+            int duplicada = posicaoDuplicada(f);
+            Frequencia daAula = duplicada == AUSENTE ? visaoDuplicada(f) : null;
+            if (duplicada == AUSENTE && daAula == null) {
+                resultado.novas++;
+            } else if (sobrescrever) {
+                if (daAula != null) {
+                    descartarVisao(daAula);
+                    resultado.aulasAlteradas = true;
+                } else {
+                    retirarPosicao(duplicada);
+                }
+                resultado.substituidas++;
+            } else {
+                resultado.ignoradas++;
+                continue;
+            }
+            indexar(f);
+            contabilizar(f, 1);
+        }
+        return resultado;
+    }
+
+    private void indexarUsuario(Usuario u, int indice) {
+        usuarioPorId.put(u.getId(), indice);
+        if (u.getCpf() != null) {
+            chaves.registrarCpf(u.getCpf());
+        }
+        if (u instanceof Aluno a && a.getMatricula() != null) {
+            int codigo = chaves.registrarMatricula(a.getMatricula());
+            alunoPorCodigo.put(codigo, indice);
+            indiceCursos.vincular(codigo, a.getCurso(), a.getSemestre(), agregados.porAluno(codigo));
+        }
+    }
+
+    private void reindexarUsuarios() {
+        usuarioPorId.clear();
+        alunoPorCodigo.clear();
+        idsUsuarios.clear();
+        for (int i = 0; i < usuarios.size(); i++) {
+            indexarUsuario(usuarios.get(i), i);
+            idsUsuarios.add(usuarios.get(i).getId());
+        }
+        idsUsuarios.ordenar();
+        reconstruirSugestoes();
+        // Matrículas que ficaram sem aluno (removido) voltam para "(sem curso)"
+        for (int codigo = 0; codigo < chaves.totalMatriculas(); codigo++) {
+            if (alunoPorCodigo.get(codigo, AUSENTE) == AUSENTE) {
+                indiceCursos.vincular(codigo, null, 0, agregados.porAluno(codigo));
+            }
+        }
+    }
+
+    private void reconstruirSugestoes() {
+        List<String> chavesAlunos = new ArrayList<>();
+        List<Aluno> alunos = new ArrayList<>();
+        for (Usuario u : usuarios) {
+            if (u instanceof Aluno a) {
+                for (String chave : chavesSugestao(a)) {
+                    chavesAlunos.add(chave);
+                    alunos.add(a);
+                }
+            }
+        }
+        sugestoesAlunos.reconstruir(chavesAlunos, alunos);
+    }
+
+    /**
+     * Chaves de sugestão do aluno, sem acentos e em minúsculas: a
+     * matrícula e o nome a partir de cada palavra ("joao da silva",
+     * "da silva", "silva").
+     */
+    private static List<String> chavesSugestao(Aluno a) {
+        List<String> chavesAluno = new ArrayList<>();
+        String matricula = IndiceTexto.dobrar(a.getMatricula());
+        if (!matricula.isEmpty()) {
+            chavesAluno.add(matricula);
+        }
+        String nome = IndiceTexto.dobrar(a.getNome());
+        int inicio = 0;
+        while (inicio < nome.length()) {
+            chavesAluno.add(nome.substring(inicio));
+            int espaco = nome.indexOf(' ', inicio);
+            inicio = espaco < 0 ? nome.length() : espaco + 1;
+        }
+        return chavesAluno;
+    }
+
+    /**
+     * Localiza o aluno pela matrícula usando o código substituto.
+     * Retorna null se não houver aluno com essa matrícula.
+     */
+    private Aluno buscarAlunoPorMatricula(String matricula) {
+        int codigo = chaves.codigoMatricula(matricula);
+        int indice = codigo == RegistroChaves.SEM_CODIGO ? AUSENTE : alunoPorCodigo.get(codigo, AUSENTE);
+        return indice == AUSENTE ? null : (Aluno) usuarios.get(indice);
+    }
+
+    /**
+     * Registro de chaves substitutas (somente leitura para a interface e relatórios).
+     */
+    public RegistroChaves getRegistroChaves() {
+        return chaves;
+    }
+
+    /**
+     * Cria o armazém de frequências conforme a propriedade PROP_ARMAZEM.
+     */
+    private ArmazemFrequencias criarArmazem() {
+        String modo = System.getProperty(PROP_ARMAZEM, "memoria");
+        try {
+            switch (modo) {
+                case "offheap":
+                    System.out.println(" Armazém de frequências: off-heap (buffer direto)");
+                    return new ArmazemOffHeap();
+                case "mapeado":
+                    System.out.println(" Armazém de frequências: mapeado em " + ARQUIVO_FREQUENCIAS_MAPEADO);
+                    return new ArmazemOffHeap(new File(ARQUIVO_FREQUENCIAS_MAPEADO));
+                default:
+                    return new ArmazemMemoria();
+            }
+        } catch (SistemaException e) {
+            System.err.println(" Erro ao abrir armazém '" + modo + "': " + e.getDetalhesErro()
+                    + ". Usando armazém em memória.");
+            return new ArmazemMemoria();
+        }
+    }
+
+    // ====== CRUD de AULAS (chamada coletiva) ======
+
+    /**
+     * Registra uma aula com a chamada de toda a turma.
+     * Um ID sequencial é atribuído à aula, que é indexada pela chamada (sem
+     * gravar um registro por aluno no armazém), e as visões Frequencia de
+     * cada aluno passam a aparecer nas buscas e relatórios.
+     */
+    public void registrarAula(Aula aula) throws SistemaException {
+        trava.writeLock().lock();
+        try {
+            if (aula == null) {
+                throw new SistemaException("Aula", "N/A", "Aula inválida (nula)");
+            }
+            if (aula.isRegistrada()) {
+                throw SistemaException.conflitosDados("Aula", String.valueOf(aula.getId()), "aula já registrada");
+            }
+
+            // Nenhum aluno da chamada pode ter frequência na mesma disciplina e data,
+            // nem aparecer duas vezes na própria chamada
+            LongConjunto alunosDaAula = new LongConjunto();
+            for (Frequencia f : aula.getFrequencias()) {
+                int duplicada = posicaoDuplicada(f);
+                if (duplicada != AUSENTE) {
+                    throw conflitoDuplicada(f, frequencias.obter(duplicada));
+                }
+                Frequencia daAula = visaoDuplicada(f);
+                if (daAula != null) {
+                    throw conflitoDuplicada(f, daAula);
+                }
+                if (!alunosDaAula.add(f.getCodigoAluno())) {
+                    throw SistemaException.conflitosDados("Aula", f.getAlunoMatricula(),
+                            "matrícula " + f.getAlunoMatricula() + " repetida na chamada");
+                }
+            }
+
+            aula.registrar(proximoIdAula);
+
+            aulas.add(aula);
+            indexarAula(aula, aulas.size() - 1);
+            for (Frequencia f : aula.getFrequencias()) {
+                contabilizar(codificar(f), 1);
+            }
+            salvarAulas();
+            System.out.println(" Aula registrada: " + aula.toString());
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inclui a aula nos índices por disciplina, registrador, dia e, para
+     * cada posição não excluída da chamada, por aluno.
+     */
+    private void indexarAula(Aula a, int indice) {
+        aulaPorId.put(a.getId(), indice);
+        proximoIdAula = Math.max(proximoIdAula, a.getId() + 1);
+        aulasPorDisciplina.adicionar(chaves.registrarDisciplina(a.getDisciplina()), indice);
+        aulasPorRegistrador.adicionar(chaves.registrarCpf(a.getRegistradoPorCpf()), indice);
+        aulasPorDia.adicionar((int) a.getData().toEpochDay(), indice);
+        for (int posicao = 0; posicao < a.getTamanhoTurma(); posicao++) {
+            if (!a.isRemovido(posicao)) {
+                aulasPorAluno.adicionar(chaves.registrarMatricula(a.getMatricula(posicao)), indice);
+                registrosDeAulas++;
+            }
+        }
+    }
+
+    private void reindexarAulas() {
+        aulaPorId.clear();
+        aulasPorAluno.clear();
+        aulasPorDisciplina.clear();
+        aulasPorRegistrador.clear();
+        aulasPorDia.clear();
+        registrosDeAulas = 0;
+        proximoIdAula = 1;
+        for (int i = 0; i < aulas.size(); i++) {
+            indexarAula(aulas.get(i), i);
+        }
+    }
+
+    /**
+     * Visão da posição da chamada pelo ID, ou null se a aula não existir ou
+     * a posição tiver sido excluída.
+     */
+    private Frequencia visaoPorId(long id) {
+        int indice = aulaPorId.get(Aula.aulaIdDe(id), AUSENTE);
+        if (indice == AUSENTE) {
+            return null;
+        }
+        Aula a = aulas.get(indice);
+        int posicao = Aula.posicaoNaChamada(id);
+        return posicao >= a.getTamanhoTurma() || a.isRemovido(posicao) ? null : a.getFrequencia(posicao);
+    }
+
+    private Frequencia visaoExistente(long id) throws SistemaException {
+        Frequencia visao = visaoPorId(id);
+        if (visao == null) {
+            throw SistemaException.frequenciaNaoEncontrada(id);
+        }
+        return visao;
+    }
+
+    /**
+     * Visão de chamada com o mesmo aluno, disciplina e data de f, ou null.
+     * Procura na menor lista entre as aulas do aluno e as do dia.
+     */
+    private Frequencia visaoDuplicada(Frequencia f) {
+        codificar(f);
+        IntLista doAluno = aulasPorAluno.obter(f.getCodigoAluno());
+        IntLista doDia = aulasPorDia.obter((int) f.getData().toEpochDay());
+        IntLista menor = doAluno.size() <= doDia.size() ? doAluno : doDia;
+        for (int i = 0; i < menor.size(); i++) {
+            Aula a = aulas.get(menor.get(i));
+            if (!a.getData().equals(f.getData())
+                    || chaves.codigoDisciplina(a.getDisciplina()) != f.getCodigoDisciplina()) {
+                continue;
+            }
+            int posicao = a.posicaoDe(f.getAlunoMatricula());
+            if (posicao >= 0 && !a.isRemovido(posicao)) {
+                return a.getFrequencia(posicao);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Exclui a posição da chamada de que a visão faz parte, descontando-a
+     * dos agregados e do índice por aluno.
+     */
+    private void descartarVisao(Frequencia visao) {
+        int indice = aulaPorId.get(Aula.aulaIdDe(visao.getId()), AUSENTE);
+        contabilizar(codificar(visao), -1);
+        aulasPorAluno.remover(visao.getCodigoAluno(), indice);
+        aulas.get(indice).remover(Aula.posicaoNaChamada(visao.getId()));
+        registrosDeAulas--;
+    }
+
+    /**
+     * Retorna a lista atual de aulas (cópia defensiva).
+     */
+    public List<Aula> listarAulas() {
+        trava.readLock().lock();
+        try {
+            return new ArrayList<>(aulas);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca aulas de uma determinada disciplina.
+     */
+    public List<Aula> buscarAulasPorDisciplina(String disciplina) {
+        trava.readLock().lock();
+        try {
+            return aulas.stream()
+                    .filter(a -> a.getDisciplina().equalsIgnoreCase(disciplina))
+                    .collect(Collectors.toList());
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Conta as presenças de uma disciplina, lidas da tabela de agregados.
+     */
+    public long contarPresencasPorDisciplina(String disciplina) {
+        trava.readLock().lock();
+        try {
+            return contagemDisciplina(disciplina).getPresentes();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // ====== PERSISTÊNCIA EM BINÁRIO (Serializable) ======
+
+    /**
+     * Grava usuários, frequências e aulas e, no fim, um único checkpoint
+     * dos agregados. Usado na saída do sistema.
+     */
+    public void salvarDados(IntConsumer progresso) {
+        trava.writeLock().lock();
+        try {
+            gravarUsuarios();
+            progresso.accept(25);
+            gravarFrequencias();
+            progresso.accept(50);
+            gravarAulas();
+            progresso.accept(75);
+            salvarAgregados();
+            progresso.accept(100);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Salva a lista de usuários em arquivo binário.
+     * MÉTODO TORNADO PÚBLICO para ser chamado do MainWindow.
+     */
+    public void salvarUsuarios() {
+        trava.writeLock().lock();
+        try {
+            gravarUsuarios();
+            // chaves.dat pode ter mudado: o carimbo do checkpoint precisa acompanhar
+            salvarAgregados();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Grava usuarios.dat sem checkpoint dos agregados. Operações de um só
+     * registro usam esta forma: o checkpoint fica para a saída ou para o
+     * fim dos lotes, e o carimbo desatualizado faz a próxima carga
+     * recalcular os agregados se o sistema cair antes.
+     */
+    private void gravarUsuarios() {
+        salvarChaves();
+        try (ObjectOutputStream oos = new ObjectOutputStream(
+                new FileOutputStream(ARQUIVO_USUARIOS))) {
+            oos.writeObject(usuarios);
+            System.out.println(" Usuários gravados em arquivo binário (" + usuarios.size() + " registros)");
+        } catch (Exception e) {
+            System.err.println(" Erro ao salvar usuários: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Salva o registro de chaves substitutas, se houver códigos novos.
+     */
+    private void salvarChaves() {
+        if (!chaves.isAlterado()) {
+            return;
+        }
+        try (ObjectOutputStream oos = new ObjectOutputStream(
+                new FileOutputStream(ARQUIVO_CHAVES))) {
+            oos.writeObject(chaves);
+            chaves.marcarGravado();
+        } catch (Exception e) {
+            System.err.println(" Erro ao salvar chaves: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Carrega o registro de chaves substitutas. Se não existir, os códigos
+     * são atribuídos novamente à medida que os dados forem carregados.
+     */
+    private void carregarChaves() {
+        File arquivo = new File(ARQUIVO_CHAVES);
+        if (!arquivo.exists()) {
+            chaves = new RegistroChaves();
+            return;
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(arquivo))) {
+            chaves = (RegistroChaves) ois.readObject();
+            System.out.println(" Chaves carregadas (" + chaves.totalMatriculas() + " matrículas, "
+                    + chaves.totalCpfs() + " CPFs, " + chaves.totalDisciplinas() + " disciplinas)");
+        } catch (Exception e) {
+            System.err.println(" Erro ao carregar chaves: " + e.getMessage());
+            chaves = new RegistroChaves();
+        }
+    }
+
+    /**
+     * Carrega a lista de usuários do arquivo binário.
+     */
+    @SuppressWarnings("unchecked")
+    private void carregarUsuarios() {
+        File arquivo = new File(ARQUIVO_USUARIOS);
+        if (!arquivo.exists()) {
+            usuarios = new ArrayList<>();
+            System.out.println(" Arquivo de usuários não existe. Iniciando com lista vazia.");
+            return;
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(arquivo))) {
+            Object obj = ois.readObject();
+            usuarios = (List<Usuario>) obj;
+            reindexarUsuarios();
+            usuarios.forEach(u -> registrarNome(u, 1));
+            System.out.println(" Usuários carregados de arquivo binário (" + usuarios.size() + " registros)");
+        } catch (Exception e) {
+            System.err.println(" Erro ao carregar usuários: " + e.getMessage());
+            usuarios = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Salva a lista de frequências em arquivo binário.
+     * MÉTODO TORNADO PÚBLICO para ser chamado do MainWindow.
+     */
+    public void salvarFrequencias() {
+        trava.writeLock().lock();
+        try {
+            gravarFrequencias();
+            salvarAgregados();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Grava as frequências (ou sincroniza o armazém mapeado) sem checkpoint
+     * dos agregados; ver gravarUsuarios().
+     */
+    private void gravarFrequencias() {
+        salvarChaves();
+        if (frequencias.isPersistente()) {
+            // Armazém mapeado: o próprio arquivo já é a persistência
+            frequencias.sincronizar();
+            System.out.println(" Frequências sincronizadas em " + ARQUIVO_FREQUENCIAS_MAPEADO + " ("
+                    + frequencias.tamanho() + " registros)");
+            return;
+        }
+
+        List<Frequencia> avulsas = frequencias.stream().collect(Collectors.toCollection(ArrayList::new));
+        try (ObjectOutputStream oos = new ObjectOutputStream(
+                new FileOutputStream(ARQUIVO_FREQUENCIAS))) {
+            oos.writeObject(avulsas);
+            System.out.println(" Frequências gravadas em arquivo binário (" + avulsas.size() + " registros)");
+        } catch (Exception e) {
+            System.err.println(" Erro ao salvar frequências: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Carrega a lista de frequências do arquivo binário.
+     */
+    @SuppressWarnings("unchecked")
+    private void carregarFrequencias() {
+        frequencias = criarArmazem();
+
+        if (frequencias instanceof ArmazemOffHeap mapeado && frequencias.isPersistente()
+                && frequencias.limite() > 0) {
+            // Versões anteriores gravavam as visões das aulas no .bin; as chamadas vêm de aulas.dat
+            mapeado.compactar(id -> Aula.aulaIdDe(id) == 0);
+            reindexar();
+            System.out.println(" Frequências abertas de " + ARQUIVO_FREQUENCIAS_MAPEADO + " ("
+                    + frequencias.tamanho() + " registros)");
+            return;
+        }
+
+        File mapeado = new File(ARQUIVO_FREQUENCIAS_MAPEADO);
+        if (!frequencias.isPersistente() && mapeado.exists()) {
+            // A última execução usou o modo mapeado: frequencias.dat está desatualizado
+            migrarDoArmazemMapeado(mapeado);
+            return;
+        }
+
+        File arquivo = new File(ARQUIVO_FREQUENCIAS);
+        if (!arquivo.exists()) {
+            System.out.println(" Arquivo de frequências não existe. Iniciando com lista vazia.");
+            return;
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(arquivo))) {
+            Object obj = ois.readObject();
+            for (Frequencia f : (List<Frequencia>) obj) {
+                indexar(f);
+            }
+            System.out.println(" Frequências carregadas de arquivo binário (" + frequencias.tamanho() + " registros)");
+        } catch (Exception e) {
+            System.err.println(" Erro ao carregar frequências: " + e.getMessage());
+            frequencias.limpar();
+            reindexar();
+            return;
+        }
+        if (frequencias.isPersistente()) {
+            // Migração para o modo mapeado: daqui em diante a persistência é o .bin
+            frequencias.sincronizar();
+            renomearMigrado(arquivo);
+            System.out.println(" Frequências migradas de " + ARQUIVO_FREQUENCIAS + " para "
+                    + ARQUIVO_FREQUENCIAS_MAPEADO);
+        }
+    }
+
+    /**
+     * Volta do modo mapeado para um armazém sem arquivo: copia os registros
+     * de frequencias.bin, grava frequencias.dat e renomeia os arquivos do
+     * modo mapeado para *.migrado. Se a leitura falhar, os arquivos ficam
+     * como estão e o armazém começa vazio, sem sobrescrever nada.
+     */
+    private void migrarDoArmazemMapeado(File mapeado) {
+        try {
+            ArmazemOffHeap origem = ArmazemOffHeap.lerArquivo(mapeado);
+            origem.paraCada(f -> {
+                if (Aula.aulaIdDe(f.getId()) == 0) {
+                    indexar(f);
+                }
+            });
         } catch (SistemaException e) {
-            System.err.println(" Erro ao criar dados iniciais: " + e.getDetalhesErro());
+            System.err.println(" Erro ao migrar " + ARQUIVO_FREQUENCIAS_MAPEADO + ": " + e.getDetalhesErro()
+                    + ". Os arquivos foram mantidos; use o modo mapeado para abri-los.");
+            frequencias.limpar();
+            reindexar();
+            return;
+        }
+        gravarFrequencias();
+        renomearMigrado(mapeado);
+        renomearMigrado(new File(ARQUIVO_FREQUENCIAS_MAPEADO + ".dic"));
+        renomearMigrado(new File(ARQUIVO_FREQUENCIAS_MAPEADO + ".obs"));
+        System.out.println(" Frequências migradas de " + ARQUIVO_FREQUENCIAS_MAPEADO + " para "
+                + ARQUIVO_FREQUENCIAS + " (" + frequencias.tamanho() + " registros)");
+    }
+
+    /**
+     * Renomeia um arquivo de dados substituído por migração para
+     * "<nome>.migrado" (mantido como cópia de segurança).
+     */
+    private static void renomearMigrado(File arquivo) {
+        if (!arquivo.exists()) {
+            return;
+        }
+        File destino = new File(arquivo.getPath() + ".migrado");
+        if (destino.exists() && !destino.delete() || !arquivo.renameTo(destino)) {
+            System.err.println(" Não foi possível renomear " + arquivo.getName() + " para " + destino.getName());
+        }
+    }
+
+    /**
+     * Salva a lista de aulas em arquivo binário.
+     */
+    public void salvarAulas() {
+        trava.writeLock().lock();
+        try {
+            gravarAulas();
+            salvarAgregados();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Grava aulas.dat sem checkpoint dos agregados; ver gravarUsuarios().
+     */
+    private void gravarAulas() {
+        salvarChaves();
+        try (ObjectOutputStream oos = new ObjectOutputStream(
+                new FileOutputStream(ARQUIVO_AULAS))) {
+            oos.writeObject(aulas);
+            System.out.println(" Aulas gravadas em arquivo binário (" + aulas.size() + " registros)");
+        } catch (Exception e) {
+            System.err.println(" Erro ao salvar aulas: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Carrega a lista de aulas do arquivo binário e a indexa pela chamada.
+     */
+    @SuppressWarnings("unchecked")
+    private void carregarAulas() {
+        File arquivo = new File(ARQUIVO_AULAS);
+        if (!arquivo.exists()) {
+            aulas = new ArrayList<>();
+            System.out.println(" Arquivo de aulas não existe. Iniciando com lista vazia.");
+            return;
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(arquivo))) {
+            Object obj = ois.readObject();
+            aulas = (List<Aula>) obj;
+            for (Aula a : aulas) {
+                a.registrar(a.getId()); // gravadas antes do campo registrada: fecha a chamada
+            }
+            reindexarAulas();
+            System.out.println(" Aulas carregadas de arquivo binário (" + aulas.size() + " registros)");
+        } catch (Exception e) {
+            System.err.println(" Erro ao carregar aulas: " + e.getMessage());
+            aulas = new ArrayList<>();
+            reindexarAulas();
+        }
+    }
+
+    /**
+     * Carimbo atual dos arquivos de que os agregados dependem (usuarios.dat
+     * entra pelas séries por curso).
+     */
+    private static CarimboConsistencia carimboArquivos() {
+        return CarimboConsistencia.de(
+                new File(ARQUIVO_CHAVES),
+                new File(ARQUIVO_USUARIOS),
+                new File(ARQUIVO_FREQUENCIAS),
+                new File(ARQUIVO_AULAS),
+                new File(ARQUIVO_FREQUENCIAS_MAPEADO),
+                new File(ARQUIVO_FREQUENCIAS_MAPEADO + ".dic"),
+                new File(ARQUIVO_FREQUENCIAS_MAPEADO + ".obs"));
+    }
+
+    /**
+     * Grava os agregados com o carimbo dos arquivos de dados. Deve ser
+     * chamado depois que os arquivos foram escritos.
+     */
+    private void salvarAgregados() {
+        try (ObjectOutputStream oos = new ObjectOutputStream(
+                new FileOutputStream(ARQUIVO_AGREGADOS))) {
+            oos.writeObject(carimboArquivos());
+            oos.writeObject(agregados);
+            oos.writeObject(series);
+            oos.writeObject(monitorRisco);
+            oos.writeObject(indiceCursos);
+            oos.writeObject(textoObservacoes);
+            oos.writeObject(textoNomes);
+        } catch (Exception e) {
+            System.err.println(" Erro ao salvar agregados: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Usa os agregados gravados se o carimbo for o dos arquivos lidos e o
+     * total bater com o armazém; senão, recalcula a partir das frequências.
+     */
+    private void carregarAgregados(CarimboConsistencia carimboArquivos) {
+        File arquivo = new File(ARQUIVO_AGREGADOS);
+        if (arquivo.exists()) {
+            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(arquivo))) {
+                CarimboConsistencia carimbo = (CarimboConsistencia) ois.readObject();
+                TabelaAgregados gravados = (TabelaAgregados) ois.readObject();
+                SeriesTemporais seriesGravadas = (SeriesTemporais) ois.readObject();
+                MonitorRisco monitorGravado = (MonitorRisco) ois.readObject();
+                IndiceCursos indiceGravado = (IndiceCursos) ois.readObject();
+                IndiceTexto observacoesGravadas = (IndiceTexto) ois.readObject();
+                IndiceTexto nomesGravados = (IndiceTexto) ois.readObject();
+                if (carimbo.equals(carimboArquivos) && gravados.getTotal() == contarFrequencias()) {
+                    agregados = gravados;
+                    series = seriesGravadas;
+                    monitorRisco = monitorGravado;
+                    indiceCursos = indiceGravado;
+                    textoObservacoes = observacoesGravadas;
+                    textoNomes = nomesGravados;
+                    System.out.println(" Agregados carregados de " + ARQUIVO_AGREGADOS);
+                    return;
+                }
+                // Os limites de risco configurados valem mesmo com os contadores desatualizados
+                monitorRisco.configurar(monitorGravado.getLimiteAviso(), monitorGravado.getLimiteCritico(),
+                        monitorGravado.getMinimoRegistros());
+                System.out.println(" Agregados desatualizados em " + ARQUIVO_AGREGADOS + ". Recalculando.");
+            } catch (Exception e) {
+                System.err.println(" Erro ao carregar agregados: " + e.getMessage() + ". Recalculando.");
+            }
+        }
+        reconstruirAgregados();
+    }
+
+    private void reconstruirAgregados() {
+        agregados = new TabelaAgregados();
+        series = new SeriesTemporais();
+        monitorRisco.limpar();
+        indiceCursos.zerarContadores(); // os vínculos vêm do cadastro já lido
+        textoObservacoes.limpar();
+        textoNomes.limpar();
+        for (Usuario u : usuarios) {
+            textoNomes.registrar(u.getId(), u.getNome(), 1);
+        }
+        for (int i = 0; i < frequencias.limite(); i++) {
+            if (!frequencias.isRemovido(i)) {
+                somarAgregados(codificar(frequencias.obter(i)), 1);
+            }
+        }
+        for (Aula a : aulas) {
+            a.getFrequencias().forEach(f -> somarAgregados(codificar(f), 1));
+        }
+    }
+
+    // ====== GERAÇÃO E LEITURA DE CSV (via SerializadorJava) ======
+
+    private static final int REGISTROS_POR_VERIFICACAO = 1024; // cancelamento e progresso da exportação
+
+    /**
+     * Gera um CSV de exemplo "dados.csv" para testar a importação via
+     * lerDadosCSV().
+     */
+    public void criarArquivoCSVExemplo() {
+        trava.readLock().lock();
+        try {
+            try {
+                serializador.criarCSVExemplo();
+                System.out.println(" Arquivo CSV de exemplo criado");
+            } catch (Exception e) {
+                System.err.println(" Erro ao criar CSV de exemplo: " + e.getMessage());
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lê o CSV ("dados.csv") e importa usuários e frequências para as listas.
+     * Frequências já existentes (mesmo aluno, disciplina e data) são ignoradas.
+     */
+    public void lerDadosCSV() throws SistemaException {
+        trava.writeLock().lock();
+        try {
+            lerDadosCSV(false);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lê o CSV ("dados.csv") e importa usuários e frequências para as listas.
+     *
+     * @param sobrescrever se true, uma frequência do CSV com mesmo aluno,
+     *                     disciplina e data substitui a existente (upsert);
+     *                     se false, é ignorada
+     * @throws SistemaException se dados.csv não existir, não puder ser lido
+     *                          ou a importação falhar
+     */
+    public void lerDadosCSV(boolean sobrescrever) throws SistemaException {
+        trava.writeLock().lock();
+        try {
+            lerDadosCSV(sobrescrever, new Cancelamento(), percentual -> { });
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Como lerDadosCSV(sobrescrever), informando o percentual concluído.
+     * O cancelamento só é atendido antes de alterar os dados (depois de
+     * ler o arquivo); a partir daí a importação vai até o fim, para não
+     * ficar pela metade.
+     *
+     * @throws java.util.concurrent.CancellationException se cancelado a tempo
+     * @throws SistemaException se dados.csv não existir ou não puder ser lido
+     *                          (nada é alterado) ou se a importação falhar no meio
+     */
+    public void lerDadosCSV(boolean sobrescrever, Cancelamento cancelamento, IntConsumer progresso)
+            throws SistemaException {
+        trava.writeLock().lock();
+        try {
+            // Lê o arquivo inteiro antes de alterar qualquer coisa
+            List<Frequencia> importadas = new ArrayList<>();
+            serializador.carregarFrequenciasCSV(importadas);
+            int usuariosAntes = usuarios.size();
+            List<Usuario> comImportados = new ArrayList<>(usuarios); // os IDs novos seguem os existentes
+            serializador.carregarUsuariosCSV(comImportados);
+            progresso.accept(30);
+            cancelamento.verificar();
+            try {
+                usuarios.addAll(comImportados.subList(usuariosAntes, comImportados.size()));
+                reindexarUsuarios();
+                for (Usuario u : usuarios.subList(usuariosAntes, usuarios.size())) {
+                    textoNomes.registrar(u.getId(), u.getNome(), 1);
+                    registrarNome(u, 1); // árvore BK e ordem alfabética, como em adicionarUsuario
+                }
+                for (int codigo = 0; codigo < chaves.totalMatriculas(); codigo++) {
+                    recontarCurso(codigo);
+                }
+                versoes.alterouUsuarios();
+                progresso.accept(40);
+                ResultadoLote resultado = gravarLote(importadas, sobrescrever);
+                progresso.accept(70);
+
+                int novosUsuarios = usuarios.size() - usuariosAntes;
+
+                System.out.println("📥 Dados CSV importados: " + novosUsuarios +
+                        " usuários, " + resultado.novas + " frequências novas, " + resultado.substituidas
+                        + " substituídas, " + resultado.ignoradas + " duplicadas ignoradas");
+
+                // Salvar após importação, com um único checkpoint no fim do lote
+                gravarUsuarios();
+                gravarFrequencias();
+                if (resultado.aulasAlteradas) {
+                    gravarAulas();
+                }
+                salvarAgregados();
+                progresso.accept(100);
+
+            } catch (RuntimeException e) {
+                System.err.println(" Erro ao importar dados CSV: " + e.getMessage());
+                throw SistemaException.erroPersistencia("importar dados.csv", e);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gera, a partir dos objetos em memória, novos arquivos CSV:
+     * • usuarios.csv
+     * • frequencias.csv
+     * MÉTODO IMPLEMENTADO para ser chamado da interface.
+     */
+    public void exportarParaCSV() {
+        trava.readLock().lock();
+        try {
+            exportarParaCSV(new Cancelamento(), percentual -> { });
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Como exportarParaCSV(), informando o percentual concluído. Os
+     * registros são reunidos antes de gravar; cancelado nessa fase,
+     * nenhum arquivo é alterado.
+     *
+     * @throws java.util.concurrent.CancellationException se cancelado antes da gravação
+     */
+    public void exportarParaCSV(Cancelamento cancelamento, IntConsumer progresso) {
+        trava.readLock().lock();
+        try {
+            int total = Math.max(1, contarFrequencias());
+            List<Frequencia> registros = new ArrayList<>(total);
+            todasAsFrequencias().forEach(f -> {
+                registros.add(codificar(f));
+                if (registros.size() % REGISTROS_POR_VERIFICACAO == 0) {
+                    cancelamento.verificar();
+                    progresso.accept(registros.size() * 80 / total);
+                }
+            });
+            cancelamento.verificar();
+            try {
+                serializador.salvarUsuariosCSV(usuarios);
+                serializador.salvarFrequenciasCSV(registros);
+                progresso.accept(100);
+                System.out.println(" Dados exportados para CSV com sucesso");
+            } catch (Exception e) {
+                System.err.println(" Erro ao exportar para CSV: " + e.getMessage());
+                throw new RuntimeException("Erro na exportação CSV: " + e.getMessage(), e);
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // ====== DEMONSTRAÇÃO DE POLIMORFISMO ======
+
+    public void demonstrarPolimorfismo() {
+        trava.readLock().lock();
+        try {
+            System.out.println("\n=== 🎭 Demonstração Polimorfismo ===");
+            for (Usuario u : usuarios) {
+                System.out.println(" → Nome: " + u.getNome());
+                System.out.println("   Tipo: " + u.getTipoUsuario());
+                System.out.println("   Pode editar frequência? " + u.podeEditarFrequencia());
+                System.out.println("   Pode gerenciar usuários? " + u.podeGerenciarUsuarios());
+                System.out.println("   Permissões: " + String.join(", ", u.getPermissoes()));
+                System.out.println("   Descrição Completa: " + u.getDescricaoCompleta());
+                System.out.println("   Relatório Personalizado: " + gerarRelatorioPersonalizado(u));
+                System.out.println("-----------------------------------");
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // ====== GERAÇÃO DE RELATÓRIOS ======
+
+    /**
+     * Gera um relatório geral (string) de todos os usuários.
+     */
+    public String gerarRelatorioGeralUsuarios() {
+        trava.readLock().lock();
+        try {
+            return cache.obter("usuarios", Dependencia.usuarios(), this::montarRelatorioGeralUsuarios);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    private String montarRelatorioGeralUsuarios() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            new GeradorRelatorios(this).escreverUsuarios(sb, FormatoRelatorio.TEXTO);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder não lança IOException
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gera um relatório de frequência por disciplina.
+     */
+    public String gerarRelatorioFrequenciasPorDisciplina(String disciplina) {
+        trava.readLock().lock();
+        try {
+            return cache.obter("disciplina:" + disciplina, Dependencia.disciplina(disciplina),
+                    () -> montarRelatorioFrequenciasPorDisciplina(disciplina));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    private String montarRelatorioFrequenciasPorDisciplina(String disciplina) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            new GeradorRelatorios(this).escreverFrequenciasPorDisciplina(sb, FormatoRelatorio.TEXTO, disciplina);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gera relatório de frequências de um aluno específico.
+     */
+    public String gerarRelatorioFrequenciasAluno(String matricula) {
+        trava.readLock().lock();
+        try {
+            return cache.obter("aluno:" + matricula, Dependencia.aluno(matricula),
+                    () -> montarRelatorioFrequenciasAluno(matricula));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    private String montarRelatorioFrequenciasAluno(String matricula) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            new GeradorRelatorios(this).escreverFrequenciasAluno(sb, FormatoRelatorio.TEXTO, matricula);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gera o relatório do curso do coordenador (totais, semestres,
+     * disciplinas gerenciadas e alunos em risco), a partir dos contadores.
+     */
+    public String gerarRelatorioCoordenador(Coordenador coordenador) {
+        trava.readLock().lock();
+        try {
+            // Sem cache: só lê contadores, e os limites de risco podem mudar sem nova versão dos dados
+            StringBuilder sb = new StringBuilder();
+            try {
+                new GeradorRelatorios(this).escreverCurso(sb, FormatoRelatorio.TEXTO, coordenador);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return sb.toString();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Relatório personalizado do usuário. Para o coordenador, é o relatório
+     * do curso calculado pelo Sistema; para os demais, o do próprio modelo.
+     */
+    public String gerarRelatorioPersonalizado(Usuario u) {
+        trava.readLock().lock();
+        try {
+            return u instanceof Coordenador c ? gerarRelatorioCoordenador(c) : u.gerarRelatorioPersonalizado();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // ====== MÉTODO DE "DADOS INICIAIS" - CONSTRUTORES CORRIGIDOS ======
+
+    /**
+     * Cria alguns usuários e frequências para testar rapidamente.
+     * Se dados já existirem (carregados do .dat), este método não altera nada.
+     * 
+     * CORREÇÃO PRINCIPAL: Ajustados os parâmetros dos construtores para
+     * corresponder
+     * exatamente às assinaturas definidas nas classes modelo.
+     */
+    public void criarDadosIniciais() {
+        trava.writeLock().lock();
+        try {
+            if (!usuarios.isEmpty() || frequencias.tamanho() > 0 || !aulas.isEmpty()) {
+                System.out.println("🔧 Dados já existem. Pulando criação de dados iniciais.");
+                return;
+            }
+
+            try {
+                System.out.println("🔧 Criando dados iniciais...");
+
+                // ===== CRIAR ALUNOS =====
+                // Construtor Aluno: (int id, String nome, String email, String cpf, String
+                // senha, String matricula, String curso, int semestre)
+                adicionarUsuario(new Aluno(
+                        1, // id
+                        "Ana Costa", // nome
+                        "ana@exemplo.com", // email
+                        "12345678901", // cpf
+                        SENHA_PADRAO, // senha
+                        "2024001", // matricula
+                        "Engenharia", // curso
+                        3 // semestre
+                ));
+
+                adicionarUsuario(new Aluno(
+                        2, // id
+                        "Bruno Silva", // nome
+                        "bruno@exemplo.com", // email
+                        "23456789012", // cpf
+                        SENHA_PADRAO, // senha
+                        "2024002", // matricula
+                        "Medicina", // curso
+                        2 // semestre
+                ));
+
+                // ===== CRIAR PROFESSORES =====
+                // Construtor Professor: (int id, String nome, String email, String cpf, String
+                // senha, String area, String titulacao)
+                adicionarUsuario(new Professor(
+                        3, // id
+                        "Dr. Carlos Mendes", // nome
+                        "carlos@exemplo.com", // email
+                        "34567890123", // cpf
+                        SENHA_PADRAO, // senha
+                        "Matemática", // area
+                        "Doutor" // titulacao
+                ));
+
+                adicionarUsuario(new Professor(
+                        4, // id
+                        "Profa. Diana Santos", // nome
+                        "diana@exemplo.com", // email
+                        "45678901234", // cpf
+                        SENHA_PADRAO, // senha
+                        "Física", // area
+                        "Mestre" // titulacao
+                ));
+
+                // ===== CRIAR COORDENADOR =====
+                // Construtor Coordenador: (int id, String nome, String email, String cpf,
+                // String senha, String curso)
+                adicionarUsuario(new Coordenador(
+                        5, // id
+                        "João Silva", // nome
+                        "joao@exemplo.com", // email
+                        "56789012345", // cpf
+                        SENHA_PADRAO, // senha
+                        "Ciência da Computação" // curso
+                ));
+
+                // ===== CRIAR ADMINISTRADOR =====
+                // Construtor Administrador: (int id, String nome, String email, String cpf,
+                // String senha, String nivelAcesso)
+                adicionarUsuario(new Administrador(
+                        6, // id
+                        "Lucia Admin", // nome
+                        "lucia@exemplo.com", // email
+                        "67890123456", // cpf
+                        SENHA_PADRAO, // senha
+                        "TOTAL" // nivelAcesso
+                ));
+
+                // ===== CRIAR FREQUÊNCIAS =====
+                // Construtor Frequencia: (long id, String alunoMatricula, String disciplina,
+                // LocalDate data, boolean presente, String registradoPorCpf)
+                LocalDate hoje = LocalDate.now();
+
+                adicionarFrequencia(new Frequencia(
+                        1L, // id (long)
+                        "2024001", // alunoMatricula
+                        "Cálculo I", // disciplina
+                        hoje, // data
+                        true, // presente
+                        "34567890123" // registradoPorCpf (Dr. Carlos)
+                ));
+
+                adicionarFrequencia(new Frequencia(
+                        2L, // id (long)
+                        "2024001", // alunoMatricula
+                        "Física I", // disciplina
+                        hoje.minusDays(1), // data
+                        false, // presente
+                        "45678901234" // registradoPorCpf (Profa. Diana)
+                ));
+
+                adicionarFrequencia(new Frequencia(
+                        3L, // id (long)
+                        "2024002", // alunoMatricula
+                        "Anatomia", // disciplina
+                        hoje, // data
+                        true, // presente
+                        "34567890123" // registradoPorCpf (Dr. Carlos)
+                ));
+
+                adicionarFrequencia(new Frequencia(
+                        4L, // id (long)
+                        "2024002", // alunoMatricula
+                        "Anatomia", // disciplina
+                        hoje.minusDays(2), // data
+                        true, // presente
+                        "34567890123" // registradoPorCpf (Dr. Carlos)
+                ));
+
+                // ===== REGISTRAR UMA AULA (chamada coletiva) =====
+                // Construtor Aula: (long id, String disciplina, LocalDate data, String
+                // registradoPorCpf, List<String> matriculas); o ID é atribuído no registro
+                Aula aula = new Aula(
+                        0L, // id
+                        "Cálculo I", // disciplina
+                        hoje.minusDays(7), // data
+                        "34567890123", // registradoPorCpf (Dr. Carlos)
+                        List.of("2024001", "2024002") // chamada
+                );
+                aula.marcarFalta("2024002");
+                registrarAula(aula);
+
+                salvarAgregados(); // um checkpoint para o lote inicial
+                System.out.println(" Dados iniciais criados com sucesso!");
+                System.out.println(
+                        "📊 Resumo: " + usuarios.size() + " usuários, " + aulas.size() + " aulas e "
+                                + contarFrequencias() + " frequências criadas");
+
+            } catch (SistemaException e) {
+                System.err.println(" Erro ao criar dados iniciais: " + e.getDetalhesErro());
+            }
+        } finally {
+            trava.writeLock().unlock();
         }
     }
 
@@ -594,21 +2886,437 @@ public class Sistema {
      * Retorna estatísticas gerais do sistema.
      */
     public String getEstatisticas() {
-        return String.format(
-                "Sistema: %d usuários, %d frequências, %d alunos ativos",
-                usuarios.size(),
-                frequencias.size(),
-                usuarios.stream().filter(u -> u instanceof Aluno && u.isAtivo()).count());
+        trava.readLock().lock();
+        try {
+            return cache.obter("estatisticas", Dependencia.usuarios().e(Dependencia.frequencias()),
+                    () -> String.format(
+                            "Sistema: %d usuários, %d aulas, %d frequências, %d alunos ativos",
+                            usuarios.size(),
+                            aulas.size(),
+                            contarFrequencias(),
+                            usuarios.stream().filter(u -> u instanceof Aluno && u.isAtivo()).count()));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Quantidade de usuários cadastrados.
+     */
+    public int contarUsuarios() {
+        trava.readLock().lock();
+        try {
+            return usuarios.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Quantidade de alunos cadastrados (em cache até a próxima alteração de usuários).
+     */
+    public long contarAlunos() {
+        trava.readLock().lock();
+        try {
+            return cache.obter("contagem:alunos", Dependencia.usuarios(),
+                    () -> usuarios.stream().filter(u -> u instanceof Aluno).count());
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Presenças do aluno, lidas da tabela de agregados.
+     */
+    public long contarPresencasAluno(String matricula) {
+        trava.readLock().lock();
+        try {
+            return contagemAluno(matricula).getPresentes();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // ====== AGREGADOS ======
+
+    public Contagem contagemGeral() {
+        trava.readLock().lock();
+        try {
+            return agregados.geral();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public Contagem contagemAluno(String matricula) {
+        trava.readLock().lock();
+        try {
+            int codigo = matricula == null ? RegistroChaves.SEM_CODIGO : chaves.codigoMatricula(matricula);
+            return codigo == RegistroChaves.SEM_CODIGO ? Contagem.VAZIA : agregados.porAluno(codigo);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public Contagem contagemDisciplina(String disciplina) {
+        trava.readLock().lock();
+        try {
+            int codigo = disciplina == null ? RegistroChaves.SEM_CODIGO : chaves.codigoDisciplina(disciplina);
+            return codigo == RegistroChaves.SEM_CODIGO ? Contagem.VAZIA : agregados.porDisciplina(codigo);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public Contagem contagemDia(LocalDate dia) {
+        trava.readLock().lock();
+        try {
+            return dia == null ? Contagem.VAZIA : agregados.porDia((int) dia.toEpochDay());
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Contagens por curso do aluno (alunos sem cadastro ficam em
+     * "(sem curso)"), em ordem alfabética.
+     */
+    public Map<String, Contagem> contagensPorCurso() {
+        trava.readLock().lock();
+        try {
+            return indiceCursos.porCurso();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Contagem das frequências dos alunos do curso.
+     */
+    public Contagem contagemCurso(String curso) {
+        trava.readLock().lock();
+        try {
+            return indiceCursos.porCurso(curso);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Contagens do curso por semestre do aluno, em ordem de semestre
+     * (0 = semestre não informado).
+     */
+    public Map<Integer, Contagem> contagensPorSemestre(String curso) {
+        trava.readLock().lock();
+        try {
+            return indiceCursos.porSemestre(curso);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distribuição das taxas de presença dos alunos na disciplina (uma
+     * taxa por aluno com frequências nela). Mantida a cada frequência; a
+     * consulta copia 100 contagens.
+     */
+    public Histograma distribuicaoPresencaDisciplina(String disciplina) {
+        trava.readLock().lock();
+        try {
+            int codigo = disciplina == null ? RegistroChaves.SEM_CODIGO : chaves.codigoDisciplina(disciplina);
+            return monitorRisco.distribuicaoDisciplina(codigo);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distribuição das taxas de presença gerais dos alunos do curso.
+     */
+    public Histograma distribuicaoPresencaCurso(String curso) {
+        trava.readLock().lock();
+        try {
+            return indiceCursos.distribuicaoCurso(curso);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distribuição das taxas de presença gerais de todos os alunos (os
+     * histogramas dos cursos juntados).
+     */
+    public Histograma distribuicaoPresencaGeral() {
+        trava.readLock().lock();
+        try {
+            return indiceCursos.distribuicaoGeral();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Série de presença da disciplina, um ponto por dia, semana ISO ou mês
+     * entre as datas (inclusive). Lança IllegalArgumentException se fim for
+     * anterior a inicio ou se a série passar de SeriesTemporais.MAXIMO_PONTOS.
+     */
+    public List<PontoSerie> serieDisciplina(String disciplina, SeriesTemporais.Granularidade granularidade,
+            LocalDate inicio, LocalDate fim) {
+        trava.readLock().lock();
+        try {
+            int codigo = disciplina == null ? RegistroChaves.SEM_CODIGO : chaves.codigoDisciplina(disciplina);
+            return series.serieDisciplina(codigo, granularidade, inicio, fim);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Série de presença dos alunos do curso (ver serieDisciplina).
+     */
+    public List<PontoSerie> serieCurso(String curso, SeriesTemporais.Granularidade granularidade,
+            LocalDate inicio, LocalDate fim) {
+        trava.readLock().lock();
+        try {
+            return series.serieCurso(curso, granularidade, inicio, fim);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cursos em que já houve frequências contadas, em ordem alfabética.
+     */
+    public List<String> listarCursos() {
+        trava.readLock().lock();
+        try {
+            List<String> cursos = series.getCursos();
+            cursos.sort(String.CASE_INSENSITIVE_ORDER);
+            return cursos;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pares (aluno, disciplina) com nível de risco igual ou mais grave que
+     * o mínimo, do mais para o menos grave. Lidos do MonitorRisco, que é
+     * atualizado a cada frequência.
+     */
+    public List<SituacaoRisco> listarAlunosEmRisco(NivelRisco minimo) {
+        trava.readLock().lock();
+        try {
+            return monitorRisco.emRisco(minimo);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Monitor de risco de reprovação por falta (limites e ouvintes).
+     */
+    public MonitorRisco getMonitorRisco() {
+        return monitorRisco;
+    }
+
+    /**
+     * Pares em AVISO ou CRITICO de alunos do curso, do mais para o menos
+     * grave. O curso de cada aluno vem do IndiceCursos.
+     */
+    public List<SituacaoRisco> listarAlunosEmRiscoDoCurso(String curso) {
+        trava.readLock().lock();
+        try {
+            String rotulo = SeriesTemporais.rotuloCurso(curso);
+            return monitorRisco.emRisco().stream()
+                    .filter(s -> rotulo.equalsIgnoreCase(cursoDoAluno(chaves.codigoMatricula(s.getMatricula()))))
+                    .collect(Collectors.toList());
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // ====== RANKINGS (top-k) ======
+
+    /** Maior k aceito nos rankings. */
+    public static final int MAXIMO_RANKING = 1000;
+
+    /**
+     * Os k alunos com mais faltas, do que tem mais para o que tem menos.
+     * Alunos sem faltas ficam de fora. Todos os filtros são opcionais (null):
+     * sem período, lê os contadores por aluno (ou por aluno e disciplina);
+     * com período, conta as frequências do período pelos índices.
+     *
+     * @param disciplina só frequências da disciplina
+     * @param curso      só alunos do curso
+     * @param inicio     início do período (com fim)
+     * @param fim        fim do período (com início)
+     */
+    public List<ItemRanking> rankingAlunosPorFaltas(String disciplina, String curso, LocalDate inicio,
+            LocalDate fim, int k) {
+        trava.readLock().lock();
+        try {
+            validarRanking(inicio, fim, k);
+            TopK<ItemRanking> top = new TopK<>(k, ItemRanking.MAIS_FALTAS);
+            String rotuloCurso = curso == null ? null : SeriesTemporais.rotuloCurso(curso);
+            IntPredicate doCurso = codigo -> rotuloCurso == null
+                    || rotuloCurso.equalsIgnoreCase(SeriesTemporais.rotuloCurso(cursoDoAluno(codigo)));
+
+            if (inicio != null) {
+                int[] totais = new int[chaves.totalMatriculas()];
+                int[] presentes = new int[totais.length];
+                ConsultaFrequencia consulta = new ConsultaFrequencia().disciplina(disciplina).periodo(inicio, fim);
+                try (Stream<Frequencia> registros = consultarSemTrava(consulta)) {
+                    registros.forEach(f -> {
+                        int codigo = codificar(f).getCodigoAluno();
+                        totais[codigo]++;
+                        if (f.isPresente()) {
+                            presentes[codigo]++;
+                        }
+                    });
+                }
+                for (int codigo = 0; codigo < totais.length; codigo++) {
+                    if (totais[codigo] > presentes[codigo] && doCurso.test(codigo)) {
+                        top.oferecer(new ItemRanking(chaves.matriculaDe(codigo),
+                                new Contagem(totais[codigo], presentes[codigo])));
+                    }
+                }
+            } else if (disciplina != null) {
+                int codigoDisciplina = chaves.codigoDisciplina(disciplina);
+                if (codigoDisciplina != RegistroChaves.SEM_CODIGO) {
+                    monitorRisco.visitarDisciplina(codigoDisciplina, (situacao, codigo) -> {
+                        if (situacao.getContagem().getFaltas() > 0 && doCurso.test(codigo)) {
+                            top.oferecer(new ItemRanking(situacao.getMatricula(), situacao.getContagem()));
+                        }
+                    });
+                }
+            } else {
+                for (int codigo = 0; codigo < chaves.totalMatriculas(); codigo++) {
+                    Contagem c = agregados.porAluno(codigo);
+                    if (c.getFaltas() > 0 && doCurso.test(codigo)) {
+                        top.oferecer(new ItemRanking(chaves.matriculaDe(codigo), c));
+                    }
+                }
+            }
+            return top.resultado();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Os k cursos com menor presença (no período, se informado), lidos
+     * dos contadores por curso.
+     */
+    public List<ItemRanking> rankingCursosPiorPresenca(LocalDate inicio, LocalDate fim, int k) {
+        trava.readLock().lock();
+        try {
+            validarRanking(inicio, fim, k);
+            TopK<ItemRanking> top = new TopK<>(k, ItemRanking.PIOR_PRESENCA);
+            if (inicio == null) {
+                contagensPorCurso().forEach((curso, c) -> top.oferecer(new ItemRanking(curso, c)));
+            } else {
+                for (String curso : series.getCursos()) {
+                    Contagem c = series.somaCurso(curso, inicio, fim);
+                    if (c.getTotal() > 0) {
+                        top.oferecer(new ItemRanking(curso, c));
+                    }
+                }
+            }
+            return top.resultado();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * As k disciplinas com menor presença (no período, se informado),
+     * lidas dos contadores por disciplina.
+     */
+    public List<ItemRanking> rankingDisciplinasPiorPresenca(LocalDate inicio, LocalDate fim, int k) {
+        trava.readLock().lock();
+        try {
+            validarRanking(inicio, fim, k);
+            TopK<ItemRanking> top = new TopK<>(k, ItemRanking.PIOR_PRESENCA);
+            for (String disciplina : listarDisciplinas()) {
+                int codigo = chaves.codigoDisciplina(disciplina);
+                Contagem c = inicio == null ? agregados.porDisciplina(codigo)
+                        : series.somaDisciplina(codigo, inicio, fim);
+                if (c.getTotal() > 0) {
+                    top.oferecer(new ItemRanking(disciplina, c));
+                }
+            }
+            return top.resultado();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    private static void validarRanking(LocalDate inicio, LocalDate fim, int k) {
+        if (k < 1 || k > MAXIMO_RANKING) {
+            throw new IllegalArgumentException("k deve estar entre 1 e " + MAXIMO_RANKING);
+        }
+        if ((inicio == null) != (fim == null) || (inicio != null && fim.isBefore(inicio))) {
+            throw new IllegalArgumentException("Período inválido: " + inicio + " a " + fim);
+        }
+    }
+
+    /**
+     * Curso do aluno pelo código da matrícula ("(sem curso)" se não houver
+     * aluno cadastrado com ela).
+     */
+    private String cursoDoAluno(int codigoMatricula) {
+        return indiceCursos.curso(codigoMatricula);
+    }
+
+    /**
+     * Frequências registradas pelo CPF, lidas do índice.
+     */
+    public int contarFrequenciasPorRegistrador(String cpf) {
+        trava.readLock().lock();
+        try {
+            int codigo = cpf == null ? RegistroChaves.SEM_CODIGO : chaves.codigoCpf(cpf);
+            return codigo == RegistroChaves.SEM_CODIGO ? 0
+                    : posicoesPorRegistrador.tamanho(codigo) + registrosDasAulas(aulasPorRegistrador.obter(codigo));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cache dos relatórios e estatísticas (métricas de acerto, limpeza).
+     */
+    public CacheRelatorios getCacheRelatorios() {
+        return cache;
     }
 
     /**
      * Limpa todos os dados do sistema (CUIDADO!).
      */
     public void limparTodosDados() {
-        usuarios.clear();
-        frequencias.clear();
-        salvarUsuarios();
-        salvarFrequencias();
-        System.out.println("🧹 Todos os dados foram limpos do sistema");
+        trava.writeLock().lock();
+        try {
+            usuarios.clear();
+            reindexarUsuarios();
+            palavrasDosNomes.limpar();
+            usuariosPorNome.limpar();
+            frequencias.limpar();
+            reindexar();
+            aulas.clear();
+            reindexarAulas();
+            agregados = new TabelaAgregados();
+            series = new SeriesTemporais();
+            monitorRisco.limpar();
+            indiceCursos = new IndiceCursos();
+            textoObservacoes = new IndiceTexto();
+            textoNomes = new IndiceTexto();
+            versoes.alterouTudo();
+            gravarUsuarios();
+            gravarFrequencias();
+            gravarAulas();
+            salvarAgregados();
+            System.out.println("🧹 Todos os dados foram limpos do sistema");
+        } finally {
+            trava.writeLock().unlock();
+        }
     }
 }
\ No newline at end of file
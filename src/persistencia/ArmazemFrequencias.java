@@ -0,0 +1,82 @@
+package persistencia;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import models.Frequencia;
+
+/**
+ * Armazém de registros de frequência endereçados por posição.
+ *
+ * As posições são estáveis enquanto o Sistema estiver aberto: remover um
+ * registro apenas o marca como removido ("lápide"), de modo que índices que
+ * guardam posições continuam válidos. A compactação acontece na carga.
+ *
+ * Implementações:
+ * - ArmazemMemoria: lista de objetos no heap (comportamento original)
+ * - ArmazemOffHeap: registros de tamanho fixo fora do heap, opcionalmente
+ *   mapeados diretamente no arquivo de dados
+ */
+public interface ArmazemFrequencias {
+
+    /**
+     * Acrescenta um registro e retorna sua posição.
+     */
+    int adicionar(Frequencia f);
+
+    /**
+     * Retorna o registro da posição, ou null se ele foi removido.
+     */
+    Frequencia obter(int posicao);
+
+    /**
+     * Marca o registro da posição como removido.
+     */
+    void remover(int posicao);
+
+    boolean isRemovido(int posicao);
+
+    /**
+     * Quantidade de posições já usadas (incluindo removidas).
+     * As posições válidas vão de 0 a limite() - 1.
+     */
+    int limite();
+
+    /**
+     * Quantidade de registros não removidos.
+     */
+    int tamanho();
+
+    void limpar();
+
+    /**
+     * Garante que o conteúdo esteja gravado no arquivo de apoio, se houver.
+     */
+    void sincronizar();
+
+    /**
+     * Indica se o próprio armazém é a persistência (arquivo mapeado), dispensando
+     * a serialização em frequencias.dat.
+     */
+    boolean isPersistente();
+
+    /**
+     * Percorre os registros não removidos em ordem de posição.
+     */
+    default void paraCada(Consumer<Frequencia> acao) {
+        int limite = limite();
+        for (int i = 0; i < limite; i++) {
+            if (!isRemovido(i)) {
+                acao.accept(obter(i));
+            }
+        }
+    }
+
+    /**
+     * Stream dos registros não removidos em ordem de posição, lido direto do
+     * armazém. Aceita parallel(); não deve haver gravações durante o uso.
+     */
+    default Stream<Frequencia> stream() {
+        return StreamSupport.stream(new SpliteratorArmazem(this), false);
+    }
+}
@@ -0,0 +1,65 @@
+package persistencia;
+
+import java.util.ArrayList;
+import java.util.List;
+import models.Frequencia;
+
+/**
+ * Armazém padrão: mantém os objetos Frequencia no heap, como a antiga
+ * List<Frequencia> do Sistema. Posições removidas ficam nulas até a
+ * próxima carga.
+ */
+public class ArmazemMemoria implements ArmazemFrequencias {
+    private final List<Frequencia> registros = new ArrayList<>();
+    private int vivos;
+
+    @Override
+    public int adicionar(Frequencia f) {
+        registros.add(f);
+        vivos++;
+        return registros.size() - 1;
+    }
+
+    @Override
+    public Frequencia obter(int posicao) {
+        return registros.get(posicao);
+    }
+
+    @Override
+    public void remover(int posicao) {
+        if (registros.set(posicao, null) != null) {
+            vivos--;
+        }
+    }
+
+    @Override
+    public boolean isRemovido(int posicao) {
+        return registros.get(posicao) == null;
+    }
+
+    @Override
+    public int limite() {
+        return registros.size();
+    }
+
+    @Override
+    public int tamanho() {
+        return vivos;
+    }
+
+    @Override
+    public void limpar() {
+        registros.clear();
+        vivos = 0;
+    }
+
+    @Override
+    public void sincronizar() {
+        // Nada a fazer: persistência é feita pelo Sistema (frequencias.dat)
+    }
+
+    @Override
+    public boolean isPersistente() {
+        return false;
+    }
+}
@@ -0,0 +1,465 @@
+package persistencia;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.function.LongPredicate;
+import models.Frequencia;
+
+/**
+ * Armazém de frequências fora do heap.
+ *
+ * Cada registro ocupa TAMANHO_REGISTRO bytes em um ByteBuffer direto (ou
+ * mapeado em arquivo), de modo que o histórico não gera objetos para o GC.
+ * Matrícula, disciplina e CPF, que se repetem em milhares de registros, são
+ * guardados por código em um DicionarioStrings, pequeno e no heap. As
+ * observações são texto livre e quase nunca se repetem: ficam numa área de
+ * tamanho variável, também fora do heap, e o registro guarda o offset. Os
+ * objetos Frequencia são criados apenas na leitura, e descartados logo em
+ * seguida.
+ *
+ * Layout do arquivo/buffer:
+ * - cabeçalho (16 bytes): MAGICO, VERSAO, posições usadas, registros vivos
+ * - registros (32 bytes): id, epochDay, matrícula, disciplina, registrador,
+ *   observações (offset na área; -1 = vazio), flags (bit 0 = presente,
+ *   bit 1 = removido)
+ *
+ * Layout da área de observações ("<arquivo>.obs" no modo mapeado):
+ * - cabeçalho (8 bytes): MAGICO_OBSERVACOES, bytes usados
+ * - entradas: tamanho (int) seguido do texto em UTF-8
+ *
+ * Arquivos da versão 1 (observações no dicionário) são convertidos ao
+ * abrir: os textos passam para a área e o dicionário é refeito só com os
+ * códigos ainda usados.
+ *
+ * Obs.: o projeto compila em Java 17, onde a API de memória externa
+ * (MemorySegment) ainda é incubadora; por isso são usados ByteBuffers
+ * diretos e MappedByteBuffer, que oferecem o mesmo acesso por offset.
+ */
+public class ArmazemOffHeap implements ArmazemFrequencias {
+    private static final int MAGICO = 0x46524551; // "FREQ"
+    private static final int VERSAO = 2;
+    private static final int VERSAO_OBSERVACOES_NO_DICIONARIO = 1;
+    private static final int MAGICO_OBSERVACOES = 0x4F425356; // "OBSV"
+
+    private static final int TAMANHO_CABECALHO = 16;
+    private static final int TAMANHO_CABECALHO_OBSERVACOES = 8;
+    public static final int TAMANHO_REGISTRO = 32;
+
+    // Offsets dentro de um registro
+    private static final int OFF_ID = 0;
+    private static final int OFF_DIA = 8;
+    private static final int OFF_MATRICULA = 12;
+    private static final int OFF_DISCIPLINA = 16;
+    private static final int OFF_REGISTRADOR = 20;
+    private static final int OFF_OBSERVACOES = 24;
+    private static final int OFF_FLAGS = 28;
+
+    private static final byte FLAG_PRESENTE = 1;
+    private static final byte FLAG_REMOVIDO = 2;
+
+    private static final int CAPACIDADE_INICIAL = 1024;
+    private static final int CAPACIDADE_INICIAL_OBSERVACOES = 16 * 1024;
+
+    private ByteBuffer buffer;
+    private ByteBuffer observacoes;
+    private final File arquivo; // null = apenas memória direta
+    private final File arquivoDicionario;
+    private final File arquivoObservacoes;
+    private DicionarioStrings dicionario;
+    private boolean dicionarioAlterado;
+    private int limite;
+    private int vivos;
+    private int observacoesUsadas;
+
+    /**
+     * Cria um armazém em memória direta (fora do heap), sem arquivo de apoio.
+     */
+    public ArmazemOffHeap() {
+        this.arquivo = null;
+        this.arquivoDicionario = null;
+        this.arquivoObservacoes = null;
+        this.dicionario = new DicionarioStrings();
+        this.buffer = ByteBuffer.allocateDirect(TAMANHO_CABECALHO + CAPACIDADE_INICIAL * TAMANHO_REGISTRO);
+        this.observacoes = ByteBuffer.allocateDirect(CAPACIDADE_INICIAL_OBSERVACOES);
+        this.observacoesUsadas = TAMANHO_CABECALHO_OBSERVACOES;
+        escreverCabecalho();
+    }
+
+    /**
+     * Cria (ou reabre) um armazém mapeado diretamente no arquivo de dados.
+     * O dicionário de strings é gravado ao lado, em "<arquivo>.dic", e as
+     * observações em "<arquivo>.obs".
+     */
+    public ArmazemOffHeap(File arquivo) throws SistemaException {
+        this(arquivo, true);
+    }
+
+    private ArmazemOffHeap(File origem, boolean mapeado) throws SistemaException {
+        this.arquivo = mapeado ? origem : null;
+        this.arquivoDicionario = new File(origem.getPath() + ".dic");
+        this.arquivoObservacoes = new File(origem.getPath() + ".obs");
+        try {
+            if (origem.exists() && origem.length() >= TAMANHO_CABECALHO) {
+                abrirExistente(origem);
+            } else {
+                this.dicionario = new DicionarioStrings();
+                this.dicionarioAlterado = true;
+                this.buffer = carregar(origem, TAMANHO_CABECALHO + (long) CAPACIDADE_INICIAL * TAMANHO_REGISTRO);
+                this.observacoes = carregar(arquivoObservacoes, CAPACIDADE_INICIAL_OBSERVACOES);
+                this.observacoesUsadas = TAMANHO_CABECALHO_OBSERVACOES;
+                escreverCabecalho();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw SistemaException.erroPersistencia("abrir " + origem.getName(), e);
+        }
+    }
+
+    /**
+     * Lê um armazém gravado em arquivo para memória direta, sem mapeá-lo:
+     * o arquivo fica livre para ser renomeado ou apagado (migração entre
+     * modos de armazenamento).
+     */
+    public static ArmazemOffHeap lerArquivo(File arquivo) throws SistemaException {
+        return new ArmazemOffHeap(arquivo, false);
+    }
+
+    private void abrirExistente(File origem) throws IOException, ClassNotFoundException {
+        this.buffer = carregar(origem, origem.length());
+        int versao = buffer.getInt(4);
+        if (buffer.getInt(0) != MAGICO || (versao != VERSAO && versao != VERSAO_OBSERVACOES_NO_DICIONARIO)) {
+            throw new IOException("Arquivo " + origem.getName() + " não é um armazém de frequências válido");
+        }
+        this.limite = buffer.getInt(8);
+        this.vivos = buffer.getInt(12);
+
+        if (arquivoDicionario.exists()) {
+            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(arquivoDicionario))) {
+                this.dicionario = (DicionarioStrings) ois.readObject();
+            }
+        } else {
+            this.dicionario = new DicionarioStrings();
+        }
+
+        if (versao == VERSAO_OBSERVACOES_NO_DICIONARIO) {
+            converterVersao1();
+            return;
+        }
+        if (arquivoObservacoes.length() >= TAMANHO_CABECALHO_OBSERVACOES) {
+            this.observacoes = carregar(arquivoObservacoes, arquivoObservacoes.length());
+            if (observacoes.getInt(0) != MAGICO_OBSERVACOES) {
+                throw new IOException("Arquivo " + arquivoObservacoes.getName() + " não é uma área de observações válida");
+            }
+            this.observacoesUsadas = observacoes.getInt(4);
+        } else {
+            for (int posicao = 0; posicao < limite; posicao++) {
+                if (buffer.getInt(offset(posicao) + OFF_OBSERVACOES) >= 0) {
+                    throw new IOException("Arquivo " + arquivoObservacoes.getName() + " ausente");
+                }
+            }
+            this.observacoes = carregar(arquivoObservacoes, CAPACIDADE_INICIAL_OBSERVACOES);
+            this.observacoesUsadas = TAMANHO_CABECALHO_OBSERVACOES;
+        }
+    }
+
+    /**
+     * Passa as observações da versão 1 (códigos no dicionário) para a área
+     * de observações e refaz o dicionário só com matrícula, disciplina e
+     * CPF, recodificando os registros.
+     */
+    private void converterVersao1() throws IOException {
+        DicionarioStrings antigo = dicionario;
+        this.dicionario = new DicionarioStrings();
+        this.dicionarioAlterado = true;
+        this.observacoes = carregar(arquivoObservacoes, CAPACIDADE_INICIAL_OBSERVACOES);
+        this.observacoesUsadas = TAMANHO_CABECALHO_OBSERVACOES;
+        for (int posicao = 0; posicao < limite; posicao++) {
+            int base = offset(posicao);
+            for (int campo : new int[] { OFF_MATRICULA, OFF_DISCIPLINA, OFF_REGISTRADOR }) {
+                buffer.putInt(base + campo, dicionario.codificar(antigo.decodificar(buffer.getInt(base + campo))));
+            }
+            int obs = buffer.getInt(base + OFF_OBSERVACOES);
+            buffer.putInt(base + OFF_OBSERVACOES, obs < 0 ? -1 : gravarObservacao(antigo.decodificar(obs)));
+        }
+        escreverCabecalho();
+        System.out.println(" Armazém de frequências convertido para a versão " + VERSAO
+                + " (observações fora do dicionário)");
+    }
+
+    /**
+     * Mapeia o arquivo (modo mapeado) ou lê seu conteúdo para um buffer
+     * direto do tamanho pedido (cópia ou armazém sem arquivo).
+     */
+    private ByteBuffer carregar(File origem, long tamanho) throws IOException {
+        if (arquivo != null) {
+            try (RandomAccessFile raf = new RandomAccessFile(origem, "rw");
+                    FileChannel canal = raf.getChannel()) {
+                return canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+            }
+        }
+        ByteBuffer copia = ByteBuffer.allocateDirect((int) tamanho);
+        if (origem.exists()) {
+            try (FileChannel canal = new FileInputStream(origem).getChannel()) {
+                while (copia.hasRemaining() && canal.read(copia) >= 0) {
+                    // lê até encher o buffer ou acabar o arquivo
+                }
+            }
+            copia.clear();
+        }
+        return copia;
+    }
+
+    private void escreverCabecalho() {
+        buffer.putInt(0, MAGICO);
+        buffer.putInt(4, VERSAO);
+        buffer.putInt(8, limite);
+        buffer.putInt(12, vivos);
+        observacoes.putInt(0, MAGICO_OBSERVACOES);
+        observacoes.putInt(4, observacoesUsadas);
+    }
+
+    private static int offset(int posicao) {
+        return TAMANHO_CABECALHO + posicao * TAMANHO_REGISTRO;
+    }
+
+    private void garantirCapacidade(int posicoes) {
+        long necessario = TAMANHO_CABECALHO + (long) posicoes * TAMANHO_REGISTRO;
+        if (necessario <= buffer.capacity()) {
+            return;
+        }
+        long novoTamanho = Math.max(necessario, TAMANHO_CABECALHO + 2L * (buffer.capacity() - TAMANHO_CABECALHO));
+        buffer = expandir(buffer, arquivo, novoTamanho, offset(limite));
+    }
+
+    private void garantirCapacidadeObservacoes(long necessario) {
+        if (necessario <= observacoes.capacity()) {
+            return;
+        }
+        long novoTamanho = Math.max(necessario, 2L * observacoes.capacity());
+        observacoes = expandir(observacoes, arquivoObservacoes, novoTamanho, observacoesUsadas);
+    }
+
+    /**
+     * Remapeia o arquivo com o novo tamanho, ou copia os bytes usados para
+     * um buffer direto maior.
+     */
+    private ByteBuffer expandir(ByteBuffer atual, File apoio, long novoTamanho, int usados) {
+        if (novoTamanho > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Armazém off-heap excedeu o tamanho máximo de um buffer");
+        }
+        if (arquivo != null) {
+            try {
+                ((MappedByteBuffer) atual).force();
+                return carregar(apoio, novoTamanho);
+            } catch (IOException e) {
+                throw new IllegalStateException("Erro ao expandir " + apoio.getName() + ": " + e.getMessage(), e);
+            }
+        }
+        ByteBuffer novo = ByteBuffer.allocateDirect((int) novoTamanho);
+        ByteBuffer origem = atual.duplicate();
+        origem.position(0).limit(usados);
+        novo.put(origem);
+        return novo;
+    }
+
+    /**
+     * Acrescenta o texto à área de observações.
+     *
+     * @return offset da entrada
+     */
+    private int gravarObservacao(String texto) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        garantirCapacidadeObservacoes((long) observacoesUsadas + 4 + bytes.length);
+        int inicio = observacoesUsadas;
+        observacoes.putInt(inicio, bytes.length);
+        observacoes.put(inicio + 4, bytes);
+        observacoesUsadas += 4 + bytes.length;
+        return inicio;
+    }
+
+    private String lerObservacao(int inicio) {
+        byte[] bytes = new byte[observacoes.getInt(inicio)];
+        observacoes.get(inicio + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int codificar(String valor) {
+        int antes = dicionario.tamanho();
+        int codigo = dicionario.codificar(valor);
+        dicionarioAlterado |= dicionario.tamanho() != antes;
+        return codigo;
+    }
+
+    // ===== ArmazemFrequencias =====
+
+    @Override
+    public int adicionar(Frequencia f) {
+        garantirCapacidade(limite + 1);
+        int posicao = limite;
+        int base = offset(posicao);
+        String obs = f.getObservacoes();
+
+        buffer.putLong(base + OFF_ID, f.getId());
+        buffer.putInt(base + OFF_DIA, (int) f.getData().toEpochDay());
+        buffer.putInt(base + OFF_MATRICULA, codificar(f.getAlunoMatricula()));
+        buffer.putInt(base + OFF_DISCIPLINA, codificar(f.getDisciplina()));
+        buffer.putInt(base + OFF_REGISTRADOR, codificar(f.getRegistradoPorCpf()));
+        buffer.putInt(base + OFF_OBSERVACOES, obs == null || obs.isEmpty() ? -1 : gravarObservacao(obs));
+        buffer.put(base + OFF_FLAGS, f.isPresente() ? FLAG_PRESENTE : 0);
+
+        limite++;
+        vivos++;
+        escreverCabecalho();
+        return posicao;
+    }
+
+    @Override
+    public Frequencia obter(int posicao) {
+        verificarPosicao(posicao);
+        int base = offset(posicao);
+        byte flags = buffer.get(base + OFF_FLAGS);
+        if ((flags & FLAG_REMOVIDO) != 0) {
+            return null;
+        }
+        int obs = buffer.getInt(base + OFF_OBSERVACOES);
+        return Frequencia.reconstituir(
+                buffer.getLong(base + OFF_ID),
+                dicionario.decodificar(buffer.getInt(base + OFF_MATRICULA)),
+                dicionario.decodificar(buffer.getInt(base + OFF_DISCIPLINA)),
+                LocalDate.ofEpochDay(buffer.getInt(base + OFF_DIA)),
+                (flags & FLAG_PRESENTE) != 0,
+                dicionario.decodificar(buffer.getInt(base + OFF_REGISTRADOR)),
+                obs < 0 ? "" : lerObservacao(obs));
+    }
+
+    /**
+     * Lê apenas o ID da posição, sem criar objetos.
+     */
+    public long obterId(int posicao) {
+        verificarPosicao(posicao);
+        return buffer.getLong(offset(posicao) + OFF_ID);
+    }
+
+    @Override
+    public void remover(int posicao) {
+        verificarPosicao(posicao);
+        int pos = offset(posicao) + OFF_FLAGS;
+        byte flags = buffer.get(pos);
+        if ((flags & FLAG_REMOVIDO) == 0) {
+            buffer.put(pos, (byte) (flags | FLAG_REMOVIDO));
+            vivos--;
+            escreverCabecalho();
+        }
+    }
+
+    @Override
+    public boolean isRemovido(int posicao) {
+        verificarPosicao(posicao);
+        return (buffer.get(offset(posicao) + OFF_FLAGS) & FLAG_REMOVIDO) != 0;
+    }
+
+    @Override
+    public int limite() {
+        return limite;
+    }
+
+    @Override
+    public int tamanho() {
+        return vivos;
+    }
+
+    @Override
+    public void limpar() {
+        limite = 0;
+        vivos = 0;
+        observacoesUsadas = TAMANHO_CABECALHO_OBSERVACOES;
+        dicionario.limpar();
+        dicionarioAlterado = true;
+        escreverCabecalho();
+    }
+
+    /**
+     * Remove fisicamente as lápides e os registros cujo ID não satisfaz o
+     * filtro, movendo os demais para o início do buffer. As observações dos
+     * registros mantidos são compactadas da mesma forma (a área cresce na
+     * ordem das posições, então cada entrada só anda para trás). Só deve ser
+     * chamado antes de qualquer índice de posições ser construído (na carga).
+     */
+    public void compactar(LongPredicate manterId) {
+        int destino = 0;
+        int destinoObservacoes = TAMANHO_CABECALHO_OBSERVACOES;
+        byte[] registro = new byte[TAMANHO_REGISTRO];
+        for (int origem = 0; origem < limite; origem++) {
+            int base = offset(origem);
+            boolean removido = (buffer.get(base + OFF_FLAGS) & FLAG_REMOVIDO) != 0;
+            if (removido || !manterId.test(buffer.getLong(base + OFF_ID))) {
+                continue;
+            }
+            if (destino != origem) {
+                buffer.get(base, registro);
+                buffer.put(offset(destino), registro);
+            }
+            int obs = buffer.getInt(offset(destino) + OFF_OBSERVACOES);
+            if (obs >= 0) {
+                byte[] entrada = new byte[4 + observacoes.getInt(obs)];
+                if (obs != destinoObservacoes) {
+                    observacoes.get(obs, entrada);
+                    observacoes.put(destinoObservacoes, entrada);
+                    buffer.putInt(offset(destino) + OFF_OBSERVACOES, destinoObservacoes);
+                }
+                destinoObservacoes += entrada.length;
+            }
+            destino++;
+        }
+        limite = destino;
+        vivos = destino;
+        observacoesUsadas = destinoObservacoes;
+        escreverCabecalho();
+    }
+
+    @Override
+    public void sincronizar() {
+        if (arquivo == null) {
+            return;
+        }
+        escreverCabecalho();
+        ((MappedByteBuffer) buffer).force();
+        ((MappedByteBuffer) observacoes).force();
+        if (!dicionarioAlterado) {
+            return; // só matrícula, disciplina e CPF: raramente há códigos novos
+        }
+        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(arquivoDicionario))) {
+            oos.writeObject(dicionario);
+            dicionarioAlterado = false;
+        } catch (IOException e) {
+            System.err.println(" Erro ao gravar dicionário do armazém: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isPersistente() {
+        return arquivo != null;
+    }
+
+    /**
+     * Bytes ocupados fora do heap pelos registros e pelas observações.
+     */
+    public long getBytesUsados() {
+        return TAMANHO_CABECALHO + (long) limite * TAMANHO_REGISTRO + observacoesUsadas;
+    }
+
+    private void verificarPosicao(int posicao) {
+        if (posicao < 0 || posicao >= limite) {
+            throw new IndexOutOfBoundsException("Posição fora do armazém: " + posicao);
+        }
+    }
+}
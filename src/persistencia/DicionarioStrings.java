@@ -0,0 +1,61 @@
+package persistencia;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dicionário de strings ↔ códigos inteiros densos (0, 1, 2, ...).
+ * Permite que registros de tamanho fixo guardem apenas o código de
+ * matrícula, disciplina e CPF, que se repetem em milhares de registros.
+ */
+public class DicionarioStrings implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> valores = new ArrayList<>();
+    private transient Map<String, Integer> codigos = new HashMap<>();
+
+    /**
+     * Retorna o código da string, cadastrando-a se ainda não existir.
+     */
+    public int codificar(String valor) {
+        Integer codigo = codigos.get(valor);
+        if (codigo == null) {
+            codigo = valores.size();
+            valores.add(valor);
+            codigos.put(valor, codigo);
+        }
+        return codigo;
+    }
+
+    /**
+     * Retorna o código da string, ou -1 se ela não estiver cadastrada.
+     */
+    public int codigoDe(String valor) {
+        Integer codigo = codigos.get(valor);
+        return codigo != null ? codigo : -1;
+    }
+
+    public String decodificar(int codigo) {
+        return valores.get(codigo);
+    }
+
+    public int tamanho() {
+        return valores.size();
+    }
+
+    public void limpar() {
+        valores.clear();
+        codigos.clear();
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        codigos = new HashMap<>(valores.size() * 2);
+        for (int i = 0; i < valores.size(); i++) {
+            codigos.put(valores.get(i), i);
+        }
+    }
+}
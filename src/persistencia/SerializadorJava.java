@@ -1,8 +1,10 @@
 package persistencia;
 
 import java.io.BufferedReader;
+import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -51,8 +53,11 @@ public class SerializadorJava {
     // =====================================================================================
     // 2) Carregar usuários de CSV
     //    → Recebe uma List<Usuario> chamada “usuarios” e adiciona nela
+    //    → Arquivo ausente ou ilegível lança SistemaException (linhas inválidas são puladas)
     // =====================================================================================
-    public void carregarUsuariosCSV(List<Usuario> usuarios) {
+    public void carregarUsuariosCSV(List<Usuario> usuarios) throws SistemaException {
+        // IDs novos continuam a partir do maior já usado (size()+1 colidia após remoções)
+        int proximoId = usuarios.stream().mapToInt(Usuario::getId).max().orElse(0) + 1;
         try (BufferedReader br = new BufferedReader(new FileReader(CSV_EXEMPLO))) {
             String linha;
             while ((linha = br.readLine()) != null) {
@@ -69,20 +74,23 @@ public class SerializadorJava {
                 }
 
                 // Processa a linha e gera o objeto Usuario com base no tipo
-                Usuario u = processarLinhaUsuario(campos, usuarios.size() + 1);
+                Usuario u = processarLinhaUsuario(campos, proximoId);
                 if (u != null) {
+                    proximoId++;
                     usuarios.add(u);  // → usa o parâmetro “usuarios” exatamente
                     System.out.println("📥 Usuário importado: " + u.getDescricaoCompleta());
                 }
             }
-        } catch (Exception e) {
-            System.err.println("❌ Erro ao carregar usuários de CSV: " + e.getMessage());
+        } catch (FileNotFoundException e) {
+            throw SistemaException.arquivoNaoEncontrado(CSV_EXEMPLO);
+        } catch (IOException e) {
+            throw SistemaException.erroPersistencia("ler usuários de " + CSV_EXEMPLO, e);
         }
     }
 
     /**
      * Leitura do conteúdo da linha de CSV para criar instância de Usuario.
-     * Recebe também “novoId” (por ex., size da lista + 1) para atribuir o ID corretamente.
+     * Recebe também “novoId” (maior ID existente + 1) para atribuir o ID corretamente.
      * IMPORTANTE: senha não é importada pelo CSV, é definida como padrão ("senha123").
      */
     private Usuario processarLinhaUsuario(String[] campos, int novoId) {
@@ -181,8 +189,9 @@ public class SerializadorJava {
     // =====================================================================================
     // 4) Carregar frequências de CSV
     //    → Recebe uma List<Frequencia> chamada “frequencias” e adiciona nela
+    //    → Arquivo ausente ou ilegível lança SistemaException (linhas inválidas são puladas)
     // =====================================================================================
-    public void carregarFrequenciasCSV(List<Frequencia> frequencias) {
+    public void carregarFrequenciasCSV(List<Frequencia> frequencias) throws SistemaException {
         try (BufferedReader br = new BufferedReader(new FileReader(CSV_EXEMPLO))) {
             String linha;
             while ((linha = br.readLine()) != null) {
@@ -198,8 +207,10 @@ public class SerializadorJava {
                     System.out.println("📥 Frequência importada: " + f.toString());
                 }
             }
-        } catch (Exception e) {
-            System.err.println("❌ Erro ao carregar frequências de CSV: " + e.getMessage());
+        } catch (FileNotFoundException e) {
+            throw SistemaException.arquivoNaoEncontrado(CSV_EXEMPLO);
+        } catch (IOException e) {
+            throw SistemaException.erroPersistencia("ler frequências de " + CSV_EXEMPLO, e);
         }
     }
 
@@ -231,20 +242,25 @@ public class SerializadorJava {
     // =====================================================================================
     // 5) Salvar frequências em “frequencias.csv”
     //    → Recebe uma List<Frequencia> chamada “frequencias” e percorre-a
+    //    As três últimas colunas são os códigos substitutos (RegistroChaves),
+    //    -1 quando a frequência ainda não foi codificada pelo Sistema.
     // =====================================================================================
     public void salvarFrequenciasCSV(List<Frequencia> frequencias) {
         try (PrintWriter pw = new PrintWriter(new FileWriter(CSV_FREQUENCIAS))) {
-            pw.println("ID;AlunoMatricula;Disciplina;Data;Presente;RegistradoPor");
+            pw.println("ID;AlunoMatricula;Disciplina;Data;Presente;RegistradoPor;CodAluno;CodDisciplina;CodRegistrador");
 
             for (Frequencia f : frequencias) {
                 pw.println(
-                    String.format("%d;%s;%s;%s;%b;%s",
+                    String.format("%d;%s;%s;%s;%b;%s;%d;%d;%d",
                         f.getId(),
                         f.getAlunoMatricula(),
                         f.getDisciplina(),
                         f.getDataFormatada(),
                         f.isPresente(),
-                        f.getRegistradoPorCpf()
+                        f.getRegistradoPorCpf(),
+                        f.getCodigoAluno(),
+                        f.getCodigoDisciplina(),
+                        f.getCodigoRegistrador()
                     )
                 );
             }
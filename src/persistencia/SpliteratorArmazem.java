@@ -0,0 +1,84 @@
+package persistencia;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import models.Frequencia;
+
+/**
+ * Spliterator sobre um intervalo de posições do armazém.
+ *
+ * Lê os registros direto do armazém (lista, buffer direto ou arquivo
+ * mapeado), sem copiar para uma lista. A divisão corta o intervalo ao
+ * meio, o que distribui bem o trabalho em streams paralelos porque todas
+ * as posições custam o mesmo para ler.
+ *
+ * Só declara SIZED/SUBSIZED quando o armazém não tem lápides: com
+ * posições removidas, o tamanho de cada metade passa a ser estimativa.
+ */
+final class SpliteratorArmazem implements Spliterator<Frequencia> {
+    // Abaixo disso não compensa dividir
+    private static final int TAMANHO_MINIMO_DIVISAO = 1024;
+
+    private final ArmazemFrequencias armazem;
+    private final int caracteristicas;
+    private int atual;
+    private final int fim;
+
+    SpliteratorArmazem(ArmazemFrequencias armazem) {
+        this(armazem, 0, armazem.limite(),
+                armazem.tamanho() == armazem.limite() ? ORDERED | NONNULL | SIZED | SUBSIZED : ORDERED | NONNULL);
+    }
+
+    private SpliteratorArmazem(ArmazemFrequencias armazem, int origem, int fim, int caracteristicas) {
+        this.armazem = armazem;
+        this.atual = origem;
+        this.fim = fim;
+        this.caracteristicas = caracteristicas;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Frequencia> acao) {
+        while (atual < fim) {
+            Frequencia f = armazem.obter(atual++);
+            if (f != null) {
+                acao.accept(f);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Frequencia> acao) {
+        int i = atual;
+        atual = fim;
+        for (; i < fim; i++) {
+            Frequencia f = armazem.obter(i);
+            if (f != null) {
+                acao.accept(f);
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<Frequencia> trySplit() {
+        int restante = fim - atual;
+        if (restante < TAMANHO_MINIMO_DIVISAO) {
+            return null;
+        }
+        int meio = atual + (restante >>> 1);
+        SpliteratorArmazem prefixo = new SpliteratorArmazem(armazem, atual, meio, caracteristicas);
+        atual = meio;
+        return prefixo;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fim - atual;
+    }
+
+    @Override
+    public int characteristics() {
+        return caracteristicas;
+    }
+}
@@ -0,0 +1,267 @@
+package relatorios;
+
+import estatisticas.SeriesTemporais;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+import models.Aluno;
+import models.Frequencia;
+import models.Sistema;
+import models.Usuario;
+
+/**
+ * AnaliseCoortes.java
+ *
+ * Frequência agrupada por curso × semestre do aluno × disciplina (os
+ * quadros pedidos no reconhecimento de curso). O histórico é lido uma
+ * vez, em paralelo: o intervalo de posições do armazém é dividido entre
+ * tarefas do pool fork/join, cada tarefa soma seus registros numa tabela
+ * parcial só dela (sem sincronização) e as parciais são juntadas da
+ * esquerda para a direita, então o resultado não depende da ordem em que
+ * as tarefas terminam.
+ *
+ * Curso e semestre vêm do cadastro dos alunos, lido uma vez no início;
+ * matrículas sem aluno cadastrado ficam em "(sem curso)", semestre 0.
+ * As tarefas leem o Sistema sem alterá-lo; não registre frequências
+ * durante a análise.
+ */
+public class AnaliseCoortes {
+
+    // A cada quantos registros uma tarefa verifica o cancelamento
+    private static final int INTERVALO_VERIFICACAO = 1024;
+    // Tarefas por thread do pool: folga para equilibrar trechos com muitas remoções
+    private static final int TAREFAS_POR_THREAD = 4;
+    private static final long TAMANHO_MINIMO_TAREFA = 4096;
+
+    private final Sistema sistema;
+    private final ForkJoinPool pool;
+
+    public AnaliseCoortes(Sistema sistema) {
+        this(sistema, ForkJoinPool.commonPool());
+    }
+
+    public AnaliseCoortes(Sistema sistema, ForkJoinPool pool) {
+        this.sistema = sistema;
+        this.pool = pool;
+    }
+
+    // ===== API =====
+
+    /**
+     * Agrupa as frequências entre as datas (inclusive; null = sem limite
+     * daquele lado).
+     *
+     * @throws IllegalArgumentException se fim for anterior a inicio
+     * @throws java.util.concurrent.CancellationException se cancelado
+     */
+    public TabelaCoortes calcular(LocalDate inicio, LocalDate fim, Cancelamento cancelamento) {
+        if (inicio != null && fim != null && fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("Período inválido: " + inicio + " a " + fim);
+        }
+        Coortes coortes = new Coortes(sistema.buscarUsuariosPorTipo(Aluno.class));
+        // O Stream segura a trava de leitura do Sistema até ser fechado, nesta thread
+        try (Stream<Frequencia> todas = sistema.streamFrequencias()) {
+            Spliterator<Frequencia> registros = todas.spliterator();
+            long limiar = Math.max(TAMANHO_MINIMO_TAREFA,
+                    registros.estimateSize() / ((long) pool.getParallelism() * TAREFAS_POR_THREAD));
+            Parcial total = pool.invoke(new TarefaCoortes(registros, limiar, coortes, inicio, fim, cancelamento));
+            return total.montar(coortes);
+        }
+    }
+
+    // ===== COORTES =====
+
+    /**
+     * Numeração das coortes (curso, semestre) e coorte de cada matrícula.
+     * A coorte 0 é "(sem curso)", semestre 0.
+     */
+    private static final class Coortes {
+        final Map<String, Integer> porMatricula = new HashMap<>();
+        final List<String> cursos = new ArrayList<>();
+        final List<Integer> semestres = new ArrayList<>();
+        private final Map<String, Integer> porChave = new HashMap<>();
+
+        Coortes(List<Usuario> alunos) {
+            numerar(SeriesTemporais.rotuloCurso(null), 0);
+            for (Usuario u : alunos) {
+                Aluno a = (Aluno) u;
+                if (a.getMatricula() != null) {
+                    porMatricula.put(a.getMatricula(),
+                            numerar(SeriesTemporais.rotuloCurso(a.getCurso()), a.getSemestre()));
+                }
+            }
+        }
+
+        private int numerar(String curso, int semestre) {
+            return porChave.computeIfAbsent(curso + '\n' + semestre, k -> {
+                cursos.add(curso);
+                semestres.add(semestre);
+                return cursos.size() - 1;
+            });
+        }
+
+        int coorteDe(String matricula) {
+            Integer coorte = porMatricula.get(matricula);
+            return coorte == null ? 0 : coorte;
+        }
+
+        int tamanho() {
+            return cursos.size();
+        }
+    }
+
+    // ===== AGREGAÇÃO =====
+
+    /**
+     * Contadores de uma tarefa: para cada disciplina, com o nome como veio
+     * no registro, um array [total, presentes] por coorte. O nome só é
+     * normalizado na montagem, uma vez por grafia e não por registro.
+     */
+    private static final class Parcial {
+        private final int coortes;
+        private final Map<String, long[]> porDisciplina = new LinkedHashMap<>();
+        long lidos;
+
+        Parcial(int coortes) {
+            this.coortes = coortes;
+        }
+
+        void somar(String disciplina, int coorte, boolean presente) {
+            long[] c = porDisciplina.get(disciplina);
+            if (c == null) {
+                c = new long[coortes * 2];
+                porDisciplina.put(disciplina, c);
+            }
+            c[coorte * 2]++;
+            if (presente) {
+                c[coorte * 2 + 1]++;
+            }
+        }
+
+        /**
+         * Soma a outra parcial nesta. As disciplinas desta vêm primeiro,
+         * então o nome exibido é o do registro de menor posição.
+         */
+        void juntar(Parcial outra) {
+            outra.porDisciplina.forEach((disciplina, c) -> {
+                long[] meu = porDisciplina.putIfAbsent(disciplina, c);
+                if (meu != null) {
+                    for (int i = 0; i < c.length; i++) {
+                        meu[i] += c[i];
+                    }
+                }
+            });
+        }
+
+        TabelaCoortes montar(Coortes numeracao) {
+            // Junta as grafias de cada disciplina (sem espaços nas pontas, sem diferenciar maiúsculas)
+            Map<String, String> nomes = new LinkedHashMap<>();
+            Map<String, long[]> somas = new HashMap<>();
+            porDisciplina.forEach((disciplina, c) -> {
+                String chave = disciplina.trim().toLowerCase(Locale.ROOT);
+                nomes.putIfAbsent(chave, disciplina.trim());
+                long[] soma = somas.computeIfAbsent(chave, k -> new long[c.length]);
+                for (int i = 0; i < c.length; i++) {
+                    soma[i] += c[i];
+                }
+            });
+
+            List<int[]> linhas = new ArrayList<>(); // [coorte, índice da disciplina]
+            List<String> chaves = new ArrayList<>(nomes.keySet());
+            for (int d = 0; d < chaves.size(); d++) {
+                long[] soma = somas.get(chaves.get(d));
+                for (int coorte = 0; coorte < coortes; coorte++) {
+                    if (soma[coorte * 2] > 0) {
+                        linhas.add(new int[] { coorte, d });
+                    }
+                }
+            }
+            linhas.sort(Comparator
+                    .comparing((int[] l) -> numeracao.cursos.get(l[0]), String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(l -> numeracao.cursos.get(l[0]))
+                    .thenComparingInt(l -> numeracao.semestres.get(l[0]))
+                    .thenComparing(l -> chaves.get(l[1])));
+
+            int n = linhas.size();
+            String[] cursos = new String[n];
+            int[] semestres = new int[n];
+            String[] disciplinas = new String[n];
+            long[] totais = new long[n];
+            long[] presentes = new long[n];
+            for (int i = 0; i < n; i++) {
+                int coorte = linhas.get(i)[0];
+                String chave = chaves.get(linhas.get(i)[1]);
+                long[] soma = somas.get(chave);
+                cursos[i] = numeracao.cursos.get(coorte);
+                semestres[i] = numeracao.semestres.get(coorte);
+                disciplinas[i] = nomes.get(chave);
+                totais[i] = soma[coorte * 2];
+                presentes[i] = soma[coorte * 2 + 1];
+            }
+            return new TabelaCoortes(cursos, semestres, disciplinas, totais, presentes);
+        }
+    }
+
+    /**
+     * Divide o trecho de posições ao meio enquanto ele passar do limiar;
+     * cada folha soma seu trecho numa Parcial. A metade da esquerda é
+     * sempre juntada antes da direita.
+     */
+    private static final class TarefaCoortes extends RecursiveTask<Parcial> {
+        private static final long serialVersionUID = 1L;
+
+        private final Spliterator<Frequencia> registros;
+        private final long limiar;
+        private final Coortes coortes;
+        private final LocalDate inicio;
+        private final LocalDate fim;
+        private final Cancelamento cancelamento;
+
+        TarefaCoortes(Spliterator<Frequencia> registros, long limiar, Coortes coortes, LocalDate inicio,
+                LocalDate fim, Cancelamento cancelamento) {
+            this.registros = registros;
+            this.limiar = limiar;
+            this.coortes = coortes;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.cancelamento = cancelamento;
+        }
+
+        @Override
+        protected Parcial compute() {
+            cancelamento.verificar();
+            if (registros.estimateSize() > limiar) {
+                Spliterator<Frequencia> prefixo = registros.trySplit();
+                if (prefixo != null) {
+                    TarefaCoortes esquerda = new TarefaCoortes(prefixo, limiar, coortes, inicio, fim, cancelamento);
+                    esquerda.fork();
+                    Parcial direita =
+                            new TarefaCoortes(registros, limiar, coortes, inicio, fim, cancelamento).compute();
+                    Parcial resultado = esquerda.join();
+                    resultado.juntar(direita);
+                    return resultado;
+                }
+            }
+            Parcial parcial = new Parcial(coortes.tamanho());
+            registros.forEachRemaining(f -> {
+                if (++parcial.lidos % INTERVALO_VERIFICACAO == 0) {
+                    cancelamento.verificar();
+                }
+                LocalDate data = f.getData();
+                if ((inicio == null || !data.isBefore(inicio)) && (fim == null || !data.isAfter(fim))) {
+                    parcial.somar(f.getDisciplina(), coortes.coorteDe(f.getAlunoMatricula()), f.isPresente());
+                }
+            });
+            return parcial;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package relatorios;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * CacheRelatorios.java
+ *
+ * Cache LRU de relatórios e estatísticas. Cada entrada guarda as versões
+ * (VersoesDados) lidas quando foi calculada; na consulta, se alguma dessas
+ * versões mudou, a entrada é recalculada. Não há expiração por tempo:
+ * só uma alteração nos dados de que o resultado depende o invalida.
+ *
+ * O cálculo acontece fora do bloqueio, então dois pedidos simultâneos da
+ * mesma chave podem calcular duas vezes; o último a terminar fica.
+ */
+public class CacheRelatorios {
+
+    private static final class Entrada {
+        final Object valor;
+        final Dependencia dependencia;
+        final long[] carimbo;
+
+        Entrada(Object valor, Dependencia dependencia, long[] carimbo) {
+            this.valor = valor;
+            this.dependencia = dependencia;
+            this.carimbo = carimbo;
+        }
+    }
+
+    private final VersoesDados versoes;
+    private final int capacidade;
+    private final LinkedHashMap<String, Entrada> entradas;
+
+    // ===== MÉTRICAS =====
+    private long acertos;
+    private long falhas;
+    private long invalidadas;
+    private long descartadas;
+
+    public CacheRelatorios(VersoesDados versoes, int capacidade) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("Capacidade do cache deve ser positiva");
+        }
+        this.versoes = versoes;
+        this.capacidade = capacidade;
+        // accessOrder = true: a iteração vai do menos para o mais recentemente usado
+        this.entradas = new LinkedHashMap<String, Entrada>(capacidade * 2, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+                if (size() > CacheRelatorios.this.capacidade) {
+                    descartadas++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Retorna o valor em cache da chave se ainda estiver vigente; senão,
+     * calcula, guarda e retorna.
+     *
+     * @param chave       identifica o relatório e seus parâmetros
+     * @param dependencia dados de que o valor depende
+     * @param calcular    produz o valor (chamado só em caso de falha)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T obter(String chave, Dependencia dependencia, Supplier<T> calcular) {
+        synchronized (this) {
+            Entrada e = entradas.get(chave);
+            if (e != null && e.dependencia.vigente(versoes, e.carimbo)) {
+                acertos++;
+                return (T) e.valor;
+            }
+            if (e != null) {
+                invalidadas++;
+                entradas.remove(chave);
+            }
+            falhas++;
+        }
+
+        // Versões lidas antes do cálculo: uma alteração durante ele deixa a entrada vencida
+        long[] carimbo = dependencia.carimbo(versoes);
+        T valor = calcular.get();
+        synchronized (this) {
+            entradas.put(chave, new Entrada(valor, dependencia, carimbo));
+        }
+        return valor;
+    }
+
+    public synchronized void limpar() {
+        entradas.clear();
+    }
+
+    public synchronized int size() {
+        return entradas.size();
+    }
+
+    public synchronized long getAcertos() {
+        return acertos;
+    }
+
+    public synchronized long getFalhas() {
+        return falhas;
+    }
+
+    /**
+     * Entradas encontradas, mas vencidas por alteração dos dados.
+     */
+    public synchronized long getInvalidadas() {
+        return invalidadas;
+    }
+
+    /**
+     * Entradas descartadas por falta de espaço (LRU).
+     */
+    public synchronized long getDescartadas() {
+        return descartadas;
+    }
+
+    public synchronized double getTaxaAcerto() {
+        long total = acertos + falhas;
+        return total == 0 ? 0 : acertos * 100.0 / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Cache de relatórios: %d/%d entradas, %d acertos, %d falhas (%.1f%% de acerto), "
+                + "%d invalidadas, %d descartadas",
+                entradas.size(), capacidade, acertos, falhas, getTaxaAcerto(), invalidadas, descartadas);
+    }
+}
@@ -0,0 +1,29 @@
+package relatorios;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Sinal de cancelamento compartilhado entre quem pediu um relatório e as
+ * tarefas que o calculam. As tarefas consultam verificar() entre partições
+ * e periodicamente dentro delas.
+ */
+public class Cancelamento {
+    private volatile boolean cancelado;
+
+    public void cancelar() {
+        cancelado = true;
+    }
+
+    public boolean isCancelado() {
+        return cancelado;
+    }
+
+    /**
+     * Lança CancellationException se o cancelamento já foi pedido.
+     */
+    public void verificar() {
+        if (cancelado) {
+            throw new CancellationException("Relatório cancelado");
+        }
+    }
+}
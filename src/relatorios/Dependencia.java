@@ -0,0 +1,71 @@
+package relatorios;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Conjunto de versões (VersoesDados) de que um resultado em cache depende.
+ *
+ * <pre>
+ * Dependencia.aluno("2024001")                       // só o aluno
+ * Dependencia.usuarios().e(Dependencia.frequencias()) // usuários e qualquer frequência
+ * </pre>
+ */
+public final class Dependencia {
+    private final List<ToLongFunction<VersoesDados>> versoes;
+
+    private Dependencia(List<ToLongFunction<VersoesDados>> versoes) {
+        this.versoes = versoes;
+    }
+
+    private static Dependencia de(ToLongFunction<VersoesDados> versao) {
+        List<ToLongFunction<VersoesDados>> lista = new ArrayList<>(2);
+        lista.add(versao);
+        return new Dependencia(lista);
+    }
+
+    /** Qualquer frequência. */
+    public static Dependencia frequencias() {
+        return de(VersoesDados::frequencias);
+    }
+
+    public static Dependencia usuarios() {
+        return de(VersoesDados::usuarios);
+    }
+
+    /** Apenas frequências do aluno. */
+    public static Dependencia aluno(String matricula) {
+        return de(v -> v.aluno(matricula));
+    }
+
+    /** Apenas frequências da disciplina. */
+    public static Dependencia disciplina(String disciplina) {
+        return de(v -> v.disciplina(disciplina));
+    }
+
+    /**
+     * Dependência das duas (qualquer uma mudando invalida).
+     */
+    public Dependencia e(Dependencia outra) {
+        List<ToLongFunction<VersoesDados>> lista = new ArrayList<>(versoes);
+        lista.addAll(outra.versoes);
+        return new Dependencia(lista);
+    }
+
+    /**
+     * Versões atuais, na ordem da dependência.
+     */
+    long[] carimbo(VersoesDados dados) {
+        long[] carimbo = new long[versoes.size()];
+        for (int i = 0; i < carimbo.length; i++) {
+            carimbo[i] = versoes.get(i).applyAsLong(dados);
+        }
+        return carimbo;
+    }
+
+    boolean vigente(VersoesDados dados, long[] carimbo) {
+        return Arrays.equals(carimbo(dados), carimbo);
+    }
+}
@@ -0,0 +1,23 @@
+package relatorios;
+
+/**
+ * Formatos de saída dos relatórios.
+ */
+public enum FormatoRelatorio {
+    TEXTO("txt"),
+    CSV("csv"),
+    HTML("html");
+
+    private final String extensao;
+
+    FormatoRelatorio(String extensao) {
+        this.extensao = extensao;
+    }
+
+    /**
+     * Extensão de arquivo sugerida (sem ponto).
+     */
+    public String getExtensao() {
+        return extensao;
+    }
+}
@@ -0,0 +1,326 @@
+package relatorios;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+import estatisticas.Contagem;
+import estatisticas.Histograma;
+import estatisticas.MonitorRisco;
+import estatisticas.SituacaoRisco;
+import models.Administrador;
+import models.Aluno;
+import models.ConsultaFrequencia;
+import models.Coordenador;
+import models.Frequencia;
+import models.Professor;
+import models.Sistema;
+import models.Usuario;
+
+/**
+ * GeradorRelatorios.java
+ *
+ * Relatórios do Sistema escritos direto num Appendable, em qualquer
+ * FormatoRelatorio. Os registros são lidos do Sistema em stream e cada
+ * linha é escrita assim que lida; só os totais (calculados pelos índices)
+ * e, no relatório do aluno, um contador por disciplina ficam em memória.
+ *
+ * Os métodos gerarRelatorio* do Sistema usam esta classe com
+ * FormatoRelatorio.TEXTO e um StringBuilder.
+ */
+public class GeradorRelatorios {
+
+    // Modelos de linha (texto) compilados uma vez
+    private static final String[] COLUNAS_USUARIOS = { "ID", "Tipo", "Nome", "Email", "Ativo" };
+    private static final ModeloLinha LINHA_USUARIO = ModeloLinha.compilar(
+            "ID:{ID} | {Tipo} | {Nome} | Email:{Email} | Ativo:{Ativo}", COLUNAS_USUARIOS);
+
+    private static final String[] COLUNAS_DISCIPLINA = { "FreqID", "AlunoMat", "Data", "Status", "RegistradoPor" };
+    private static final ModeloLinha LINHA_DISCIPLINA = ModeloLinha.compilar(
+            "FreqID:{FreqID} | AlunoMat:{AlunoMat} | Data:{Data} | Status:{Status} | RegistradoPor:{RegistradoPor}",
+            COLUNAS_DISCIPLINA);
+
+    private static final String[] COLUNAS_ALUNO = { "Disciplina", "Aulas", "Presença" };
+    private static final ModeloLinha LINHA_ALUNO = ModeloLinha.compilar(
+            "  {Disciplina}: {Aulas} aulas, {Presença} presença", COLUNAS_ALUNO);
+
+    private static final String[] COLUNAS_FREQUENCIAS =
+            { "ID", "Aluno", "Disciplina", "Data", "Status", "RegistradoPor", "Observações" };
+    private static final ModeloLinha LINHA_FREQUENCIA = ModeloLinha.compilar(
+            "#{ID} | {Aluno} | {Disciplina} | {Data} | {Status} | Reg.: {RegistradoPor} | {Observações}",
+            COLUNAS_FREQUENCIAS);
+    private static final int LINHAS_POR_VERIFICACAO = 1024; // cancelamento e progresso da listagem completa
+
+    private static final String[] COLUNAS_CURSO = { "Item", "Registros", "Presença" };
+    private static final ModeloLinha LINHA_CURSO = ModeloLinha.compilar(
+            "  {Item}: {Registros} registros, {Presença} presença", COLUNAS_CURSO);
+
+    private static final String[] COLUNAS_RISCO = { "Nível", "Aluno", "Disciplina", "Presença" };
+    private static final ModeloLinha LINHA_RISCO = ModeloLinha.compilar(
+            "  [{Nível}] {Aluno} em {Disciplina}: {Presença}", COLUNAS_RISCO);
+
+    private static final String[] COLUNAS_COORTES =
+            { "Curso", "Semestre", "Disciplina", "Registros", "Presenças", "Presença" };
+    private static final ModeloLinha LINHA_COORTE = ModeloLinha.compilar(
+            "  {Curso} | {Semestre} | {Disciplina}: {Registros} registros, {Presenças} presenças ({Presença})",
+            COLUNAS_COORTES);
+
+    private final Sistema sistema;
+
+    public GeradorRelatorios(Sistema sistema) {
+        this.sistema = sistema;
+    }
+
+    // ===== USUÁRIOS =====
+
+    public void escreverUsuarios(Appendable destino, FormatoRelatorio formato) throws IOException {
+        List<Usuario> usuarios = sistema.listarUsuarios();
+        long alunos = 0, professores = 0, coordenadores = 0, administradores = 0;
+        for (Usuario u : usuarios) {
+            if (u instanceof Aluno) alunos++;
+            else if (u instanceof Professor) professores++;
+            else if (u instanceof Coordenador) coordenadores++;
+            else if (u instanceof Administrador) administradores++;
+        }
+
+        Renderizador r = Renderizador.para(formato, destino);
+        r.titulo("📋 Relatório Geral de Usuários");
+        r.campo("Total de usuários", Integer.toString(usuarios.size()));
+        r.item("Alunos", Long.toString(alunos));
+        r.item("Professores", Long.toString(professores));
+        r.item("Coordenadores", Long.toString(coordenadores));
+        r.item("Administradores", Long.toString(administradores));
+        r.quebra();
+
+        r.secao("DETALHES");
+        r.inicioTabela(COLUNAS_USUARIOS, LINHA_USUARIO);
+        for (Usuario u : usuarios) {
+            r.linha(Integer.toString(u.getId()), u.getTipoUsuario(), u.getNome(), u.getEmail(),
+                    Boolean.toString(u.isAtivo()));
+        }
+        r.fimTabela();
+        r.fim();
+    }
+
+    // ===== FREQUÊNCIA POR DISCIPLINA =====
+
+    public void escreverFrequenciasPorDisciplina(Appendable destino, FormatoRelatorio formato, String disciplina)
+            throws IOException {
+        int total = sistema.contarFrequenciasPorDisciplina(disciplina);
+
+        Renderizador r = Renderizador.para(formato, destino);
+        r.titulo("📚 Relatório de Frequência: Disciplina " + disciplina);
+        r.campo("Total de registros", Integer.toString(total));
+        r.quebra();
+
+        if (total == 0) {
+            r.paragrafo("Nenhum registro encontrado para esta disciplina.");
+        } else {
+            long presentes = sistema.contarPresencasPorDisciplina(disciplina);
+            r.secao("ESTATÍSTICAS");
+            r.item("Presenças", Renderizador.contagem(presentes, total));
+            r.item("Faltas", Renderizador.contagem(total - presentes, total));
+            r.quebra();
+
+            r.secao("DETALHES");
+            r.inicioTabela(COLUNAS_DISCIPLINA, LINHA_DISCIPLINA);
+            try (Stream<Frequencia> registros = sistema.consultar(new ConsultaFrequencia().disciplina(disciplina))) {
+                Iterator<Frequencia> it = registros.iterator();
+                while (it.hasNext()) {
+                    Frequencia f = it.next();
+                    r.linha(Long.toString(f.getId()), f.getAlunoMatricula(), f.getDataFormatada(),
+                            f.getStatus(), f.getRegistradoPorCpf());
+                }
+            }
+            r.fimTabela();
+        }
+        r.fim();
+    }
+
+    // ===== FREQUÊNCIAS DE UM ALUNO =====
+
+    public void escreverFrequenciasAluno(Appendable destino, FormatoRelatorio formato, String matricula)
+            throws IOException {
+        // [aulas, presenças] por disciplina; uma entrada por disciplina, não por registro
+        Map<String, long[]> porDisciplina = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        long total = 0;
+        long presentes = 0;
+        try (Stream<Frequencia> registros = sistema.consultar(new ConsultaFrequencia().aluno(matricula))) {
+            Iterator<Frequencia> it = registros.iterator();
+            while (it.hasNext()) {
+                Frequencia f = it.next();
+                long[] c = porDisciplina.computeIfAbsent(f.getDisciplina(), d -> new long[2]);
+                c[0]++;
+                total++;
+                if (f.isPresente()) {
+                    c[1]++;
+                    presentes++;
+                }
+            }
+        }
+
+        Renderizador r = Renderizador.para(formato, destino);
+        r.titulo("🎓 Relatório de Frequências - Aluno " + matricula);
+        if (total == 0) {
+            r.paragrafo("Nenhuma frequência registrada para este aluno.");
+        } else {
+            r.campo("Total de aulas", Long.toString(total));
+            r.campo("Presenças", Renderizador.contagem(presentes, total));
+            r.campo("Faltas", Renderizador.contagem(total - presentes, total));
+            r.quebra();
+
+            r.secao("POR DISCIPLINA");
+            r.inicioTabela(COLUNAS_ALUNO, LINHA_ALUNO);
+            for (Map.Entry<String, long[]> e : porDisciplina.entrySet()) {
+                long[] c = e.getValue();
+                r.linha(e.getKey(), Long.toString(c[0]), Renderizador.percentual(c[1] * 100.0 / c[0]));
+            }
+            r.fimTabela();
+        }
+        r.fim();
+    }
+
+    // ===== CURSO DO COORDENADOR =====
+
+    /**
+     * Totais do curso, por semestre e por disciplina gerenciada, e os
+     * alunos do curso em risco. Tudo vem dos contadores do Sistema; as
+     * frequências não são percorridas.
+     */
+    public void escreverCurso(Appendable destino, FormatoRelatorio formato, Coordenador coordenador)
+            throws IOException {
+        String curso = coordenador.getCurso();
+        Contagem total = sistema.contagemCurso(curso);
+
+        Renderizador r = Renderizador.para(formato, destino);
+        r.titulo("🏫 Relatório do Curso " + curso + " - Coordenador " + coordenador.getNome());
+        if (total.getTotal() == 0) {
+            r.paragrafo("Nenhuma frequência registrada para alunos deste curso.");
+        } else {
+            r.campo("Total de registros", Long.toString(total.getTotal()));
+            r.campo("Presenças", Renderizador.contagem(total.getPresentes(), total.getTotal()));
+            r.campo("Faltas", Renderizador.contagem(total.getFaltas(), total.getTotal()));
+            Histograma distribuicao = sistema.distribuicaoPresencaCurso(curso);
+            r.campo("Presença mediana dos alunos", Renderizador.percentual(distribuicao.mediana()));
+            r.campo("Alunos abaixo de " + (int) MonitorRisco.LIMITE_CRITICO_PADRAO + "%",
+                    Integer.toString(distribuicao.contarAbaixo((int) MonitorRisco.LIMITE_CRITICO_PADRAO)));
+            r.quebra();
+
+            r.secao("POR SEMESTRE");
+            r.inicioTabela(COLUNAS_CURSO, LINHA_CURSO);
+            for (Map.Entry<Integer, Contagem> e : sistema.contagensPorSemestre(curso).entrySet()) {
+                String semestre = e.getKey() == 0 ? "Não informado" : e.getKey() + "º semestre";
+                linhaContagem(r, semestre, e.getValue());
+            }
+            r.fimTabela();
+        }
+
+        List<String> disciplinas = coordenador.getDisciplinasGerenciadas();
+        if (!disciplinas.isEmpty()) {
+            r.quebra();
+            r.secao("DISCIPLINAS GERENCIADAS");
+            r.inicioTabela(COLUNAS_CURSO, LINHA_CURSO);
+            for (String disciplina : disciplinas) {
+                linhaContagem(r, disciplina, sistema.contagemDisciplina(disciplina));
+            }
+            r.fimTabela();
+        }
+
+        List<SituacaoRisco> emRisco = sistema.listarAlunosEmRiscoDoCurso(curso);
+        r.quebra();
+        r.secao("ALUNOS EM RISCO");
+        if (emRisco.isEmpty()) {
+            r.paragrafo("Nenhum aluno do curso abaixo do limite de presença.");
+        } else {
+            r.inicioTabela(COLUNAS_RISCO, LINHA_RISCO);
+            for (SituacaoRisco s : emRisco) {
+                r.linha(s.getNivel().getRotulo(), s.getMatricula(), s.getDisciplina(),
+                        Renderizador.percentual(s.getContagem().getPercentual()));
+            }
+            r.fimTabela();
+        }
+        r.fim();
+    }
+
+    private static void linhaContagem(Renderizador r, String item, Contagem c) throws IOException {
+        r.linha(item, Long.toString(c.getTotal()),
+                c.getTotal() == 0 ? "-" : Renderizador.percentual(c.getPercentual()));
+    }
+
+    // ===== COORTES =====
+
+    /**
+     * Tabela de uma AnaliseCoortes, uma linha por (curso, semestre,
+     * disciplina). Em CSV, serve de exportação para planilhas.
+     */
+    public void escreverCoortes(Appendable destino, FormatoRelatorio formato, TabelaCoortes tabela)
+            throws IOException {
+        Contagem total = tabela.getTotal();
+
+        Renderizador r = Renderizador.para(formato, destino);
+        r.titulo("🎓 Frequência por Coorte (Curso × Semestre × Disciplina)");
+        r.campo("Total de registros", Long.toString(total.getTotal()));
+        r.campo("Presenças", Renderizador.contagem(total.getPresentes(), total.getTotal()));
+        r.campo("Coortes × disciplinas", Integer.toString(tabela.tamanho()));
+        r.quebra();
+
+        r.inicioTabela(COLUNAS_COORTES, LINHA_COORTE);
+        for (int i = 0; i < tabela.tamanho(); i++) {
+            Contagem c = tabela.getContagem(i);
+            r.linha(tabela.getCurso(i), Integer.toString(tabela.getSemestre(i)), tabela.getDisciplina(i),
+                    Long.toString(c.getTotal()), Long.toString(c.getPresentes()),
+                    Renderizador.percentual(c.getPercentual()));
+        }
+        r.fimTabela();
+        r.fim();
+    }
+
+    // ===== LISTAGEM COMPLETA =====
+
+    /**
+     * Todas as frequências que atendem ao filtro (null = histórico inteiro),
+     * uma por linha, em ordem de gravação. A memória usada não depende da
+     * quantidade de registros.
+     */
+    public void escreverFrequencias(Appendable destino, FormatoRelatorio formato, ConsultaFrequencia filtro)
+            throws IOException {
+        escreverFrequencias(destino, formato, filtro, new Cancelamento(), percentual -> { });
+    }
+
+    /**
+     * Como escreverFrequencias(destino, formato, filtro), informando o
+     * percentual de linhas já escritas e parando (CancellationException)
+     * se o cancelamento for pedido; o destino fica incompleto.
+     */
+    public void escreverFrequencias(Appendable destino, FormatoRelatorio formato, ConsultaFrequencia filtro,
+            Cancelamento cancelamento, IntConsumer progresso) throws IOException {
+        // Totais contados nos índices antes da listagem, sem uma passada extra pelos registros
+        Contagem totais = sistema.contar(filtro == null ? new ConsultaFrequencia() : filtro);
+
+        Renderizador r = Renderizador.para(formato, destino);
+        r.titulo("📝 Relatório de Frequências");
+        r.campo("Total de registros", Long.toString(totais.getTotal()));
+        r.campo("Presenças", Renderizador.contagem(totais.getPresentes(), totais.getTotal()));
+        r.quebra();
+        r.inicioTabela(COLUNAS_FREQUENCIAS, LINHA_FREQUENCIA);
+        try (Stream<Frequencia> registros = filtro == null ? sistema.streamFrequencias() : sistema.consultar(filtro)) {
+            Iterator<Frequencia> it = registros.iterator();
+            long escritas = 0;
+            while (it.hasNext()) {
+                Frequencia f = it.next();
+                String obs = f.getObservacoes();
+                r.linha(Long.toString(f.getId()), f.getAlunoMatricula(), f.getDisciplina(), f.getDataFormatada(),
+                        f.getStatus(), f.getRegistradoPorCpf(), obs == null ? "" : obs);
+                if (++escritas % LINHAS_POR_VERIFICACAO == 0) {
+                    cancelamento.verificar();
+                    progresso.accept((int) (escritas * 100 / Math.max(1, totais.getTotal())));
+                }
+            }
+        }
+        r.fimTabela();
+        r.fim();
+    }
+}
@@ -0,0 +1,66 @@
+package relatorios;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Modelo de linha pré-compilado.
+ *
+ * O padrão ("ID:{id} | Nome:{nome}") é analisado uma vez só, na criação;
+ * escrever cada linha é apenas intercalar os trechos fixos com os valores,
+ * sem o custo de interpretar um format string por linha como no
+ * String.format.
+ */
+public final class ModeloLinha {
+    private final String[] literais; // campos.length + 1 trechos fixos
+    private final int[] campos; // índice do valor de cada marcador
+
+    private ModeloLinha(String[] literais, int[] campos) {
+        this.literais = literais;
+        this.campos = campos;
+    }
+
+    /**
+     * Compila o padrão. Cada marcador {nome} precisa estar em nomes; o
+     * valor correspondente é o de mesma posição em escrever().
+     */
+    public static ModeloLinha compilar(String padrao, String... nomes) {
+        List<String> literais = new ArrayList<>();
+        List<Integer> campos = new ArrayList<>();
+        int inicio = 0;
+        while (true) {
+            int abre = padrao.indexOf('{', inicio);
+            if (abre < 0) {
+                break;
+            }
+            int fecha = padrao.indexOf('}', abre);
+            if (fecha < 0) {
+                throw new IllegalArgumentException("Marcador sem '}' em: " + padrao);
+            }
+            String nome = padrao.substring(abre + 1, fecha);
+            int indice = Arrays.asList(nomes).indexOf(nome);
+            if (indice < 0) {
+                throw new IllegalArgumentException("Marcador desconhecido {" + nome + "} em: " + padrao);
+            }
+            literais.add(padrao.substring(inicio, abre));
+            campos.add(indice);
+            inicio = fecha + 1;
+        }
+        literais.add(padrao.substring(inicio));
+        return new ModeloLinha(literais.toArray(new String[0]),
+                campos.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Escreve a linha (sem quebra) no destino.
+     */
+    public void escrever(Appendable destino, CharSequence... valores) throws IOException {
+        destino.append(literais[0]);
+        for (int i = 0; i < campos.length; i++) {
+            destino.append(valores[campos[i]]);
+            destino.append(literais[i + 1]);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package relatorios;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import models.Aluno;
+import models.ConsultaFrequencia;
+import models.Frequencia;
+import models.Sistema;
+import models.Usuario;
+
+/**
+ * MotorRelatorios.java
+ *
+ * Gera relatórios institucionais em paralelo. O histórico é dividido em
+ * partições (uma por disciplina ou por curso); cada partição calcula suas
+ * estatísticas e seu trecho de texto numa tarefa do pool fork/join, e os
+ * trechos são juntados na ordem alfabética das partições, então o texto
+ * final não depende de qual tarefa terminou primeiro.
+ *
+ * As tarefas leem o Sistema sem alterá-lo; não registre frequências
+ * enquanto um relatório está sendo gerado.
+ */
+public class MotorRelatorios {
+
+    /**
+     * Critério de divisão do relatório.
+     */
+    public enum Particao {
+        DISCIPLINA("Disciplina"),
+        CURSO("Curso");
+
+        private final String rotulo;
+
+        Particao(String rotulo) {
+            this.rotulo = rotulo;
+        }
+
+        public String getRotulo() {
+            return rotulo;
+        }
+    }
+
+    // A cada quantos registros uma partição verifica o cancelamento
+    private static final int INTERVALO_VERIFICACAO = 1024;
+    private static final String SEM_CURSO = "(sem curso)";
+
+    private final Sistema sistema;
+    private final ForkJoinPool pool;
+
+    public MotorRelatorios(Sistema sistema) {
+        this(sistema, ForkJoinPool.commonPool());
+    }
+
+    public MotorRelatorios(Sistema sistema, ForkJoinPool pool) {
+        this.sistema = sistema;
+        this.pool = pool;
+    }
+
+    // ===== API =====
+
+    /**
+     * Calcula as partições em paralelo.
+     *
+     * @return resultados em ordem alfabética da chave da partição
+     * @throws java.util.concurrent.CancellationException se cancelado
+     */
+    public List<ResultadoParticao> calcular(Particao por, Cancelamento cancelamento) {
+        List<Fonte> fontes = por == Particao.CURSO ? fontesPorCurso() : fontesPorDisciplina();
+        if (fontes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return pool.invoke(new TarefaParticoes(fontes, 0, fontes.size(), por, cancelamento));
+    }
+
+    /**
+     * Relatório completo em texto: totais gerais seguidos do trecho de
+     * cada partição.
+     *
+     * @throws java.util.concurrent.CancellationException se cancelado
+     */
+    public String gerar(Particao por, Cancelamento cancelamento) {
+        List<ResultadoParticao> resultados = calcular(por, cancelamento);
+
+        long registros = 0;
+        long presentes = 0;
+        int tamanhoTexto = 0;
+        for (ResultadoParticao r : resultados) {
+            registros += r.getRegistros();
+            presentes += r.getPresentes();
+            tamanhoTexto += r.getTexto().length();
+        }
+        double percentual = registros > 0 ? presentes * 100.0 / registros : 0;
+
+        StringBuilder sb = new StringBuilder(tamanhoTexto + 256);
+        sb.append(String.format("=== 🏫 Relatório Institucional por %s ===\n\n", por.getRotulo()));
+        sb.append(String.format("Partições: %d\n", resultados.size()));
+        sb.append(String.format("Total de registros: %d\n", registros));
+        sb.append(String.format("  • Presenças: %d (%.1f%%)\n", presentes, percentual));
+        sb.append(String.format("  • Faltas: %d (%.1f%%)\n", registros - presentes, 100 - percentual));
+        if (por == Particao.CURSO && registros < sistema.contarFrequencias()) {
+            sb.append(String.format("  • Sem aluno cadastrado: %d registros\n",
+                    sistema.contarFrequencias() - registros));
+        }
+        sb.append("\n");
+        for (ResultadoParticao r : resultados) {
+            sb.append(r.getTexto()).append("\n");
+        }
+        return sb.toString();
+    }
+
+    // ===== PARTIÇÕES =====
+
+    /**
+     * Uma partição ainda não calculada: a chave e como obter seus registros.
+     */
+    private static final class Fonte {
+        final String chave;
+        final Supplier<Stream<Frequencia>> registros;
+
+        Fonte(String chave, Supplier<Stream<Frequencia>> registros) {
+            this.chave = chave;
+            this.registros = registros;
+        }
+    }
+
+    private List<Fonte> fontesPorDisciplina() {
+        List<Fonte> fontes = new ArrayList<>();
+        for (String disciplina : sistema.listarDisciplinas()) {
+            fontes.add(new Fonte(disciplina,
+                    () -> sistema.consultar(new ConsultaFrequencia().disciplina(disciplina))));
+        }
+        return fontes;
+    }
+
+    private List<Fonte> fontesPorCurso() {
+        Map<String, List<String>> matriculasPorCurso = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Usuario u : sistema.buscarUsuariosPorTipo(Aluno.class)) {
+            Aluno a = (Aluno) u;
+            if (a.getMatricula() == null) {
+                continue;
+            }
+            String curso = a.getCurso() == null || a.getCurso().isBlank() ? SEM_CURSO : a.getCurso().trim();
+            matriculasPorCurso.computeIfAbsent(curso, c -> new ArrayList<>()).add(a.getMatricula());
+        }
+
+        List<Fonte> fontes = new ArrayList<>();
+        for (Map.Entry<String, List<String>> e : matriculasPorCurso.entrySet()) {
+            List<String> matriculas = e.getValue();
+            fontes.add(new Fonte(e.getKey(), () -> matriculas.stream()
+                    .flatMap(m -> sistema.consultar(new ConsultaFrequencia().aluno(m)))));
+        }
+        return fontes;
+    }
+
+    /**
+     * Divide a lista de partições ao meio até sobrar uma por tarefa.
+     * A metade da esquerda é sempre juntada antes da direita.
+     */
+    private static final class TarefaParticoes extends RecursiveTask<List<ResultadoParticao>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Fonte> fontes;
+        private final int inicio;
+        private final int fim;
+        private final Particao por;
+        private final Cancelamento cancelamento;
+
+        TarefaParticoes(List<Fonte> fontes, int inicio, int fim, Particao por, Cancelamento cancelamento) {
+            this.fontes = fontes;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.por = por;
+            this.cancelamento = cancelamento;
+        }
+
+        @Override
+        protected List<ResultadoParticao> compute() {
+            cancelamento.verificar();
+            if (fim - inicio == 1) {
+                List<ResultadoParticao> unico = new ArrayList<>(1);
+                unico.add(calcularParticao(fontes.get(inicio), por, cancelamento));
+                return unico;
+            }
+            int meio = (inicio + fim) >>> 1;
+            TarefaParticoes esquerda = new TarefaParticoes(fontes, inicio, meio, por, cancelamento);
+            esquerda.fork();
+            List<ResultadoParticao> direita =
+                    new TarefaParticoes(fontes, meio, fim, por, cancelamento).compute();
+            List<ResultadoParticao> resultado = esquerda.join();
+            resultado.addAll(direita);
+            return resultado;
+        }
+    }
+
+    /**
+     * Estatísticas e texto de uma partição. Por disciplina, detalha cada
+     * aluno; por curso, detalha cada disciplina.
+     */
+    private static ResultadoParticao calcularParticao(Fonte fonte, Particao por, Cancelamento cancelamento) {
+        Map<String, long[]> detalhes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER); // [registros, presentes]
+        Set<String> alunos = new HashSet<>();
+        long registros = 0;
+        long presentes = 0;
+
+        try (Stream<Frequencia> stream = fonte.registros.get()) {
+            for (Frequencia f : (Iterable<Frequencia>) stream::iterator) {
+                if (++registros % INTERVALO_VERIFICACAO == 0) {
+                    cancelamento.verificar();
+                }
+                String item = por == Particao.DISCIPLINA ? f.getAlunoMatricula() : f.getDisciplina().trim();
+                long[] contagem = detalhes.computeIfAbsent(item, k -> new long[2]);
+                contagem[0]++;
+                if (f.isPresente()) {
+                    contagem[1]++;
+                    presentes++;
+                }
+                alunos.add(f.getAlunoMatricula());
+            }
+        }
+
+        double percentual = registros > 0 ? presentes * 100.0 / registros : 0;
+        StringBuilder sb = new StringBuilder(128 + detalhes.size() * 48);
+        sb.append(String.format("--- %s: %s ---\n", por.getRotulo(), fonte.chave));
+        sb.append(String.format("Registros: %d | Presenças: %d (%.1f%%) | Faltas: %d\n",
+                registros, presentes, percentual, registros - presentes));
+        sb.append(String.format("Alunos: %d\n", alunos.size()));
+        for (Map.Entry<String, long[]> e : detalhes.entrySet()) {
+            long[] c = e.getValue();
+            sb.append(String.format("  %s: %d registros, %.1f%% presença\n",
+                    e.getKey(), c[0], c[1] * 100.0 / c[0]));
+        }
+        return new ResultadoParticao(fonte.chave, registros, presentes, alunos.size(), sb.toString());
+    }
+
+    // ===== RESULTADO =====
+
+    /**
+     * Estatísticas e texto já formatado de uma partição.
+     */
+    public static final class ResultadoParticao {
+        private final String chave;
+        private final long registros;
+        private final long presentes;
+        private final int alunos;
+        private final String texto;
+
+        ResultadoParticao(String chave, long registros, long presentes, int alunos, String texto) {
+            this.chave = chave;
+            this.registros = registros;
+            this.presentes = presentes;
+            this.alunos = alunos;
+            this.texto = texto;
+        }
+
+        public String getChave() {
+            return chave;
+        }
+
+        public long getRegistros() {
+            return registros;
+        }
+
+        public long getPresentes() {
+            return presentes;
+        }
+
+        public long getFaltas() {
+            return registros - presentes;
+        }
+
+        public int getAlunos() {
+            return alunos;
+        }
+
+        public double getPercentualPresenca() {
+            return registros > 0 ? presentes * 100.0 / registros : 0;
+        }
+
+        public String getTexto() {
+            return texto;
+        }
+    }
+}
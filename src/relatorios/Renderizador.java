@@ -0,0 +1,109 @@
+package relatorios;
+
+import java.io.IOException;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Renderizador.java
+ *
+ * Escreve um relatório, elemento por elemento, direto em um Appendable
+ * (StringBuilder, Writer de arquivo, ...). Nada é acumulado aqui: o
+ * relatório pode ter qualquer tamanho sem ocupar mais memória.
+ *
+ * Uso: titulo(), depois campos/itens/seções/tabelas na ordem desejada e,
+ * por fim, fim().
+ */
+public abstract class Renderizador {
+    private static final char SEPARADOR_DECIMAL =
+            DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)).getDecimalSeparator();
+
+    protected final Appendable destino;
+    protected String[] colunas;
+    protected ModeloLinha modelo;
+
+    protected Renderizador(Appendable destino) {
+        this.destino = destino;
+    }
+
+    /**
+     * Cria o renderizador do formato escrevendo no destino.
+     */
+    public static Renderizador para(FormatoRelatorio formato, Appendable destino) {
+        switch (formato) {
+            case CSV:
+                return new RenderizadorCsv(destino);
+            case HTML:
+                return new RenderizadorHtml(destino);
+            default:
+                return new RenderizadorTexto(destino);
+        }
+    }
+
+    public abstract void titulo(String texto) throws IOException;
+
+    public abstract void secao(String texto) throws IOException;
+
+    public abstract void paragrafo(String texto) throws IOException;
+
+    /**
+     * Par rótulo/valor em destaque (ex.: "Total de registros: 10").
+     */
+    public abstract void campo(String rotulo, CharSequence valor) throws IOException;
+
+    /**
+     * Par rótulo/valor em lista (ex.: "  • Presenças: 8 (80,0%)").
+     */
+    public abstract void item(String rotulo, CharSequence valor) throws IOException;
+
+    /**
+     * Linha em branco entre blocos (só tem efeito no texto).
+     */
+    public void quebra() throws IOException {
+    }
+
+    /**
+     * Abre uma tabela. O modelo é usado pelo formato texto; CSV e HTML usam
+     * só os nomes das colunas.
+     */
+    public void inicioTabela(String[] colunas, ModeloLinha modeloTexto) throws IOException {
+        this.colunas = colunas;
+        this.modelo = modeloTexto;
+    }
+
+    /**
+     * Uma linha da tabela aberta, com um valor por coluna.
+     */
+    public abstract void linha(CharSequence... valores) throws IOException;
+
+    public void fimTabela() throws IOException {
+        colunas = null;
+        modelo = null;
+    }
+
+    public void fim() throws IOException {
+    }
+
+    // ===== FORMATAÇÃO SEM String.format =====
+
+    /**
+     * Percentual com uma casa decimal (ex.: "83,3%"), no separador decimal
+     * do locale padrão, como "%.1f%%".
+     */
+    public static String percentual(double valor) {
+        long decimos = Math.round(valor * 10);
+        StringBuilder sb = new StringBuilder(8);
+        if (decimos < 0) {
+            sb.append('-');
+            decimos = -decimos;
+        }
+        return sb.append(decimos / 10).append(SEPARADOR_DECIMAL).append(decimos % 10).append('%').toString();
+    }
+
+    /**
+     * Contagem acompanhada do percentual sobre o total (ex.: "8 (80,0%)").
+     */
+    public static String contagem(long parte, long total) {
+        return parte + " (" + percentual(total > 0 ? parte * 100.0 / total : 0) + ")";
+    }
+}
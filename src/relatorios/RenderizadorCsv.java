@@ -0,0 +1,90 @@
+package relatorios;
+
+import java.io.IOException;
+
+/**
+ * CSV com ';' como separador, como os arquivos do SerializadorJava.
+ * Títulos e parágrafos não entram; campos viram linhas "rótulo;valor" e
+ * cada tabela começa com a linha de cabeçalho.
+ */
+class RenderizadorCsv extends Renderizador {
+    private boolean escreveuAlgo;
+
+    RenderizadorCsv(Appendable destino) {
+        super(destino);
+    }
+
+    @Override
+    public void titulo(String texto) {
+    }
+
+    @Override
+    public void secao(String texto) {
+    }
+
+    @Override
+    public void paragrafo(String texto) {
+    }
+
+    @Override
+    public void campo(String rotulo, CharSequence valor) throws IOException {
+        celula(rotulo);
+        destino.append(';');
+        celula(valor);
+        destino.append('\n');
+        escreveuAlgo = true;
+    }
+
+    @Override
+    public void item(String rotulo, CharSequence valor) throws IOException {
+        campo(rotulo, valor);
+    }
+
+    @Override
+    public void inicioTabela(String[] colunas, ModeloLinha modeloTexto) throws IOException {
+        super.inicioTabela(colunas, modeloTexto);
+        if (escreveuAlgo) {
+            destino.append('\n');
+        }
+        linha(colunas);
+    }
+
+    @Override
+    public void linha(CharSequence... valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                destino.append(';');
+            }
+            celula(valores[i]);
+        }
+        destino.append('\n');
+        escreveuAlgo = true;
+    }
+
+    /**
+     * Valor entre aspas apenas quando contém separador, aspas ou quebra.
+     */
+    private void celula(CharSequence valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        boolean citar = false;
+        for (int i = 0; i < valor.length() && !citar; i++) {
+            char c = valor.charAt(i);
+            citar = c == ';' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!citar) {
+            destino.append(valor);
+            return;
+        }
+        destino.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                destino.append('"');
+            }
+            destino.append(c);
+        }
+        destino.append('"');
+    }
+}
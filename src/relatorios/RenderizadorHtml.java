@@ -0,0 +1,152 @@
+package relatorios;
+
+import java.io.IOException;
+
+/**
+ * Página HTML autocontida (UTF-8), com os valores escapados.
+ */
+class RenderizadorHtml extends Renderizador {
+    private boolean iniciado;
+    private boolean listaAberta;
+
+    RenderizadorHtml(Appendable destino) {
+        super(destino);
+    }
+
+    @Override
+    public void titulo(String texto) throws IOException {
+        iniciar(texto);
+        fecharLista();
+        destino.append("<h1>");
+        escapar(texto);
+        destino.append("</h1>\n");
+    }
+
+    @Override
+    public void secao(String texto) throws IOException {
+        iniciar(texto);
+        fecharLista();
+        destino.append("<h2>");
+        escapar(texto);
+        destino.append("</h2>\n");
+    }
+
+    @Override
+    public void paragrafo(String texto) throws IOException {
+        iniciar("Relatório");
+        fecharLista();
+        destino.append("<p>");
+        escapar(texto);
+        destino.append("</p>\n");
+    }
+
+    @Override
+    public void campo(String rotulo, CharSequence valor) throws IOException {
+        iniciar("Relatório");
+        fecharLista();
+        destino.append("<p><b>");
+        escapar(rotulo);
+        destino.append(":</b> ");
+        escapar(valor);
+        destino.append("</p>\n");
+    }
+
+    @Override
+    public void item(String rotulo, CharSequence valor) throws IOException {
+        iniciar("Relatório");
+        if (!listaAberta) {
+            destino.append("<ul>\n");
+            listaAberta = true;
+        }
+        destino.append("<li>");
+        escapar(rotulo);
+        destino.append(": ");
+        escapar(valor);
+        destino.append("</li>\n");
+    }
+
+    @Override
+    public void inicioTabela(String[] colunas, ModeloLinha modeloTexto) throws IOException {
+        super.inicioTabela(colunas, modeloTexto);
+        iniciar("Relatório");
+        fecharLista();
+        destino.append("<table>\n<thead><tr>");
+        for (String coluna : colunas) {
+            destino.append("<th>");
+            escapar(coluna);
+            destino.append("</th>");
+        }
+        destino.append("</tr></thead>\n<tbody>\n");
+    }
+
+    @Override
+    public void linha(CharSequence... valores) throws IOException {
+        destino.append("<tr>");
+        for (CharSequence valor : valores) {
+            destino.append("<td>");
+            escapar(valor);
+            destino.append("</td>");
+        }
+        destino.append("</tr>\n");
+    }
+
+    @Override
+    public void fimTabela() throws IOException {
+        super.fimTabela();
+        destino.append("</tbody>\n</table>\n");
+    }
+
+    @Override
+    public void fim() throws IOException {
+        iniciar("Relatório");
+        fecharLista();
+        destino.append("</body>\n</html>\n");
+    }
+
+    private void iniciar(String titulo) throws IOException {
+        if (iniciado) {
+            return;
+        }
+        iniciado = true;
+        destino.append("<!DOCTYPE html>\n<html lang=\"pt-BR\">\n<head>\n<meta charset=\"UTF-8\">\n<title>");
+        escapar(titulo);
+        destino.append("</title>\n<style>")
+                .append("body{font-family:'Segoe UI',sans-serif;margin:24px}")
+                .append("table{border-collapse:collapse}")
+                .append("th,td{border:1px solid #ccc;padding:4px 8px;text-align:left}")
+                .append("th{background:#eee}")
+                .append("</style>\n</head>\n<body>\n");
+    }
+
+    private void fecharLista() throws IOException {
+        if (listaAberta) {
+            destino.append("</ul>\n");
+            listaAberta = false;
+        }
+    }
+
+    private void escapar(CharSequence texto) throws IOException {
+        if (texto == null) {
+            return;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '<':
+                    destino.append("&lt;");
+                    break;
+                case '>':
+                    destino.append("&gt;");
+                    break;
+                case '&':
+                    destino.append("&amp;");
+                    break;
+                case '"':
+                    destino.append("&quot;");
+                    break;
+                default:
+                    destino.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package relatorios;
+
+import java.io.IOException;
+
+/**
+ * Texto simples, no mesmo visual dos relatórios exibidos na interface.
+ */
+class RenderizadorTexto extends Renderizador {
+
+    RenderizadorTexto(Appendable destino) {
+        super(destino);
+    }
+
+    @Override
+    public void titulo(String texto) throws IOException {
+        destino.append("=== ").append(texto).append(" ===\n\n");
+    }
+
+    @Override
+    public void secao(String texto) throws IOException {
+        destino.append(texto).append(":\n");
+    }
+
+    @Override
+    public void paragrafo(String texto) throws IOException {
+        destino.append(texto).append('\n');
+    }
+
+    @Override
+    public void campo(String rotulo, CharSequence valor) throws IOException {
+        destino.append(rotulo).append(": ").append(valor).append('\n');
+    }
+
+    @Override
+    public void item(String rotulo, CharSequence valor) throws IOException {
+        destino.append("  • ").append(rotulo).append(": ").append(valor).append('\n');
+    }
+
+    @Override
+    public void quebra() throws IOException {
+        destino.append('\n');
+    }
+
+    @Override
+    public void linha(CharSequence... valores) throws IOException {
+        if (modelo != null) {
+            modelo.escrever(destino, valores);
+        } else {
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) {
+                    destino.append(" | ");
+                }
+                destino.append(valores[i]);
+            }
+        }
+        destino.append('\n');
+    }
+}
@@ -0,0 +1,62 @@
+package relatorios;
+
+import estatisticas.Contagem;
+
+/**
+ * TabelaCoortes.java
+ *
+ * Resultado de uma análise de coortes: uma linha por (curso, semestre,
+ * disciplina) com registros, em ordem de curso, semestre e disciplina.
+ * As colunas ficam em arrays paralelos, sem um objeto por linha.
+ */
+public final class TabelaCoortes {
+    private final String[] cursos;
+    private final int[] semestres;
+    private final String[] disciplinas;
+    private final long[] totais;
+    private final long[] presentes;
+
+    TabelaCoortes(String[] cursos, int[] semestres, String[] disciplinas, long[] totais, long[] presentes) {
+        this.cursos = cursos;
+        this.semestres = semestres;
+        this.disciplinas = disciplinas;
+        this.totais = totais;
+        this.presentes = presentes;
+    }
+
+    public int tamanho() {
+        return cursos.length;
+    }
+
+    public String getCurso(int linha) {
+        return cursos[linha];
+    }
+
+    /**
+     * Semestre do aluno na linha (0 = não informado).
+     */
+    public int getSemestre(int linha) {
+        return semestres[linha];
+    }
+
+    public String getDisciplina(int linha) {
+        return disciplinas[linha];
+    }
+
+    public Contagem getContagem(int linha) {
+        return new Contagem(totais[linha], presentes[linha]);
+    }
+
+    /**
+     * Soma de todas as linhas.
+     */
+    public Contagem getTotal() {
+        long total = 0;
+        long p = 0;
+        for (int i = 0; i < totais.length; i++) {
+            total += totais[i];
+            p += presentes[i];
+        }
+        return new Contagem(total, p);
+    }
+}
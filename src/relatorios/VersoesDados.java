@@ -0,0 +1,73 @@
+package relatorios;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de versão dos dados, incrementados pelo Sistema a cada
+ * alteração. Um resultado calculado guarda as versões que leu; se alguma
+ * mudou, o resultado está desatualizado.
+ *
+ * Há um contador geral de frequências, um de usuários e um por aluno e
+ * por disciplina, para que registrar a frequência de um aluno não
+ * invalide o relatório de outro.
+ */
+public class VersoesDados {
+    private final AtomicLong frequencias = new AtomicLong();
+    private final AtomicLong usuarios = new AtomicLong();
+    private final ConcurrentHashMap<String, Long> porAluno = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> porDisciplina = new ConcurrentHashMap<>();
+    // Somado às versões por chave: alterouTudo() invalida todas sem limpar os mapas
+    private final AtomicLong geracao = new AtomicLong();
+
+    // ===== LEITURA =====
+
+    public long frequencias() {
+        return frequencias.get();
+    }
+
+    public long usuarios() {
+        return usuarios.get();
+    }
+
+    public long aluno(String matricula) {
+        return geracao.get() + (matricula == null ? 0 : porAluno.getOrDefault(matricula.trim(), 0L));
+    }
+
+    public long disciplina(String disciplina) {
+        return geracao.get() + (disciplina == null ? 0 : porDisciplina.getOrDefault(normalizar(disciplina), 0L));
+    }
+
+    // ===== ALTERAÇÕES =====
+
+    /**
+     * Uma frequência do aluno na disciplina foi incluída, alterada ou removida.
+     */
+    public void alterouFrequencia(String matricula, String disciplina) {
+        frequencias.incrementAndGet();
+        if (matricula != null) {
+            porAluno.merge(matricula.trim(), 1L, Long::sum);
+        }
+        if (disciplina != null) {
+            porDisciplina.merge(normalizar(disciplina), 1L, Long::sum);
+        }
+    }
+
+    public void alterouUsuarios() {
+        usuarios.incrementAndGet();
+    }
+
+    /**
+     * Alteração ampla (importação, limpeza): invalida tudo.
+     */
+    public void alterouTudo() {
+        frequencias.incrementAndGet();
+        usuarios.incrementAndGet();
+        geracao.incrementAndGet();
+    }
+
+    private static String normalizar(String disciplina) {
+        return disciplina.trim().toLowerCase(Locale.ROOT);
+    }
+}
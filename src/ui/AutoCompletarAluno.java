@@ -0,0 +1,190 @@
+package ui;
+
+import java.awt.*;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import models.Aluno;
+import models.Sistema;
+import static ui.UIConfig.*;
+
+/**
+ * AutoCompletarAluno.java
+ *
+ * Lista de sugestões de alunos (Sistema.sugerirAlunos) sob o campo de
+ * matrícula, atualizada enquanto se digita. A consulta só sai depois de
+ * ATRASO_MS sem digitação e roda na thread de consultas das Tarefas
+ * (Tarefas.consultar), fora da thread de eventos e sem esperar as tarefas
+ * demoradas; se o texto mudar antes da resposta, a resposta é descartada.
+ *
+ * Setas escolhem a sugestão, Enter (ou clique) preenche o campo com a
+ * matrícula e Esc fecha a lista.
+ */
+class AutoCompletarAluno {
+    private static final int ATRASO_MS = 150;
+    private static final int MAXIMO_SUGESTOES = 8;
+
+    private final JTextField campo;
+    private final Sistema sistema;
+    private final Tarefas tarefas;
+    private final JPopupMenu popup = new JPopupMenu();
+    private final DefaultListModel<Aluno> modelo = new DefaultListModel<>();
+    private final JList<Aluno> lista = new JList<>(modelo);
+    private final Timer atraso;
+    private int geracao; // muda a cada consulta; respostas de gerações antigas são ignoradas
+    private boolean preenchendo; // texto trocado pela própria sugestão: não consulta de novo
+
+    private AutoCompletarAluno(JTextField campo, Sistema sistema, Tarefas tarefas) {
+        this.campo = campo;
+        this.sistema = sistema;
+        this.tarefas = tarefas;
+        this.atraso = new Timer(ATRASO_MS, e -> consultar());
+        atraso.setRepeats(false);
+
+        lista.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        lista.setSelectionBackground(MOONSTONE);
+        lista.setFocusable(false);
+        lista.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> l, Object valor, int indice,
+                    boolean selecionado, boolean focado) {
+                Aluno a = (Aluno) valor;
+                String texto = a.getMatricula() + " — " + a.getNome()
+                        + (a.getCurso() == null ? "" : " (" + a.getCurso() + ")");
+                return super.getListCellRendererComponent(l, texto, indice, selecionado, focado);
+            }
+        });
+        lista.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int i = lista.locationToIndex(e.getPoint());
+                if (i >= 0) {
+                    selecionar(modelo.get(i));
+                }
+            }
+        });
+        popup.setFocusable(false);
+        popup.add(new JScrollPane(lista));
+
+        campo.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                textoAlterado();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                textoAlterado();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+        campo.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                teclaPressionada(e);
+            }
+        });
+        campo.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                fechar();
+            }
+        });
+    }
+
+    /**
+     * Liga as sugestões ao campo.
+     */
+    static void instalar(JTextField campo, Sistema sistema, Tarefas tarefas) {
+        new AutoCompletarAluno(campo, sistema, tarefas);
+    }
+
+    private void textoAlterado() {
+        if (!preenchendo) {
+            atraso.restart();
+        }
+    }
+
+    private void consultar() {
+        String prefixo = campo.getText();
+        int minha = ++geracao;
+        if (prefixo.isBlank()) {
+            fechar();
+            return;
+        }
+        tarefas.consultar(() -> sistema.sugerirAlunos(prefixo, MAXIMO_SUGESTOES), alunos -> {
+            if (minha == geracao) {
+                mostrar(alunos);
+            }
+        }, erro -> {
+            if (minha == geracao) {
+                fechar();
+            }
+        });
+    }
+
+    private void mostrar(List<Aluno> alunos) {
+        modelo.clear();
+        alunos.forEach(modelo::addElement);
+        if (alunos.isEmpty() || !campo.isShowing()) {
+            fechar();
+            return;
+        }
+        lista.setVisibleRowCount(alunos.size());
+        lista.setSelectedIndex(0);
+        popup.setPopupSize(Math.max(campo.getWidth(), 320), popup.getPreferredSize().height);
+        popup.show(campo, 0, campo.getHeight());
+    }
+
+    private void teclaPressionada(KeyEvent e) {
+        if (!popup.isVisible()) {
+            return;
+        }
+        int i = lista.getSelectedIndex();
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_DOWN:
+                lista.setSelectedIndex(Math.min(i + 1, modelo.size() - 1));
+                e.consume();
+                break;
+            case KeyEvent.VK_UP:
+                lista.setSelectedIndex(Math.max(i - 1, 0));
+                e.consume();
+                break;
+            case KeyEvent.VK_ENTER:
+                if (i >= 0) {
+                    selecionar(modelo.get(i));
+                    e.consume();
+                }
+                break;
+            case KeyEvent.VK_ESCAPE:
+                fechar();
+                e.consume();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void selecionar(Aluno aluno) {
+        preenchendo = true;
+        campo.setText(aluno.getMatricula());
+        preenchendo = false;
+        geracao++; // descarta consulta ainda em andamento
+        fechar();
+    }
+
+    private void fechar() {
+        atraso.stop();
+        popup.setVisible(false);
+    }
+}
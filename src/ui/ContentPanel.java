@@ -1,12 +1,35 @@
 package ui;
 
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CancellationException;
+import estatisticas.Contagem;
+import estatisticas.Histograma;
+import estatisticas.ItemRanking;
+import estatisticas.MonitorRisco;
+import estatisticas.NivelRisco;
+import estatisticas.PontoSerie;
+import estatisticas.SeriesTemporais;
+import estatisticas.SituacaoRisco;
 import java.util.List;
 import javax.swing.*;
 import models.*;
 import persistencia.SistemaException;
+import relatorios.AnaliseCoortes;
+import relatorios.Dependencia;
+import relatorios.FormatoRelatorio;
+import relatorios.GeradorRelatorios;
+import relatorios.MotorRelatorios;
+import relatorios.TabelaCoortes;
 import static ui.UIConfig.*;
 
 /**
@@ -30,13 +53,28 @@ import static ui.UIConfig.*;
 public class ContentPanel extends JPanel {
     private final CardLayout cardLayout;
     private final Sistema sistema;
+    private final Tarefas tarefas; // leituras e gravações demoradas, fora da EDT
     private Usuario usuarioLogado;
 
     // Cards disponíveis
     private JPanel homePanel, usuariosPanel, disciplinasPanel, registroPanel, relatorioPanel, configPanel;
 
-    public ContentPanel(Sistema sistema, Usuario usuarioLogado) {
+    // Tendência mensal (séries do Sistema)
+    private static final int MESES_TENDENCIA = 6;
+    private static final DateTimeFormatter FORMATO_MES = DateTimeFormatter.ofPattern("MM/yyyy");
+
+    // Rankings (top-k)
+    private static final int TAMANHO_RANKING_ALUNOS = 50;
+    private static final int TAMANHO_RANKING = 10;
+    private static final int LARGURA_FAIXA_DISTRIBUICAO = 10; // pontos percentuais por linha do histograma
+
+    // Busca aproximada de usuários por nome
+    private static final int DISTANCIA_BUSCA_NOME = 2; // erros de digitação tolerados por palavra
+    private static final int MAXIMO_RESULTADOS_BUSCA = 50;
+
+    public ContentPanel(Sistema sistema, Usuario usuarioLogado, Tarefas tarefas) {
         this.sistema = sistema;
+        this.tarefas = tarefas;
         this.usuarioLogado = usuarioLogado;
         cardLayout = new CardLayout();
         setLayout(cardLayout);
@@ -174,7 +212,7 @@ public class ContentPanel extends JPanel {
         panel.setBorder(BorderFactory.createEmptyBorder(15, 20, 15, 20));
 
         // Total de usuários
-        int totalUsuarios = sistema.listarUsuarios().size(); // CORRIGIDO: era getUsuarios()
+        int totalUsuarios = sistema.contarUsuarios();
         JLabel lblUsuarios = new JLabel(
                 String.format("<html><center><b>%d</b><br>Usuários</center></html>", totalUsuarios));
         lblUsuarios.setFont(new Font("Segoe UI", Font.PLAIN, 14));
@@ -182,7 +220,7 @@ public class ContentPanel extends JPanel {
         lblUsuarios.setHorizontalAlignment(SwingConstants.CENTER);
 
         // Total de frequências
-        int totalFrequencias = sistema.listarFrequencias().size(); // CORRIGIDO: era getFrequencias()
+        int totalFrequencias = sistema.contarFrequencias();
         JLabel lblFrequencias = new JLabel(
                 String.format("<html><center><b>%d</b><br>Frequências</center></html>", totalFrequencias));
         lblFrequencias.setFont(new Font("Segoe UI", Font.PLAIN, 14));
@@ -208,14 +246,17 @@ public class ContentPanel extends JPanel {
      */
     private String obterEstatisticaEspecifica() {
         if (ehAluno() && usuarioLogado instanceof Aluno aluno) {
-            List<Frequencia> minhasFreq = sistema.buscarFrequenciasPorAluno(aluno.getMatricula());
-            long presencas = minhasFreq.stream().filter(Frequencia::isPresente).count();
-            return String.format("<b>%d</b><br>Suas Presenças", presencas);
+            Contagem contagem = sistema.contagemAluno(aluno.getMatricula());
+            return String.format("<b>%d</b> (%.0f%%)<br>Suas Presenças",
+                    contagem.getPresentes(), contagem.getPercentual());
         } else if (ehProfessor()) {
-            List<Frequencia> registradas = sistema.buscarFrequenciasPorRegistrador(usuarioLogado.getCpf());
-            return String.format("<b>%d</b><br>Registradas por Você", registradas.size());
+            int registradas = sistema.contarFrequenciasPorRegistrador(usuarioLogado.getCpf());
+            return String.format("<b>%d</b><br>Registradas por Você", registradas);
+        } else if (usuarioLogado instanceof Coordenador coordenador) {
+            Contagem contagem = sistema.contagemCurso(coordenador.getCurso());
+            return String.format("<b>%.0f%%</b><br>Presença no Curso", contagem.getPercentual());
         } else {
-            long alunos = sistema.listarUsuarios().stream().filter(u -> u instanceof Aluno).count();
+            long alunos = sistema.contarAlunos();
             return String.format("<b>%d</b><br>Alunos", alunos);
         }
     }
@@ -231,45 +272,37 @@ public class ContentPanel extends JPanel {
         JLabel lblTitle = new JLabel("Gerenciamento de Usuários", SwingConstants.CENTER);
         lblTitle.setFont(new Font("Segoe UI", Font.BOLD, 22));
         lblTitle.setForeground(COR_TEXTO);
-        lblTitle.setBorder(BorderFactory.createEmptyBorder(20, 0, 20, 0));
-        panel.add(lblTitle, BorderLayout.NORTH);
-
-        // Lista de usuários
-        JTextArea area = new JTextArea();
-        area.setEditable(false);
-        area.setFont(new Font("Consolas", Font.PLAIN, 12));
-        area.setBackground(Color.WHITE);
-        area.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-
-        StringBuilder sb = new StringBuilder();
-        sb.append("LISTA COMPLETA DE USUÁRIOS:\n");
-        sb.append("=".repeat(50)).append("\n\n");
-
-        List<Usuario> usuarios = sistema.listarUsuarios(); // CORRIGIDO: era getUsuarios()
-        for (Usuario u : usuarios) {
-            sb.append(String.format("ID: %d | Nome: %s\n", u.getId(), u.getNome()));
-            sb.append(String.format("Tipo: %s | Email: %s\n", u.getTipoUsuario(), u.getEmail()));
-            sb.append(String.format("CPF: %s | Ativo: %s\n", u.getCpf(), u.isAtivo() ? "Sim" : "Não"));
-
-            // Informações específicas por tipo
-            if (u instanceof Aluno aluno) {
-                sb.append(String.format("Matrícula: %s | Curso: %s | Semestre: %d\n",
-                        aluno.getMatricula(), aluno.getCurso(), aluno.getSemestre()));
-            } else if (u instanceof Professor professor) {
-                sb.append(String.format("Área: %s | Titulação: %s\n",
-                        professor.getArea(), professor.getTitulacao()));
-            } else if (u instanceof Coordenador coord) {
-                sb.append(String.format("Curso Coordenado: %s\n", coord.getCurso()));
-            } else if (u instanceof Administrador admin) {
-                sb.append(String.format("Nível de Acesso: %s\n", admin.getNivelAcesso()));
+        lblTitle.setBorder(BorderFactory.createEmptyBorder(20, 0, 10, 0));
+
+        // Busca por nome (tolera erros de digitação)
+        JTextField txtBusca = new JTextField(25);
+        txtBusca.setToolTipText("Nome ou parte do nome; vazio volta à lista completa");
+        JPanel buscaPanel = new JPanel(new FlowLayout());
+        buscaPanel.setBackground(COR_FUNDO);
+        buscaPanel.add(new JLabel("Buscar por nome:"));
+        buscaPanel.add(txtBusca);
+
+        JPanel topo = new JPanel(new BorderLayout());
+        topo.setBackground(COR_FUNDO);
+        topo.add(lblTitle, BorderLayout.NORTH);
+        topo.add(buscaPanel, BorderLayout.CENTER);
+        panel.add(topo, BorderLayout.NORTH);
+
+        // Lista de usuários (a tabela lê do Sistema só as linhas visíveis)
+        ModeloTabelaUsuarios modelo = new ModeloTabelaUsuarios(sistema, tarefas);
+        modelo.listarPorNome();
+        JTable tabela = criarTabela(modelo);
+        tabela.getTableHeader().setToolTipText("Clique em ID ou Nome para ordenar");
+        tabela.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int coluna = tabela.convertColumnIndexToModel(tabela.columnAtPoint(e.getPoint()));
+                if (modelo.ordenarPor(coluna)) {
+                    txtBusca.setText("");
+                }
             }
-
-            sb.append("-".repeat(40)).append("\n");
-        }
-
-        area.setText(sb.toString());
-        JScrollPane scroll = new JScrollPane(area);
-        panel.add(scroll, BorderLayout.CENTER);
+        });
+        panel.add(new JScrollPane(tabela), BorderLayout.CENTER);
 
         // Painel de botões
         JPanel buttonPanel = new JPanel(new FlowLayout());
@@ -279,17 +312,51 @@ public class ContentPanel extends JPanel {
                 e -> mostrarDialogAdicionarUsuario());
         JButton btnRemover = criarBotao("Remover Usuário", COR_DESTAQUE, Color.WHITE, COR_DESTAQUE,
                 e -> mostrarDialogRemoverUsuario());
+        JButton btnRenomear = criarBotao("Renomear Usuário", MOONSTONE, Color.WHITE, MOONSTONE,
+                e -> mostrarDialogRenomearUsuario());
         JButton btnAtualizar = criarBotao("Atualizar Lista", MOONSTONE, Color.WHITE, MOONSTONE,
                 e -> atualizarListaUsuarios());
+        JButton btnBuscar = criarBotao("Buscar", MOONSTONE, Color.WHITE, MOONSTONE,
+                e -> mostrarBuscaUsuarios(modelo, txtBusca.getText()));
+        txtBusca.addActionListener(e -> btnBuscar.doClick());
+        buscaPanel.add(btnBuscar);
 
         buttonPanel.add(btnAdicionar);
         buttonPanel.add(btnRemover);
+        buttonPanel.add(btnRenomear);
         buttonPanel.add(btnAtualizar);
         panel.add(buttonPanel, BorderLayout.SOUTH);
 
         return panel;
     }
 
+    /**
+     * Mostra na tabela os usuários de nome parecido com o buscado
+     * (Sistema.buscarUsuariosAproximado), do mais parecido para o menos.
+     * Busca vazia volta à lista completa, em ordem alfabética.
+     */
+    private void mostrarBuscaUsuarios(ModeloTabelaUsuarios modelo, String nome) {
+        if (nome.isBlank()) {
+            modelo.listarPorNome();
+        } else {
+            modelo.mostrar(sistema.buscarUsuariosAproximado(nome, DISTANCIA_BUSCA_NOME, MAXIMO_RESULTADOS_BUSCA));
+        }
+    }
+
+    /**
+     * Tabela somente leitura sobre um modelo paginado. Sem RowSorter: a
+     * ordem vem do Sistema, e um RowSorter leria todas as linhas.
+     */
+    private static JTable criarTabela(ModeloTabelaPaginada<?> modelo) {
+        JTable tabela = new JTable(modelo);
+        tabela.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        tabela.setRowHeight(22);
+        tabela.setFillsViewportHeight(true);
+        tabela.setSelectionBackground(MOONSTONE);
+        tabela.getTableHeader().setReorderingAllowed(false);
+        return tabela;
+    }
+
     /**
      * Painel DISCIPLINAS - Gerenciamento de disciplinas.
      */
@@ -307,24 +374,18 @@ public class ContentPanel extends JPanel {
         area.setEditable(false);
         area.setFont(new Font("Consolas", Font.PLAIN, 12));
 
-        // Listar disciplinas únicas das frequências
-        List<Frequencia> frequencias = sistema.listarFrequencias(); // CORRIGIDO: era getFrequencias()
+        // Disciplinas e quantidades lidas dos índices (sem percorrer as frequências)
+        List<String> disciplinas = sistema.listarDisciplinas();
         StringBuilder sb = new StringBuilder();
         sb.append("DISCIPLINAS NO SISTEMA:\n");
         sb.append("=".repeat(30)).append("\n\n");
 
-        frequencias.stream()
-                .map(Frequencia::getDisciplina)
-                .distinct()
-                .sorted()
-                .forEach(disciplina -> {
-                    long totalAulas = frequencias.stream()
-                            .filter(f -> f.getDisciplina().equals(disciplina))
-                            .count();
-                    sb.append(String.format("• %s (%d registros)\n", disciplina, totalAulas));
-                });
+        for (String disciplina : disciplinas) {
+            sb.append(String.format("• %s (%d registros)\n", disciplina,
+                    sistema.contarFrequenciasPorDisciplina(disciplina)));
+        }
 
-        if (frequencias.isEmpty()) {
+        if (disciplinas.isEmpty()) {
             sb.append("Nenhuma disciplina encontrada.\n");
             sb.append("Registre algumas frequências para ver as disciplinas aqui.");
         }
@@ -362,6 +423,8 @@ public class ContentPanel extends JPanel {
 
         // Campos do formulário
         JTextField txtMatricula = new JTextField(15);
+        txtMatricula.setToolTipText("Digite a matrícula ou o nome do aluno");
+        AutoCompletarAluno.instalar(txtMatricula, sistema, tarefas);
         JTextField txtDisciplina = new JTextField(15);
         JTextField txtData = new JTextField(12);
         txtData.setText(LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
@@ -421,6 +484,10 @@ public class ContentPanel extends JPanel {
                 e -> registrarFrequencia(txtMatricula, txtDisciplina, txtData, cbPresente, txtObservacoes));
 
         buttonPanel.add(btnRegistrar);
+
+        JButton btnAula = criarBotao("Registrar Aula", MOONSTONE, Color.WHITE, MOONSTONE,
+                e -> registrarAula(txtDisciplina, txtData));
+        buttonPanel.add(btnAula);
         panel.add(buttonPanel, BorderLayout.SOUTH);
 
         return panel;
@@ -444,52 +511,65 @@ public class ContentPanel extends JPanel {
         area.setFont(new Font("Consolas", Font.PLAIN, 12));
         area.setBackground(Color.WHITE);
 
+        // Frequências em tabela (a tabela lê do Sistema só as linhas visíveis)
+        ModeloTabelaFrequencias modelo = new ModeloTabelaFrequencias(sistema, tarefas);
+        JLabel lblLista = new JLabel();
+        lblLista.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        lblLista.setForeground(COR_TEXTO);
+        lblLista.setBorder(BorderFactory.createEmptyBorder(8, 4, 8, 4));
+        JPanel listaPanel = new JPanel(new BorderLayout());
+        listaPanel.setBackground(COR_FUNDO);
+        listaPanel.add(lblLista, BorderLayout.NORTH);
+        listaPanel.add(new JScrollPane(criarTabela(modelo)), BorderLayout.CENTER);
+
         StringBuilder sb = new StringBuilder();
 
         if (ehAdministrador() || ehCoordenador()) {
-            sb.append(sistema.gerarRelatorioGeralUsuarios()).append("\n\n");
-            sb.append("=".repeat(60)).append("\n\n");
-
-            // Relatório de todas as frequências
-            List<Frequencia> todasFreq = sistema.listarFrequencias(); // CORRIGIDO: era getFrequencias()
-            sb.append("TODAS AS FREQUÊNCIAS:\n");
-            for (Frequencia f : todasFreq) {
-                sb.append(f.getDescricaoCompleta()).append("\n");
-            }
+            // Relatórios de usuários montados fora da EDT; o texto chega em aoConcluir
+            sb.append("Gerando relatório...");
+            tarefas.nova("Relatório geral")
+                    .executar(andamento -> {
+                        StringBuilder texto = new StringBuilder();
+                        if (usuarioLogado instanceof Coordenador coordenador) {
+                            texto.append(sistema.gerarRelatorioCoordenador(coordenador)).append("\n\n");
+                            texto.append("=".repeat(60)).append("\n\n");
+                        }
+                        texto.append(sistema.gerarRelatorioGeralUsuarios()).append("\n");
+                        return texto.toString();
+                    }, texto -> mostrarTexto(area, texto));
+
+            modelo.filtrar(null);
+            lblLista.setText(String.format("TODAS AS FREQUÊNCIAS (mais recentes primeiro): %d", modelo.getRowCount()));
 
         } else if (ehProfessor()) {
-            sb.append("FREQUÊNCIAS REGISTRADAS POR VOCÊ:\n");
-            sb.append("=".repeat(40)).append("\n\n");
-
-            List<Frequencia> minhasFreq = sistema.buscarFrequenciasPorRegistrador(usuarioLogado.getCpf());
-            for (Frequencia f : minhasFreq) {
-                sb.append(f.getDescricaoCompleta()).append("\n");
-            }
+            modelo.filtrar(new ConsultaFrequencia().registrador(usuarioLogado.getCpf()));
+            lblLista.setText(String.format("FREQUÊNCIAS REGISTRADAS POR VOCÊ: %d", modelo.getRowCount()));
 
         } else if (ehAluno() && usuarioLogado instanceof Aluno aluno) {
-            sb.append("SUAS FREQUÊNCIAS:\n");
-            sb.append("=".repeat(20)).append("\n\n");
-
-            List<Frequencia> minhasFreq = sistema.buscarFrequenciasPorAluno(aluno.getMatricula());
-            for (Frequencia f : minhasFreq) {
-                sb.append(f.getDescricaoCompleta()).append("\n");
-            }
+            ConsultaFrequencia minhas = new ConsultaFrequencia().aluno(aluno.getMatricula());
+            modelo.filtrar(minhas);
+            lblLista.setText(String.format("SUAS FREQUÊNCIAS: %d", modelo.getRowCount()));
 
             // Estatísticas pessoais
-            if (!minhasFreq.isEmpty()) {
-                long presencas = minhasFreq.stream().filter(Frequencia::isPresente).count();
-                double percentual = (presencas * 100.0) / minhasFreq.size();
-                sb.append("\n").append("=".repeat(30)).append("\n");
+            Contagem contagem = sistema.contar(minhas);
+            if (contagem.getTotal() > 0) {
                 sb.append(String.format("ESTATÍSTICAS PESSOAIS:\n"));
-                sb.append(String.format("Total de aulas: %d\n", minhasFreq.size()));
-                sb.append(String.format("Presenças: %d (%.1f%%)\n", presencas, percentual));
-                sb.append(String.format("Faltas: %d (%.1f%%)\n", minhasFreq.size() - presencas, 100 - percentual));
+                sb.append(String.format("Total de aulas: %d\n", contagem.getTotal()));
+                sb.append(String.format("Presenças: %d (%.1f%%)\n", contagem.getPresentes(), contagem.getPercentual()));
+                sb.append(String.format("Faltas: %d (%.1f%%)\n", contagem.getFaltas(), 100 - contagem.getPercentual()));
             }
         }
 
         area.setText(sb.toString());
-        JScrollPane scroll = new JScrollPane(area);
-        panel.add(scroll, BorderLayout.CENTER);
+        area.setCaretPosition(0);
+        if (sb.length() > 0) {
+            JSplitPane divisao = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(area), listaPanel);
+            divisao.setResizeWeight(0.5);
+            divisao.setBorder(null);
+            panel.add(divisao, BorderLayout.CENTER);
+        } else {
+            panel.add(listaPanel, BorderLayout.CENTER);
+        }
 
         // Botões de ação
         JPanel buttonPanel = new JPanel(new FlowLayout());
@@ -499,17 +579,242 @@ public class ContentPanel extends JPanel {
             JButton btnExportar = criarBotao("Exportar CSV", MOONSTONE, Color.WHITE, MOONSTONE,
                     e -> exportarRelatorio());
             buttonPanel.add(btnExportar);
+
+            JButton btnPorDisciplina = criarBotao("Por Disciplina", MOONSTONE, Color.WHITE, MOONSTONE,
+                    e -> mostrarRelatorioInstitucional(area, MotorRelatorios.Particao.DISCIPLINA));
+            JButton btnPorCurso = criarBotao("Por Curso", MOONSTONE, Color.WHITE, MOONSTONE,
+                    e -> mostrarRelatorioInstitucional(area, MotorRelatorios.Particao.CURSO));
+            JButton btnTendencia = criarBotao("Tendência", MOONSTONE, Color.WHITE, MOONSTONE,
+                    e -> mostrarTendencia(area));
+            JButton btnRisco = criarBotao("Alunos em Risco", COR_DESTAQUE, Color.WHITE, COR_DESTAQUE,
+                    e -> mostrarAlunosEmRisco(area));
+            buttonPanel.add(btnPorDisciplina);
+            buttonPanel.add(btnPorCurso);
+            JButton btnRanking = criarBotao("Ranking", MOONSTONE, Color.WHITE, MOONSTONE,
+                    e -> mostrarRanking(area));
+            buttonPanel.add(btnTendencia);
+            buttonPanel.add(btnRisco);
+            buttonPanel.add(btnRanking);
+            JButton btnDistribuicao = criarBotao("Distribuição", MOONSTONE, Color.WHITE, MOONSTONE,
+                    e -> mostrarDistribuicao(area));
+            buttonPanel.add(btnDistribuicao);
+            JButton btnCoortes = criarBotao("Coortes", MOONSTONE, Color.WHITE, MOONSTONE,
+                    e -> mostrarCoortes(area));
+            buttonPanel.add(btnCoortes);
+
+            JButton btnHtml = criarBotao("Exportar HTML", MOONSTONE, Color.WHITE, MOONSTONE,
+                    e -> exportarRelatorioArquivo(FormatoRelatorio.HTML));
+            buttonPanel.add(btnHtml);
+            JButton btnCoortesCsv = criarBotao("Exportar Coortes", MOONSTONE, Color.WHITE, MOONSTONE,
+                    e -> exportarCoortes());
+            buttonPanel.add(btnCoortesCsv);
         }
 
         JButton btnAtualizar = criarBotao("Atualizar", COR_SUCESSO, Color.WHITE, COR_SUCESSO,
                 e -> atualizarRelatorio());
         buttonPanel.add(btnAtualizar);
 
+        if (ehAdministrador() || ehCoordenador()) {
+            JButton btnBuscar = criarBotao("Buscar Observações", MOONSTONE, Color.WHITE, MOONSTONE,
+                    e -> mostrarBuscaObservacoes(modelo, lblLista));
+            buttonPanel.add(btnBuscar);
+        }
+
         panel.add(buttonPanel, BorderLayout.SOUTH);
 
         return panel;
     }
 
+    /**
+     * Substitui o texto do relatório pelo relatório institucional
+     * (partições calculadas em paralelo pelo MotorRelatorios, numa tarefa).
+     */
+    private void mostrarRelatorioInstitucional(JTextArea area, MotorRelatorios.Particao por) {
+        tarefas.nova("Relatório por " + por.name().toLowerCase())
+                .cancelavel()
+                .executar(andamento -> sistema.getCacheRelatorios().obter("institucional:" + por,
+                        Dependencia.frequencias().e(Dependencia.usuarios()),
+                        () -> new MotorRelatorios(sistema).gerar(por, andamento.getCancelamento())),
+                        texto -> mostrarTexto(area, texto));
+    }
+
+    /**
+     * Substitui o texto do relatório pela tabela curso × semestre ×
+     * disciplina do histórico inteiro (calculada em paralelo pela
+     * AnaliseCoortes, numa tarefa).
+     */
+    private void mostrarCoortes(JTextArea area) {
+        tarefas.nova("Relatório de coortes")
+                .cancelavel()
+                .executar(andamento -> sistema.getCacheRelatorios().obter("coortes",
+                        Dependencia.frequencias().e(Dependencia.usuarios()), () -> {
+                            StringBuilder sb = new StringBuilder();
+                            try {
+                                new GeradorRelatorios(sistema).escreverCoortes(sb, FormatoRelatorio.TEXTO,
+                                        new AnaliseCoortes(sistema).calcular(null, null, andamento.getCancelamento()));
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            return sb.toString();
+                        }),
+                        texto -> mostrarTexto(area, texto));
+    }
+
+    private static void mostrarTexto(JTextArea area, String texto) {
+        area.setText(texto);
+        area.setCaretPosition(0);
+    }
+
+    /**
+     * Substitui o texto do relatório pela presença mês a mês dos últimos
+     * MESES_TENDENCIA meses, por curso e por disciplina (lida das séries
+     * mantidas pelo Sistema, sem varrer as frequências).
+     */
+    private void mostrarTendencia(JTextArea area) {
+        LocalDate fim = LocalDate.now();
+        LocalDate inicio = fim.minusMonths(MESES_TENDENCIA - 1).withDayOfMonth(1);
+        StringBuilder sb = new StringBuilder();
+        sb.append("📈 TENDÊNCIA MENSAL DE PRESENÇA\n");
+        sb.append("=".repeat(50)).append("\n\n");
+
+        sb.append("POR CURSO:\n");
+        for (String curso : sistema.listarCursos()) {
+            anexarSerie(sb, curso, sistema.serieCurso(curso, SeriesTemporais.Granularidade.MES, inicio, fim));
+        }
+        sb.append("\nPOR DISCIPLINA:\n");
+        for (String disciplina : sistema.listarDisciplinas()) {
+            anexarSerie(sb, disciplina,
+                    sistema.serieDisciplina(disciplina, SeriesTemporais.Granularidade.MES, inicio, fim));
+        }
+        area.setText(sb.toString());
+        area.setCaretPosition(0);
+    }
+
+    /**
+     * Substitui o texto do relatório pelos alunos em aviso ou críticos,
+     * do mais para o menos grave.
+     */
+    private void mostrarAlunosEmRisco(JTextArea area) {
+        MonitorRisco monitor = sistema.getMonitorRisco();
+        List<SituacaoRisco> lista = sistema.listarAlunosEmRisco(NivelRisco.AVISO);
+        StringBuilder sb = new StringBuilder();
+        sb.append("🚨 ALUNOS EM RISCO DE REPROVAÇÃO POR FALTA\n");
+        sb.append("=".repeat(50)).append("\n");
+        sb.append(String.format("Crítico: abaixo de %.0f%% | Aviso: abaixo de %.0f%% | Mínimo de %d registros\n\n",
+                monitor.getLimiteCritico(), monitor.getLimiteAviso(), monitor.getMinimoRegistros()));
+        if (lista.isEmpty()) {
+            sb.append("Nenhum aluno em risco.\n");
+        }
+        for (SituacaoRisco s : lista) {
+            Contagem c = s.getContagem();
+            sb.append(String.format("%-8s %-12s %-25s %5.1f%% (%d faltas em %d)\n", s.getNivel().getRotulo(),
+                    s.getMatricula(), s.getDisciplina(), c.getPercentual(), c.getFaltas(), c.getTotal()));
+        }
+        area.setText(sb.toString());
+        area.setCaretPosition(0);
+    }
+
+    /**
+     * Substitui o texto do relatório pelos rankings: alunos com mais
+     * faltas e cursos e disciplinas com pior presença no mês atual.
+     */
+    private void mostrarRanking(JTextArea area) {
+        LocalDate fim = LocalDate.now();
+        LocalDate inicio = fim.withDayOfMonth(1);
+        StringBuilder sb = new StringBuilder();
+        sb.append("🏁 RANKINGS DE FREQUÊNCIA\n");
+        sb.append("=".repeat(50)).append("\n");
+
+        sb.append(String.format("\n%d ALUNOS COM MAIS FALTAS:\n", TAMANHO_RANKING_ALUNOS));
+        anexarRanking(sb, sistema.rankingAlunosPorFaltas(null, null, null, null, TAMANHO_RANKING_ALUNOS));
+        sb.append(String.format("\nCURSOS COM PIOR PRESENÇA EM %s:\n", inicio.format(FORMATO_MES)));
+        anexarRanking(sb, sistema.rankingCursosPiorPresenca(inicio, fim, TAMANHO_RANKING));
+        sb.append(String.format("\nDISCIPLINAS COM PIOR PRESENÇA EM %s:\n", inicio.format(FORMATO_MES)));
+        anexarRanking(sb, sistema.rankingDisciplinasPiorPresenca(inicio, fim, TAMANHO_RANKING));
+        area.setText(sb.toString());
+        area.setCaretPosition(0);
+    }
+
+    /**
+     * Substitui o texto do relatório pela distribuição das taxas de
+     * presença dos alunos (percentis e histograma), no geral, por curso e
+     * por disciplina. Lida dos histogramas mantidos pelo Sistema.
+     */
+    private void mostrarDistribuicao(JTextArea area) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("📊 DISTRIBUIÇÃO DA PRESENÇA DOS ALUNOS\n");
+        sb.append("=".repeat(50)).append("\n");
+
+        anexarDistribuicao(sb, "GERAL", sistema.distribuicaoPresencaGeral());
+        sb.append("\nPOR CURSO:\n");
+        for (String curso : sistema.contagensPorCurso().keySet()) {
+            anexarDistribuicao(sb, curso, sistema.distribuicaoPresencaCurso(curso));
+        }
+        sb.append("\nPOR DISCIPLINA:\n");
+        for (String disciplina : sistema.listarDisciplinas()) {
+            anexarDistribuicao(sb, disciplina, sistema.distribuicaoPresencaDisciplina(disciplina));
+        }
+        area.setText(sb.toString());
+        area.setCaretPosition(0);
+    }
+
+    /**
+     * Troca a tabela do relatório pelas frequências cujas observações
+     * contêm os termos digitados (atestados, justificativas), das mais
+     * relevantes para as menos.
+     */
+    private void mostrarBuscaObservacoes(ModeloTabelaFrequencias modelo, JLabel lblLista) {
+        String termos = JOptionPane.showInputDialog(this,
+                "Termos a buscar nas observações (ex.: atestado, justif):");
+        if (termos == null || termos.isBlank()) {
+            return;
+        }
+        modelo.buscarObservacoes(termos);
+        lblLista.setText(String.format("🔎 OBSERVAÇÕES COM: %s: %d", termos.trim(), modelo.getRowCount()));
+    }
+
+    private static void anexarDistribuicao(StringBuilder sb, String rotulo, Histograma h) {
+        sb.append("\n").append(rotulo).append("\n");
+        if (h.getTotal() == 0) {
+            sb.append("  Nenhum aluno com frequências.\n");
+            return;
+        }
+        sb.append(String.format("  %d alunos | P10 %.0f%% | P25 %.0f%% | mediana %.0f%% | P75 %.0f%% | P90 %.0f%%\n",
+                h.getTotal(), h.percentil(10), h.percentil(25), h.mediana(), h.percentil(75), h.percentil(90)));
+        int[] faixas = h.faixas(LARGURA_FAIXA_DISTRIBUICAO);
+        for (int i = 0; i < faixas.length; i++) {
+            int barras = (int) Math.round(faixas[i] * 20.0 / h.getTotal());
+            sb.append(String.format("  %3d-%3d%%  %-20s %d\n", i * LARGURA_FAIXA_DISTRIBUICAO,
+                    (i + 1) * LARGURA_FAIXA_DISTRIBUICAO, "█".repeat(barras), faixas[i]));
+        }
+    }
+
+    private static void anexarRanking(StringBuilder sb, List<ItemRanking> ranking) {
+        if (ranking.isEmpty()) {
+            sb.append("  Nenhum registro.\n");
+        }
+        for (int i = 0; i < ranking.size(); i++) {
+            Contagem c = ranking.get(i).getContagem();
+            sb.append(String.format("%3d. %-25s %4d faltas  %5.1f%% de presença (%d registros)\n", i + 1,
+                    ranking.get(i).getRotulo(), c.getFaltas(), c.getPercentual(), c.getTotal()));
+        }
+    }
+
+    private static void anexarSerie(StringBuilder sb, String rotulo, List<PontoSerie> serie) {
+        sb.append("\n").append(rotulo).append("\n");
+        for (PontoSerie ponto : serie) {
+            Contagem c = ponto.getContagem();
+            sb.append(String.format("  %s  ", ponto.getInicio().format(FORMATO_MES)));
+            if (c.getTotal() == 0) {
+                sb.append("sem registros\n");
+            } else {
+                int barras = (int) Math.round(c.getPercentual() / 5);
+                sb.append(String.format("%-20s %5.1f%% (%d/%d)\n", "█".repeat(barras), c.getPercentual(),
+                        c.getPresentes(), c.getTotal()));
+            }
+        }
+    }
+
     /**
      * Painel CONFIG - Configurações básicas.
      */
@@ -555,6 +860,15 @@ public class ContentPanel extends JPanel {
                         JOptionPane.showMessageDialog(panel, "Demonstração de permissões executada! Veja o console.");
                     });
             actions.add(btnDemo);
+
+            JButton btnCache = criarBotao("Cache", MOONSTONE, Color.WHITE, MOONSTONE,
+                    e -> JOptionPane.showMessageDialog(panel, sistema.getCacheRelatorios().toString(),
+                            "Cache de Relatórios", JOptionPane.INFORMATION_MESSAGE));
+            actions.add(btnCache);
+
+            JButton btnImportar = criarBotao("Importar CSV", MOONSTONE, Color.WHITE, MOONSTONE,
+                    e -> importarCSV());
+            actions.add(btnImportar);
         }
 
         JButton btnLimpar = criarBotao("Limpar Console", GUNMETAL, Color.WHITE, GUNMETAL,
@@ -591,8 +905,7 @@ public class ContentPanel extends JPanel {
             }
 
             // Verificar se aluno existe
-            boolean alunoExiste = sistema.listarUsuarios().stream() // CORRIGIDO: era getUsuarios()
-                    .anyMatch(u -> u instanceof Aluno && ((Aluno) u).getMatricula().equals(matricula));
+            boolean alunoExiste = sistema.alunoCadastrado(matricula);
 
             if (!alunoExiste) {
                 int resp = JOptionPane.showConfirmDialog(this,
@@ -612,16 +925,24 @@ public class ContentPanel extends JPanel {
             Frequencia frequencia = new Frequencia(novoId, matricula, disciplina, data, presente,
                     usuarioLogado.getCpf(), observacoes);
 
-            sistema.adicionarFrequencia(frequencia);
-
-            JOptionPane.showMessageDialog(this, "Frequência registrada com sucesso!",
-                    "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-
-            // Limpar campos
-            txtMatricula.setText("");
-            txtDisciplina.setText("");
-            txtObservacoes.setText("");
-            cbPresente.setSelectedIndex(0);
+            // Gravar fora da EDT; a janela fica bloqueada até a frequência estar salva
+            tarefas.nova("Registrando frequência")
+                    .alterandoDados()
+                    .aoFalhar(e -> JOptionPane.showMessageDialog(this,
+                            "Erro ao registrar frequência:\n" + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE))
+                    .executar(andamento -> {
+                        sistema.adicionarFrequencia(frequencia);
+                        return frequencia;
+                    }, registrada -> {
+                        JOptionPane.showMessageDialog(this, "Frequência registrada com sucesso!",
+                                "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+
+                        // Limpar campos
+                        txtMatricula.setText("");
+                        txtDisciplina.setText("");
+                        txtObservacoes.setText("");
+                        cbPresente.setSelectedIndex(0);
+                    });
 
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Erro ao registrar frequência:\n" + e.getMessage(),
@@ -630,19 +951,177 @@ public class ContentPanel extends JPanel {
     }
 
     /**
-     * Exporta relatório para CSV.
+     * Registra a chamada de uma aula inteira: pede as matrículas da turma
+     * (uma por linha), mostra a lista com uma caixa de presença por aluno e
+     * grava a Aula de uma vez. Disciplina e data vêm do formulário.
      */
-    private void exportarRelatorio() {
+    private void registrarAula(JTextField txtDisciplina, JTextField txtData) {
         try {
-            sistema.exportarParaCSV();
-            JOptionPane.showMessageDialog(this, "Relatório exportado para CSV com sucesso!",
-                    "Exportação Concluída", JOptionPane.INFORMATION_MESSAGE);
+            String disciplina = txtDisciplina.getText().trim();
+            String dataStr = txtData.getText().trim();
+            if (disciplina.isEmpty() || dataStr.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Preencha a disciplina e a data da aula!",
+                        "Erro de Validação", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            LocalDate data = LocalDate.parse(dataStr, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+
+            // Turma: uma matrícula por linha
+            JTextArea txtTurma = new JTextArea(10, 20);
+            int resp = JOptionPane.showConfirmDialog(this, new JScrollPane(txtTurma),
+                    "Matrículas da turma (uma por linha)", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+            if (resp != JOptionPane.OK_OPTION) {
+                return;
+            }
+            List<String> matriculas = txtTurma.getText().lines()
+                    .map(String::trim)
+                    .filter(m -> !m.isEmpty())
+                    .distinct()
+                    .toList();
+            if (matriculas.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Informe ao menos uma matrícula!",
+                        "Erro de Validação", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            // Chamada: todos presentes por padrão, desmarque as faltas
+            javax.swing.table.DefaultTableModel chamada = new javax.swing.table.DefaultTableModel(
+                    new Object[] { "Matrícula", "Presente" }, 0) {
+                @Override
+                public Class<?> getColumnClass(int coluna) {
+                    return coluna == 1 ? Boolean.class : String.class;
+                }
+
+                @Override
+                public boolean isCellEditable(int linha, int coluna) {
+                    return coluna == 1;
+                }
+            };
+            matriculas.forEach(m -> chamada.addRow(new Object[] { m, Boolean.TRUE }));
+            JTable tabela = new JTable(chamada);
+            resp = JOptionPane.showConfirmDialog(this, new JScrollPane(tabela),
+                    "Chamada de " + disciplina + " em " + dataStr, JOptionPane.OK_CANCEL_OPTION,
+                    JOptionPane.PLAIN_MESSAGE);
+            if (resp != JOptionPane.OK_OPTION) {
+                return;
+            }
+            if (tabela.isEditing()) {
+                tabela.getCellEditor().stopCellEditing();
+            }
+
+            Aula aula = new Aula(0L, disciplina, data, usuarioLogado.getCpf(), matriculas);
+            for (int i = 0; i < chamada.getRowCount(); i++) {
+                if (!Boolean.TRUE.equals(chamada.getValueAt(i, 1))) {
+                    aula.marcarFalta((String) chamada.getValueAt(i, 0));
+                }
+            }
+
+            tarefas.nova("Registrando aula")
+                    .alterandoDados()
+                    .aoFalhar(e -> JOptionPane.showMessageDialog(this,
+                            "Erro ao registrar aula:\n" + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE))
+                    .executar(andamento -> {
+                        sistema.registrarAula(aula);
+                        return aula;
+                    }, registrada -> JOptionPane.showMessageDialog(this,
+                            "Aula registrada: " + registrada.contarPresentes() + " presentes e "
+                                    + registrada.contarFaltas() + " faltas.",
+                            "Sucesso", JOptionPane.INFORMATION_MESSAGE));
+
         } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Erro ao exportar: " + e.getMessage(),
+            JOptionPane.showMessageDialog(this, "Erro ao registrar aula:\n" + e.getMessage(),
                     "Erro", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    /**
+     * Exporta relatório para CSV.
+     */
+    private void exportarRelatorio() {
+        tarefas.nova("Exportando CSV")
+                .cancelavel()
+                .aoFalhar(e -> JOptionPane.showMessageDialog(this, "Erro ao exportar: " + e.getMessage(),
+                        "Erro", JOptionPane.ERROR_MESSAGE))
+                .executar(andamento -> {
+                    sistema.exportarParaCSV(andamento.getCancelamento(), andamento::informar);
+                    return null;
+                }, nada -> JOptionPane.showMessageDialog(this, "Relatório exportado para CSV com sucesso!",
+                        "Exportação Concluída", JOptionPane.INFORMATION_MESSAGE));
+    }
+
+    /**
+     * Grava o relatório completo de frequências em arquivo, linha a linha
+     * (o relatório não é montado inteiro em memória). Cancelado, o
+     * arquivo incompleto é apagado.
+     */
+    private void exportarRelatorioArquivo(FormatoRelatorio formato) {
+        String arquivo = "relatorio_frequencias." + formato.getExtensao();
+        tarefas.nova("Exportando " + arquivo)
+                .cancelavel()
+                .aoFalhar(e -> JOptionPane.showMessageDialog(this, "Erro ao exportar: " + e.getMessage(),
+                        "Erro", JOptionPane.ERROR_MESSAGE))
+                .executar(andamento -> {
+                    try (Writer out = Files.newBufferedWriter(Paths.get(arquivo), StandardCharsets.UTF_8)) {
+                        new GeradorRelatorios(sistema).escreverFrequencias(out, formato, null,
+                                andamento.getCancelamento(), andamento::informar);
+                    } catch (CancellationException e) {
+                        Files.deleteIfExists(Paths.get(arquivo));
+                        throw e;
+                    }
+                    return arquivo;
+                }, gravado -> JOptionPane.showMessageDialog(this, "Relatório exportado para " + gravado + " com sucesso!",
+                        "Exportação Concluída", JOptionPane.INFORMATION_MESSAGE));
+    }
+
+    /**
+     * Grava a tabela de coortes em CSV, para planilhas de reconhecimento
+     * de curso. A tabela é calculada antes de abrir o arquivo, então
+     * cancelar não deixa arquivo incompleto.
+     */
+    private void exportarCoortes() {
+        String arquivo = "relatorio_coortes." + FormatoRelatorio.CSV.getExtensao();
+        tarefas.nova("Exportando coortes")
+                .cancelavel()
+                .aoFalhar(e -> JOptionPane.showMessageDialog(this, "Erro ao exportar: " + e.getMessage(),
+                        "Erro", JOptionPane.ERROR_MESSAGE))
+                .executar(andamento -> {
+                    TabelaCoortes tabela = new AnaliseCoortes(sistema).calcular(null, null, andamento.getCancelamento());
+                    try (Writer out = Files.newBufferedWriter(Paths.get(arquivo), StandardCharsets.UTF_8)) {
+                        new GeradorRelatorios(sistema).escreverCoortes(out, FormatoRelatorio.CSV, tabela);
+                    }
+                    return arquivo;
+                }, gravado -> JOptionPane.showMessageDialog(this, "Coortes exportadas para " + gravado + " com sucesso!",
+                        "Exportação Concluída", JOptionPane.INFORMATION_MESSAGE));
+    }
+
+    /**
+     * Importa usuários e frequências do CSV ("dados.csv"). Frequências já
+     * registradas são mantidas; o resumo da importação vai para o console.
+     */
+    private void importarCSV() {
+        tarefas.nova("Importando CSV")
+                .alterandoDados()
+                .cancelavel()
+                .executar(andamento -> {
+                    sistema.lerDadosCSV(false, andamento.getCancelamento(), andamento::informar);
+                    return null;
+                }, nada -> {
+                    // Listagens montadas antes da importação
+                    if (usuariosPanel != null) {
+                        remove(usuariosPanel);
+                        usuariosPanel = buildUsuariosPanel();
+                        add(usuariosPanel, "USUARIOS");
+                    }
+                    if (relatorioPanel != null) {
+                        remove(relatorioPanel);
+                        relatorioPanel = buildRelatorioPanel();
+                        add(relatorioPanel, "RELATORIO");
+                    }
+                    JOptionPane.showMessageDialog(this, "Importação do CSV concluída. Veja o resumo no console.",
+                            "Importação Concluída", JOptionPane.INFORMATION_MESSAGE);
+                });
+    }
+
     /**
      * Atualiza a lista de usuários (reconstrói o painel).
      */
@@ -681,15 +1160,59 @@ public class ContentPanel extends JPanel {
     private void mostrarDialogRemoverUsuario() {
         String cpf = JOptionPane.showInputDialog(this, "Digite o CPF do usuário a ser removido:");
         if (cpf != null && !cpf.trim().isEmpty()) {
-            try {
-                sistema.removerUsuario(cpf.trim());
-                JOptionPane.showMessageDialog(this, "Usuário removido com sucesso!",
-                        "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-                atualizarListaUsuarios();
-            } catch (SistemaException e) {
-                JOptionPane.showMessageDialog(this, "Erro ao remover usuário:\n" + e.getDetalhesErro(),
-                        "Erro", JOptionPane.ERROR_MESSAGE);
-            }
+            tarefas.nova("Removendo usuário")
+                    .alterandoDados()
+                    .aoFalhar(this::mostrarErroUsuario)
+                    .executar(andamento -> {
+                        sistema.removerUsuario(cpf.trim());
+                        return null;
+                    }, nada -> {
+                        JOptionPane.showMessageDialog(this, "Usuário removido com sucesso!",
+                                "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+                        atualizarListaUsuarios();
+                    });
+        }
+    }
+
+    /**
+     * Mostra dialog para trocar o nome de um usuário pelo ID.
+     */
+    private void mostrarDialogRenomearUsuario() {
+        String id = JOptionPane.showInputDialog(this, "Digite o ID do usuário a ser renomeado:");
+        if (id == null || id.trim().isEmpty()) {
+            return;
+        }
+        String nome = JOptionPane.showInputDialog(this, "Novo nome:");
+        if (nome == null || nome.trim().isEmpty()) {
+            return;
+        }
+        int numero;
+        try {
+            numero = Integer.parseInt(id.trim());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "ID inválido: " + id.trim(),
+                    "Erro", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+        tarefas.nova("Renomeando usuário")
+                .alterandoDados()
+                .aoFalhar(this::mostrarErroUsuario)
+                .executar(andamento -> {
+                    sistema.renomearUsuario(numero, nome);
+                    return null;
+                }, nada -> {
+                    JOptionPane.showMessageDialog(this, "Usuário renomeado com sucesso!",
+                            "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+                    atualizarListaUsuarios();
+                });
+    }
+
+    /**
+     * Erro de uma tarefa sobre usuários (executado na EDT).
+     */
+    private void mostrarErroUsuario(Throwable erro) {
+        String detalhes = erro instanceof SistemaException se ? se.getDetalhesErro() : erro.getMessage();
+        JOptionPane.showMessageDialog(this, "Erro na operação com usuário:\n" + detalhes,
+                "Erro", JOptionPane.ERROR_MESSAGE);
     }
-}
\ No newline at end of file
+}
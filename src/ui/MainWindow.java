@@ -2,6 +2,8 @@ package ui;
 
 import java.awt.*;
 import java.awt.event.*;
+import estatisticas.NivelRisco;
+import estatisticas.SituacaoRisco;
 import javax.swing.*;
 import models.*;
 import static ui.UIConfig.*;
@@ -18,6 +20,7 @@ public class MainWindow extends JFrame {
     private final ContentPanel contentPanel;
     private final SideMenuPanel sidePanel;
     private final StatusBar statusBar;
+    private final Tarefas tarefas;
 
     public MainWindow(Usuario usuarioLogado) {
         super("Sistema de Frequência - " + usuarioLogado.getNome());
@@ -31,8 +34,9 @@ public class MainWindow extends JFrame {
         getContentPane().setBackground(COR_FUNDO);
 
         // Criar componentes
-        contentPanel = new ContentPanel(sistema, usuarioLogado);
         statusBar = new StatusBar();
+        tarefas = new Tarefas(this, statusBar);
+        contentPanel = new ContentPanel(sistema, usuarioLogado, tarefas);
         sidePanel = criarMenuPorPerfil();
 
         // Montar layout
@@ -146,6 +150,25 @@ public class MainWindow extends JFrame {
 
         // Atalhos de teclado
         configurarAtalhosTeclado();
+
+        // Alertas de risco de reprovação por falta (quem acompanha a instituição)
+        if (ehAdministrador() || ehCoordenador()) {
+            sistema.getMonitorRisco().adicionarOuvinte(this::avisarRisco);
+        }
+    }
+
+    /**
+     * Mostra na barra de status quando um aluno entra em situação crítica.
+     * O monitor chama na thread que registrou a frequência.
+     */
+    private void avisarRisco(NivelRisco anterior, SituacaoRisco atual) {
+        if (atual.getNivel() != NivelRisco.CRITICO) {
+            return;
+        }
+        String mensagem = String.format("⚠ Aluno %s abaixo de %.0f%% de presença em %s (%s)",
+                atual.getMatricula(), sistema.getMonitorRisco().getLimiteCritico(), atual.getDisciplina(),
+                atual.getContagem());
+        SwingUtilities.invokeLater(() -> mostrarStatusTemporario(mensagem, 5));
     }
 
     /**
@@ -214,35 +237,33 @@ public class MainWindow extends JFrame {
         );
         
         if (resposta == JOptionPane.YES_OPTION) {
-            try {
-                statusBar.setStatus("Salvando dados...");
-                
-                // Salvar dados do sistema
-                sistema.salvarUsuarios();
-                sistema.salvarFrequencias();
-                
-                System.out.println(" Dados salvos com sucesso");
-                System.out.println(" Usuário " + usuarioLogado.getNome() + " saiu do sistema");
-                
-                // Fechar aplicação
-                System.exit(0);
-                
-            } catch (Exception e) {
-                System.err.println(" Erro ao salvar dados: " + e.getMessage());
-                
-                int respSemSalvar = JOptionPane.showConfirmDialog(
-                    this,
-                    "Erro ao salvar dados:\n" + e.getMessage() + 
-                    "\n\nDeseja sair mesmo assim?",
-                    "Erro ao Salvar",
-                    JOptionPane.YES_NO_OPTION,
-                    JOptionPane.ERROR_MESSAGE
-                );
-                
-                if (respSemSalvar == JOptionPane.YES_OPTION) {
-                    System.exit(1);
-                }
-            }
+            // Salvar dados do sistema fora da EDT; a janela fica bloqueada até terminar
+            tarefas.nova("Salvando dados")
+                    .alterandoDados()
+                    .aoFalhar(e -> {
+                        int respSemSalvar = JOptionPane.showConfirmDialog(
+                            this,
+                            "Erro ao salvar dados:\n" + e.getMessage() + 
+                            "\n\nDeseja sair mesmo assim?",
+                            "Erro ao Salvar",
+                            JOptionPane.YES_NO_OPTION,
+                            JOptionPane.ERROR_MESSAGE
+                        );
+                        
+                        if (respSemSalvar == JOptionPane.YES_OPTION) {
+                            System.exit(1);
+                        }
+                    })
+                    .executar(andamento -> {
+                        sistema.salvarDados(andamento::informar);
+                        return null;
+                    }, nada -> {
+                        System.out.println(" Dados salvos com sucesso");
+                        System.out.println(" Usuário " + usuarioLogado.getNome() + " saiu do sistema");
+                        
+                        // Fechar aplicação
+                        System.exit(0);
+                    });
         }
     }
 
@@ -0,0 +1,59 @@
+package ui;
+
+import models.ConsultaFrequencia;
+import models.Frequencia;
+import models.Sistema;
+
+/**
+ * ModeloTabelaFrequencias.java
+ *
+ * Frequências para a tabela do painel de relatórios: as que atendem a um
+ * filtro, das mais recentes para as mais antigas, ou as encontradas numa
+ * busca nas observações, em ordem de relevância. A contagem que dimensiona
+ * a tabela vem dos índices (Sistema.contar), sem ler os registros.
+ */
+class ModeloTabelaFrequencias extends ModeloTabelaPaginada<Frequencia> {
+    private final Sistema sistema;
+
+    ModeloTabelaFrequencias(Sistema sistema, Tarefas tarefas) {
+        super(tarefas, "ID", "Data", "Dia", "Matrícula", "Disciplina", "Status", "Observações");
+        this.sistema = sistema;
+    }
+
+    /**
+     * @param filtro null para todas as frequências
+     */
+    void filtrar(ConsultaFrequencia filtro) {
+        int total = (int) sistema.contar(filtro == null ? new ConsultaFrequencia() : filtro).getTotal();
+        if (filtro == null) {
+            setFaixa(sistema::faixaFrequencias, total); // listagem completa: lida por posição
+        } else {
+            setFonte((tamanho, token) -> sistema.paginarFrequencias(filtro, tamanho, token), total);
+        }
+    }
+
+    void buscarObservacoes(String texto) {
+        setFonte((tamanho, token) -> sistema.buscarObservacoes(texto, tamanho, token),
+                sistema.contarObservacoes(texto));
+    }
+
+    @Override
+    protected Object valor(Frequencia f, int coluna) {
+        switch (coluna) {
+            case 0:
+                return f.getId();
+            case 1:
+                return f.getDataFormatada();
+            case 2:
+                return f.getDiaSemana();
+            case 3:
+                return f.getAlunoMatricula();
+            case 4:
+                return f.getDisciplina();
+            case 5:
+                return f.getStatus();
+            default:
+                return f.getObservacoes();
+        }
+    }
+}
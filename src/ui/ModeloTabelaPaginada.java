@@ -0,0 +1,251 @@
+package ui;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.swing.table.AbstractTableModel;
+import models.Pagina;
+import models.Sistema;
+import persistencia.SistemaException;
+
+/**
+ * ModeloTabelaPaginada.java
+ *
+ * Modelo de JTable que busca as linhas no Sistema sob demanda, uma página
+ * por vez, em vez de montar todas antes de mostrar. A JTable só pede os
+ * valores das linhas visíveis, então abrir ou rolar uma listagem de
+ * dezenas de milhares de registros lê apenas as páginas que aparecem na
+ * tela. Só as últimas PAGINAS_EM_MEMORIA páginas usadas ficam guardadas.
+ *
+ * A leitura nunca acontece na pintura: a página que falta é pedida às
+ * Tarefas (Tarefas.consultar), a linha aparece como CARREGANDO e, quando
+ * a página chega na EDT, as linhas dela são redesenhadas.
+ *
+ * Há dois tipos de fonte. As listagens completas (setFaixa) são lidas por
+ * posição, então saltar para o fim da tabela custa uma página. As filtradas
+ * e as buscas (setFonte) andam por token (cada página dá o token da
+ * seguinte), e o token do início de cada página já lida é guardado; para
+ * chegar a uma página distante, a leitura parte do token conhecido mais
+ * próximo e avança em consultas do tamanho máximo que o Sistema aceita.
+ *
+ * A ordenação e a filtragem ficam com a fonte (índices do Sistema); as
+ * subclasses trocam a fonte e dizem como mostrar cada coluna.
+ */
+abstract class ModeloTabelaPaginada<T> extends AbstractTableModel {
+    static final int TAMANHO_PAGINA = 100;
+    static final String CARREGANDO = "...";
+    private static final int PAGINAS_POR_CONSULTA = Sistema.TAMANHO_MAXIMO_PAGINA / TAMANHO_PAGINA;
+    private static final int PAGINAS_EM_MEMORIA = 50;
+
+    /**
+     * Origem das linhas por token: um dos métodos de paginação do Sistema.
+     */
+    @FunctionalInterface
+    interface Fonte<T> {
+        Pagina<T> pagina(int tamanho, String token) throws SistemaException;
+    }
+
+    /**
+     * Origem das linhas por posição: um dos métodos faixa* do Sistema.
+     */
+    @FunctionalInterface
+    interface Faixa<T> {
+        List<T> faixa(int inicio, int quantidade) throws SistemaException;
+    }
+
+    /**
+     * Páginas lidas a partir de primeira; fim indica que a fonte acabou
+     * nelas.
+     */
+    private static final class Lote<T> {
+        final int primeira;
+        final List<T> itens;
+        final boolean fim;
+
+        Lote(int primeira, List<T> itens, boolean fim) {
+            this.primeira = primeira;
+            this.itens = itens;
+            this.fim = fim;
+        }
+    }
+
+    /**
+     * Lê a página pedida (e talvez vizinhas) na thread de consultas. Cada
+     * troca de fonte cria uma leitura nova, e o estado dela só é usado
+     * nessa thread.
+     */
+    @FunctionalInterface
+    private interface Leitura<T> {
+        Lote<T> ler(int numero) throws SistemaException;
+    }
+
+    private final Tarefas tarefas;
+    private final String[] colunas;
+    private Leitura<T> leitura;
+    private int total;
+    private final Set<Integer> pedidas = new HashSet<>(); // páginas pedidas que ainda não chegaram
+    private final Map<Integer, List<T>> paginas = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> maisAntiga) {
+            return size() > PAGINAS_EM_MEMORIA;
+        }
+    };
+
+    protected ModeloTabelaPaginada(Tarefas tarefas, String... colunas) {
+        this.tarefas = tarefas;
+        this.colunas = colunas;
+        setFaixa((inicio, quantidade) -> List.of(), 0);
+    }
+
+    /**
+     * Troca a origem das linhas por uma paginada por token e descarta as
+     * páginas já lidas.
+     *
+     * @param total quantidade de linhas da fonte (contada pelo Sistema)
+     */
+    protected void setFonte(Fonte<T> fonte, int total) {
+        TreeMap<Integer, String> tokens = new TreeMap<>(); // página → token que a busca
+        tokens.put(0, null);
+        trocar(numero -> {
+            while (true) {
+                Map.Entry<Integer, String> inicio = tokens.floorEntry(numero);
+                int primeira = inicio.getKey();
+                int quantidade = Math.min(numero - primeira + 1, PAGINAS_POR_CONSULTA);
+                Pagina<T> lida = fonte.pagina(quantidade * TAMANHO_PAGINA, inicio.getValue());
+                List<T> itens = lida.getItens();
+                if (!lida.temProxima() || itens.size() < quantidade * TAMANHO_PAGINA) {
+                    return new Lote<>(primeira, itens, true);
+                }
+                tokens.put(primeira + quantidade, lida.getProximoToken());
+                if (primeira + quantidade > numero) {
+                    return new Lote<>(primeira, itens, false);
+                }
+            }
+        }, total);
+    }
+
+    /**
+     * Troca a origem das linhas por uma lida por posição e descarta as
+     * páginas já lidas.
+     *
+     * @param total quantidade de linhas da fonte (contada pelo Sistema)
+     */
+    protected void setFaixa(Faixa<T> faixa, int total) {
+        trocar(numero -> {
+            List<T> itens = faixa.faixa(numero * TAMANHO_PAGINA, TAMANHO_PAGINA);
+            return new Lote<>(numero, itens, itens.size() < TAMANHO_PAGINA);
+        }, total);
+    }
+
+    private void trocar(Leitura<T> leitura, int total) {
+        this.leitura = leitura;
+        this.total = total;
+        pedidas.clear();
+        paginas.clear();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Valor da coluna para o item da linha.
+     */
+    protected abstract Object valor(T item, int coluna);
+
+    @Override
+    public int getRowCount() {
+        return total;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return colunas.length;
+    }
+
+    @Override
+    public String getColumnName(int coluna) {
+        return colunas[coluna];
+    }
+
+    @Override
+    public Object getValueAt(int linha, int coluna) {
+        if (!paginas.containsKey(linha / TAMANHO_PAGINA)) {
+            pedir(linha / TAMANHO_PAGINA);
+            return CARREGANDO;
+        }
+        T item = getItem(linha);
+        return item == null ? null : valor(item, coluna);
+    }
+
+    /**
+     * Item da linha, se a página dele já foi lida; senão pede a página e
+     * retorna null (também null se a fonte acabou antes da linha).
+     */
+    T getItem(int linha) {
+        int numero = linha / TAMANHO_PAGINA;
+        List<T> pagina = paginas.get(numero);
+        if (pagina == null) {
+            pedir(numero);
+            return null;
+        }
+        int i = linha % TAMANHO_PAGINA;
+        return i < pagina.size() ? pagina.get(i) : null;
+    }
+
+    private void pedir(int numero) {
+        if (!pedidas.add(numero)) {
+            return;
+        }
+        Leitura<T> pedida = leitura;
+        tarefas.consultar(() -> pedida.ler(numero), lote -> receber(pedida, numero, lote), erro -> {
+            if (leitura == pedida) {
+                System.err.println(" Erro ao carregar página da tabela: " + erro.getMessage());
+                pedidas.remove(numero);
+                ajustarTotal(Math.min(total, numero * TAMANHO_PAGINA));
+            }
+        });
+    }
+
+    /**
+     * Guarda as páginas lidas e redesenha as linhas delas (na EDT). Páginas
+     * de uma fonte que já foi trocada são descartadas.
+     */
+    private void receber(Leitura<T> lida, int numero, Lote<T> lote) {
+        if (leitura != lida) {
+            return;
+        }
+        pedidas.remove(numero);
+        List<T> itens = lote.itens;
+        for (int p = 0; p * TAMANHO_PAGINA < itens.size(); p++) {
+            paginas.put(lote.primeira + p, itens.subList(p * TAMANHO_PAGINA,
+                    Math.min((p + 1) * TAMANHO_PAGINA, itens.size())));
+        }
+        if (itens.isEmpty()) {
+            paginas.put(numero, List.of());
+        }
+        if (lote.fim && ajustarTotal(lote.primeira * TAMANHO_PAGINA + itens.size())) {
+            return;
+        }
+        int primeiraLinha = lote.primeira * TAMANHO_PAGINA;
+        int ultimaLinha = Math.min(total, primeiraLinha + Math.max(itens.size(), TAMANHO_PAGINA)) - 1;
+        if (primeiraLinha <= ultimaLinha) {
+            fireTableRowsUpdated(primeiraLinha, ultimaLinha);
+        }
+    }
+
+    /**
+     * A fonte acabou em outro ponto que o contado (registros incluídos ou
+     * removidos desde a contagem): corrige o total.
+     *
+     * @return true se o total mudou (a tabela inteira foi avisada)
+     */
+    private boolean ajustarTotal(int real) {
+        if (real == total) {
+            return false;
+        }
+        total = real;
+        fireTableDataChanged();
+        return true;
+    }
+}
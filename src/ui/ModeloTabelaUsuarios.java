@@ -0,0 +1,96 @@
+package ui;
+
+import java.util.List;
+import models.Administrador;
+import models.Aluno;
+import models.Coordenador;
+import models.Professor;
+import models.Sistema;
+import models.Usuario;
+
+/**
+ * ModeloTabelaUsuarios.java
+ *
+ * Usuários para a tabela do painel de gerenciamento, em ordem alfabética
+ * ou de ID (as duas vêm prontas do Sistema) ou na ordem de semelhança de
+ * uma busca por nome.
+ */
+class ModeloTabelaUsuarios extends ModeloTabelaPaginada<Usuario> {
+    static final int COLUNA_ID = 0;
+    static final int COLUNA_NOME = 1;
+
+    private final Sistema sistema;
+
+    ModeloTabelaUsuarios(Sistema sistema, Tarefas tarefas) {
+        super(tarefas, "ID", "Nome", "Tipo", "Email", "CPF", "Ativo", "Detalhes");
+        this.sistema = sistema;
+    }
+
+    void listarPorNome() {
+        setFaixa(sistema::faixaUsuariosPorNome, sistema.contarUsuarios());
+    }
+
+    void listarPorId() {
+        setFaixa(sistema::faixaUsuarios, sistema.contarUsuarios());
+    }
+
+    /**
+     * Ordena pela coluna, se o Sistema tiver essa ordem pronta (nome ou
+     * ID). Retorna false para as demais colunas.
+     */
+    boolean ordenarPor(int coluna) {
+        if (coluna == COLUNA_NOME) {
+            listarPorNome();
+        } else if (coluna == COLUNA_ID) {
+            listarPorId();
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Mostra só os usuários encontrados, na ordem em que vieram.
+     */
+    void mostrar(List<Usuario> encontrados) {
+        setFaixa((inicio, quantidade) -> encontrados.subList(Math.min(inicio, encontrados.size()),
+                Math.min(inicio + quantidade, encontrados.size())), encontrados.size());
+    }
+
+    @Override
+    protected Object valor(Usuario u, int coluna) {
+        switch (coluna) {
+            case COLUNA_ID:
+                return u.getId();
+            case COLUNA_NOME:
+                return u.getNome();
+            case 2:
+                return u.getTipoUsuario();
+            case 3:
+                return u.getEmail();
+            case 4:
+                return u.getCpf();
+            case 5:
+                return u.isAtivo() ? "Sim" : "Não";
+            default:
+                return detalhes(u);
+        }
+    }
+
+    /**
+     * Informações específicas por tipo.
+     */
+    private static String detalhes(Usuario u) {
+        if (u instanceof Aluno aluno) {
+            return String.format("Matrícula: %s | Curso: %s | Semestre: %d",
+                    aluno.getMatricula(), aluno.getCurso(), aluno.getSemestre());
+        } else if (u instanceof Professor professor) {
+            return String.format("Área: %s | Titulação: %s", professor.getArea(), professor.getTitulacao());
+        } else if (u instanceof Coordenador coord) {
+            return String.format("Curso Coordenado: %s", coord.getCurso());
+        } else if (u instanceof Administrador admin) {
+            return String.format("Nível de Acesso: %s", admin.getNivelAcesso());
+        }
+        return "";
+    }
+}
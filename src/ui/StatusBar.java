@@ -7,10 +7,15 @@ import javax.swing.*;
  * StatusBar.java
  *
  * Barra de status fixa na parte inferior da janela:
- * Exibe mensagens de contexto (por exemplo, "Você está em: Home").
+ * Exibe mensagens de contexto (por exemplo, "Você está em: Home") e, à
+ * direita, o andamento da tarefa em segundo plano (ver Tarefas), com o
+ * botão para cancelá-la.
  */
 public class StatusBar extends JPanel {
     public JLabel lblStatus;
+    private final JProgressBar barraProgresso;
+    final JButton btnCancelar;
+    private Runnable acaoCancelar;
 
     public StatusBar() {
         setLayout(new BorderLayout());
@@ -23,6 +28,29 @@ public class StatusBar extends JPanel {
         lblStatus.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 0));
 
         add(lblStatus, BorderLayout.WEST);
+
+        // Andamento da tarefa (escondido quando não há nenhuma)
+        barraProgresso = new JProgressBar(0, 100);
+        barraProgresso.setPreferredSize(new Dimension(160, 14));
+        barraProgresso.setStringPainted(true);
+        btnCancelar = new JButton("Cancelar");
+        btnCancelar.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        btnCancelar.setMargin(new Insets(0, 6, 0, 6));
+        btnCancelar.addActionListener(e -> {
+            if (acaoCancelar != null) {
+                btnCancelar.setEnabled(false);
+                lblStatus.setText(lblStatus.getText() + " (cancelando...)");
+                acaoCancelar.run();
+            }
+        });
+
+        JPanel tarefa = new JPanel(new FlowLayout(FlowLayout.RIGHT, 6, 2));
+        tarefa.setOpaque(false);
+        tarefa.add(barraProgresso);
+        tarefa.add(btnCancelar);
+        add(tarefa, BorderLayout.EAST);
+        barraProgresso.setVisible(false);
+        btnCancelar.setVisible(false);
     }
 
     /**
@@ -31,4 +59,39 @@ public class StatusBar extends JPanel {
     public void setStatus(String message) {
         lblStatus.setText(message);
     }
-}
\ No newline at end of file
+
+    /**
+     * Mostra o início de uma tarefa, com progresso ainda desconhecido.
+     *
+     * @param cancelar chamado pelo botão Cancelar; null se a tarefa não
+     *                 pode ser cancelada
+     */
+    void iniciarTarefa(String descricao, Runnable cancelar) {
+        acaoCancelar = cancelar;
+        setStatus(descricao + "...");
+        barraProgresso.setIndeterminate(true);
+        barraProgresso.setString("");
+        barraProgresso.setVisible(true);
+        btnCancelar.setEnabled(true);
+        btnCancelar.setVisible(cancelar != null);
+    }
+
+    /**
+     * Progresso informado pela tarefa em andamento (0 a 100).
+     */
+    void progressoTarefa(int percentual) {
+        barraProgresso.setIndeterminate(false);
+        barraProgresso.setValue(percentual);
+        barraProgresso.setString(percentual + "%");
+    }
+
+    /**
+     * Esconde o andamento e deixa a mensagem final.
+     */
+    void terminarTarefa(String mensagem) {
+        acaoCancelar = null;
+        barraProgresso.setVisible(false);
+        btnCancelar.setVisible(false);
+        setStatus(mensagem);
+    }
+}
@@ -0,0 +1,299 @@
+package ui;
+
+import java.awt.Cursor;
+import java.awt.Point;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import relatorios.Cancelamento;
+
+/**
+ * Tarefas.java
+ *
+ * Executa fora da thread de eventos (EDT) o que lê ou grava muitos dados
+ * (relatórios, exportações, importação do CSV, registro de frequência,
+ * salvamento na saída), para a janela não congelar. Cada tarefa é um
+ * SwingWorker; o trabalho roda numa thread própria, uma tarefa por vez
+ * (o Sistema não aceita duas alterações ao mesmo tempo), e o resultado
+ * volta para a EDT em aoConcluir.
+ *
+ * Enquanto a tarefa roda, a StatusBar mostra a descrição, o progresso
+ * informado pelo trabalho e, se ela for cancelável, o botão Cancelar. O
+ * cancelamento é cooperativo: o trabalho consulta o Cancelamento do
+ * Andamento nos pontos em que parar é seguro.
+ *
+ * Tarefas que alteram dados bloqueiam cliques e teclado na janela até
+ * terminar (a janela continua sendo redesenhada e o Cancelar continua
+ * funcionando, também pelo Esc), para a interface não consultar o
+ * Sistema no meio da alteração.
+ *
+ * Leituras curtas pedidas pela interface (páginas das tabelas, sugestões
+ * de alunos) usam consultar(): rodam numa thread própria, "consultas", sem
+ * aparecer na StatusBar, e o resultado volta para a EDT. Assim uma
+ * exportação demorada na fila das tarefas não atrasa a interface; a ordem
+ * em relação às gravações fica com a trava de leitura e escrita do
+ * Sistema.
+ *
+ * Uso:
+ *
+ *   tarefas.nova("Exportando CSV")
+ *          .cancelavel()
+ *          .executar(andamento -> { ...; return arquivo; },
+ *                  arquivo -> JOptionPane.showMessageDialog(...));
+ */
+final class Tarefas {
+
+    /**
+     * O trabalho da tarefa, executado fora da EDT.
+     */
+    @FunctionalInterface
+    interface Trabalho<T> {
+        T executar(Andamento andamento) throws Exception;
+    }
+
+    /**
+     * Ligação do trabalho com a tarefa: informa o progresso e diz se o
+     * cancelamento foi pedido.
+     */
+    static final class Andamento {
+        private final Cancelamento cancelamento = new Cancelamento();
+        private Consumer<Integer> progresso = p -> { };
+
+        /**
+         * Percentual concluído (0 a 100); pode ser chamado de qualquer thread.
+         */
+        void informar(int percentual) {
+            progresso.accept(Math.max(0, Math.min(100, percentual)));
+        }
+
+        Cancelamento getCancelamento() {
+            return cancelamento;
+        }
+
+        /**
+         * Lança CancellationException se o cancelamento foi pedido.
+         */
+        void verificar() {
+            cancelamento.verificar();
+        }
+    }
+
+    /**
+     * Configuração de uma tarefa antes de executá-la.
+     */
+    final class Tarefa {
+        private final String descricao;
+        private boolean cancelavel;
+        private boolean alteraDados;
+        private Consumer<Throwable> aoFalhar;
+
+        private Tarefa(String descricao) {
+            this.descricao = descricao;
+            this.aoFalhar = erro -> JOptionPane.showMessageDialog(janela,
+                    descricao + ": erro\n" + erro.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+        }
+
+        /**
+         * Mostra o botão Cancelar enquanto a tarefa roda.
+         */
+        Tarefa cancelavel() {
+            this.cancelavel = true;
+            return this;
+        }
+
+        /**
+         * Bloqueia a entrada na janela até a tarefa terminar.
+         */
+        Tarefa alterandoDados() {
+            this.alteraDados = true;
+            return this;
+        }
+
+        /**
+         * Troca a mensagem de erro padrão (executado na EDT).
+         */
+        Tarefa aoFalhar(Consumer<Throwable> aoFalhar) {
+            this.aoFalhar = aoFalhar;
+            return this;
+        }
+
+        /**
+         * Enfileira o trabalho; aoConcluir recebe o resultado na EDT. Deve ser
+         * chamado na EDT.
+         */
+        <T> void executar(Trabalho<T> trabalho, Consumer<T> aoConcluir) {
+            if (alteraDados) {
+                bloquear();
+            }
+            Execucao<T> execucao = new Execucao<>(this, trabalho, aoConcluir);
+            executor.execute(execucao);
+        }
+    }
+
+    private final JFrame janela;
+    private final StatusBar statusBar;
+    private final BloqueioEntrada bloqueio;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "tarefas");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ExecutorService consultas = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "consultas");
+        t.setDaemon(true);
+        return t;
+    });
+    private int bloqueantes; // tarefas que alteram dados ainda não terminadas (só na EDT)
+
+    Tarefas(JFrame janela, StatusBar statusBar) {
+        this.janela = janela;
+        this.statusBar = statusBar;
+        this.bloqueio = new BloqueioEntrada(statusBar.btnCancelar);
+        janela.setGlassPane(bloqueio);
+    }
+
+    Tarefa nova(String descricao) {
+        return new Tarefa(descricao);
+    }
+
+    /**
+     * Enfileira uma leitura curta na thread de consultas (separada da fila
+     * das tarefas), sem StatusBar nem bloqueio. aoConcluir ou aoFalhar são
+     * chamados na EDT.
+     */
+    <T> void consultar(Callable<T> consulta, Consumer<T> aoConcluir, Consumer<Throwable> aoFalhar) {
+        consultas.execute(() -> {
+            T resultado;
+            try {
+                resultado = consulta.call();
+            } catch (Exception e) {
+                SwingUtilities.invokeLater(() -> aoFalhar.accept(e));
+                return;
+            }
+            SwingUtilities.invokeLater(() -> aoConcluir.accept(resultado));
+        });
+    }
+
+    private void bloquear() {
+        if (bloqueantes++ == 0) {
+            bloqueio.setVisible(true);
+            bloqueio.requestFocusInWindow();
+        }
+    }
+
+    private void desbloquear() {
+        if (--bloqueantes == 0) {
+            bloqueio.setVisible(false);
+        }
+    }
+
+    private final class Execucao<T> extends SwingWorker<T, Void> {
+        private final Tarefa tarefa;
+        private final Trabalho<T> trabalho;
+        private final Consumer<T> aoConcluir;
+        private final Andamento andamento = new Andamento();
+
+        Execucao(Tarefa tarefa, Trabalho<T> trabalho, Consumer<T> aoConcluir) {
+            this.tarefa = tarefa;
+            this.trabalho = trabalho;
+            this.aoConcluir = aoConcluir;
+            andamento.progresso = this::setProgress;
+            addPropertyChangeListener(e -> {
+                if ("progress".equals(e.getPropertyName())) {
+                    statusBar.progressoTarefa((Integer) e.getNewValue());
+                }
+            });
+        }
+
+        @Override
+        protected T doInBackground() throws Exception {
+            Runnable cancelar = tarefa.cancelavel ? andamento.cancelamento::cancelar : null;
+            SwingUtilities.invokeLater(() -> statusBar.iniciarTarefa(tarefa.descricao, cancelar));
+            return trabalho.executar(andamento);
+        }
+
+        @Override
+        protected void done() {
+            if (tarefa.alteraDados) {
+                desbloquear();
+            }
+            T resultado;
+            try {
+                resultado = get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                Throwable causa = e.getCause();
+                if (causa instanceof CancellationException) {
+                    statusBar.terminarTarefa(tarefa.descricao + ": cancelado");
+                    return;
+                }
+                System.err.println(" Erro na tarefa '" + tarefa.descricao + "': " + causa.getMessage());
+                statusBar.terminarTarefa(tarefa.descricao + ": erro");
+                tarefa.aoFalhar.accept(causa);
+                return;
+            }
+            statusBar.terminarTarefa(tarefa.descricao + ": concluído");
+            aoConcluir.accept(resultado);
+        }
+    }
+
+    /**
+     * Painel transparente sobre a janela que consome cliques, rolagem e
+     * teclado. O Cancelar da StatusBar fica por baixo dele, então o clique
+     * sobre o botão (e o Esc) é repassado.
+     */
+    private static final class BloqueioEntrada extends JComponent {
+        BloqueioEntrada(JButton btnCancelar) {
+            setOpaque(false);
+            setFocusable(true);
+            setFocusTraversalKeysEnabled(false);
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            MouseAdapter consumir = new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    Point p = SwingUtilities.convertPoint(BloqueioEntrada.this, e.getPoint(), btnCancelar);
+                    if (btnCancelar.isShowing() && btnCancelar.isEnabled() && btnCancelar.contains(p)) {
+                        btnCancelar.doClick();
+                    }
+                }
+            };
+            addMouseListener(consumir);
+            addMouseMotionListener(consumir);
+            addMouseWheelListener(consumir);
+            addKeyListener(new KeyAdapter() {
+                @Override
+                public void keyPressed(KeyEvent e) {
+                    if (e.getKeyCode() == KeyEvent.VK_ESCAPE && btnCancelar.isShowing() && btnCancelar.isEnabled()) {
+                        btnCancelar.doClick();
+                    }
+                    e.consume();
+                }
+
+                @Override
+                public void keyTyped(KeyEvent e) {
+                    e.consume();
+                }
+
+                @Override
+                public void keyReleased(KeyEvent e) {
+                    e.consume();
+                }
+            });
+        }
+    }
+}